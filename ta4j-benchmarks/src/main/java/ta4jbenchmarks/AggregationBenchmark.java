@@ -0,0 +1,96 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package ta4jbenchmarks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.aggregator.BaseBarSeriesAggregator;
+import org.ta4j.core.aggregator.DurationBarAggregator;
+import org.ta4j.core.aggregator.ParallelDurationBarAggregator;
+import org.ta4j.core.aggregator.StreamingDurationBarAggregator;
+
+/**
+ * Aggregation of 1 minute bars into 1 hour bars (and into 5 minutes, 1 hour and
+ * 1 day bars for the parallel aggregator).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AggregationBenchmark {
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int barCount;
+
+    @Param
+    public NumType numType;
+
+    private BarSeries series;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        series = RandomWalkBars.series(barCount, numType);
+    }
+
+    @Benchmark
+    public BarSeries durationAggregator() {
+        return new BaseBarSeriesAggregator(new DurationBarAggregator(Duration.ofHours(1))).aggregate(series,
+                "hourly");
+    }
+
+    @Benchmark
+    public Map<Duration, BarSeries> parallelDurationAggregator() {
+        return new ParallelDurationBarAggregator(
+                Arrays.asList(Duration.ofMinutes(5), Duration.ofHours(1), Duration.ofDays(1))).aggregateAll(series);
+    }
+
+    @Benchmark
+    public void streamingDurationAggregator(Blackhole blackhole) {
+        StreamingDurationBarAggregator aggregator = new StreamingDurationBarAggregator(blackhole::consume,
+                Duration.ofHours(1), RandomWalkBars.START);
+        for (int i = series.getBeginIndex(); i <= series.getEndIndex(); i++) {
+            aggregator.addBar(series.getBar(i));
+        }
+        aggregator.flush();
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package ta4jbenchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BarSeriesManager;
+import org.ta4j.core.BaseStrategy;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.cost.LinearBorrowingCostModel;
+import org.ta4j.core.cost.LinearTransactionCostModel;
+import org.ta4j.core.indicators.RSIIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.rules.CrossedDownIndicatorRule;
+import org.ta4j.core.rules.CrossedUpIndicatorRule;
+import org.ta4j.core.rules.OverIndicatorRule;
+import org.ta4j.core.rules.StopGainRule;
+import org.ta4j.core.rules.StopLossRule;
+import org.ta4j.core.rules.UnderIndicatorRule;
+
+/**
+ * Full backtests: {@link BarSeriesManager#run(Strategy)} of new strategies
+ * (i.e. including the evaluation of their indicators), with trading costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class BacktestBenchmark {
+
+    /**
+     * The backtested strategies.
+     */
+    public enum StrategyType {
+
+        SMA_CROSSOVER(series -> {
+            ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+            SMAIndicator shortSma = new SMAIndicator(closePrice, 10);
+            SMAIndicator longSma = new SMAIndicator(closePrice, 50);
+            return new BaseStrategy(new CrossedUpIndicatorRule(shortSma, longSma),
+                    new CrossedDownIndicatorRule(shortSma, longSma));
+        }),
+
+        SMA_CROSSOVER_WITH_STOPS(series -> {
+            ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+            SMAIndicator shortSma = new SMAIndicator(closePrice, 10);
+            SMAIndicator longSma = new SMAIndicator(closePrice, 50);
+            return new BaseStrategy(new CrossedUpIndicatorRule(shortSma, longSma),
+                    new CrossedDownIndicatorRule(shortSma, longSma).or(new StopLossRule(closePrice, 1))
+                            .or(new StopGainRule(closePrice, 2)));
+        }),
+
+        RSI2(series -> {
+            ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+            SMAIndicator shortSma = new SMAIndicator(closePrice, 5);
+            SMAIndicator longSma = new SMAIndicator(closePrice, 200);
+            RSIIndicator rsi = new RSIIndicator(closePrice, 2);
+            return new BaseStrategy(
+                    new OverIndicatorRule(shortSma, longSma).and(new CrossedDownIndicatorRule(rsi, 5))
+                            .and(new OverIndicatorRule(shortSma, closePrice)),
+                    new UnderIndicatorRule(shortSma, longSma).and(new CrossedUpIndicatorRule(rsi, 95))
+                            .and(new UnderIndicatorRule(shortSma, closePrice)));
+        });
+
+        private final Function<BarSeries, Strategy> factory;
+
+        StrategyType(Function<BarSeries, Strategy> factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * @param series the bar series
+         * @return a new strategy for the series
+         */
+        public Strategy create(BarSeries series) {
+            return factory.apply(series);
+        }
+    }
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int barCount;
+
+    @Param
+    public NumType numType;
+
+    @Param
+    public StrategyType strategyType;
+
+    private BarSeriesManager manager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = new BarSeriesManager(RandomWalkBars.series(barCount, numType),
+                new LinearTransactionCostModel(0.001), new LinearBorrowingCostModel(0.0001));
+    }
+
+    @Benchmark
+    public TradingRecord run() {
+        return manager.run(strategyType.create(manager.getBarSeries()));
+    }
+}
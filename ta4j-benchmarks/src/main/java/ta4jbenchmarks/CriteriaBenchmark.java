@@ -0,0 +1,150 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package ta4jbenchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ta4j.core.AnalysisCriterion;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BarSeriesManager;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.criteria.AverageReturnPerBarCriterion;
+import org.ta4j.core.analysis.criteria.BuyAndHoldReturnCriterion;
+import org.ta4j.core.analysis.criteria.ExpectancyCriterion;
+import org.ta4j.core.analysis.criteria.ExpectedShortfallCriterion;
+import org.ta4j.core.analysis.criteria.LinearTransactionCostCriterion;
+import org.ta4j.core.analysis.criteria.MaximumDrawdownCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfConsecutiveWinningPositionsCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfPositionsCriterion;
+import org.ta4j.core.analysis.criteria.ReturnOverMaxDrawdownCriterion;
+import org.ta4j.core.analysis.criteria.ValueAtRiskCriterion;
+import org.ta4j.core.analysis.criteria.VersusBuyAndHoldCriterion;
+import org.ta4j.core.analysis.criteria.WinningPositionsRatioCriterion;
+import org.ta4j.core.analysis.criteria.pnl.AverageProfitCriterion;
+import org.ta4j.core.analysis.criteria.pnl.GrossReturnCriterion;
+import org.ta4j.core.analysis.criteria.pnl.NetProfitCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossRatioCriterion;
+import org.ta4j.core.num.Num;
+
+/**
+ * Evaluation of the {@link AnalysisCriterion analysis criteria} on the trading
+ * record of a backtest (with many positions).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class CriteriaBenchmark {
+
+    /**
+     * The evaluated criteria.
+     */
+    public enum Criterion {
+
+        GROSS_RETURN(GrossReturnCriterion::new),
+
+        NET_PROFIT(NetProfitCriterion::new),
+
+        AVERAGE_PROFIT(AverageProfitCriterion::new),
+
+        PROFIT_LOSS_RATIO(ProfitLossRatioCriterion::new),
+
+        AVERAGE_RETURN_PER_BAR(AverageReturnPerBarCriterion::new),
+
+        BUY_AND_HOLD_RETURN(BuyAndHoldReturnCriterion::new),
+
+        VERSUS_BUY_AND_HOLD(() -> new VersusBuyAndHoldCriterion(new GrossReturnCriterion())),
+
+        EXPECTANCY(ExpectancyCriterion::new),
+
+        WINNING_POSITIONS_RATIO(WinningPositionsRatioCriterion::new),
+
+        NUMBER_OF_POSITIONS(NumberOfPositionsCriterion::new),
+
+        NUMBER_OF_CONSECUTIVE_WINNING_POSITIONS(NumberOfConsecutiveWinningPositionsCriterion::new),
+
+        LINEAR_TRANSACTION_COST(() -> new LinearTransactionCostCriterion(1000, 0.005, 0.2)),
+
+        MAXIMUM_DRAWDOWN(MaximumDrawdownCriterion::new),
+
+        RETURN_OVER_MAXIMUM_DRAWDOWN(ReturnOverMaxDrawdownCriterion::new),
+
+        VALUE_AT_RISK(() -> new ValueAtRiskCriterion(0.95)),
+
+        EXPECTED_SHORTFALL(() -> new ExpectedShortfallCriterion(0.95));
+
+        private final Supplier<AnalysisCriterion> factory;
+
+        Criterion(Supplier<AnalysisCriterion> factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * @return a new criterion
+         */
+        public AnalysisCriterion create() {
+            return factory.get();
+        }
+    }
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int barCount;
+
+    @Param
+    public NumType numType;
+
+    @Param
+    public Criterion criterion;
+
+    private BarSeries series;
+
+    private TradingRecord tradingRecord;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BarSeriesManager manager = new BarSeriesManager(RandomWalkBars.series(barCount, numType));
+        series = manager.getBarSeries();
+        tradingRecord = manager.run(BacktestBenchmark.StrategyType.SMA_CROSSOVER.create(series));
+    }
+
+    @Benchmark
+    public Num calculate() {
+        return criterion.create().calculate(series, tradingRecord);
+    }
+}
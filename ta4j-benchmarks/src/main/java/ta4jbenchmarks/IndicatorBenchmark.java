@@ -0,0 +1,115 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package ta4jbenchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+
+/**
+ * Evaluation of the indicators of every {@link IndicatorFamily family} over a
+ * whole series, from new indicators (i.e. empty caches).
+ *
+ * <ul>
+ * <li>{@code inOrder}: from the first bar to the last one, as a backtest
+ * <li>{@code randomAccess}: in a random order, as a chart or an optimizer
+ * reading arbitrary bars
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class IndicatorBenchmark {
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int barCount;
+
+    @Param
+    public NumType numType;
+
+    @Param
+    public IndicatorFamily family;
+
+    private BarSeries series;
+
+    /** A permutation of the indexes of the series */
+    private int[] randomIndexes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        series = RandomWalkBars.series(barCount, numType);
+        randomIndexes = new int[barCount];
+        for (int i = 0; i < barCount; i++) {
+            randomIndexes[i] = i;
+        }
+        Random random = new Random(RandomWalkBars.SEED);
+        for (int i = barCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int index = randomIndexes[i];
+            randomIndexes[i] = randomIndexes[j];
+            randomIndexes[j] = index;
+        }
+    }
+
+    @Benchmark
+    public void inOrder(Blackhole blackhole) {
+        // one indicator at a time, so that the caches of the largest series fit in
+        // memory
+        for (Function<BarSeries, Indicator<?>> factory : family.getIndicators()) {
+            Indicator<?> indicator = factory.apply(series);
+            for (int i = series.getBeginIndex(); i <= series.getEndIndex(); i++) {
+                blackhole.consume(indicator.getValue(i));
+            }
+        }
+    }
+
+    @Benchmark
+    public void randomAccess(Blackhole blackhole) {
+        for (Function<BarSeries, Indicator<?>> factory : family.getIndicators()) {
+            Indicator<?> indicator = factory.apply(series);
+            for (int index : randomIndexes) {
+                blackhole.consume(indicator.getValue(index));
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package ta4jbenchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.ATRIndicator;
+import org.ta4j.core.indicators.AroonDownIndicator;
+import org.ta4j.core.indicators.AroonOscillatorIndicator;
+import org.ta4j.core.indicators.AroonUpIndicator;
+import org.ta4j.core.indicators.AwesomeOscillatorIndicator;
+import org.ta4j.core.indicators.CCIIndicator;
+import org.ta4j.core.indicators.CMOIndicator;
+import org.ta4j.core.indicators.ChandelierExitLongIndicator;
+import org.ta4j.core.indicators.ChandelierExitShortIndicator;
+import org.ta4j.core.indicators.ChopIndicator;
+import org.ta4j.core.indicators.CoppockCurveIndicator;
+import org.ta4j.core.indicators.DPOIndicator;
+import org.ta4j.core.indicators.DoubleEMAIndicator;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.FisherIndicator;
+import org.ta4j.core.indicators.HMAIndicator;
+import org.ta4j.core.indicators.KAMAIndicator;
+import org.ta4j.core.indicators.KSTIndicator;
+import org.ta4j.core.indicators.LWMAIndicator;
+import org.ta4j.core.indicators.MACDIndicator;
+import org.ta4j.core.indicators.MMAIndicator;
+import org.ta4j.core.indicators.MassIndexIndicator;
+import org.ta4j.core.indicators.PPOIndicator;
+import org.ta4j.core.indicators.ParabolicSarIndicator;
+import org.ta4j.core.indicators.RAVIIndicator;
+import org.ta4j.core.indicators.ROCIndicator;
+import org.ta4j.core.indicators.RSIIndicator;
+import org.ta4j.core.indicators.RWIHighIndicator;
+import org.ta4j.core.indicators.RWILowIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.StochasticOscillatorDIndicator;
+import org.ta4j.core.indicators.StochasticOscillatorKIndicator;
+import org.ta4j.core.indicators.StochasticRSIIndicator;
+import org.ta4j.core.indicators.TripleEMAIndicator;
+import org.ta4j.core.indicators.UlcerIndexIndicator;
+import org.ta4j.core.indicators.WMAIndicator;
+import org.ta4j.core.indicators.WilliamsRIndicator;
+import org.ta4j.core.indicators.ZLEMAIndicator;
+import org.ta4j.core.indicators.adx.ADXIndicator;
+import org.ta4j.core.indicators.adx.MinusDIIndicator;
+import org.ta4j.core.indicators.adx.PlusDIIndicator;
+import org.ta4j.core.indicators.bollinger.BollingerBandWidthIndicator;
+import org.ta4j.core.indicators.bollinger.BollingerBandsLowerIndicator;
+import org.ta4j.core.indicators.bollinger.BollingerBandsMiddleIndicator;
+import org.ta4j.core.indicators.bollinger.BollingerBandsUpperIndicator;
+import org.ta4j.core.indicators.bollinger.PercentBIndicator;
+import org.ta4j.core.indicators.candles.BearishEngulfingIndicator;
+import org.ta4j.core.indicators.candles.BearishHaramiIndicator;
+import org.ta4j.core.indicators.candles.BullishEngulfingIndicator;
+import org.ta4j.core.indicators.candles.BullishHaramiIndicator;
+import org.ta4j.core.indicators.candles.DojiIndicator;
+import org.ta4j.core.indicators.candles.ThreeBlackCrowsIndicator;
+import org.ta4j.core.indicators.candles.ThreeWhiteSoldiersIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.indicators.helpers.VolumeIndicator;
+import org.ta4j.core.indicators.ichimoku.IchimokuChikouSpanIndicator;
+import org.ta4j.core.indicators.ichimoku.IchimokuKijunSenIndicator;
+import org.ta4j.core.indicators.ichimoku.IchimokuSenkouSpanAIndicator;
+import org.ta4j.core.indicators.ichimoku.IchimokuSenkouSpanBIndicator;
+import org.ta4j.core.indicators.ichimoku.IchimokuTenkanSenIndicator;
+import org.ta4j.core.indicators.keltner.KeltnerChannelLowerIndicator;
+import org.ta4j.core.indicators.keltner.KeltnerChannelMiddleIndicator;
+import org.ta4j.core.indicators.keltner.KeltnerChannelUpperIndicator;
+import org.ta4j.core.indicators.pivotpoints.PivotPointIndicator;
+import org.ta4j.core.indicators.pivotpoints.TimeLevel;
+import org.ta4j.core.indicators.statistics.CorrelationCoefficientIndicator;
+import org.ta4j.core.indicators.statistics.CovarianceIndicator;
+import org.ta4j.core.indicators.statistics.MeanDeviationIndicator;
+import org.ta4j.core.indicators.statistics.SigmaIndicator;
+import org.ta4j.core.indicators.statistics.SimpleLinearRegressionIndicator;
+import org.ta4j.core.indicators.statistics.StandardDeviationIndicator;
+import org.ta4j.core.indicators.statistics.StandardErrorIndicator;
+import org.ta4j.core.indicators.statistics.VarianceIndicator;
+import org.ta4j.core.indicators.volume.AccumulationDistributionIndicator;
+import org.ta4j.core.indicators.volume.ChaikinMoneyFlowIndicator;
+import org.ta4j.core.indicators.volume.ChaikinOscillatorIndicator;
+import org.ta4j.core.indicators.volume.IIIIndicator;
+import org.ta4j.core.indicators.volume.MVWAPIndicator;
+import org.ta4j.core.indicators.volume.NVIIndicator;
+import org.ta4j.core.indicators.volume.OnBalanceVolumeIndicator;
+import org.ta4j.core.indicators.volume.PVIIndicator;
+import org.ta4j.core.indicators.volume.ROCVIndicator;
+import org.ta4j.core.indicators.volume.VWAPIndicator;
+
+/**
+ * The indicator families (i.e. the packages of the indicators and the groups
+ * of the main package), with their usual parameters.
+ */
+public enum IndicatorFamily {
+
+    MOVING_AVERAGES(s -> new SMAIndicator(close(s), 20), s -> new EMAIndicator(close(s), 20),
+            s -> new WMAIndicator(close(s), 20), s -> new LWMAIndicator(close(s), 20),
+            s -> new MMAIndicator(close(s), 20), s -> new HMAIndicator(close(s), 20),
+            s -> new ZLEMAIndicator(close(s), 20), s -> new DoubleEMAIndicator(close(s), 20),
+            s -> new TripleEMAIndicator(close(s), 20), s -> new KAMAIndicator(close(s))),
+
+    MOMENTUM(s -> new RSIIndicator(close(s), 14), s -> new ROCIndicator(close(s), 12), s -> new CCIIndicator(s, 20),
+            s -> new CMOIndicator(close(s), 14), s -> new StochasticOscillatorKIndicator(s, 14),
+            s -> new StochasticOscillatorDIndicator(new StochasticOscillatorKIndicator(s, 14)),
+            s -> new StochasticRSIIndicator(s, 14), s -> new WilliamsRIndicator(s, 14),
+            s -> new MACDIndicator(close(s)), s -> new PPOIndicator(close(s)), s -> new KSTIndicator(close(s)),
+            s -> new CoppockCurveIndicator(close(s)), s -> new AwesomeOscillatorIndicator(s),
+            s -> new FisherIndicator(s), s -> new DPOIndicator(s, 20)),
+
+    TREND(s -> new ADXIndicator(s, 14), s -> new PlusDIIndicator(s, 14), s -> new MinusDIIndicator(s, 14),
+            s -> new AroonUpIndicator(s, 25), s -> new AroonDownIndicator(s, 25),
+            s -> new AroonOscillatorIndicator(s, 25), s -> new ParabolicSarIndicator(s),
+            s -> new ChopIndicator(s, 14, 100), s -> new RWIHighIndicator(s, 14), s -> new RWILowIndicator(s, 14),
+            s -> new RAVIIndicator(close(s), 7, 65), s -> new MassIndexIndicator(s, 9, 25)),
+
+    VOLATILITY(s -> new ATRIndicator(s, 14), s -> bollingerBandWidth(s), s -> new PercentBIndicator(close(s), 20, 2),
+            s -> new KeltnerChannelUpperIndicator(new KeltnerChannelMiddleIndicator(s, 20), 2, 10),
+            s -> new KeltnerChannelLowerIndicator(new KeltnerChannelMiddleIndicator(s, 20), 2, 10),
+            s -> new UlcerIndexIndicator(close(s), 14), s -> new ChandelierExitLongIndicator(s),
+            s -> new ChandelierExitShortIndicator(s)),
+
+    VOLUME(s -> new OnBalanceVolumeIndicator(s), s -> new AccumulationDistributionIndicator(s),
+            s -> new ChaikinMoneyFlowIndicator(s, 20), s -> new ChaikinOscillatorIndicator(s),
+            s -> new VWAPIndicator(s, 20), s -> new MVWAPIndicator(new VWAPIndicator(s, 20), 20),
+            s -> new NVIIndicator(s), s -> new PVIIndicator(s), s -> new ROCVIndicator(s, 12),
+            s -> new IIIIndicator(s)),
+
+    STATISTICS(s -> new StandardDeviationIndicator(close(s), 20), s -> new VarianceIndicator(close(s), 20),
+            s -> new MeanDeviationIndicator(close(s), 20), s -> new StandardErrorIndicator(close(s), 20),
+            s -> new SigmaIndicator(close(s), 20), s -> new SimpleLinearRegressionIndicator(close(s), 20),
+            s -> new CovarianceIndicator(close(s), new VolumeIndicator(s), 20),
+            s -> new CorrelationCoefficientIndicator(close(s), new VolumeIndicator(s), 20)),
+
+    ICHIMOKU(s -> new IchimokuTenkanSenIndicator(s), s -> new IchimokuKijunSenIndicator(s),
+            s -> new IchimokuSenkouSpanAIndicator(s), s -> new IchimokuSenkouSpanBIndicator(s),
+            s -> new IchimokuChikouSpanIndicator(s)),
+
+    PIVOT_POINTS(s -> new PivotPointIndicator(s, TimeLevel.DAY)),
+
+    CANDLES(s -> new BullishEngulfingIndicator(s), s -> new BearishEngulfingIndicator(s),
+            s -> new BullishHaramiIndicator(s), s -> new BearishHaramiIndicator(s), s -> new DojiIndicator(s, 10, 0.03),
+            s -> new ThreeWhiteSoldiersIndicator(s, 3, s.numOf(0.3)), s -> new ThreeBlackCrowsIndicator(s, 3, 0.3));
+
+    private final List<Function<BarSeries, Indicator<?>>> indicators;
+
+    @SafeVarargs
+    IndicatorFamily(Function<BarSeries, Indicator<?>>... indicators) {
+        this.indicators = Arrays.asList(indicators);
+    }
+
+    /**
+     * @return the factories of the indicators of the family
+     */
+    public List<Function<BarSeries, Indicator<?>>> getIndicators() {
+        return indicators;
+    }
+
+    private static ClosePriceIndicator close(BarSeries series) {
+        return new ClosePriceIndicator(series);
+    }
+
+    private static BollingerBandWidthIndicator bollingerBandWidth(BarSeries series) {
+        ClosePriceIndicator close = close(series);
+        BollingerBandsMiddleIndicator middle = new BollingerBandsMiddleIndicator(new SMAIndicator(close, 20));
+        StandardDeviationIndicator deviation = new StandardDeviationIndicator(close, 20);
+        return new BollingerBandWidthIndicator(new BollingerBandsUpperIndicator(middle, deviation), middle,
+                new BollingerBandsLowerIndicator(middle, deviation));
+    }
+}
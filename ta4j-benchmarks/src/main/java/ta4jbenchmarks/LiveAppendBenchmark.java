@@ -0,0 +1,109 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package ta4jbenchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ta4j.core.CompactBarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.ATRIndicator;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.MACDIndicator;
+import org.ta4j.core.indicators.RSIIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.adx.ADXIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.indicators.volume.OnBalanceVolumeIndicator;
+import org.ta4j.core.num.Num;
+
+/**
+ * Live trading workload: a bar is appended to a series limited to a
+ * {@code maximumBarCount}, then the indicators are evaluated on the new bar.
+ *
+ * The indicators live as long as the series (as in a trading bot), so the
+ * benchmark covers the removal of the old bars and the cached values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LiveAppendBenchmark {
+
+    @Param({ "500", "5000" })
+    public int maximumBarCount;
+
+    @Param
+    public NumType numType;
+
+    private CompactBarSeries series;
+
+    private RandomWalkBars bars;
+
+    private List<Indicator<Num>> indicators;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        series = new CompactBarSeries("live", RandomWalkBars.TIME_PERIOD, RandomWalkBars.START.getZone(),
+                numType.function());
+        series.setMaximumBarCount(maximumBarCount);
+        bars = new RandomWalkBars(RandomWalkBars.SEED);
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        indicators = Arrays.asList(new SMAIndicator(closePrice, 50), new EMAIndicator(closePrice, 20),
+                new RSIIndicator(closePrice, 14), new MACDIndicator(closePrice), new ATRIndicator(series, 14),
+                new ADXIndicator(series, 14), new OnBalanceVolumeIndicator(series));
+        // fills the series and the caches, as a bot started before
+        for (int i = 0; i < maximumBarCount; i++) {
+            series.addBar(bars.next(series.getFrame()));
+            for (Indicator<Num> indicator : indicators) {
+                indicator.getValue(series.getEndIndex());
+            }
+        }
+    }
+
+    @Benchmark
+    public void appendBar(Blackhole blackhole) {
+        series.addBar(bars.next(series.getFrame()));
+        int endIndex = series.getEndIndex();
+        for (Indicator<Num> indicator : indicators) {
+            blackhole.consume(indicator.getValue(endIndex));
+        }
+    }
+}
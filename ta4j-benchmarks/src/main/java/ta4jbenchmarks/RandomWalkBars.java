@@ -0,0 +1,106 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package ta4jbenchmarks;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+import org.ta4j.core.CompactBar;
+import org.ta4j.core.CompactBarSeries;
+
+/**
+ * Generator of synthetic bars: a random walk of 1 minute bars, with prices in
+ * cents (as real market data).
+ *
+ * The bars are {@link CompactBar compact bars}, so that series of millions of
+ * bars fit in memory. The same seed gives the same bars.
+ */
+public class RandomWalkBars {
+
+    /** The time period of the bars */
+    public static final Duration TIME_PERIOD = Duration.ofMinutes(1);
+
+    /** The end time of the bar before the first one */
+    public static final ZonedDateTime START = ZonedDateTime.of(2000, 1, 3, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    /** The default seed */
+    public static final long SEED = 42;
+
+    private static final long NANOS_PER_MINUTE = TIME_PERIOD.toNanos();
+
+    private final Random random;
+
+    /** The last close price in cents */
+    private long closeCents = 10_000;
+
+    /** The end time of the last bar in epoch nanoseconds */
+    private long endEpochNanos = START.toEpochSecond() * 1_000_000_000L;
+
+    /**
+     * Constructor.
+     *
+     * @param seed the seed of the random walk
+     */
+    public RandomWalkBars(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Creates a series of random walk bars, with the default seed.
+     *
+     * @param barCount the number of bars
+     * @param numType  the num type of the series
+     * @return the series
+     */
+    public static CompactBarSeries series(int barCount, NumType numType) {
+        CompactBarSeries series = new CompactBarSeries("random walk " + barCount, TIME_PERIOD, ZoneOffset.UTC,
+                numType.function());
+        RandomWalkBars bars = new RandomWalkBars(SEED);
+        for (int i = 0; i < barCount; i++) {
+            series.addBar(bars.next(series.getFrame()));
+        }
+        return series;
+    }
+
+    /**
+     * @param frame the frame of the series of the bar
+     * @return the bar following the last generated one
+     */
+    public CompactBar next(CompactBar.Frame frame) {
+        endEpochNanos += NANOS_PER_MINUTE;
+        long openCents = closeCents;
+        // about 0.1% of volatility per bar, reflected above 1.00
+        long step = Math.round(random.nextGaussian() * openCents / 1000);
+        closeCents = Math.max(100, openCents + step);
+        long highCents = Math.max(openCents, closeCents) + random.nextInt(1 + (int) (openCents / 2000));
+        long lowCents = Math.max(1, Math.min(openCents, closeCents) - random.nextInt(1 + (int) (openCents / 2000)));
+        int trades = 1 + random.nextInt(100);
+        long volume = trades * (1 + random.nextInt(500));
+        double closePrice = closeCents / 100d;
+        return new CompactBar(frame, endEpochNanos, openCents / 100d, highCents / 100d, lowCents / 100d, closePrice,
+                volume, volume * closePrice, trades);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package ta4jbenchmarks;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BarSeriesManager;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.TradingRecord;
+
+public class IndicatorFamilyTest {
+
+    @Test
+    public void allFamiliesEvaluate() {
+        for (NumType numType : NumType.values()) {
+            BarSeries series = RandomWalkBars.series(500, numType);
+            for (IndicatorFamily family : IndicatorFamily.values()) {
+                assertTrue(family.getIndicators().size() > 0);
+                for (Function<BarSeries, Indicator<?>> factory : family.getIndicators()) {
+                    Indicator<?> indicator = factory.apply(series);
+                    for (int i = series.getBeginIndex(); i <= series.getEndIndex(); i++) {
+                        assertNotNull(indicator.getValue(i));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void strategiesTradeAndCriteriaEvaluate() {
+        BarSeries series = RandomWalkBars.series(5000, NumType.DOUBLE_NUM);
+        for (BacktestBenchmark.StrategyType strategyType : BacktestBenchmark.StrategyType.values()) {
+            TradingRecord tradingRecord = new BarSeriesManager(series).run(strategyType.create(series));
+            assertTrue(strategyType.name(), tradingRecord.getPositionCount() > 0);
+            for (CriteriaBenchmark.Criterion criterion : CriteriaBenchmark.Criterion.values()) {
+                assertNotNull(criterion.create().calculate(series, tradingRecord));
+            }
+        }
+    }
+}
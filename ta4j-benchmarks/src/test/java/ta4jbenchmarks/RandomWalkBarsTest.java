@@ -0,0 +1,63 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package ta4jbenchmarks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+
+public class RandomWalkBarsTest {
+
+    @Test
+    public void sameSeedSameBars() {
+        BarSeries first = RandomWalkBars.series(1000, NumType.DOUBLE_NUM);
+        BarSeries second = RandomWalkBars.series(1000, NumType.DOUBLE_NUM);
+        assertEquals(1000, first.getBarCount());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.getBar(i), second.getBar(i));
+        }
+    }
+
+    @Test
+    public void consistentBars() {
+        BarSeries series = RandomWalkBars.series(10_000, NumType.DECIMAL_NUM);
+        for (int i = 0; i < series.getBarCount(); i++) {
+            Bar bar = series.getBar(i);
+            assertEquals(RandomWalkBars.START.plus(RandomWalkBars.TIME_PERIOD.multipliedBy(i + 1)).toInstant(),
+                    bar.getEndTime().toInstant());
+            assertTrue(bar.getLowPrice().isPositive());
+            assertTrue(bar.getLowPrice().isLessThanOrEqual(bar.getOpenPrice()));
+            assertTrue(bar.getLowPrice().isLessThanOrEqual(bar.getClosePrice()));
+            assertTrue(bar.getHighPrice().isGreaterThanOrEqual(bar.getOpenPrice()));
+            assertTrue(bar.getHighPrice().isGreaterThanOrEqual(bar.getClosePrice()));
+            assertTrue(bar.getVolume().isPositive());
+            if (i > 0) {
+                assertEquals(series.getBar(i - 1).getClosePrice(), bar.getOpenPrice());
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import org.ta4j.core.num.Num;
+
+/**
+ * A trading record keeping the aggregates of its closed positions up to date as
+ * the trades are placed.
+ *
+ * The {@link org.ta4j.core.analysis.criteria criteria} read these aggregates in
+ * O(1) instead of iterating over the {@link #getPositions() positions}.
+ */
+public interface AggregatingTradingRecord extends TradingRecord {
+
+    /**
+     * @return the bar series of the trading session
+     */
+    BarSeries getBarSeries();
+
+    /**
+     * @return the number of closed positions with a profit
+     */
+    int getWinningPositionCount();
+
+    /**
+     * @return the number of closed positions with a loss
+     */
+    int getLosingPositionCount();
+
+    /**
+     * @return the number of closed positions with neither a profit nor a loss
+     */
+    int getBreakEvenPositionCount();
+
+    /**
+     * @return the sum of the profits (net of costs) of the closed positions
+     */
+    Num getProfitLoss();
+
+    /**
+     * @return the sum of the profits (net of costs) of the closed positions, in
+     *         percentage of their entry values
+     */
+    Num getProfitLossPercentage();
+
+    /**
+     * @return the sum of the profits (net of costs) of the winning positions
+     */
+    Num getNetProfit();
+
+    /**
+     * @return the sum of the losses (net of costs) of the losing positions
+     */
+    Num getNetLoss();
+
+    /**
+     * @return the sum of the gross profits of the closed positions with a gross
+     *         profit
+     */
+    Num getGrossProfit();
+
+    /**
+     * @return the sum of the gross losses of the closed positions with a gross
+     *         loss
+     */
+    Num getGrossLoss();
+
+    /**
+     * @return the product of the gross returns of the closed positions
+     */
+    Num getGrossReturn();
+}
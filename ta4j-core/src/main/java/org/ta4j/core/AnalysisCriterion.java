@@ -26,6 +26,7 @@ package org.ta4j.core;
 import java.util.List;
 
 import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.num.Num;
 
 /**
@@ -53,6 +54,17 @@ public interface AnalysisCriterion {
      */
     Num calculate(BarSeries series, TradingRecord tradingRecord);
 
+    /**
+     * Calculates the criterion value from an analysis context, reusing the cash
+     * flow, the returns and the position aggregates computed by the context.
+     *
+     * @param context the analysis context of a trading record, not null
+     * @return the criterion value for the positions
+     */
+    default Num calculate(AnalysisContext context) {
+        return calculate(context.getBarSeries(), context.getTradingRecord());
+    }
+
     /**
      * @param manager    the bar series manager with entry type of BUY
      * @param strategies a list of strategies
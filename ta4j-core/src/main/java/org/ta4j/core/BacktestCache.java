@@ -0,0 +1,412 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.num.NaN;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.utils.FingerprintUtils;
+
+/**
+ * A cache of backtest results.
+ *
+ * The results are keyed by content: the fingerprint of the strategy definition
+ * (see {@link FingerprintUtils#describe}), of the cost models, of the run
+ * parameters and of the bars of the series (up to the end of the run). Running
+ * an equal strategy over equal bars is a cache hit, which skips the simulation:
+ * the trading record is rebuilt from its cached trades.
+ *
+ * A run whose last position is still open at its end index searches for the
+ * exit beyond it (see {@link BarSeriesManager#run}). Its result is then
+ * checked, on a hit, against the bars it used beyond its end index: appending
+ * bars to a series only invalidates the results of the runs which were still
+ * holding a position at the end of the series.
+ *
+ * The results are kept in an in-memory LRU tier and, optionally, in a directory
+ * (one file per result). Strategies which cannot be fingerprinted (e.g. holding
+ * lambdas) are run without caching.
+ *
+ * This class is thread-safe.
+ */
+public class BacktestCache {
+
+    /** The logger */
+    private static final Logger log = LoggerFactory.getLogger(BacktestCache.class);
+
+    /** The header of the result files */
+    private static final int FILE_MAGIC = 0x74346263;
+    private static final int FILE_VERSION = 1;
+    private static final String FILE_SUFFIX = ".backtest";
+
+    /** The in-memory tier (access order) */
+    private final Map<String, CachedRun> entries;
+
+    /** The directory of the on-disk tier (null if none) */
+    private final Path directory;
+
+    /** The bar hashes of the series */
+    private final Map<BarSeries, FingerprintUtils.PrefixHashes> barHashes = new WeakHashMap<>();
+
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Constructor of an in-memory cache.
+     *
+     * @param maximumSize the maximum number of results kept in memory
+     */
+    public BacktestCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize the maximum number of results kept in memory
+     * @param directory   the directory of the on-disk tier (null if none)
+     */
+    public BacktestCache(int maximumSize, Path directory) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.entries = new LinkedHashMap<String, CachedRun>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedRun> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        this.directory = directory;
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Runs a strategy over the whole series of a manager, or gets its cached
+     * result.
+     *
+     * @param manager   the bar series manager
+     * @param strategy  the trading strategy
+     * @param tradeType the {@link TradeType} used to open the positions
+     * @param amount    the amount used to open/close the trades
+     * @return the trading record coming from the run
+     */
+    public TradingRecord run(BarSeriesManager manager, Strategy strategy, TradeType tradeType, Num amount) {
+        BarSeries series = manager.getBarSeries();
+        return run(manager, strategy, tradeType, amount, series.getBeginIndex(), series.getEndIndex());
+    }
+
+    /**
+     * Runs a strategy with a manager, or gets its cached result.
+     *
+     * @param manager     the bar series manager
+     * @param strategy    the trading strategy
+     * @param tradeType   the {@link TradeType} used to open the positions
+     * @param amount      the amount used to open/close the trades
+     * @param startIndex  the start index for the run (included)
+     * @param finishIndex the finish index for the run (included)
+     * @return the trading record coming from the run
+     */
+    public TradingRecord run(BarSeriesManager manager, Strategy strategy, TradeType tradeType, Num amount,
+            int startIndex, int finishIndex) {
+        BarSeries series = manager.getBarSeries();
+        int runBeginIndex = Math.max(startIndex, series.getBeginIndex());
+        int runEndIndex = Math.min(finishIndex, series.getEndIndex());
+        String key = series.isEmpty() || runBeginIndex > runEndIndex ? null
+                : key(manager, strategy, tradeType, amount, runBeginIndex, runEndIndex);
+        if (key != null) {
+            CachedRun entry = get(key);
+            if (entry != null && isValid(entry, series)) {
+                synchronized (this) {
+                    hitCount++;
+                }
+                return entry.toTradingRecord(manager, tradeType);
+            }
+        }
+        synchronized (this) {
+            missCount++;
+        }
+        TradingRecord tradingRecord = manager.run(strategy, tradeType, amount, startIndex, finishIndex);
+        if (key != null) {
+            put(key, CachedRun.of(tradingRecord, runEndIndex, series, this));
+        }
+        return tradingRecord;
+    }
+
+    /**
+     * @return the fingerprint of a run (null if the strategy cannot be
+     *         fingerprinted)
+     */
+    private String key(BarSeriesManager manager, Strategy strategy, TradeType tradeType, Num amount,
+            int runBeginIndex, int runEndIndex) {
+        BarSeries series = manager.getBarSeries();
+        StringBuilder sb = new StringBuilder();
+        try {
+            sb.append(FingerprintUtils.describe(strategy, series)).append('|');
+            sb.append(FingerprintUtils.describe(manager.getTransactionCostModel(), series)).append('|');
+            sb.append(FingerprintUtils.describe(manager.getHoldingCostModel(), series)).append('|');
+        } catch (IllegalArgumentException e) {
+            log.debug("Strategy not cacheable: {}", e.getMessage());
+            return null;
+        }
+        sb.append(tradeType).append('|').append(FingerprintUtils.describe(amount, series)).append('|');
+        sb.append(series.numOf(0).getName()).append('|').append(series.getBeginIndex()).append('|');
+        sb.append(runBeginIndex).append('|').append(runEndIndex).append('|').append(hash(series, runEndIndex));
+        return FingerprintUtils.sha256(sb.toString());
+    }
+
+    /**
+     * @return true if the bars used by the run of an entry beyond its end index
+     *         are unchanged
+     */
+    private boolean isValid(CachedRun entry, BarSeries series) {
+        if (entry.lastIndex > series.getEndIndex() || (entry.openAtEnd && entry.lastIndex != series.getEndIndex())) {
+            return false;
+        }
+        return entry.lastHash == hash(series, entry.lastIndex);
+    }
+
+    /**
+     * @return the hash of the bars of a series, from its begin index up to an
+     *         index (included)
+     */
+    private synchronized long hash(BarSeries series, int index) {
+        return barHashes.computeIfAbsent(series, s -> new FingerprintUtils.PrefixHashes()).hash(series, index);
+    }
+
+    private CachedRun get(String key) {
+        synchronized (this) {
+            CachedRun entry = entries.get(key);
+            if (entry != null || directory == null) {
+                return entry;
+            }
+        }
+        CachedRun entry = read(key);
+        if (entry != null) {
+            synchronized (this) {
+                entries.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    private void put(String key, CachedRun entry) {
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+        if (directory != null) {
+            write(key, entry);
+        }
+    }
+
+    private CachedRun read(String key) {
+        Path file = directory.resolve(key + FILE_SUFFIX);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                return null;
+            }
+            int lastIndex = in.readInt();
+            long lastHash = in.readLong();
+            boolean openAtEnd = in.readBoolean();
+            int tradeCount = in.readInt();
+            int[] indexes = new int[tradeCount];
+            String[] prices = new String[tradeCount];
+            String[] amounts = new String[tradeCount];
+            for (int i = 0; i < tradeCount; i++) {
+                indexes[i] = in.readInt();
+                prices[i] = in.readUTF();
+                amounts[i] = in.readUTF();
+            }
+            return new CachedRun(indexes, prices, amounts, lastIndex, lastHash, openAtEnd);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Cannot read backtest result {}", file, e);
+            return null;
+        }
+    }
+
+    private void write(String key, CachedRun entry) {
+        Path file = directory.resolve(key + FILE_SUFFIX);
+        try {
+            Path temporary = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeInt(entry.lastIndex);
+                out.writeLong(entry.lastHash);
+                out.writeBoolean(entry.openAtEnd);
+                out.writeInt(entry.indexes.length);
+                for (int i = 0; i < entry.indexes.length; i++) {
+                    out.writeInt(entry.indexes[i]);
+                    out.writeUTF(entry.prices[i]);
+                    out.writeUTF(entry.amounts[i]);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Cannot write backtest result {}", file, e);
+        }
+    }
+
+    /**
+     * @return the number of runs answered by the cache
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of runs simulated
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of results kept in memory
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all the results, from memory and from the directory.
+     */
+    public void clear() {
+        synchronized (this) {
+            entries.clear();
+            barHashes.clear();
+        }
+        if (directory != null) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * A cached result: the trades of the run, and the bars it used beyond its end
+     * index.
+     */
+    private static final class CachedRun {
+
+        private final int[] indexes;
+        private final String[] prices;
+        private final String[] amounts;
+
+        /** The index of the last bar used by the run */
+        private final int lastIndex;
+
+        /** The hash of the bars up to the last used one */
+        private final long lastHash;
+
+        /** True if the run was holding a position at the end of the series */
+        private final boolean openAtEnd;
+
+        private CachedRun(int[] indexes, String[] prices, String[] amounts, int lastIndex, long lastHash,
+                boolean openAtEnd) {
+            this.indexes = indexes;
+            this.prices = prices;
+            this.amounts = amounts;
+            this.lastIndex = lastIndex;
+            this.lastHash = lastHash;
+            this.openAtEnd = openAtEnd;
+        }
+
+        private static CachedRun of(TradingRecord tradingRecord, int runEndIndex, BarSeries series,
+                BacktestCache cache) {
+            List<Trade> trades = new ArrayList<>();
+            for (Position position : tradingRecord.getPositions()) {
+                trades.add(position.getEntry());
+                trades.add(position.getExit());
+            }
+            if (tradingRecord.getCurrentPosition().isOpened()) {
+                trades.add(tradingRecord.getCurrentPosition().getEntry());
+            }
+            int[] indexes = new int[trades.size()];
+            String[] prices = new String[trades.size()];
+            String[] amounts = new String[trades.size()];
+            for (int i = 0; i < indexes.length; i++) {
+                Trade trade = trades.get(i);
+                indexes[i] = trade.getIndex();
+                prices[i] = trade.getPricePerAsset().toString();
+                amounts[i] = trade.getAmount().toString();
+            }
+            int lastIndex;
+            boolean openAtEnd = !tradingRecord.isClosed();
+            if (openAtEnd) {
+                lastIndex = series.getEndIndex();
+            } else {
+                lastIndex = Math.max(runEndIndex, indexes.length == 0 ? runEndIndex : indexes[indexes.length - 1]);
+            }
+            return new CachedRun(indexes, prices, amounts, lastIndex, cache.hash(series, lastIndex), openAtEnd);
+        }
+
+        private TradingRecord toTradingRecord(BarSeriesManager manager, TradeType tradeType) {
+            BarSeries series = manager.getBarSeries();
+            TradingRecord tradingRecord = new BaseTradingRecord(tradeType, manager.getTransactionCostModel(),
+                    manager.getHoldingCostModel());
+            for (int i = 0; i < indexes.length; i++) {
+                tradingRecord.operate(indexes[i], parse(prices[i], series), parse(amounts[i], series));
+            }
+            return tradingRecord;
+        }
+
+        private static Num parse(String value, BarSeries series) {
+            return NaN.NaN.toString().equals(value) ? NaN.NaN : series.numOf(new BigDecimal(value));
+        }
+    }
+}
@@ -38,14 +38,30 @@ public class BacktestExecutor {
 
     private final TradingStatementGenerator tradingStatementGenerator;
     private final BarSeriesManager seriesManager;
+    private final BacktestCache backtestCache;
 
     public BacktestExecutor(BarSeries series) {
         this(series, new TradingStatementGenerator());
     }
 
     public BacktestExecutor(BarSeries series, TradingStatementGenerator tradingStatementGenerator) {
+        this(series, tradingStatementGenerator, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param series                    the bar series
+     * @param tradingStatementGenerator the generator of the trading statements
+     * @param backtestCache             the cache of the trading records (null if
+     *                                  none): the strategies whose result is
+     *                                  cached are not run again
+     */
+    public BacktestExecutor(BarSeries series, TradingStatementGenerator tradingStatementGenerator,
+            BacktestCache backtestCache) {
         this.seriesManager = new BarSeriesManager(series);
         this.tradingStatementGenerator = tradingStatementGenerator;
+        this.backtestCache = backtestCache;
     }
 
     /**
@@ -69,7 +85,8 @@ public class BacktestExecutor {
     public List<TradingStatement> execute(List<Strategy> strategies, Num amount, Trade.TradeType tradeType) {
         final List<TradingStatement> tradingStatements = new ArrayList<>(strategies.size());
         for (Strategy strategy : strategies) {
-            final TradingRecord tradingRecord = seriesManager.run(strategy, tradeType, amount);
+            final TradingRecord tradingRecord = backtestCache == null ? seriesManager.run(strategy, tradeType, amount)
+                    : backtestCache.run(seriesManager, strategy, tradeType, amount);
             final TradingStatement tradingStatement = tradingStatementGenerator.generate(strategy, tradingRecord,
                     seriesManager.getBarSeries());
             tradingStatements.add(tradingStatement);
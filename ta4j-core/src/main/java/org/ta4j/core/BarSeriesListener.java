@@ -0,0 +1,52 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+/**
+ * A listener of the bars added to, or changed in, a {@link BaseBarSeries}.
+ *
+ * The listeners are notified by the series methods ({@code addBar},
+ * {@code addTrade} and {@code addPrice}), not when a bar of the series is
+ * modified directly.
+ */
+public interface BarSeriesListener {
+
+    /**
+     * Called after a bar was added at the end of a series.
+     *
+     * @param series the series
+     * @param index  the index of the added bar
+     */
+    void onBarAdded(BarSeries series, int index);
+
+    /**
+     * Called after the last bar of a series was replaced, or updated by a trade or
+     * a price.
+     *
+     * @param series the series
+     * @param index  the index of the last bar
+     */
+    default void onLastBarChanged(BarSeries series, int index) {
+    }
+}
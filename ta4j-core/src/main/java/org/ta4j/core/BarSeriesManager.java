@@ -91,6 +91,20 @@ public class BarSeriesManager {
         return barSeries;
     }
 
+    /**
+     * @return the cost model for transactions of the asset
+     */
+    public CostModel getTransactionCostModel() {
+        return transactionCostModel;
+    }
+
+    /**
+     * @return the cost model for holding asset (e.g. borrowing)
+     */
+    public CostModel getHoldingCostModel() {
+        return holdingCostModel;
+    }
+
     /**
      * Runs the provided strategy over the managed series.
      *
@@ -170,13 +184,33 @@ public class BarSeriesManager {
      * @return the trading record coming from the run
      */
     public TradingRecord run(Strategy strategy, TradeType tradeType, Num amount, int startIndex, int finishIndex) {
+        return run(strategy, new BaseTradingRecord(tradeType, transactionCostModel, holdingCostModel), amount,
+                startIndex, finishIndex);
+    }
+
+    /**
+     * Runs the provided strategy over the managed series (from startIndex to
+     * finishIndex), recording the trades into the provided trading record (e.g. a
+     * {@link CompactTradingRecord}).
+     *
+     * The trading record carries the starting trade type and the cost models of
+     * the run.
+     *
+     * @param strategy      the trading strategy
+     * @param tradingRecord the trading record to fill
+     * @param amount        the amount used to open/close the trades
+     * @param startIndex    the start index for the run (included)
+     * @param finishIndex   the finish index for the run (included)
+     * @return the provided trading record
+     */
+    public TradingRecord run(Strategy strategy, TradingRecord tradingRecord, Num amount, int startIndex,
+            int finishIndex) {
 
         int runBeginIndex = Math.max(startIndex, barSeries.getBeginIndex());
         int runEndIndex = Math.min(finishIndex, barSeries.getEndIndex());
 
         log.trace("Running strategy (indexes: {} -> {}): {} (starting with {})", runBeginIndex, runEndIndex, strategy,
-                tradeType);
-        TradingRecord tradingRecord = new BaseTradingRecord(tradeType, transactionCostModel, holdingCostModel);
+                tradingRecord.getStartingType());
         for (int i = runBeginIndex; i <= runEndIndex; i++) {
             // For each bar between both indexes...
             if (strategy.shouldOperate(i, tradingRecord)) {
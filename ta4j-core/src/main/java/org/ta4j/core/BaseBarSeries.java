@@ -31,6 +31,7 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
 import org.slf4j.Logger;
@@ -86,6 +87,10 @@ public class BaseBarSeries implements BarSeries {
      * false otherwise
      */
     private boolean constrained;
+    /**
+     * Listeners of the added and changed bars (null if none)
+     */
+    private transient List<BarSeriesListener> listeners;
 
     /**
      * Constructor of an unnamed series.
@@ -397,6 +402,7 @@ public class BaseBarSeries implements BarSeries {
         if (!bars.isEmpty()) {
             if (replace) {
                 bars.set(bars.size() - 1, bar);
+                fireLastBarChanged();
                 return;
             }
             final int lastBarIndex = bars.size() - 1;
@@ -415,6 +421,11 @@ public class BaseBarSeries implements BarSeries {
         }
         seriesEndIndex++;
         removeExceedingBars();
+        if (listeners != null) {
+            for (BarSeriesListener listener : listeners) {
+                listener.onBarAdded(this, seriesEndIndex);
+            }
+        }
     }
 
     @Override
@@ -460,11 +471,44 @@ public class BaseBarSeries implements BarSeries {
     @Override
     public void addTrade(Num tradeVolume, Num tradePrice) {
         getLastBar().addTrade(tradeVolume, tradePrice);
+        fireLastBarChanged();
     }
 
     @Override
     public void addPrice(Num price) {
         getLastBar().addPrice(price);
+        fireLastBarChanged();
+    }
+
+    /**
+     * Registers a listener of the bars added to, or changed in, this series.
+     *
+     * @param listener the listener
+     */
+    public void addListener(BarSeriesListener listener) {
+        if (listeners == null) {
+            listeners = new CopyOnWriteArrayList<>();
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(BarSeriesListener listener) {
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    private void fireLastBarChanged() {
+        if (listeners != null) {
+            for (BarSeriesListener listener : listeners) {
+                listener.onLastBarChanged(this, seriesEndIndex);
+            }
+        }
     }
 
     /**
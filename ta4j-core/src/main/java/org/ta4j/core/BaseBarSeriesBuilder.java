@@ -23,6 +23,8 @@
  */
 package org.ta4j.core;
 
+import java.time.Duration;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
@@ -42,6 +44,8 @@ public class BaseBarSeriesBuilder implements BarSeriesBuilder {
     private Function<Number, Num> numFunction;
     private boolean constrained;
     private int maxBarCount;
+    private Duration compactTimePeriod;
+    private ZoneId compactZoneId;
 
     public BaseBarSeriesBuilder() {
         initValues();
@@ -57,6 +61,8 @@ public class BaseBarSeriesBuilder implements BarSeriesBuilder {
         this.numFunction = BaseBarSeriesBuilder.defaultFunction;
         this.constrained = false;
         this.maxBarCount = Integer.MAX_VALUE;
+        this.compactTimePeriod = null;
+        this.compactZoneId = null;
     }
 
     @Override
@@ -67,7 +73,13 @@ public class BaseBarSeriesBuilder implements BarSeriesBuilder {
             beginIndex = 0;
             endIndex = bars.size() - 1;
         }
-        BaseBarSeries series = new BaseBarSeries(name, bars, beginIndex, endIndex, constrained, numFunction);
+        BaseBarSeries series;
+        if (compactTimePeriod != null) {
+            CompactBar.Frame frame = new CompactBar.Frame(compactTimePeriod, compactZoneId, numFunction);
+            series = new CompactBarSeries(name, bars, frame, constrained);
+        } else {
+            series = new BaseBarSeries(name, bars, beginIndex, endIndex, constrained, numFunction);
+        }
         series.setMaximumBarCount(maxBarCount);
         initValues(); // reinitialize values for next series
         return series;
@@ -93,6 +105,20 @@ public class BaseBarSeriesBuilder implements BarSeriesBuilder {
         return this;
     }
 
+    /**
+     * Builds a {@link CompactBarSeries} storing {@link CompactBar compact bars}
+     * that share the provided time period and time zone.
+     *
+     * @param timePeriod the time period of the bars
+     * @param zoneId     the time zone of the bars
+     * @return the builder
+     */
+    public BaseBarSeriesBuilder withCompactBars(Duration timePeriod, ZoneId zoneId) {
+        this.compactTimePeriod = timePeriod;
+        this.compactZoneId = zoneId;
+        return this;
+    }
+
     public BaseBarSeriesBuilder withNumTypeOf(Num type) {
         numFunction = type.function();
         return this;
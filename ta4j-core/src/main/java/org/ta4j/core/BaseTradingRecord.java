@@ -119,6 +119,21 @@ public class BaseTradingRecord implements TradingRecord {
         this.name = name;
     }
 
+    /**
+     * Constructor.
+     *
+     * @param name                 the name of the trading record
+     * @param entryTradeType       the {@link TradeType trade type} of entries in
+     *                             the trading session
+     * @param transactionCostModel the cost model for transactions of the asset
+     * @param holdingCostModel     the cost model for holding asset (e.g. borrowing)
+     */
+    public BaseTradingRecord(String name, TradeType entryTradeType, CostModel transactionCostModel,
+            CostModel holdingCostModel) {
+        this(entryTradeType, transactionCostModel, holdingCostModel);
+        this.name = name;
+    }
+
     /**
      * Constructor.
      *
@@ -0,0 +1,423 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.utils.TimeUtils;
+
+/**
+ * Memory efficient implementation of a {@link Bar}.
+ *
+ * The end time is stored as epoch nanoseconds and the prices as primitive
+ * doubles. The time period, the time zone and the {@link Num} type are shared
+ * by all the bars of a series through a {@link Frame}. {@link ZonedDateTime}
+ * and {@link Num} objects are only created when a getter is called.
+ *
+ * Notice that the prices are stored with double precision, even if the frame
+ * uses {@link org.ta4j.core.num.DecimalNum DecimalNum}.
+ *
+ * @see CompactBarSeries
+ */
+public class CompactBar implements Bar {
+
+    private static final long serialVersionUID = -2586254315541745934L;
+
+    /** The shared time period, time zone and num type */
+    private final Frame frame;
+    /** End time of the bar in epoch nanoseconds */
+    private final long endEpochNanos;
+    /** Open price of the period (NaN if not set) */
+    private double openPrice = Double.NaN;
+    /** High price of the period (NaN if not set) */
+    private double highPrice = Double.NaN;
+    /** Low price of the period (NaN if not set) */
+    private double lowPrice = Double.NaN;
+    /** Close price of the period (NaN if not set) */
+    private double closePrice = Double.NaN;
+    /** Volume of the period */
+    private double volume;
+    /** Traded amount during the period */
+    private double amount;
+    /** Trade count */
+    private long trades;
+
+    /**
+     * Constructor.
+     *
+     * @param frame   the shared frame of the bar
+     * @param endTime the end time of the bar period
+     */
+    public CompactBar(Frame frame, ZonedDateTime endTime) {
+        this(frame, TimeUtils.toEpochNanos(endTime));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param frame         the shared frame of the bar
+     * @param endEpochNanos the end time of the bar period in epoch nanoseconds
+     */
+    public CompactBar(Frame frame, long endEpochNanos) {
+        if (frame == null) {
+            throw new IllegalArgumentException("Frame cannot be null");
+        }
+        this.frame = frame;
+        this.endEpochNanos = endEpochNanos;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param frame      the shared frame of the bar
+     * @param endTime    the end time of the bar period
+     * @param openPrice  the open price of the bar period
+     * @param highPrice  the highest price of the bar period
+     * @param lowPrice   the lowest price of the bar period
+     * @param closePrice the close price of the bar period
+     * @param volume     the volume of the bar period
+     * @param amount     the amount of the bar period
+     * @param trades     the trades count of the bar period
+     */
+    public CompactBar(Frame frame, ZonedDateTime endTime, double openPrice, double highPrice, double lowPrice,
+            double closePrice, double volume, double amount, long trades) {
+        this(frame, TimeUtils.toEpochNanos(endTime), openPrice, highPrice, lowPrice, closePrice, volume, amount,
+                trades);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param frame         the shared frame of the bar
+     * @param endEpochNanos the end time of the bar period in epoch nanoseconds
+     * @param openPrice     the open price of the bar period
+     * @param highPrice     the highest price of the bar period
+     * @param lowPrice      the lowest price of the bar period
+     * @param closePrice    the close price of the bar period
+     * @param volume        the volume of the bar period
+     * @param amount        the amount of the bar period
+     * @param trades        the trades count of the bar period
+     */
+    public CompactBar(Frame frame, long endEpochNanos, double openPrice, double highPrice, double lowPrice,
+            double closePrice, double volume, double amount, long trades) {
+        this(frame, endEpochNanos);
+        this.openPrice = openPrice;
+        this.highPrice = highPrice;
+        this.lowPrice = lowPrice;
+        this.closePrice = closePrice;
+        this.volume = volume;
+        this.amount = amount;
+        this.trades = trades;
+    }
+
+    /**
+     * Creates a compact copy of a bar.
+     *
+     * @param frame the shared frame of the new bar
+     * @param bar   the bar to be copied
+     * @return the compact bar
+     * @throws IllegalArgumentException if the time period of the bar does not match
+     *                                  the one of the frame
+     */
+    public static CompactBar of(Frame frame, Bar bar) {
+        if (bar instanceof CompactBar && ((CompactBar) bar).frame == frame) {
+            return (CompactBar) bar;
+        }
+        frame.checkTimePeriod(bar.getTimePeriod());
+        return new CompactBar(frame, TimeUtils.toEpochNanos(bar.getEndTime()), toDouble(bar.getOpenPrice()),
+                toDouble(bar.getHighPrice()), toDouble(bar.getLowPrice()), toDouble(bar.getClosePrice()),
+                bar.getVolume() == null ? 0 : bar.getVolume().doubleValue(),
+                bar.getAmount() == null ? 0 : bar.getAmount().doubleValue(), bar.getTrades());
+    }
+
+    /**
+     * @return the shared frame of the bar
+     */
+    public Frame getFrame() {
+        return frame;
+    }
+
+    /**
+     * @return the end timestamp of the bar period in epoch nanoseconds
+     */
+    public long getEndEpochNanos() {
+        return endEpochNanos;
+    }
+
+    /**
+     * @return the open price, as stored (NaN if not set)
+     */
+    public double getOpenPriceAsDouble() {
+        return openPrice;
+    }
+
+    /**
+     * @return the high price, as stored (NaN if not set)
+     */
+    public double getHighPriceAsDouble() {
+        return highPrice;
+    }
+
+    /**
+     * @return the low price, as stored (NaN if not set)
+     */
+    public double getLowPriceAsDouble() {
+        return lowPrice;
+    }
+
+    /**
+     * @return the close price, as stored (NaN if not set)
+     */
+    public double getClosePriceAsDouble() {
+        return closePrice;
+    }
+
+    /**
+     * @return the volume, as stored
+     */
+    public double getVolumeAsDouble() {
+        return volume;
+    }
+
+    /**
+     * @return the amount, as stored
+     */
+    public double getAmountAsDouble() {
+        return amount;
+    }
+
+    @Override
+    public Num getOpenPrice() {
+        return frame.numOrNull(openPrice);
+    }
+
+    @Override
+    public Num getLowPrice() {
+        return frame.numOrNull(lowPrice);
+    }
+
+    @Override
+    public Num getHighPrice() {
+        return frame.numOrNull(highPrice);
+    }
+
+    @Override
+    public Num getClosePrice() {
+        return frame.numOrNull(closePrice);
+    }
+
+    @Override
+    public Num getVolume() {
+        return frame.numOf(volume);
+    }
+
+    @Override
+    public long getTrades() {
+        return trades;
+    }
+
+    @Override
+    public Num getAmount() {
+        return frame.numOf(amount);
+    }
+
+    @Override
+    public Duration getTimePeriod() {
+        return frame.getTimePeriod();
+    }
+
+    @Override
+    public ZonedDateTime getBeginTime() {
+        return TimeUtils.ofEpochNanos(endEpochNanos - frame.timePeriodNanos, frame.getZoneId());
+    }
+
+    @Override
+    public ZonedDateTime getEndTime() {
+        return TimeUtils.ofEpochNanos(endEpochNanos, frame.getZoneId());
+    }
+
+    @Override
+    public boolean inPeriod(ZonedDateTime timestamp) {
+        if (timestamp == null) {
+            return false;
+        }
+        long nanos = TimeUtils.toEpochNanos(timestamp);
+        return nanos >= endEpochNanos - frame.timePeriodNanos && nanos < endEpochNanos;
+    }
+
+    @Override
+    public void addTrade(Num tradeVolume, Num tradePrice) {
+        addPrice(tradePrice);
+
+        double volume = tradeVolume.doubleValue();
+        this.volume += volume;
+        this.amount += volume * tradePrice.doubleValue();
+        trades++;
+    }
+
+    @Override
+    public void addPrice(Num price) {
+        double value = price.doubleValue();
+        if (Double.isNaN(openPrice)) {
+            openPrice = value;
+        }
+        closePrice = value;
+        if (Double.isNaN(highPrice) || highPrice < value) {
+            highPrice = value;
+        }
+        if (Double.isNaN(lowPrice) || lowPrice > value) {
+            lowPrice = value;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "{end time: %1s, close price: %2$f, open price: %3$f, low price: %4$f, high price: %5$f, volume: %6$f}",
+                getEndTime().withZoneSameInstant(ZoneId.systemDefault()), closePrice, openPrice, lowPrice, highPrice,
+                volume);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(endEpochNanos, frame.getTimePeriod(), openPrice, highPrice, lowPrice, closePrice, volume,
+                amount, trades);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof CompactBar))
+            return false;
+        final CompactBar other = (CompactBar) obj;
+        return endEpochNanos == other.endEpochNanos && frame.getTimePeriod().equals(other.frame.getTimePeriod())
+                && Double.compare(openPrice, other.openPrice) == 0 && Double.compare(highPrice, other.highPrice) == 0
+                && Double.compare(lowPrice, other.lowPrice) == 0 && Double.compare(closePrice, other.closePrice) == 0
+                && Double.compare(volume, other.volume) == 0 && Double.compare(amount, other.amount) == 0
+                && trades == other.trades;
+    }
+
+    private static double toDouble(Num num) {
+        return num == null || num.isNaN() ? Double.NaN : num.doubleValue();
+    }
+
+    /**
+     * The data shared by all the {@link CompactBar compact bars} of a series: the
+     * time period, the time zone and the {@link Num} type.
+     */
+    public static final class Frame implements Serializable {
+
+        private static final long serialVersionUID = 5319637745226209470L;
+
+        /** Time period (e.g. 1 day, 15 min, etc.) of the bars */
+        private final Duration timePeriod;
+        /** Time period of the bars in nanoseconds */
+        private final long timePeriodNanos;
+        /** Time zone of the bars */
+        private final ZoneId zoneId;
+        /** A zero of the Num type used by the bars */
+        private final Num zero;
+        /** Num type function */
+        private transient Function<Number, Num> numFunction;
+
+        /**
+         * Constructor.
+         *
+         * @param timePeriod  the time period of the bars
+         * @param zoneId      the time zone of the bars
+         * @param numFunction the numbers precision
+         */
+        public Frame(Duration timePeriod, ZoneId zoneId, Function<Number, Num> numFunction) {
+            if (timePeriod == null) {
+                throw new IllegalArgumentException("Time period cannot be null");
+            }
+            if (zoneId == null) {
+                throw new IllegalArgumentException("Zone id cannot be null");
+            }
+            this.timePeriod = timePeriod;
+            this.timePeriodNanos = timePeriod.toNanos();
+            this.zoneId = zoneId;
+            this.numFunction = numFunction;
+            this.zero = numFunction.apply(0);
+        }
+
+        /**
+         * @return the time period of the bars
+         */
+        public Duration getTimePeriod() {
+            return timePeriod;
+        }
+
+        /**
+         * @return the time zone of the bars
+         */
+        public ZoneId getZoneId() {
+            return zoneId;
+        }
+
+        /**
+         * @return the function to transform a Number into the Num implementation used
+         *         by the bars
+         */
+        public Function<Number, Num> function() {
+            if (numFunction == null) {
+                // deserialized frame
+                numFunction = zero.function();
+            }
+            return numFunction;
+        }
+
+        /**
+         * @param timePeriod a time period
+         * @throws IllegalArgumentException if the time period does not match the one
+         *                                  of the frame
+         */
+        void checkTimePeriod(Duration timePeriod) {
+            if (!this.timePeriod.equals(timePeriod)) {
+                throw new IllegalArgumentException(String.format(
+                        "Cannot use a time period of %s with compact bars of %s", timePeriod, this.timePeriod));
+            }
+        }
+
+        private Num numOf(double value) {
+            if (zero instanceof DoubleNum) {
+                // skips the parsing of the boxed double
+                return DoubleNum.valueOf(value);
+            }
+            return function().apply(value);
+        }
+
+        private Num numOrNull(double value) {
+            return Double.isNaN(value) ? null : numOf(value);
+        }
+    }
+}
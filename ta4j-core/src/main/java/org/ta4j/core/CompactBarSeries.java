@@ -0,0 +1,151 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.ta4j.core.num.Num;
+
+/**
+ * A {@link BaseBarSeries} storing its bars as {@link CompactBar compact bars}.
+ *
+ * All the bars share the same {@link CompactBar.Frame frame} (i.e. time
+ * period, time zone and num type). Bars added with another implementation are
+ * converted to compact bars.
+ */
+public class CompactBarSeries extends BaseBarSeries {
+
+    private static final long serialVersionUID = 2951271466925405372L;
+
+    /** The frame shared by all the bars of the series */
+    private final CompactBar.Frame frame;
+
+    /**
+     * Constructor.
+     *
+     * @param name        the name of the series
+     * @param timePeriod  the time period of the bars
+     * @param zoneId      the time zone of the bars
+     * @param numFunction a {@link Function} to convert a {@link Number} to a
+     *                    {@link Num Num implementation}
+     */
+    public CompactBarSeries(String name, Duration timePeriod, ZoneId zoneId, Function<Number, Num> numFunction) {
+        this(name, new ArrayList<>(), new CompactBar.Frame(timePeriod, zoneId, numFunction));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name  the name of the series
+     * @param bars  the bars of the series (converted to compact bars)
+     * @param frame the frame shared by all the bars of the series
+     */
+    public CompactBarSeries(String name, List<Bar> bars, CompactBar.Frame frame) {
+        this(name, bars, frame, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name        the name of the series
+     * @param bars        the bars of the series (converted to compact bars)
+     * @param frame       the frame shared by all the bars of the series
+     * @param constrained true to constrain the bar series (i.e. indexes cannot
+     *                    change), false otherwise
+     */
+    CompactBarSeries(String name, List<Bar> bars, CompactBar.Frame frame, boolean constrained) {
+        super(name, toCompactBars(bars, frame), 0, bars.size() - 1, constrained, frame.function());
+        this.frame = frame;
+    }
+
+    /**
+     * @return the frame shared by all the bars of the series
+     */
+    public CompactBar.Frame getFrame() {
+        return frame;
+    }
+
+    @Override
+    public CompactBarSeries getSubSeries(int startIndex, int endIndex) {
+        BaseBarSeries subSeries = super.getSubSeries(startIndex, endIndex);
+        return new CompactBarSeries(getName(), subSeries.getBarData(), frame);
+    }
+
+    @Override
+    public void addBar(Bar bar, boolean replace) {
+        if (bar == null) {
+            throw new NullPointerException();
+        }
+        super.addBar(CompactBar.of(frame, bar), replace);
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime) {
+        frame.checkTimePeriod(timePeriod);
+        this.addBar(new CompactBar(frame, endTime));
+    }
+
+    @Override
+    public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume) {
+        this.addBar(frame.getTimePeriod(), endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0));
+    }
+
+    @Override
+    public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume,
+            Num amount) {
+        this.addBar(frame.getTimePeriod(), endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount);
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume) {
+        this.addBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0));
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume, Num amount) {
+        frame.checkTimePeriod(timePeriod);
+        this.addBar(new CompactBar(frame, endTime, openPrice.doubleValue(), highPrice.doubleValue(),
+                lowPrice.doubleValue(), closePrice.doubleValue(), volume.doubleValue(), amount.doubleValue(), 0));
+    }
+
+    /**
+     * @param bars  a list of bars
+     * @param frame the frame shared by the compact bars
+     * @return a new list with the compact copies of the bars
+     */
+    private static List<Bar> toCompactBars(List<Bar> bars, CompactBar.Frame frame) {
+        List<Bar> compactBars = new ArrayList<>(bars.size());
+        for (Bar bar : bars) {
+            compactBars.add(CompactBar.of(frame, bar));
+        }
+        return compactBars;
+    }
+}
@@ -0,0 +1,490 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import static org.ta4j.core.num.NaN.NaN;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.cost.LinearTransactionCostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.num.Num;
+
+/**
+ * A compact trading record, for backtests placing a large number of trades.
+ *
+ * The trades are stored in primitive columns (index, price per asset, amount
+ * and transaction cost), instead of {@link Trade} and {@link Position} objects.
+ * The type of a trade is not stored: entries (even trade numbers) are of the
+ * {@link #getStartingType() starting type}, exits (odd trade numbers) of its
+ * complement. The {@link Trade trades} and {@link Position positions} are
+ * created on demand, as views of the columns.
+ *
+ * The values are stored as doubles: with a {@link org.ta4j.core.num.DecimalNum
+ * DecimalNum} series, the views and the aggregates have the precision of a
+ * double.
+ *
+ * The aggregates of the closed positions (see {@link AggregatingTradingRecord})
+ * are updated when a position is closed, from the columns when the costs only
+ * depend on the trades (zero or linear transaction costs, no holding cost), or
+ * from the position view otherwise.
+ */
+public class CompactTradingRecord implements AggregatingTradingRecord {
+
+    private static final long serialVersionUID = -2739481264018235270L;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The bar series of the trading session */
+    private final BarSeries series;
+
+    private final TradeType startingType;
+    private final CostModel transactionCostModel;
+    private final CostModel holdingCostModel;
+
+    /** True if the position costs can be computed from the cost column */
+    private final boolean columnCosts;
+
+    /** The number of trades */
+    private int tradeCount;
+
+    private int[] indexes = new int[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private double[] amounts = new double[INITIAL_CAPACITY];
+    private double[] costs = new double[INITIAL_CAPACITY];
+
+    /** The profits (net of costs) of the closed positions */
+    private double[] profits = new double[INITIAL_CAPACITY / 2];
+
+    private int winningPositionCount;
+    private int losingPositionCount;
+    private int breakEvenPositionCount;
+    private double profitLoss;
+    private double profitLossPercentage;
+    private double netProfit;
+    private double netLoss;
+    private double grossProfit;
+    private double grossLoss;
+    private double grossReturn = 1;
+
+    /** The view of the current position (rebuilt when a trade is placed) */
+    private transient Position currentPosition;
+
+    /** The view of the closed positions */
+    private transient List<Position> positions;
+
+    /**
+     * Constructor.
+     *
+     * @param series the bar series
+     */
+    public CompactTradingRecord(BarSeries series) {
+        this(series, TradeType.BUY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param series         the bar series
+     * @param entryTradeType the {@link TradeType trade type} of entries in the
+     *                       trading session
+     */
+    public CompactTradingRecord(BarSeries series, TradeType entryTradeType) {
+        this(series, entryTradeType, new ZeroCostModel(), new ZeroCostModel());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param series               the bar series
+     * @param entryTradeType       the {@link TradeType trade type} of entries in
+     *                             the trading session
+     * @param transactionCostModel the cost model for transactions of the asset
+     * @param holdingCostModel     the cost model for holding asset (e.g. borrowing)
+     */
+    public CompactTradingRecord(BarSeries series, TradeType entryTradeType, CostModel transactionCostModel,
+            CostModel holdingCostModel) {
+        if (entryTradeType == null) {
+            throw new IllegalArgumentException("Starting type must not be null");
+        }
+        this.series = series;
+        this.startingType = entryTradeType;
+        this.transactionCostModel = transactionCostModel;
+        this.holdingCostModel = holdingCostModel;
+        this.columnCosts = (transactionCostModel instanceof ZeroCostModel
+                || transactionCostModel instanceof LinearTransactionCostModel)
+                && holdingCostModel instanceof ZeroCostModel;
+    }
+
+    @Override
+    public BarSeries getBarSeries() {
+        return series;
+    }
+
+    @Override
+    public TradeType getStartingType() {
+        return startingType;
+    }
+
+    @Override
+    public String getName() {
+        return null;
+    }
+
+    @Override
+    public void operate(int index, Num price, Num amount) {
+        boolean isEntry = tradeCount % 2 == 0;
+        if (!isEntry && index < indexes[tradeCount - 1]) {
+            throw new IllegalStateException("The index i is less than the entryTrade index");
+        }
+        ensureCapacity(tradeCount + 1);
+        indexes[tradeCount] = index;
+        prices[tradeCount] = price.doubleValue();
+        amounts[tradeCount] = amount.doubleValue();
+        costs[tradeCount] = transactionCostModel.calculate(price, amount).doubleValue();
+        tradeCount++;
+        currentPosition = null;
+        if (!isEntry) {
+            closePosition(tradeCount / 2 - 1);
+        }
+    }
+
+    @Override
+    public boolean enter(int index, Num price, Num amount) {
+        if (tradeCount % 2 == 0) {
+            operate(index, price, amount);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean exit(int index, Num price, Num amount) {
+        if (tradeCount % 2 == 1) {
+            operate(index, price, amount);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return tradeCount % 2 == 0;
+    }
+
+    @Override
+    public List<Position> getPositions() {
+        if (positions == null) {
+            positions = new PositionList();
+        }
+        return positions;
+    }
+
+    @Override
+    public int getPositionCount() {
+        return tradeCount / 2;
+    }
+
+    @Override
+    public Position getCurrentPosition() {
+        if (currentPosition == null) {
+            Position position = new Position(startingType, transactionCostModel, holdingCostModel);
+            if (tradeCount % 2 == 1) {
+                int entry = tradeCount - 1;
+                position.operate(indexes[entry], numOf(prices[entry]), numOf(amounts[entry]));
+            }
+            currentPosition = position;
+        }
+        return currentPosition;
+    }
+
+    @Override
+    public Trade getLastTrade() {
+        return tradeCount > 0 ? getTrade(tradeCount - 1) : null;
+    }
+
+    @Override
+    public Trade getLastTrade(TradeType tradeType) {
+        for (int trade = tradeCount - 1; trade >= 0 && trade >= tradeCount - 2; trade--) {
+            if (getType(trade) == tradeType) {
+                return getTrade(trade);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Trade getLastEntry() {
+        if (tradeCount == 0) {
+            return null;
+        }
+        return getTrade(tradeCount % 2 == 0 ? tradeCount - 2 : tradeCount - 1);
+    }
+
+    @Override
+    public Trade getLastExit() {
+        if (tradeCount < 2) {
+            return null;
+        }
+        return getTrade(tradeCount % 2 == 0 ? tradeCount - 1 : tradeCount - 2);
+    }
+
+    /**
+     * @return the number of trades
+     */
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    /**
+     * @param trade the trade number (entries are even, exits are odd)
+     * @return the bar index of the trade
+     */
+    public int getIndex(int trade) {
+        checkTrade(trade);
+        return indexes[trade];
+    }
+
+    /**
+     * @param trade the trade number (entries are even, exits are odd)
+     * @return the price per asset of the trade
+     */
+    public double getPricePerAsset(int trade) {
+        checkTrade(trade);
+        return prices[trade];
+    }
+
+    /**
+     * @param trade the trade number (entries are even, exits are odd)
+     * @return the amount of the trade
+     */
+    public double getAmount(int trade) {
+        checkTrade(trade);
+        return amounts[trade];
+    }
+
+    /**
+     * @param trade the trade number (entries are even, exits are odd)
+     * @return the transaction cost of the trade
+     */
+    public double getCost(int trade) {
+        checkTrade(trade);
+        return costs[trade];
+    }
+
+    /**
+     * @param trade the trade number (entries are even, exits are odd)
+     * @return the type of the trade
+     */
+    public TradeType getType(int trade) {
+        checkTrade(trade);
+        return trade % 2 == 0 ? startingType : startingType.complementType();
+    }
+
+    /**
+     * @param trade the trade number (entries are even, exits are odd)
+     * @return a view of the trade
+     */
+    public Trade getTrade(int trade) {
+        return new Trade(getIndex(trade), getType(trade), numOf(prices[trade]), numOf(amounts[trade]),
+                transactionCostModel);
+    }
+
+    /**
+     * @param position the number of the closed position
+     * @return the profit (net of costs) of the position
+     */
+    public double getProfit(int position) {
+        if (position < 0 || position >= getPositionCount()) {
+            throw new IndexOutOfBoundsException("Position " + position + ", closed positions: " + getPositionCount());
+        }
+        return profits[position];
+    }
+
+    @Override
+    public int getWinningPositionCount() {
+        return winningPositionCount;
+    }
+
+    @Override
+    public int getLosingPositionCount() {
+        return losingPositionCount;
+    }
+
+    @Override
+    public int getBreakEvenPositionCount() {
+        return breakEvenPositionCount;
+    }
+
+    @Override
+    public Num getProfitLoss() {
+        return series.numOf(profitLoss);
+    }
+
+    @Override
+    public Num getProfitLossPercentage() {
+        return series.numOf(profitLossPercentage);
+    }
+
+    @Override
+    public Num getNetProfit() {
+        return series.numOf(netProfit);
+    }
+
+    @Override
+    public Num getNetLoss() {
+        return series.numOf(netLoss);
+    }
+
+    @Override
+    public Num getGrossProfit() {
+        return series.numOf(grossProfit);
+    }
+
+    @Override
+    public Num getGrossLoss() {
+        return series.numOf(grossLoss);
+    }
+
+    @Override
+    public Num getGrossReturn() {
+        return series.numOf(grossReturn);
+    }
+
+    /**
+     * Computes the profit of a closed position, and updates the aggregates.
+     *
+     * The computations follow the ones of {@link Position}, in the same order.
+     *
+     * @param position the number of the closed position
+     */
+    private void closePosition(int position) {
+        int entry = 2 * position;
+        int exit = entry + 1;
+        boolean isLongTrade = startingType == TradeType.BUY;
+        double entryValue = prices[entry] * amounts[entry];
+        double positionGrossProfit = prices[exit] * amounts[exit] - entryValue;
+        if (!isLongTrade) {
+            positionGrossProfit = -positionGrossProfit;
+        }
+        double profit;
+        if (columnCosts) {
+            profit = positionGrossProfit - (costs[entry] + costs[exit]);
+        } else {
+            profit = getPosition(position).getProfit().doubleValue();
+        }
+        profits[position] = profit;
+
+        if (profit > 0) {
+            winningPositionCount++;
+            netProfit += profit;
+        } else if (profit < 0) {
+            losingPositionCount++;
+            netLoss += profit;
+        } else {
+            breakEvenPositionCount++;
+        }
+        profitLoss += profit;
+        profitLossPercentage += profit / entryValue * 100;
+        if (positionGrossProfit > 0) {
+            grossProfit += positionGrossProfit;
+        } else if (positionGrossProfit < 0) {
+            grossLoss += positionGrossProfit;
+        }
+        double priceRatio = priceOrClose(exit) / priceOrClose(entry);
+        grossReturn *= isLongTrade ? priceRatio : -(priceRatio - 1) + 1;
+    }
+
+    /**
+     * @param trade the trade number
+     * @return the price per asset of the trade, or the close price of its bar if
+     *         the price is not defined
+     */
+    private double priceOrClose(int trade) {
+        if (Double.isNaN(prices[trade])) {
+            return series.getBar(indexes[trade]).getClosePrice().doubleValue();
+        }
+        return prices[trade];
+    }
+
+    private Position getPosition(int position) {
+        return new Position(getTrade(2 * position), getTrade(2 * position + 1), transactionCostModel,
+                holdingCostModel);
+    }
+
+    private Num numOf(double value) {
+        return Double.isNaN(value) ? NaN : series.numOf(value);
+    }
+
+    private void checkTrade(int trade) {
+        if (trade < 0 || trade >= tradeCount) {
+            throw new IndexOutOfBoundsException("Trade " + trade + ", trades: " + tradeCount);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > indexes.length) {
+            int newCapacity = Math.max(capacity, indexes.length + (indexes.length >> 1));
+            indexes = Arrays.copyOf(indexes, newCapacity);
+            prices = Arrays.copyOf(prices, newCapacity);
+            amounts = Arrays.copyOf(amounts, newCapacity);
+            costs = Arrays.copyOf(costs, newCapacity);
+            profits = Arrays.copyOf(profits, newCapacity / 2 + 1);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CompactTradingRecord:\n");
+        for (int trade = 0; trade < tradeCount; trade++) {
+            sb.append(getTrade(trade)).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The closed positions, created on demand from the columns.
+     */
+    private class PositionList extends AbstractList<Position> implements RandomAccess {
+
+        @Override
+        public Position get(int position) {
+            if (position < 0 || position >= getPositionCount()) {
+                throw new IndexOutOfBoundsException(
+                        "Position " + position + ", closed positions: " + getPositionCount());
+            }
+            return getPosition(position);
+        }
+
+        @Override
+        public int size() {
+            return getPositionCount();
+        }
+    }
+}
@@ -0,0 +1,598 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.ta4j.core.num.Num;
+import org.ta4j.core.utils.ScaleUtils;
+
+/**
+ * A read-only, compressed {@link BarSeries} (e.g. for years of cold history
+ * kept in memory).
+ *
+ * The bars are encoded by blocks of {@value #BLOCK_SIZE}:
+ * <ul>
+ * <li>the end times as the deviations from the time period (zero bits for
+ * series without gaps)
+ * <li>the prices as integers of ticks (the smallest scale writing all the
+ * prices without loss): the close price as the difference with the previous
+ * close price, the other prices relatively to the open/close prices
+ * <li>the volumes, the amounts (as integers when possible) and the trade counts
+ * </ul>
+ * Every column of a block is bit-packed with the smallest width holding all its
+ * values. The index of the blocks (bit offset, first end time and first close
+ * price) gives a constant time access to any bar.
+ *
+ * The blocks are decoded lazily into {@link CompactBar compact bars} when a bar
+ * is read. The last decoded blocks are cached, so that the sequential scans of
+ * the indicators decode each block only once.
+ *
+ * Notice that:
+ * <ul>
+ * <li>the bars are restored with double precision, as {@link CompactBar compact
+ * bars}, even if the series uses {@link org.ta4j.core.num.DecimalNum
+ * DecimalNum}
+ * <li>all the bars must have the same time period
+ * <li>the series is safe for concurrent readers, but the {@link Indicator
+ * indicators} are not thread-safe
+ * </ul>
+ */
+public class CompressedBarSeries implements BarSeries {
+
+    private static final long serialVersionUID = 2871305548391442566L;
+
+    /** The number of bars of a block */
+    private static final int BLOCK_SIZE = 64;
+    private static final int BLOCK_SHIFT = 6;
+
+    /** The number of cached decoded blocks (a power of two) */
+    private static final int CACHED_BLOCKS = 16;
+
+    /** The columns of a block */
+    private static final int GAP = 0;
+    private static final int CLOSE = 1;
+    private static final int OPEN = 2;
+    private static final int HIGH = 3;
+    private static final int LOW = 4;
+    private static final int VOLUME = 5;
+    private static final int AMOUNT = 6;
+    private static final int TRADES = 7;
+    private static final int COLUMNS = 8;
+
+    /** The scale of the columns stored as raw doubles */
+    private static final int UNSCALED = -1;
+
+    /** Name of the series */
+    private final String name;
+    /** The encoded bars, shared with the sub series */
+    private final Blocks blocks;
+    /** The index of the first bar of the series in the encoded bars */
+    private final int offset;
+    /** The number of bars of the series */
+    private final int barCount;
+
+    /**
+     * Constructor.
+     *
+     * Compresses the bars of a series, from its first available bar to its end
+     * index.
+     *
+     * @param series the series to be compressed
+     * @throws IllegalArgumentException if the series is empty or if its bars have
+     *                                  different time periods
+     */
+    public CompressedBarSeries(BarSeries series) {
+        this(series.getName(), barsOf(series), series.function());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name        the name of the series
+     * @param bars        the bars to be compressed
+     * @param numFunction the numbers precision
+     * @throws IllegalArgumentException if there is no bar or if the bars have
+     *                                  different time periods
+     */
+    public CompressedBarSeries(String name, List<Bar> bars, Function<Number, Num> numFunction) {
+        if (bars.isEmpty()) {
+            throw new IllegalArgumentException("Cannot compress a series without bars");
+        }
+        Bar first = bars.get(0);
+        CompactBar.Frame frame = new CompactBar.Frame(first.getTimePeriod(), first.getEndTime().getZone(),
+                numFunction);
+        this.name = name;
+        this.blocks = new Blocks(frame, bars);
+        this.offset = 0;
+        this.barCount = bars.size();
+    }
+
+    private CompressedBarSeries(String name, Blocks blocks, int offset, int barCount) {
+        this.name = name;
+        this.blocks = blocks;
+        this.offset = offset;
+        this.barCount = barCount;
+    }
+
+    private static List<Bar> barsOf(BarSeries series) {
+        List<Bar> bars = new ArrayList<>(series.getBarCount());
+        if (!series.isEmpty()) {
+            int beginIndex = Math.max(series.getBeginIndex(), series.getRemovedBarsCount());
+            for (int i = beginIndex; i <= series.getEndIndex(); i++) {
+                bars.add(series.getBar(i));
+            }
+        }
+        return bars;
+    }
+
+    /**
+     * @return the size of the encoded bars in bytes (including the block index),
+     *         shared with the sub series
+     */
+    public long getCompressedSize() {
+        return blocks.size();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Bar getBar(int i) {
+        if (i < 0 || i >= barCount) {
+            throw new IndexOutOfBoundsException(String.format("Size of series: %s bars, index = %s", barCount, i));
+        }
+        return blocks.bar(offset + i);
+    }
+
+    @Override
+    public int getBarCount() {
+        return barCount;
+    }
+
+    @Override
+    public List<Bar> getBarData() {
+        return new AbstractList<Bar>() {
+
+            @Override
+            public Bar get(int index) {
+                return getBar(index);
+            }
+
+            @Override
+            public int size() {
+                return barCount;
+            }
+        };
+    }
+
+    @Override
+    public int getBeginIndex() {
+        return 0;
+    }
+
+    @Override
+    public int getEndIndex() {
+        return barCount - 1;
+    }
+
+    @Override
+    public int getMaximumBarCount() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void setMaximumBarCount(int maximumBarCount) {
+        throw readOnly();
+    }
+
+    @Override
+    public int getRemovedBarsCount() {
+        return 0;
+    }
+
+    @Override
+    public void addBar(Bar bar, boolean replace) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume,
+            Num amount) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume, Num amount) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addTrade(Num tradeVolume, Num tradePrice) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addPrice(Num price) {
+        throw readOnly();
+    }
+
+    /**
+     * Returns a sub series sharing the encoded bars of this series.
+     */
+    @Override
+    public CompressedBarSeries getSubSeries(int startIndex, int endIndex) {
+        if (startIndex < 0) {
+            throw new IllegalArgumentException(String.format("the startIndex: %s must not be negative", startIndex));
+        }
+        if (startIndex >= endIndex) {
+            throw new IllegalArgumentException(
+                    String.format("the endIndex: %s must be greater than startIndex: %s", endIndex, startIndex));
+        }
+        int start = Math.min(startIndex, barCount);
+        int end = Math.min(endIndex, barCount);
+        return new CompressedBarSeries(name, blocks, offset + start, end - start);
+    }
+
+    @Override
+    public Num numOf(Number number) {
+        return blocks.frame.function().apply(number);
+    }
+
+    @Override
+    public Function<Number, Num> function() {
+        return blocks.frame.function();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Cannot modify a compressed bar series");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * The encoded bars.
+     */
+    private static final class Blocks implements Serializable {
+
+        private static final long serialVersionUID = -6307410125524962154L;
+
+        /** The shared time period, time zone and num type of the bars */
+        private final CompactBar.Frame frame;
+        /** The number of encoded bars */
+        private final int barCount;
+        /** The unit of the end time deviations in nanoseconds */
+        private final long timeUnit;
+        /** The scales of the prices, the volumes and the amounts */
+        private final int priceScale;
+        private final int volumeScale;
+        private final int amountScale;
+
+        /** The block index: bit offset, first end time and first close price */
+        private final long[] offsets;
+        private final long[] firstEnds;
+        private final long[] firstCloses;
+        /** The bit widths of the columns of the blocks */
+        private final byte[] widths;
+        /** The bit-packed columns */
+        private long[] bits;
+        /** The number of written bits */
+        private transient long position;
+
+        /** The last decoded blocks */
+        private transient volatile DecodedBlock[] cache;
+
+        Blocks(CompactBar.Frame frame, List<Bar> bars) {
+            this.frame = frame;
+            this.barCount = bars.size();
+            int blockCount = (barCount + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+            this.offsets = new long[blockCount];
+            this.firstEnds = new long[blockCount];
+            this.firstCloses = new long[blockCount];
+            this.widths = new byte[blockCount * COLUMNS];
+            this.bits = new long[Math.max(1, barCount)];
+
+            long period = frame.getTimePeriod().toNanos();
+            long firstEnd = CompactBar.of(frame, bars.get(0)).getEndEpochNanos();
+            long unit = period;
+            int[] scales = new int[COLUMNS];
+            for (Bar bar : bars) {
+                CompactBar compactBar = CompactBar.of(frame, bar);
+                if (unit > 1 && (compactBar.getEndEpochNanos() - firstEnd) % unit != 0) {
+                    unit = 1;
+                }
+                scales[OPEN] = maxScale(scales[OPEN], compactBar.getOpenPriceAsDouble());
+                scales[HIGH] = maxScale(scales[HIGH], compactBar.getHighPriceAsDouble());
+                scales[LOW] = maxScale(scales[LOW], compactBar.getLowPriceAsDouble());
+                scales[CLOSE] = maxScale(scales[CLOSE], compactBar.getClosePriceAsDouble());
+                scales[VOLUME] = maxScale(scales[VOLUME], compactBar.getVolumeAsDouble());
+                scales[AMOUNT] = maxScale(scales[AMOUNT], compactBar.getAmountAsDouble());
+            }
+            this.timeUnit = Math.max(1, unit);
+            int scale = 0;
+            for (int column = CLOSE; column <= LOW; column++) {
+                scale = scales[column] == UNSCALED || scale == UNSCALED ? UNSCALED : Math.max(scale, scales[column]);
+            }
+            this.priceScale = checkScale(bars, scale, CLOSE, LOW);
+            this.volumeScale = checkScale(bars, scales[VOLUME], VOLUME, VOLUME);
+            this.amountScale = checkScale(bars, scales[AMOUNT], AMOUNT, AMOUNT);
+
+            long[][] values = new long[COLUMNS][BLOCK_SIZE];
+            for (int block = 0; block < blockCount; block++) {
+                int first = block << BLOCK_SHIFT;
+                int count = Math.min(BLOCK_SIZE, barCount - first);
+                long previousEnd = 0;
+                long previousClose = 0;
+                for (int j = 0; j < count; j++) {
+                    CompactBar bar = CompactBar.of(frame, bars.get(first + j));
+                    long end = bar.getEndEpochNanos();
+                    if (j == 0) {
+                        firstEnds[block] = end;
+                    } else {
+                        values[GAP][j] = zigzag((end - previousEnd - period) / timeUnit);
+                    }
+                    previousEnd = end;
+                    if (priceScale == UNSCALED) {
+                        values[CLOSE][j] = Double.doubleToRawLongBits(bar.getClosePriceAsDouble());
+                        values[OPEN][j] = Double.doubleToRawLongBits(bar.getOpenPriceAsDouble());
+                        values[HIGH][j] = Double.doubleToRawLongBits(bar.getHighPriceAsDouble());
+                        values[LOW][j] = Double.doubleToRawLongBits(bar.getLowPriceAsDouble());
+                    } else {
+                        long close = ScaleUtils.unscaledValue(bar.getClosePriceAsDouble(), priceScale);
+                        long open = ScaleUtils.unscaledValue(bar.getOpenPriceAsDouble(), priceScale);
+                        long high = ScaleUtils.unscaledValue(bar.getHighPriceAsDouble(), priceScale);
+                        long low = ScaleUtils.unscaledValue(bar.getLowPriceAsDouble(), priceScale);
+                        if (j == 0) {
+                            firstCloses[block] = close;
+                        } else {
+                            values[CLOSE][j] = zigzag(close - previousClose);
+                        }
+                        previousClose = close;
+                        values[OPEN][j] = zigzag(open - close);
+                        values[HIGH][j] = zigzag(high - Math.max(open, close));
+                        values[LOW][j] = zigzag(Math.min(open, close) - low);
+                    }
+                    values[VOLUME][j] = encode(bar.getVolumeAsDouble(), volumeScale);
+                    values[AMOUNT][j] = encode(bar.getAmountAsDouble(), amountScale);
+                    values[TRADES][j] = zigzag(bar.getTrades());
+                }
+                offsets[block] = position;
+                for (int column = 0; column < COLUMNS; column++) {
+                    long union = 0;
+                    for (int j = 0; j < count; j++) {
+                        union |= values[column][j];
+                    }
+                    int width = 64 - Long.numberOfLeadingZeros(union);
+                    widths[block * COLUMNS + column] = (byte) width;
+                    for (int j = 0; j < count; j++) {
+                        write(values[column][j], width);
+                    }
+                    Arrays.fill(values[column], 0);
+                }
+            }
+            this.bits = Arrays.copyOf(bits, (int) ((position + 63) >>> 6) + 1);
+        }
+
+        /**
+         * @return the scale of the values, -1 if one of them cannot be scaled
+         */
+        private static int maxScale(int scale, double value) {
+            if (scale == UNSCALED) {
+                return UNSCALED;
+            }
+            int valueScale = ScaleUtils.scale(value);
+            return valueScale < 0 ? UNSCALED : Math.max(scale, valueScale);
+        }
+
+        /**
+         * @return the scale if all the values of the columns are written as integers
+         *         with it without loss, -1 otherwise
+         */
+        private int checkScale(List<Bar> bars, int scale, int fromColumn, int toColumn) {
+            if (scale == UNSCALED) {
+                return UNSCALED;
+            }
+            for (Bar bar : bars) {
+                CompactBar compactBar = CompactBar.of(frame, bar);
+                for (int column = fromColumn; column <= toColumn; column++) {
+                    if (!ScaleUtils.isExact(value(compactBar, column), scale)) {
+                        return UNSCALED;
+                    }
+                }
+            }
+            return scale;
+        }
+
+        private static double value(CompactBar bar, int column) {
+            switch (column) {
+            case CLOSE:
+                return bar.getClosePriceAsDouble();
+            case OPEN:
+                return bar.getOpenPriceAsDouble();
+            case HIGH:
+                return bar.getHighPriceAsDouble();
+            case LOW:
+                return bar.getLowPriceAsDouble();
+            case VOLUME:
+                return bar.getVolumeAsDouble();
+            default:
+                return bar.getAmountAsDouble();
+            }
+        }
+
+        private static long encode(double value, int scale) {
+            if (scale == UNSCALED) {
+                return Double.doubleToRawLongBits(value);
+            }
+            return zigzag(ScaleUtils.unscaledValue(value, scale));
+        }
+
+        private static double decode(long value, int scale) {
+            if (scale == UNSCALED) {
+                return Double.longBitsToDouble(value);
+            }
+            return unzigzag(value) / ScaleUtils.pow10(scale);
+        }
+
+        private void write(long value, int width) {
+            if (width == 0) {
+                return;
+            }
+            int word = (int) (position >>> 6);
+            if (word + 1 >= bits.length) {
+                bits = Arrays.copyOf(bits, Math.max(word + 2, bits.length + (bits.length >> 1)));
+            }
+            int shift = (int) (position & 63);
+            bits[word] |= value << shift;
+            if (shift + width > 64) {
+                bits[word + 1] |= value >>> (64 - shift);
+            }
+            position += width;
+        }
+
+        private long read(long bitOffset, int width) {
+            if (width == 0) {
+                return 0;
+            }
+            int word = (int) (bitOffset >>> 6);
+            int shift = (int) (bitOffset & 63);
+            long value = bits[word] >>> shift;
+            if (shift + width > 64) {
+                value |= bits[word + 1] << (64 - shift);
+            }
+            return width == 64 ? value : value & ((1L << width) - 1);
+        }
+
+        long size() {
+            return 8L * (bits.length + offsets.length + firstEnds.length + firstCloses.length) + widths.length;
+        }
+
+        CompactBar bar(int index) {
+            int block = index >>> BLOCK_SHIFT;
+            DecodedBlock[] decodedBlocks = cache;
+            if (decodedBlocks == null) {
+                decodedBlocks = new DecodedBlock[CACHED_BLOCKS];
+                cache = decodedBlocks;
+            }
+            int slot = block & (CACHED_BLOCKS - 1);
+            DecodedBlock decoded = decodedBlocks[slot];
+            if (decoded == null || decoded.block != block) {
+                decoded = new DecodedBlock(block, decode(block));
+                decodedBlocks[slot] = decoded;
+            }
+            return decoded.bars[index & (BLOCK_SIZE - 1)];
+        }
+
+        private CompactBar[] decode(int block) {
+            int first = block << BLOCK_SHIFT;
+            int count = Math.min(BLOCK_SIZE, barCount - first);
+            long[][] values = new long[COLUMNS][count];
+            long bitOffset = offsets[block];
+            for (int column = 0; column < COLUMNS; column++) {
+                int width = widths[block * COLUMNS + column];
+                for (int j = 0; j < count; j++) {
+                    values[column][j] = read(bitOffset, width);
+                    bitOffset += width;
+                }
+            }
+
+            long period = frame.getTimePeriod().toNanos();
+            CompactBar[] bars = new CompactBar[count];
+            long end = firstEnds[block];
+            long close = firstCloses[block];
+            for (int j = 0; j < count; j++) {
+                if (j > 0) {
+                    end += period + unzigzag(values[GAP][j]) * timeUnit;
+                }
+                double openPrice;
+                double highPrice;
+                double lowPrice;
+                double closePrice;
+                if (priceScale == UNSCALED) {
+                    closePrice = Double.longBitsToDouble(values[CLOSE][j]);
+                    openPrice = Double.longBitsToDouble(values[OPEN][j]);
+                    highPrice = Double.longBitsToDouble(values[HIGH][j]);
+                    lowPrice = Double.longBitsToDouble(values[LOW][j]);
+                } else {
+                    if (j > 0) {
+                        close += unzigzag(values[CLOSE][j]);
+                    }
+                    long open = close + unzigzag(values[OPEN][j]);
+                    long high = Math.max(open, close) + unzigzag(values[HIGH][j]);
+                    long low = Math.min(open, close) - unzigzag(values[LOW][j]);
+                    double pow10 = ScaleUtils.pow10(priceScale);
+                    closePrice = close / pow10;
+                    openPrice = open / pow10;
+                    highPrice = high / pow10;
+                    lowPrice = low / pow10;
+                }
+                bars[j] = new CompactBar(frame, end, openPrice, highPrice, lowPrice, closePrice,
+                        decode(values[VOLUME][j], volumeScale), decode(values[AMOUNT][j], amountScale),
+                        unzigzag(values[TRADES][j]));
+            }
+            return bars;
+        }
+    }
+
+    /**
+     * The bars of a decoded block.
+     */
+    private static final class DecodedBlock {
+
+        private final int block;
+        private final CompactBar[] bars;
+
+        DecodedBlock(int block, CompactBar[] bars) {
+            this.block = block;
+            this.bars = bars;
+        }
+    }
+}
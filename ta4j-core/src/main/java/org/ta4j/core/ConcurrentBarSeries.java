@@ -0,0 +1,472 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import org.ta4j.core.num.DecimalNum;
+import org.ta4j.core.num.Num;
+
+/**
+ * A {@link BarSeries} for one writer thread and many reader threads.
+ *
+ * The writer (e.g. a market data feed) adds bars and trades without taking any
+ * lock. Every new bar publishes a new {@link Snapshot} through a volatile
+ * field, so that readers never block and always see fully initialized bars.
+ * Bars are never modified once published: a trade or a price added to the last
+ * bar replaces it by an updated copy.
+ *
+ * Use {@link #getSnapshot()} to read the begin index, the end index and the
+ * bars of the same version of the series.
+ *
+ * Notice that:
+ * <ul>
+ * <li>only one thread may call the mutating methods ({@code addBar},
+ * {@code addTrade}, {@code addPrice}, {@code setMaximumBarCount})
+ * <li>the {@link Indicator indicators} are not thread-safe: each reader thread
+ * should use its own indicator instances
+ * </ul>
+ */
+public class ConcurrentBarSeries implements BarSeries {
+
+    private static final long serialVersionUID = -2218620394717316117L;
+
+    /**
+     * Name for unnamed series
+     */
+    private static final String UNNAMED_SERIES_NAME = "unnamed_series";
+
+    /**
+     * Minimum capacity of the bar storage
+     */
+    private static final int MINIMUM_CAPACITY = 16;
+
+    /**
+     * Num type function
+     */
+    private final transient Function<Number, Num> numFunction;
+
+    /**
+     * Name of the series
+     */
+    private final String name;
+
+    /**
+     * The current version of the series
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Maximum number of bars for the bar series
+     */
+    private volatile int maximumBarCount = Integer.MAX_VALUE;
+
+    /**
+     * Constructor of an unnamed series.
+     */
+    public ConcurrentBarSeries() {
+        this(UNNAMED_SERIES_NAME);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name the name of the series
+     */
+    public ConcurrentBarSeries(String name) {
+        this(name, DecimalNum::valueOf);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name        the name of the series
+     * @param numFunction a {@link Function} to convert a {@link Number} to a
+     *                    {@link Num Num implementation}
+     */
+    public ConcurrentBarSeries(String name, Function<Number, Num> numFunction) {
+        this.name = name;
+        this.numFunction = numFunction;
+        this.snapshot = new Snapshot(new AtomicReferenceArray<>(MINIMUM_CAPACITY), 0, 0, 0, -1, -1, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name the name of the series
+     * @param bars the initial bars of the series
+     */
+    public ConcurrentBarSeries(String name, List<Bar> bars) {
+        this(name, bars.isEmpty() ? DecimalNum::valueOf : bars.get(0).getClosePrice().function());
+        for (Bar bar : bars) {
+            addBar(bar);
+        }
+    }
+
+    /**
+     * Returns the current version of the series. The indexes and the bars of a
+     * snapshot never change.
+     *
+     * @return the current snapshot of the series
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Bar getBar(int i) {
+        return snapshot.getBar(i);
+    }
+
+    @Override
+    public int getBarCount() {
+        return snapshot.getBarCount();
+    }
+
+    /**
+     * @return an unmodifiable view of the bars of the current snapshot
+     */
+    @Override
+    public List<Bar> getBarData() {
+        return snapshot.getBarData();
+    }
+
+    @Override
+    public int getBeginIndex() {
+        return snapshot.getBeginIndex();
+    }
+
+    @Override
+    public int getEndIndex() {
+        return snapshot.getEndIndex();
+    }
+
+    @Override
+    public int getMaximumBarCount() {
+        return maximumBarCount;
+    }
+
+    @Override
+    public void setMaximumBarCount(int maximumBarCount) {
+        if (maximumBarCount <= 0) {
+            throw new IllegalArgumentException("Maximum bar count must be strictly positive");
+        }
+        this.maximumBarCount = maximumBarCount;
+        Snapshot current = snapshot;
+        snapshot = current.withMaximumBarCount(maximumBarCount);
+    }
+
+    @Override
+    public int getRemovedBarsCount() {
+        return snapshot.getRemovedBarsCount();
+    }
+
+    @Override
+    public void addBar(Bar bar, boolean replace) {
+        Objects.requireNonNull(bar);
+        if (bar.getClosePrice() != null && !bar.getClosePrice().isNaN()
+                && bar.getClosePrice().getClass() != numOf(1).getClass()) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot add Bar with data type: %s to series with data" + "type: %s",
+                            bar.getClosePrice().getClass(), numOf(1).getClass()));
+        }
+        Snapshot current = snapshot;
+        if (current.size > 0) {
+            if (replace) {
+                snapshot = current.withReplacedLastBar(bar);
+                return;
+            }
+            ZonedDateTime seriesEndTime = current.getLastBar().getEndTime();
+            if (!bar.getEndTime().isAfter(seriesEndTime)) {
+                throw new IllegalArgumentException(
+                        String.format("Cannot add a bar with end time:%s that is <= to series end time: %s",
+                                bar.getEndTime(), seriesEndTime));
+            }
+        }
+        snapshot = current.withAddedBar(bar, maximumBarCount);
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime) {
+        this.addBar(new BaseBar(timePeriod, endTime, function()));
+    }
+
+    @Override
+    public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume) {
+        this.addBar(
+                new BaseBar(Duration.ofDays(1), endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0)));
+    }
+
+    @Override
+    public void addBar(ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice, Num closePrice, Num volume,
+            Num amount) {
+        this.addBar(
+                new BaseBar(Duration.ofDays(1), endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount));
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume) {
+        this.addBar(new BaseBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, numOf(0)));
+    }
+
+    @Override
+    public void addBar(Duration timePeriod, ZonedDateTime endTime, Num openPrice, Num highPrice, Num lowPrice,
+            Num closePrice, Num volume, Num amount) {
+        this.addBar(new BaseBar(timePeriod, endTime, openPrice, highPrice, lowPrice, closePrice, volume, amount));
+    }
+
+    @Override
+    public void addTrade(Num tradeVolume, Num tradePrice) {
+        Bar bar = copyOf(snapshot.getLastBar());
+        bar.addTrade(tradeVolume, tradePrice);
+        addBar(bar, true);
+    }
+
+    @Override
+    public void addPrice(Num price) {
+        Bar bar = copyOf(snapshot.getLastBar());
+        bar.addPrice(price);
+        addBar(bar, true);
+    }
+
+    @Override
+    public BarSeries getSubSeries(int startIndex, int endIndex) {
+        if (startIndex < 0) {
+            throw new IllegalArgumentException(String.format("the startIndex: %s must not be negative", startIndex));
+        }
+        if (startIndex >= endIndex) {
+            throw new IllegalArgumentException(
+                    String.format("the endIndex: %s must be greater than startIndex: %s", endIndex, startIndex));
+        }
+        Snapshot current = snapshot;
+        List<Bar> bars = new ArrayList<>();
+        if (current.size > 0) {
+            int start = Math.max(startIndex, current.getBeginIndex());
+            start = Math.max(start, current.removedBarsCount);
+            int end = Math.min(endIndex, current.getEndIndex() + 1);
+            for (int i = start; i < end; i++) {
+                bars.add(current.getBar(i));
+            }
+        }
+        return new BaseBarSeries(name, bars, numFunction);
+    }
+
+    @Override
+    public Num numOf(Number number) {
+        return numFunction.apply(number);
+    }
+
+    @Override
+    public Function<Number, Num> function() {
+        return numFunction;
+    }
+
+    /**
+     * @param bar a bar
+     * @return a mutable copy of the bar
+     */
+    private static Bar copyOf(Bar bar) {
+        return new BaseBar(bar.getTimePeriod(), bar.getEndTime(), bar.getOpenPrice(), bar.getHighPrice(),
+                bar.getLowPrice(), bar.getClosePrice(), bar.getVolume(), bar.getAmount(), bar.getTrades());
+    }
+
+    /**
+     * A version of a {@link ConcurrentBarSeries}.
+     *
+     * The indexes and the bars of a snapshot never change. The bars are stored in
+     * an append-only array shared with the next snapshots: the only slot that may
+     * be written again is the one of the last bar, when it is replaced by an
+     * updated copy. That is why each snapshot keeps its own last bar.
+     */
+    public static final class Snapshot implements Serializable {
+
+        private static final long serialVersionUID = 4474549366520719046L;
+
+        /** The bar storage (possibly shared with newer snapshots) */
+        private final AtomicReferenceArray<Bar> bars;
+        /** The position of the first available bar in the storage */
+        private final int offset;
+        /** The number of available bars */
+        private final int size;
+        /** The number of removed bars */
+        private final int removedBarsCount;
+        /** The begin index of the series */
+        private final int beginIndex;
+        /** The end index of the series */
+        private final int endIndex;
+        /** The last bar of this version (its storage slot may be replaced later) */
+        private final Bar lastBar;
+
+        private Snapshot(AtomicReferenceArray<Bar> bars, int offset, int size, int removedBarsCount, int beginIndex,
+                int endIndex, Bar lastBar) {
+            this.bars = bars;
+            this.offset = offset;
+            this.size = size;
+            this.removedBarsCount = removedBarsCount;
+            this.beginIndex = beginIndex;
+            this.endIndex = endIndex;
+            this.lastBar = lastBar;
+        }
+
+        /**
+         * @return the begin index of the series
+         */
+        public int getBeginIndex() {
+            return beginIndex;
+        }
+
+        /**
+         * @return the end index of the series
+         */
+        public int getEndIndex() {
+            return endIndex;
+        }
+
+        /**
+         * @return the number of removed bars
+         */
+        public int getRemovedBarsCount() {
+            return removedBarsCount;
+        }
+
+        /**
+         * @return the number of bars in the series
+         */
+        public int getBarCount() {
+            if (endIndex < 0) {
+                return 0;
+            }
+            final int startIndex = Math.max(removedBarsCount, beginIndex);
+            return endIndex - startIndex + 1;
+        }
+
+        /**
+         * @param i an index
+         * @return the bar at the i-th position
+         */
+        public Bar getBar(int i) {
+            int innerIndex = i - removedBarsCount;
+            if (innerIndex < 0) {
+                if (i < 0 || size == 0) {
+                    throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(i));
+                }
+                innerIndex = 0;
+            } else if (innerIndex >= size) {
+                throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(i));
+            }
+            return innerIndex == size - 1 ? lastBar : bars.get(offset + innerIndex);
+        }
+
+        /**
+         * @return an unmodifiable view of the available bars
+         */
+        public List<Bar> getBarData() {
+            return new AbstractList<Bar>() {
+                @Override
+                public Bar get(int index) {
+                    if (index < 0 || index >= size) {
+                        throw new IndexOutOfBoundsException(buildOutOfBoundsMessage(index + removedBarsCount));
+                    }
+                    return index == size - 1 ? lastBar : bars.get(offset + index);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        private Bar getLastBar() {
+            return getBar(removedBarsCount + size - 1);
+        }
+
+        private Snapshot withAddedBar(Bar bar, int maximumBarCount) {
+            AtomicReferenceArray<Bar> storage = bars;
+            int newOffset = offset;
+            if (offset + size >= storage.length()) {
+                storage = copyBars(Math.max(MINIMUM_CAPACITY, 2 * (size + 1)));
+                newOffset = 0;
+            }
+            storage.set(newOffset + size, bar);
+            int newSize = size + 1;
+            int newRemovedBarsCount = removedBarsCount;
+            if (newSize > maximumBarCount) {
+                int nbBarsToRemove = newSize - maximumBarCount;
+                newOffset += nbBarsToRemove;
+                newSize -= nbBarsToRemove;
+                newRemovedBarsCount += nbBarsToRemove;
+            }
+            // Begin index set to 0 only if it wasn't initialized
+            return new Snapshot(storage, newOffset, newSize, newRemovedBarsCount, beginIndex == -1 ? 0 : beginIndex,
+                    endIndex + 1, bar);
+        }
+
+        private Snapshot withReplacedLastBar(Bar bar) {
+            // for the next snapshots: the older ones keep their own last bar
+            bars.set(offset + size - 1, bar);
+            return new Snapshot(bars, offset, size, removedBarsCount, beginIndex, endIndex, bar);
+        }
+
+        private Snapshot withMaximumBarCount(int maximumBarCount) {
+            if (size <= maximumBarCount) {
+                return this;
+            }
+            int nbBarsToRemove = size - maximumBarCount;
+            return new Snapshot(bars, offset + nbBarsToRemove, maximumBarCount, removedBarsCount + nbBarsToRemove,
+                    beginIndex, endIndex, lastBar);
+        }
+
+        /**
+         * @param capacity the capacity of the new storage
+         * @return a new storage holding the available bars from position 0
+         */
+        private AtomicReferenceArray<Bar> copyBars(int capacity) {
+            AtomicReferenceArray<Bar> storage = new AtomicReferenceArray<>(capacity);
+            for (int i = 0; i < size; i++) {
+                storage.lazySet(i, bars.get(offset + i));
+            }
+            return storage;
+        }
+
+        private String buildOutOfBoundsMessage(int index) {
+            return String.format("Size of series: %s bars, %s bars removed, index = %s", size, removedBarsCount,
+                    index);
+        }
+    }
+}
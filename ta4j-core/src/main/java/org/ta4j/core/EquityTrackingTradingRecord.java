@@ -0,0 +1,402 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.num.Num;
+
+/**
+ * A trading record tracking its equity curve incrementally.
+ *
+ * Maintains, as the trades are placed and the bars are
+ * {@link #advance(int) advanced}:
+ * <ul>
+ * <li>the equity curve (same values as the
+ * {@link org.ta4j.core.analysis.CashFlow cash flow}, starting at 1)
+ * <li>the running peak and the maximum drawdown of the equity
+ * <li>the profit and loss aggregates of the closed positions
+ * </ul>
+ * so that they can be read in O(1) (e.g. by drawdown guards evaluated on each
+ * bar of a live trading session) instead of being rebuilt from the trades.
+ *
+ * The values of an open position are computed on each bar with the holding
+ * cost accrued up to that bar. When the position is closed, its values are
+ * computed again with the final holding cost, exactly as the cash flow does.
+ *
+ * Two views are maintained: the "closed" values (e.g.
+ * {@link #getClosedMaxDrawdown()}) only account for the closed positions,
+ * exactly as the {@link org.ta4j.core.analysis.criteria criteria} do, while the
+ * other values (e.g. {@link #getMaxDrawdown()}) also account for the open
+ * position up to the last advanced bar.
+ */
+public class EquityTrackingTradingRecord extends BaseTradingRecord implements AggregatingTradingRecord {
+
+    private static final long serialVersionUID = 5031637441722398461L;
+
+    /** The bar series of the trading session */
+    private final BarSeries series;
+
+    /** The equity values, by bar index (starting at index 0) */
+    private final List<Num> values = new ArrayList<>();
+
+    /** The entry value of the open position (null if none or not valid) */
+    private Num entryValue;
+
+    private Num closedPeak;
+    private Num closedMaxDrawdown;
+    private Num peak;
+    private Num maxDrawdown;
+
+    private int winningPositionCount;
+    private int losingPositionCount;
+    private int breakEvenPositionCount;
+    private Num profitLoss;
+    private Num profitLossPercentage;
+    private Num netProfit;
+    private Num netLoss;
+    private Num grossProfit;
+    private Num grossLoss;
+    private Num grossReturn;
+
+    /**
+     * Constructor.
+     *
+     * @param series the bar series of the trading session
+     */
+    public EquityTrackingTradingRecord(BarSeries series) {
+        this(series, TradeType.BUY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param series         the bar series of the trading session
+     * @param entryTradeType the {@link TradeType trade type} of entries in the
+     *                       trading session
+     */
+    public EquityTrackingTradingRecord(BarSeries series, TradeType entryTradeType) {
+        this(series, entryTradeType, new ZeroCostModel(), new ZeroCostModel());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param series               the bar series of the trading session
+     * @param entryTradeType       the {@link TradeType trade type} of entries in
+     *                             the trading session
+     * @param transactionCostModel the cost model for transactions of the asset
+     * @param holdingCostModel     the cost model for holding asset (e.g. borrowing)
+     */
+    public EquityTrackingTradingRecord(BarSeries series, TradeType entryTradeType, CostModel transactionCostModel,
+            CostModel holdingCostModel) {
+        super(entryTradeType, transactionCostModel, holdingCostModel);
+        this.series = series;
+        Num zero = series.numOf(0);
+        closedPeak = zero;
+        closedMaxDrawdown = zero;
+        profitLoss = zero;
+        profitLossPercentage = zero;
+        netProfit = zero;
+        netLoss = zero;
+        grossProfit = zero;
+        grossLoss = zero;
+        grossReturn = series.numOf(1);
+        Num one = series.numOf(1);
+        values.add(one);
+        updateClosed(one);
+        peak = closedPeak;
+        maxDrawdown = closedMaxDrawdown;
+    }
+
+    @Override
+    public BarSeries getBarSeries() {
+        return series;
+    }
+
+    @Override
+    public void operate(int index, Num price, Num amount) {
+        boolean isEntry = getCurrentPosition().isNew();
+        advance(index);
+        super.operate(index, price, amount);
+        if (isEntry) {
+            Num value = values.get(index);
+            // as in the cash flow, a position is not valid if the equity is not positive
+            entryValue = value.isGreaterThan(value.numOf(0)) ? value : null;
+        } else {
+            Position position = getPositions().get(getPositions().size() - 1);
+            closePosition(position);
+        }
+    }
+
+    /**
+     * Extends the equity curve up to a bar, using the close prices for the open
+     * position (if any).
+     *
+     * @param index the index of the bar
+     * @throws IllegalArgumentException if the bar is before the last advanced bar
+     */
+    public void advance(int index) {
+        int lastIndex = values.size() - 1;
+        if (index < lastIndex) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot advance to index %s, already at index %s", index, lastIndex));
+        }
+        Position position = getCurrentPosition();
+        for (int i = lastIndex + 1; i <= index; i++) {
+            if (entryValue != null && position.isOpened()) {
+                Num value = openValue(position, i);
+                values.add(value);
+                update(value);
+            } else {
+                // flat
+                Num value = values.get(i - 1);
+                values.add(value);
+                updateClosed(value);
+            }
+        }
+    }
+
+    /**
+     * @return the index of the last advanced bar
+     */
+    public int getLastIndex() {
+        return values.size() - 1;
+    }
+
+    /**
+     * @param index the index of a bar, up to {@link #getLastIndex()}
+     * @return the equity at the bar
+     */
+    public Num getEquity(int index) {
+        return values.get(index);
+    }
+
+    /**
+     * @return the equity at the last advanced bar
+     */
+    public Num getEquity() {
+        return values.get(values.size() - 1);
+    }
+
+    /**
+     * @return the equity curve, by bar index (starting at index 0)
+     */
+    public List<Num> getEquityCurve() {
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * @return the highest equity (including the open position)
+     */
+    public Num getPeak() {
+        return peak;
+    }
+
+    /**
+     * @return the drawdown at the last advanced bar (including the open position)
+     */
+    public Num getDrawdown() {
+        return peak.minus(getEquity()).dividedBy(peak);
+    }
+
+    /**
+     * @return the maximum drawdown (including the open position)
+     */
+    public Num getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    /**
+     * @return the highest equity of the closed positions
+     */
+    public Num getClosedPeak() {
+        return closedPeak;
+    }
+
+    /**
+     * @return the maximum drawdown of the closed positions (as the
+     *         {@link org.ta4j.core.analysis.criteria.MaximumDrawdownCriterion})
+     */
+    public Num getClosedMaxDrawdown() {
+        return closedMaxDrawdown;
+    }
+
+    @Override
+    public int getWinningPositionCount() {
+        return winningPositionCount;
+    }
+
+    @Override
+    public int getLosingPositionCount() {
+        return losingPositionCount;
+    }
+
+    @Override
+    public int getBreakEvenPositionCount() {
+        return breakEvenPositionCount;
+    }
+
+    @Override
+    public Num getProfitLoss() {
+        return profitLoss;
+    }
+
+    @Override
+    public Num getProfitLossPercentage() {
+        return profitLossPercentage;
+    }
+
+    @Override
+    public Num getNetProfit() {
+        return netProfit;
+    }
+
+    @Override
+    public Num getNetLoss() {
+        return netLoss;
+    }
+
+    @Override
+    public Num getGrossProfit() {
+        return grossProfit;
+    }
+
+    @Override
+    public Num getGrossLoss() {
+        return grossLoss;
+    }
+
+    @Override
+    public Num getGrossReturn() {
+        return grossReturn;
+    }
+
+    /**
+     * Computes the final values of a closed position, and updates the aggregates.
+     *
+     * @param position the closed position
+     */
+    private void closePosition(Position position) {
+        if (entryValue != null) {
+            int entryIndex = position.getEntry().getIndex();
+            int exitIndex = position.getExit().getIndex();
+            boolean isLongTrade = position.getEntry().isBuy();
+            Num avgCost = averageHoldingCost(position, exitIndex);
+            Num netEntryPrice = position.getEntry().getNetPrice();
+            // the peaks and drawdowns are computed again from the entry
+            peak = closedPeak;
+            maxDrawdown = closedMaxDrawdown;
+            for (int i = entryIndex + 1; i <= exitIndex; i++) {
+                Num price = i < exitIndex ? series.getBar(i).getClosePrice() : position.getExit().getNetPrice();
+                Num ratio = ratio(isLongTrade, netEntryPrice, addCost(price, avgCost, isLongTrade));
+                Num value = entryValue.multipliedBy(ratio);
+                values.set(i, value);
+                updateClosed(value);
+            }
+            entryValue = null;
+        }
+
+        Num profit = position.getProfit();
+        if (profit.isPositive()) {
+            winningPositionCount++;
+            netProfit = netProfit.plus(profit);
+        } else if (profit.isNegative()) {
+            losingPositionCount++;
+            netLoss = netLoss.plus(profit);
+        } else {
+            breakEvenPositionCount++;
+        }
+        profitLoss = profitLoss.plus(profit);
+        profitLossPercentage = profitLossPercentage
+                .plus(profit.dividedBy(position.getEntry().getValue()).multipliedBy(series.numOf(100)));
+        Num positionGrossProfit = position.getGrossProfit();
+        if (positionGrossProfit.isPositive()) {
+            grossProfit = grossProfit.plus(positionGrossProfit);
+        } else if (positionGrossProfit.isNegative()) {
+            grossLoss = grossLoss.plus(positionGrossProfit);
+        }
+        grossReturn = grossReturn.multipliedBy(position.getGrossReturn(series));
+    }
+
+    /**
+     * @return the value of the open position at a bar, with the holding cost
+     *         accrued up to the bar
+     */
+    private Num openValue(Position position, int index) {
+        boolean isLongTrade = position.getEntry().isBuy();
+        Num avgCost = averageHoldingCost(position, index);
+        Num netPrice = addCost(series.getBar(index).getClosePrice(), avgCost, isLongTrade);
+        return entryValue.multipliedBy(ratio(isLongTrade, position.getEntry().getNetPrice(), netPrice));
+    }
+
+    private static Num averageHoldingCost(Position position, int index) {
+        Num holdingCost = position.getHoldingCost(index);
+        return holdingCost.dividedBy(holdingCost.numOf(index - position.getEntry().getIndex()));
+    }
+
+    private static Num addCost(Num rawPrice, Num holdingCost, boolean isLongTrade) {
+        return isLongTrade ? rawPrice.minus(holdingCost) : rawPrice.plus(holdingCost);
+    }
+
+    private static Num ratio(boolean isLongTrade, Num entryPrice, Num exitPrice) {
+        if (isLongTrade) {
+            return exitPrice.dividedBy(entryPrice);
+        }
+        return entryPrice.numOf(2).minus(exitPrice.dividedBy(entryPrice));
+    }
+
+    /**
+     * Updates the peaks and drawdowns with a value of the closed positions.
+     */
+    private void updateClosed(Num value) {
+        if (value.isGreaterThan(closedPeak)) {
+            closedPeak = value;
+        }
+        Num drawdown = closedPeak.minus(value).dividedBy(closedPeak);
+        if (drawdown.isGreaterThan(closedMaxDrawdown)) {
+            closedMaxDrawdown = drawdown;
+        }
+        peak = closedPeak;
+        maxDrawdown = closedMaxDrawdown;
+    }
+
+    /**
+     * Updates the peak and drawdown with a value of the open position.
+     */
+    private void update(Num value) {
+        if (value.isGreaterThan(peak)) {
+            peak = value;
+        }
+        Num drawdown = peak.minus(value).dividedBy(peak);
+        if (drawdown.isGreaterThan(maxDrawdown)) {
+            maxDrawdown = drawdown;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.rules.JustOnceRule;
+import org.ta4j.core.rules.WaitForRule;
+import org.ta4j.core.utils.RuleUtils;
+
+/**
+ * A manager running a single strategy over segments of a bar series in
+ * parallel.
+ *
+ * The state of a strategy resets each time its position is closed. The run
+ * index range is split into segments, and each segment is simulated in
+ * parallel from a flat state. As the indicator caches are not thread-safe, each
+ * thread of the pool runs its segments with its own instance of the strategy:
+ * its indicators are filled up to the last segment it ran (the recursive ones
+ * from the beginning of the series), and reused by its next segments. The
+ * segments are then stitched in order:
+ * <ul>
+ * <li>if the exact run is flat at the beginning of a segment, the speculative
+ * trades of the segment are the exact ones
+ * <li>otherwise the segment is run again from the exact state, until the first
+ * bar after which both the exact and the speculative runs are flat; the
+ * speculative trades are kept from there
+ * </ul>
+ * The trading record is the same as the one of a sequential
+ * {@link BarSeriesManager#run(Strategy, TradeType, Num, int, int) run}, as long
+ * as the rules only depend on the bar index and on the current position (e.g.
+ * a {@link org.ta4j.core.rules.StopLossRule stop loss}). Strategies with rules
+ * depending on the previous trades or keeping a state between evaluations
+ * ({@link WaitForRule}, {@link JustOnceRule}) are run sequentially.
+ *
+ * The strategy factory is called once per thread of the pool running segments,
+ * from that thread.
+ */
+public class ParallelBarSeriesManager {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelBarSeriesManager.class);
+
+    /** The managed bar series */
+    private final BarSeries barSeries;
+
+    /** The trading cost models */
+    private final CostModel transactionCostModel;
+    private final CostModel holdingCostModel;
+
+    /** The pool running the segments */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor (no trading costs, common fork-join pool).
+     *
+     * @param barSeries the bar series to be managed
+     */
+    public ParallelBarSeriesManager(BarSeries barSeries) {
+        this(barSeries, new ZeroCostModel(), new ZeroCostModel());
+    }
+
+    /**
+     * Constructor (common fork-join pool).
+     *
+     * @param barSeries            the bar series to be managed
+     * @param transactionCostModel the cost model for transactions of the asset
+     * @param holdingCostModel     the cost model for holding asset (e.g. borrowing)
+     */
+    public ParallelBarSeriesManager(BarSeries barSeries, CostModel transactionCostModel,
+            CostModel holdingCostModel) {
+        this(barSeries, transactionCostModel, holdingCostModel, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param barSeries            the bar series to be managed
+     * @param transactionCostModel the cost model for transactions of the asset
+     * @param holdingCostModel     the cost model for holding asset (e.g. borrowing)
+     * @param pool                 the pool running the segments
+     */
+    public ParallelBarSeriesManager(BarSeries barSeries, CostModel transactionCostModel, CostModel holdingCostModel,
+            ForkJoinPool pool) {
+        this.barSeries = barSeries;
+        this.transactionCostModel = transactionCostModel;
+        this.holdingCostModel = holdingCostModel;
+        this.pool = pool;
+    }
+
+    /**
+     * @return the managed bar series
+     */
+    public BarSeries getBarSeries() {
+        return barSeries;
+    }
+
+    /**
+     * Runs the strategy over the managed series, with buy entries and an amount
+     * of 1.
+     *
+     * @param strategyFactory builds an instance of the strategy for the series
+     * @return the trading record coming from the run
+     */
+    public TradingRecord run(Function<BarSeries, Strategy> strategyFactory) {
+        return run(strategyFactory, TradeType.BUY, barSeries.numOf(1));
+    }
+
+    /**
+     * Runs the strategy over the managed series, with 4 segments per thread of the
+     * pool.
+     *
+     * @param strategyFactory builds an instance of the strategy for the series
+     * @param tradeType       the {@link TradeType} used to open the positions
+     * @param amount          the amount used to open/close the trades
+     * @return the trading record coming from the run
+     */
+    public TradingRecord run(Function<BarSeries, Strategy> strategyFactory, TradeType tradeType, Num amount) {
+        return run(strategyFactory, tradeType, amount, barSeries.getBeginIndex(), barSeries.getEndIndex(),
+                4 * pool.getParallelism());
+    }
+
+    /**
+     * Runs the strategy over the managed series (from startIndex to finishIndex).
+     *
+     * @param strategyFactory builds an instance of the strategy for the series
+     * @param tradeType       the {@link TradeType} used to open the positions
+     * @param amount          the amount used to open/close the trades
+     * @param startIndex      the start index for the run (included)
+     * @param finishIndex     the finish index for the run (included)
+     * @param segmentCount    the number of segments
+     * @return the trading record coming from the run
+     */
+    public TradingRecord run(Function<BarSeries, Strategy> strategyFactory, TradeType tradeType, Num amount,
+            int startIndex, int finishIndex, int segmentCount) {
+        if (segmentCount < 1) {
+            throw new IllegalArgumentException("Segment count must be positive");
+        }
+        int runBeginIndex = Math.max(startIndex, barSeries.getBeginIndex());
+        int runEndIndex = Math.min(finishIndex, barSeries.getEndIndex());
+        int barCount = runEndIndex - runBeginIndex + 1;
+
+        Strategy probe = strategyFactory.apply(barSeries);
+        if (segmentCount == 1 || barCount <= 1 || !isSegmentable(probe)) {
+            return new BarSeriesManager(barSeries, transactionCostModel, holdingCostModel).run(probe, tradeType, amount,
+                    startIndex, finishIndex);
+        }
+
+        int segmentSize = (barCount + segmentCount - 1) / segmentCount;
+        // the strategy instance of each thread, sharing its indicator caches between
+        // the segments run by the thread
+        Map<Thread, Strategy> strategies = new ConcurrentHashMap<>();
+        List<Segment> segments = pool.submit(() -> IntStream.range(0, (barCount + segmentSize - 1) / segmentSize)
+                .parallel()
+                .mapToObj(s -> new Segment(
+                        strategies.computeIfAbsent(Thread.currentThread(), thread -> strategyFactory.apply(barSeries)),
+                        runBeginIndex + s * segmentSize,
+                        Math.min(runBeginIndex + (s + 1) * segmentSize, runEndIndex + 1) - 1, tradeType, amount))
+                .collect(Collectors.toList())).join();
+
+        TradingRecord tradingRecord = new BaseTradingRecord(tradeType, transactionCostModel, holdingCostModel);
+        int rerunBarCount = 0;
+        for (Segment segment : segments) {
+            int from = segment.begin;
+            if (!tradingRecord.getCurrentPosition().isNew()) {
+                // a position is opened over the segment boundary: run from the exact state
+                from = segment.end + 1;
+                for (int i = segment.begin; i <= segment.end; i++) {
+                    operate(segment.strategy, i, tradingRecord, amount);
+                    if (tradingRecord.getCurrentPosition().isNew() && segment.flatAfter.get(i)) {
+                        from = i + 1;
+                        break;
+                    }
+                }
+                rerunBarCount += from - segment.begin;
+            }
+            for (int index : segment.tradeIndexes) {
+                if (index >= from) {
+                    tradingRecord.operate(index, barSeries.getBar(index).getClosePrice(), amount);
+                }
+            }
+        }
+
+        if (!tradingRecord.isClosed()) {
+            // as in the bar series manager, the last position may be closed after the end
+            // index
+            Strategy strategy = segments.get(segments.size() - 1).strategy;
+            int seriesMaxSize = Math.max(barSeries.getEndIndex() + 1, barSeries.getBarData().size());
+            for (int i = runEndIndex + 1; i < seriesMaxSize; i++) {
+                if (operate(strategy, i, tradingRecord, amount)) {
+                    break;
+                }
+            }
+        }
+        log.trace("Ran strategy over {} segments (indexes: {} -> {}), {} bars run again", segments.size(),
+                runBeginIndex, runEndIndex, rerunBarCount);
+        return tradingRecord;
+    }
+
+    /**
+     * Checks whether a strategy can be run over segments, i.e. whether its rules
+     * do not depend on the previous trades nor on their previous evaluations.
+     *
+     * @param strategy the strategy
+     * @return true if the strategy can be run over segments
+     */
+    public static boolean isSegmentable(Strategy strategy) {
+        return !RuleUtils.anyMatch(strategy.getEntryRule(), ParallelBarSeriesManager::isHistoryDependent)
+                && !RuleUtils.anyMatch(strategy.getExitRule(), ParallelBarSeriesManager::isHistoryDependent);
+    }
+
+    private static boolean isHistoryDependent(Rule rule) {
+        return rule instanceof WaitForRule || rule instanceof JustOnceRule;
+    }
+
+    /**
+     * Operates the trading record if the strategy should.
+     *
+     * @return true if a trade has been placed
+     */
+    private boolean operate(Strategy strategy, int index, TradingRecord tradingRecord, Num amount) {
+        if (strategy.shouldOperate(index, tradingRecord)) {
+            tradingRecord.operate(index, barSeries.getBar(index).getClosePrice(), amount);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * A segment of the run, simulated from a flat state.
+     */
+    private class Segment {
+
+        /** The instance of the strategy of the thread which ran the segment */
+        private final Strategy strategy;
+
+        /** The first index of the segment */
+        private final int begin;
+
+        /** The last index of the segment */
+        private final int end;
+
+        /** The indexes of the speculative trades */
+        private final List<Integer> tradeIndexes = new ArrayList<>();
+
+        /** The bars after which the speculative run is flat */
+        private final BitSet flatAfter = new BitSet();
+
+        private Segment(Strategy strategy, int begin, int end, TradeType tradeType, Num amount) {
+            this.strategy = strategy;
+            this.begin = begin;
+            this.end = end;
+            TradingRecord tradingRecord = new BaseTradingRecord(tradeType, transactionCostModel, holdingCostModel);
+            for (int i = begin; i <= end; i++) {
+                if (operate(strategy, i, tradingRecord, amount)) {
+                    tradeIndexes.add(i);
+                }
+                if (tradingRecord.getCurrentPosition().isNew()) {
+                    flatAfter.set(i);
+                }
+            }
+        }
+    }
+}
@@ -142,6 +142,20 @@ public class Position implements Serializable {
         return exit;
     }
 
+    /**
+     * @return the cost model for transactions of the asset
+     */
+    public CostModel getTransactionCostModel() {
+        return transactionCostModel;
+    }
+
+    /**
+     * @return the cost model for holding the asset
+     */
+    public CostModel getHoldingCostModel() {
+        return holdingCostModel;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof Position) {
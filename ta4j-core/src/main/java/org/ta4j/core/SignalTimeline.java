@@ -0,0 +1,285 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import java.util.BitSet;
+
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.rules.JustOnceRule;
+import org.ta4j.core.rules.OpenedPositionMinimumBarCountRule;
+import org.ta4j.core.rules.StopGainRule;
+import org.ta4j.core.rules.StopLossRule;
+import org.ta4j.core.rules.TrailingStopLossRule;
+import org.ta4j.core.rules.WaitForRule;
+import org.ta4j.core.utils.RuleUtils;
+
+/**
+ * The signal timeline of a strategy over a bar series.
+ *
+ * A backtest is run in two phases:
+ * <ol>
+ * <li>the entry and exit signals of the strategy are {@link #record recorded}
+ * once, for each bar of the run
+ * <li>the timeline is {@link #replay replayed} under as many scenarios (cost
+ * models, amounts, trade types) as needed, without evaluating the rules again
+ * </ol>
+ * A replay places the same trades as a
+ * {@link BarSeriesManager#run(Strategy, TradeType, Num, int, int) run} of the
+ * strategy with the same parameters.
+ *
+ * The signals of a rule can only be recorded if the rule does not depend on
+ * the trading record (e.g. a {@link StopLossRule stop loss}) or on its previous
+ * evaluations (e.g. a {@link JustOnceRule}), see
+ * {@link #isRecordDependent(Rule)}. Such an entry (or exit) rule is evaluated
+ * again on each replay, while the signals of the other rule are still read from
+ * the timeline.
+ */
+public class SignalTimeline {
+
+    /** The bar series */
+    private final BarSeries series;
+
+    /** The strategy */
+    private final Strategy strategy;
+
+    /** The first index of the run */
+    private final int beginIndex;
+
+    /** The last index of the run (entries are not placed after it) */
+    private final int endIndex;
+
+    /** The last index at which the last position may be closed */
+    private final int lastIndex;
+
+    /** True if the entry rule has to be evaluated on each replay */
+    private final boolean entryRuleRecordDependent;
+
+    /** True if the exit rule has to be evaluated on each replay */
+    private final boolean exitRuleRecordDependent;
+
+    /** The bars at which the strategy should enter (if not record dependent) */
+    private final BitSet entrySignals = new BitSet();
+
+    /** The bars at which the strategy should exit (if not record dependent) */
+    private final BitSet exitSignals = new BitSet();
+
+    private SignalTimeline(BarSeries series, Strategy strategy, int startIndex, int finishIndex) {
+        this.series = series;
+        this.strategy = strategy;
+        this.beginIndex = Math.max(startIndex, series.getBeginIndex());
+        this.endIndex = Math.min(finishIndex, series.getEndIndex());
+        // as in the bar series manager, the last position may be closed after the end
+        // index
+        this.lastIndex = Math.max(series.getEndIndex() + 1, series.getBarData().size()) - 1;
+        this.entryRuleRecordDependent = isRecordDependent(strategy.getEntryRule());
+        this.exitRuleRecordDependent = isRecordDependent(strategy.getExitRule());
+        if (!entryRuleRecordDependent) {
+            for (int i = beginIndex; i <= endIndex; i++) {
+                if (strategy.shouldEnter(i)) {
+                    entrySignals.set(i);
+                }
+            }
+        }
+        if (!exitRuleRecordDependent) {
+            for (int i = beginIndex; i <= lastIndex; i++) {
+                if (strategy.shouldExit(i)) {
+                    exitSignals.set(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the signals of a strategy over a bar series.
+     *
+     * @param series   the bar series
+     * @param strategy the trading strategy
+     * @return the signal timeline
+     */
+    public static SignalTimeline record(BarSeries series, Strategy strategy) {
+        return record(series, strategy, series.getBeginIndex(), series.getEndIndex());
+    }
+
+    /**
+     * Records the signals of a strategy over a bar series (from startIndex to
+     * finishIndex).
+     *
+     * @param series      the bar series
+     * @param strategy    the trading strategy
+     * @param startIndex  the start index for the run (included)
+     * @param finishIndex the finish index for the run (included)
+     * @return the signal timeline
+     */
+    public static SignalTimeline record(BarSeries series, Strategy strategy, int startIndex, int finishIndex) {
+        return new SignalTimeline(series, strategy, startIndex, finishIndex);
+    }
+
+    /**
+     * Replays the timeline into a new {@link BaseTradingRecord}.
+     *
+     * @param tradeType            the {@link TradeType} used to open the positions
+     * @param amount               the amount used to open/close the trades
+     * @param transactionCostModel the cost model for transactions of the asset
+     * @param holdingCostModel     the cost model for holding asset (e.g. borrowing)
+     * @return the trading record coming from the replay
+     */
+    public TradingRecord replay(TradeType tradeType, Num amount, CostModel transactionCostModel,
+            CostModel holdingCostModel) {
+        return replay(new BaseTradingRecord(tradeType, transactionCostModel, holdingCostModel), amount);
+    }
+
+    /**
+     * Replays the timeline into the provided trading record (e.g. a
+     * {@link CompactTradingRecord}).
+     *
+     * The trading record carries the starting trade type and the cost models of
+     * the replay.
+     *
+     * @param tradingRecord the trading record to fill
+     * @param amount        the amount used to open/close the trades
+     * @return the provided trading record
+     */
+    public TradingRecord replay(TradingRecord tradingRecord, Num amount) {
+        int i = beginIndex;
+        while (i <= lastIndex) {
+            boolean isNew = tradingRecord.getCurrentPosition().isNew();
+            if (isNew) {
+                i = nextEntry(i, tradingRecord);
+                if (i < 0 || i > endIndex) {
+                    break;
+                }
+            } else {
+                i = nextExit(i, tradingRecord);
+                if (i < 0) {
+                    break;
+                }
+            }
+            tradingRecord.operate(i, series.getBar(i).getClosePrice(), amount);
+            if (!isNew && i > endIndex) {
+                // the last position has been closed after the end index
+                break;
+            }
+            i++;
+        }
+        return tradingRecord;
+    }
+
+    /**
+     * @param from          the first index to look at
+     * @param tradingRecord the trading record of the replay
+     * @return the index of the next entry, or -1 if none
+     */
+    private int nextEntry(int from, TradingRecord tradingRecord) {
+        if (!entryRuleRecordDependent) {
+            return entrySignals.nextSetBit(from);
+        }
+        for (int i = from; i <= endIndex; i++) {
+            if (strategy.shouldEnter(i, tradingRecord)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param from          the first index to look at
+     * @param tradingRecord the trading record of the replay
+     * @return the index of the next exit, or -1 if none
+     */
+    private int nextExit(int from, TradingRecord tradingRecord) {
+        if (!exitRuleRecordDependent) {
+            return exitSignals.nextSetBit(from);
+        }
+        for (int i = from; i <= lastIndex; i++) {
+            if (strategy.shouldExit(i, tradingRecord)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the bar series
+     */
+    public BarSeries getBarSeries() {
+        return series;
+    }
+
+    /**
+     * @return the strategy
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return true if the entry rule is evaluated on each replay
+     */
+    public boolean isEntryRuleRecordDependent() {
+        return entryRuleRecordDependent;
+    }
+
+    /**
+     * @return true if the exit rule is evaluated on each replay
+     */
+    public boolean isExitRuleRecordDependent() {
+        return exitRuleRecordDependent;
+    }
+
+    /**
+     * @return the bars at which the strategy should enter (empty if the entry rule
+     *         is record dependent)
+     */
+    public BitSet getEntrySignals() {
+        return (BitSet) entrySignals.clone();
+    }
+
+    /**
+     * @return the bars at which the strategy should exit (empty if the exit rule
+     *         is record dependent)
+     */
+    public BitSet getExitSignals() {
+        return (BitSet) exitSignals.clone();
+    }
+
+    /**
+     * Checks whether the signals of a rule cannot be recorded once for all runs,
+     * i.e. whether the rule (or one of its sub-rules) reads the trading record or
+     * keeps a state between evaluations.
+     *
+     * The composite rules of ta4j are inspected recursively. Other rules are
+     * expected to only depend on the bar index.
+     *
+     * @param rule the rule
+     * @return true if the rule has to be evaluated on each run
+     */
+    public static boolean isRecordDependent(Rule rule) {
+        return RuleUtils.anyMatch(rule,
+                r -> r instanceof StopLossRule || r instanceof StopGainRule || r instanceof TrailingStopLossRule
+                        || r instanceof OpenedPositionMinimumBarCountRule || r instanceof WaitForRule
+                        || r instanceof JustOnceRule);
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import org.ta4j.core.num.Num;
+
+/**
+ * A higher timeframe bar series, derived from a base series.
+ *
+ * The series registers itself as a {@link BarSeriesListener} of its base
+ * series, and stays in lockstep with it: each bar added to, or changed in, the
+ * base series updates the last bar of this series (in constant time), or adds a
+ * new one. The last bar of this series is then in progress until the base
+ * series reaches the end of its period.
+ *
+ * The bars cover consecutive periods of the given duration (a multiple of the
+ * duration of the base bars), aligned on an anchor time (by default, the begin
+ * time of the first base bar). Periods without base bars give no bars.
+ *
+ * The base indexes are mapped to the indexes of this series in constant time,
+ * either to the bar containing a base bar ({@link #getDerivedIndex(int)}), or
+ * to the last bar complete at the end of a base bar
+ * ({@link #getCompletedIndex(int)}, i.e. without look-ahead).
+ */
+public class TimeframeBarSeries extends BaseBarSeries implements BarSeriesListener {
+
+    private static final long serialVersionUID = 4386112476271375428L;
+
+    /** The base series */
+    private final BaseBarSeries baseSeries;
+
+    /** The duration of the bars */
+    private final Duration timePeriod;
+    private final long periodNanos;
+
+    /** The anchor time of the periods (null until the first base bar) */
+    private ZonedDateTime anchor;
+
+    /**
+     * The derived index of each base index, from the first mapped one (the ones of
+     * the bars removed from the base series are dropped when the array is full)
+     */
+    private int[] derivedIndexes = new int[16];
+    private int firstBaseIndex = -1;
+    private int lastBaseIndex = -1;
+
+    /** The last base bar */
+    private Bar lastBaseBar;
+
+    /**
+     * The base bars of the period of the last bar, but the last base bar
+     * (committedBegin is null if none)
+     */
+    private ZonedDateTime committedBegin;
+    private Num openPrice;
+    private Num highPrice;
+    private Num lowPrice;
+    private Num closePrice;
+    private Num volume;
+    private Num amount;
+    private long trades;
+
+    /**
+     * Constructor.
+     *
+     * @param baseSeries the base series
+     * @param timePeriod the duration of the bars
+     */
+    public TimeframeBarSeries(BaseBarSeries baseSeries, Duration timePeriod) {
+        this(baseSeries, timePeriod, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param baseSeries the base series
+     * @param timePeriod the duration of the bars
+     * @param anchor     the begin time of a period (null to use the begin time of
+     *                   the first base bar)
+     */
+    public TimeframeBarSeries(BaseBarSeries baseSeries, Duration timePeriod, ZonedDateTime anchor) {
+        super(baseSeries.getName() + " " + timePeriod, baseSeries.function());
+        if (timePeriod.isNegative() || timePeriod.isZero()) {
+            throw new IllegalArgumentException("Time period must be positive");
+        }
+        this.baseSeries = baseSeries;
+        this.timePeriod = timePeriod;
+        this.periodNanos = timePeriod.toNanos();
+        this.anchor = anchor;
+        if (!baseSeries.isEmpty()) {
+            for (int i = baseSeries.getBeginIndex(); i <= baseSeries.getEndIndex(); i++) {
+                onBarAdded(baseSeries, i);
+            }
+        }
+        baseSeries.addListener(this);
+    }
+
+    /**
+     * Stops following the base series.
+     */
+    public void detach() {
+        baseSeries.removeListener(this);
+    }
+
+    /**
+     * @return the base series
+     */
+    public BaseBarSeries getBaseSeries() {
+        return baseSeries;
+    }
+
+    /**
+     * @return the duration of the bars
+     */
+    public Duration getTimePeriod() {
+        return timePeriod;
+    }
+
+    /**
+     * @param baseIndex an index of the base series
+     * @return the index of the bar containing the base bar
+     */
+    public int getDerivedIndex(int baseIndex) {
+        if (baseIndex < Math.max(firstBaseIndex, baseSeries.getRemovedBarsCount()) || baseIndex > lastBaseIndex) {
+            throw new IndexOutOfBoundsException("Base index not mapped: " + baseIndex);
+        }
+        return derivedIndexes[baseIndex - firstBaseIndex];
+    }
+
+    /**
+     * @param baseIndex an index of the base series
+     * @return the index of the last bar complete at the end of the base bar (i.e.
+     *         the bar containing the base bar if it ends with it, otherwise the
+     *         previous one; less than the begin index if none)
+     */
+    public int getCompletedIndex(int baseIndex) {
+        int derivedIndex = getDerivedIndex(baseIndex);
+        if (baseSeries.getBar(baseIndex).getEndTime().isBefore(getBar(derivedIndex).getEndTime())) {
+            return derivedIndex - 1;
+        }
+        return derivedIndex;
+    }
+
+    /**
+     * @return true if the last bar is complete (i.e. the base series reached the
+     *         end of its period)
+     */
+    public boolean isLastBarComplete() {
+        return !isEmpty() && !lastBaseBar.getEndTime().isBefore(getLastBar().getEndTime());
+    }
+
+    @Override
+    public void onBarAdded(BarSeries series, int index) {
+        if (lastBaseBar != null) {
+            // the previous last base bar cannot change anymore
+            commit(lastBaseBar);
+        }
+        lastBaseBar = series.getBar(index);
+        if (firstBaseIndex < 0) {
+            firstBaseIndex = index;
+        }
+        lastBaseIndex = index;
+        if (index - firstBaseIndex >= derivedIndexes.length) {
+            ensureCapacity(index);
+        }
+        derivedIndexes[index - firstBaseIndex] = publish();
+    }
+
+    /**
+     * Makes room in the derived indexes for a base index: drops the ones of the
+     * bars removed from the base series if they free half of the array, otherwise
+     * grows it.
+     */
+    private void ensureCapacity(int baseIndex) {
+        int firstKept = Math.min(Math.max(firstBaseIndex, baseSeries.getRemovedBarsCount()), baseIndex);
+        int keptCount = baseIndex - firstKept;
+        int[] target = derivedIndexes;
+        if (keptCount > derivedIndexes.length / 2) {
+            target = new int[Math.max(keptCount + 1, derivedIndexes.length + (derivedIndexes.length >> 1))];
+        }
+        System.arraycopy(derivedIndexes, firstKept - firstBaseIndex, target, 0, keptCount);
+        derivedIndexes = target;
+        firstBaseIndex = firstKept;
+    }
+
+    @Override
+    public void onLastBarChanged(BarSeries series, int index) {
+        lastBaseBar = series.getBar(index);
+        publish();
+    }
+
+    /**
+     * @return the begin time of the period containing a time
+     */
+    private ZonedDateTime periodBegin(ZonedDateTime time) {
+        if (anchor == null) {
+            anchor = time;
+        }
+        long elapsed = Duration.between(anchor, time).toNanos();
+        return anchor.plusNanos(Math.floorDiv(elapsed, periodNanos) * periodNanos);
+    }
+
+    /**
+     * Adds a base bar to the committed part of the period of the last bar (a bar
+     * without prices, e.g. added empty and never traded, is skipped).
+     */
+    private void commit(Bar bar) {
+        if (isEmpty(bar)) {
+            return;
+        }
+        ZonedDateTime begin = periodBegin(bar.getBeginTime());
+        if (!begin.equals(committedBegin)) {
+            committedBegin = begin;
+            openPrice = bar.getOpenPrice();
+            highPrice = bar.getHighPrice();
+            lowPrice = bar.getLowPrice();
+            volume = bar.getVolume();
+            amount = bar.getAmount();
+            trades = bar.getTrades();
+        } else {
+            highPrice = highPrice.max(bar.getHighPrice());
+            lowPrice = lowPrice.min(bar.getLowPrice());
+            volume = plus(volume, bar.getVolume());
+            amount = plus(amount, bar.getAmount());
+            trades += bar.getTrades();
+        }
+        closePrice = bar.getClosePrice();
+    }
+
+    /**
+     * Updates (or adds) the last bar, with the committed base bars and the last
+     * base bar (a last base bar without prices yet only adds its volume, or gives
+     * an empty bar if it is the first of its period).
+     *
+     * @return the index of the last bar
+     */
+    private int publish() {
+        Bar bar = lastBaseBar;
+        ZonedDateTime begin = periodBegin(bar.getBeginTime());
+        Bar derived;
+        if (begin.equals(committedBegin) && isEmpty(bar)) {
+            derived = new BaseBar(timePeriod, begin.plus(timePeriod), openPrice, highPrice, lowPrice, closePrice,
+                    plus(volume, bar.getVolume()), plus(amount, bar.getAmount()), trades + bar.getTrades());
+        } else if (begin.equals(committedBegin)) {
+            derived = new BaseBar(timePeriod, begin.plus(timePeriod), openPrice, highPrice.max(bar.getHighPrice()),
+                    lowPrice.min(bar.getLowPrice()), bar.getClosePrice(), plus(volume, bar.getVolume()),
+                    plus(amount, bar.getAmount()), trades + bar.getTrades());
+        } else {
+            derived = new BaseBar(timePeriod, begin.plus(timePeriod), bar.getOpenPrice(), bar.getHighPrice(),
+                    bar.getLowPrice(), bar.getClosePrice(), bar.getVolume(), bar.getAmount(), bar.getTrades());
+        }
+        addBar(derived, !isEmpty() && getLastBar().getEndTime().equals(derived.getEndTime()));
+        return getEndIndex();
+    }
+
+    /**
+     * @return true if the bar has no prices yet
+     */
+    private static boolean isEmpty(Bar bar) {
+        return bar.getOpenPrice() == null || bar.getHighPrice() == null || bar.getLowPrice() == null
+                || bar.getClosePrice() == null;
+    }
+
+    private static Num plus(Num sum, Num value) {
+        if (sum == null) {
+            return value;
+        }
+        return value == null ? sum : sum.plus(value);
+    }
+}
@@ -0,0 +1,427 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBar;
+import org.ta4j.core.BaseBarSeries;
+import org.ta4j.core.CompactBar;
+import org.ta4j.core.CompactBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.utils.TimeUtils;
+
+/**
+ * Parallel bar aggregator basing on durations.
+ *
+ * The input bars are split into chunks, aggregated in parallel on a
+ * {@link ForkJoinPool}, and the partial bars at the chunk boundaries are
+ * merged. Several target durations can be produced in one pass over the input.
+ *
+ * The bars cover consecutive periods of each target duration, aligned on the
+ * begin time of the first input bar; periods without input bars give no bars.
+ * On a contiguous list of bars, the aggregated bars are the ones of
+ * {@link DurationBarAggregator}.
+ *
+ * When all the input bars are {@link CompactBar compact bars} of the same
+ * frame, they are aggregated from their primitive values into compact bars
+ * (i.e. without creating {@link Num} objects).
+ */
+public class ParallelDurationBarAggregator implements BarAggregator {
+
+    /** The target time periods */
+    private final List<Duration> timePeriods;
+    private final boolean onlyFinalBars;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Constructor. Only final bars will be created, on the common pool.
+     *
+     * @param timePeriod the target time period
+     */
+    public ParallelDurationBarAggregator(Duration timePeriod) {
+        this(Collections.singletonList(timePeriod));
+    }
+
+    /**
+     * Constructor. Only final bars will be created, on the common pool.
+     *
+     * @param timePeriods the target time periods
+     */
+    public ParallelDurationBarAggregator(List<Duration> timePeriods) {
+        this(timePeriods, true, ForkJoinPool.commonPool(), 0);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param timePeriods   the target time periods
+     * @param onlyFinalBars if true only bars with elapsed time (final bars) will be
+     *                      created, otherwise also the last pending bars
+     * @param pool          the pool aggregating the chunks
+     * @param chunkSize     the number of input bars of a chunk (0 to split the
+     *                      input in 4 chunks per thread of the pool)
+     */
+    public ParallelDurationBarAggregator(List<Duration> timePeriods, boolean onlyFinalBars, ForkJoinPool pool,
+            int chunkSize) {
+        if (timePeriods.isEmpty()) {
+            throw new IllegalArgumentException("At least one time period is required");
+        }
+        for (Duration timePeriod : timePeriods) {
+            if (timePeriod.isNegative() || timePeriod.isZero()) {
+                throw new IllegalArgumentException("Time periods must be positive");
+            }
+        }
+        if (chunkSize < 0) {
+            throw new IllegalArgumentException("Chunk size must not be negative");
+        }
+        this.timePeriods = new ArrayList<>(timePeriods);
+        this.onlyFinalBars = onlyFinalBars;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Aggregates a list of bars by the first target time period.
+     *
+     * @param bars the actual bars
+     * @return the aggregated bars
+     */
+    @Override
+    public List<Bar> aggregate(List<Bar> bars) {
+        return aggregateAll(bars).get(timePeriods.get(0));
+    }
+
+    /**
+     * Aggregates a bar series by all the target time periods.
+     *
+     * @param series the bar series
+     * @return the aggregated series of each target time period (compact series
+     *         if the series is compact)
+     */
+    public Map<Duration, BarSeries> aggregateAll(BarSeries series) {
+        Map<Duration, BarSeries> aggregated = new LinkedHashMap<>();
+        for (Map.Entry<Duration, List<Bar>> entry : aggregateAll(series.getBarData()).entrySet()) {
+            String name = series.getName() + " " + entry.getKey();
+            if (series instanceof CompactBarSeries) {
+                CompactBar.Frame frame = ((CompactBarSeries) series).getFrame();
+                aggregated.put(entry.getKey(), new CompactBarSeries(name, entry.getValue(),
+                        new CompactBar.Frame(entry.getKey(), frame.getZoneId(), frame.function())));
+            } else {
+                aggregated.put(entry.getKey(), new BaseBarSeries(name, entry.getValue(), series.function()));
+            }
+        }
+        return aggregated;
+    }
+
+    /**
+     * Aggregates a list of bars by all the target time periods, in one pass. Each
+     * target time period must be a multiple of the actual time period.
+     *
+     * @param bars the actual bars
+     * @return the aggregated bars of each target time period
+     */
+    public Map<Duration, List<Bar>> aggregateAll(List<Bar> bars) {
+        Map<Duration, List<Bar>> aggregated = new LinkedHashMap<>();
+        if (bars.isEmpty()) {
+            timePeriods.forEach(timePeriod -> aggregated.put(timePeriod, new ArrayList<>()));
+            return aggregated;
+        }
+        Bar firstBar = bars.get(0);
+        long actualNanos = firstBar.getTimePeriod().toNanos();
+        long[] periodNanos = new long[timePeriods.size()];
+        for (int k = 0; k < periodNanos.length; k++) {
+            periodNanos[k] = timePeriods.get(k).toNanos();
+            if (periodNanos[k] % actualNanos != 0) {
+                throw new IllegalArgumentException(
+                        "Cannot aggregate bars: the new timePeriod must be a multiplication of the actual timePeriod.");
+            }
+        }
+        CompactBar.Frame frame = commonFrame(bars);
+        Scan scan = new Scan(bars, periodNanos, TimeUtils.toEpochNanos(firstBar.getBeginTime()), frame);
+
+        int size = chunkSize > 0 ? chunkSize
+                : Math.max(1024, (bars.size() + 4 * pool.getParallelism() - 1) / (4 * pool.getParallelism()));
+        int chunkCount = (bars.size() + size - 1) / size;
+        List<List<List<Bucket>>> chunks = pool
+                .submit(() -> IntStream.range(0, chunkCount)
+                        .parallel()
+                        .mapToObj(c -> scan.run(c * size, Math.min(bars.size(), (c + 1) * size)))
+                        .collect(Collectors.toList()))
+                .join();
+
+        long lastEndNanos = scan.endNanos(bars.get(bars.size() - 1));
+        for (int k = 0; k < periodNanos.length; k++) {
+            List<Bucket> buckets = new ArrayList<>();
+            for (List<List<Bucket>> chunk : chunks) {
+                List<Bucket> chunkBuckets = chunk.get(k);
+                int first = 0;
+                if (!buckets.isEmpty() && buckets.get(buckets.size() - 1).id == chunkBuckets.get(0).id) {
+                    // a period across the chunk boundary
+                    buckets.get(buckets.size() - 1).merge(chunkBuckets.get(0));
+                    first = 1;
+                }
+                buckets.addAll(chunkBuckets.subList(first, chunkBuckets.size()));
+            }
+            Bucket last = buckets.get(buckets.size() - 1);
+            if (onlyFinalBars && lastEndNanos < scan.anchorNanos + (last.id + 1) * periodNanos[k]) {
+                buckets.remove(buckets.size() - 1);
+            }
+            Duration timePeriod = timePeriods.get(k);
+            CompactBar.Frame aggregatedFrame = frame == null ? null
+                    : new CompactBar.Frame(timePeriod, frame.getZoneId(), frame.function());
+            List<Bar> aggregatedBars = new ArrayList<>(buckets.size());
+            for (Bucket bucket : buckets) {
+                long endOffset = (bucket.id + 1) * periodNanos[k];
+                aggregatedBars.add(aggregatedFrame == null
+                        ? ((NumBucket) bucket).toBar(timePeriod, firstBar.getBeginTime().plusNanos(endOffset))
+                        : ((DoubleBucket) bucket).toBar(aggregatedFrame, scan.anchorNanos + endOffset));
+            }
+            aggregated.put(timePeriod, aggregatedBars);
+        }
+        return aggregated;
+    }
+
+    /**
+     * @return the frame of the bars if they are all compact bars of the same
+     *         frame, null otherwise
+     */
+    private static CompactBar.Frame commonFrame(List<Bar> bars) {
+        if (!(bars.get(0) instanceof CompactBar)) {
+            return null;
+        }
+        CompactBar.Frame frame = ((CompactBar) bars.get(0)).getFrame();
+        for (Bar bar : bars) {
+            if (!(bar instanceof CompactBar) || ((CompactBar) bar).getFrame() != frame) {
+                return null;
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * The aggregation of a chunk of the input bars.
+     */
+    private static final class Scan {
+
+        private final List<Bar> bars;
+        private final long[] periodNanos;
+        private final long anchorNanos;
+        private final CompactBar.Frame frame;
+        private final long frameNanos;
+
+        private Scan(List<Bar> bars, long[] periodNanos, long anchorNanos, CompactBar.Frame frame) {
+            this.bars = bars;
+            this.periodNanos = periodNanos;
+            this.anchorNanos = anchorNanos;
+            this.frame = frame;
+            this.frameNanos = frame == null ? 0 : frame.getTimePeriod().toNanos();
+        }
+
+        private long beginNanos(Bar bar) {
+            return frame == null ? TimeUtils.toEpochNanos(bar.getBeginTime())
+                    : ((CompactBar) bar).getEndEpochNanos() - frameNanos;
+        }
+
+        private long endNanos(Bar bar) {
+            return frame == null ? TimeUtils.toEpochNanos(bar.getEndTime()) : ((CompactBar) bar).getEndEpochNanos();
+        }
+
+        /**
+         * @return the buckets of each target time period, for the bars between both
+         *         indexes
+         */
+        private List<List<Bucket>> run(int from, int to) {
+            List<List<Bucket>> buckets = new ArrayList<>(periodNanos.length);
+            Bucket[] current = new Bucket[periodNanos.length];
+            for (int k = 0; k < periodNanos.length; k++) {
+                buckets.add(new ArrayList<>());
+            }
+            for (int i = from; i < to; i++) {
+                Bar bar = bars.get(i);
+                long offset = beginNanos(bar) - anchorNanos;
+                long endNanos = endNanos(bar);
+                for (int k = 0; k < periodNanos.length; k++) {
+                    long id = Math.floorDiv(offset, periodNanos[k]);
+                    if (current[k] == null || current[k].id != id) {
+                        current[k] = frame == null ? new NumBucket(id) : new DoubleBucket(id);
+                        buckets.get(k).add(current[k]);
+                    }
+                    current[k].add(bar);
+                    current[k].lastEndNanos = endNanos;
+                }
+            }
+            return buckets;
+        }
+    }
+
+    /**
+     * The aggregation of the bars of a period.
+     */
+    private abstract static class Bucket {
+
+        /** The index of the period, from the anchor */
+        final long id;
+
+        /** The end time of the last bar */
+        long lastEndNanos;
+
+        Bucket(long id) {
+            this.id = id;
+        }
+
+        abstract void add(Bar bar);
+
+        /**
+         * Merges the bucket of the same period of the next chunk.
+         */
+        abstract void merge(Bucket next);
+    }
+
+    private static final class NumBucket extends Bucket {
+
+        private Num open;
+        private Num high;
+        private Num low;
+        private Num close;
+        private Num volume;
+        private Num amount;
+        private long trades;
+
+        NumBucket(long id) {
+            super(id);
+        }
+
+        @Override
+        void add(Bar bar) {
+            if (open == null) {
+                open = bar.getOpenPrice();
+                Num zero = bar.getOpenPrice().numOf(0);
+                volume = zero;
+                amount = zero;
+            }
+            if (high == null || bar.getHighPrice().isGreaterThan(high)) {
+                high = bar.getHighPrice();
+            }
+            if (low == null || bar.getLowPrice().isLessThan(low)) {
+                low = bar.getLowPrice();
+            }
+            close = bar.getClosePrice();
+            if (bar.getVolume() != null) {
+                volume = volume.plus(bar.getVolume());
+            }
+            if (bar.getAmount() != null) {
+                amount = amount.plus(bar.getAmount());
+            }
+            trades += bar.getTrades();
+        }
+
+        @Override
+        void merge(Bucket next) {
+            NumBucket bucket = (NumBucket) next;
+            if (bucket.high.isGreaterThan(high)) {
+                high = bucket.high;
+            }
+            if (bucket.low.isLessThan(low)) {
+                low = bucket.low;
+            }
+            close = bucket.close;
+            volume = volume.plus(bucket.volume);
+            amount = amount.plus(bucket.amount);
+            trades += bucket.trades;
+            lastEndNanos = bucket.lastEndNanos;
+        }
+
+        Bar toBar(Duration timePeriod, ZonedDateTime endTime) {
+            return new BaseBar(timePeriod, endTime, open, high, low, close, volume, amount, trades);
+        }
+    }
+
+    private static final class DoubleBucket extends Bucket {
+
+        private double open = Double.NaN;
+        private double high = Double.NaN;
+        private double low = Double.NaN;
+        private double close = Double.NaN;
+        private double volume;
+        private double amount;
+        private long trades;
+        private boolean empty = true;
+
+        DoubleBucket(long id) {
+            super(id);
+        }
+
+        @Override
+        void add(Bar bar) {
+            CompactBar compactBar = (CompactBar) bar;
+            if (empty) {
+                open = compactBar.getOpenPriceAsDouble();
+                empty = false;
+            }
+            high = max(high, compactBar.getHighPriceAsDouble());
+            low = min(low, compactBar.getLowPriceAsDouble());
+            close = compactBar.getClosePriceAsDouble();
+            volume += compactBar.getVolumeAsDouble();
+            amount += compactBar.getAmountAsDouble();
+            trades += compactBar.getTrades();
+        }
+
+        @Override
+        void merge(Bucket next) {
+            DoubleBucket bucket = (DoubleBucket) next;
+            high = max(high, bucket.high);
+            low = min(low, bucket.low);
+            close = bucket.close;
+            volume += bucket.volume;
+            amount += bucket.amount;
+            trades += bucket.trades;
+            lastEndNanos = bucket.lastEndNanos;
+        }
+
+        private static double max(double value, double other) {
+            return Double.isNaN(value) || other > value ? other : value;
+        }
+
+        private static double min(double value, double other) {
+            return Double.isNaN(value) || other < value ? other : value;
+        }
+
+        Bar toBar(CompactBar.Frame frame, long endEpochNanos) {
+            return new CompactBar(frame, endEpochNanos, open, high, low, close, volume, amount, trades);
+        }
+    }
+}
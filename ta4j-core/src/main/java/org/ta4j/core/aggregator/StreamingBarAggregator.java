@@ -0,0 +1,276 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.function.Consumer;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBar;
+import org.ta4j.core.num.Num;
+
+/**
+ * Streaming bar aggregator.
+ *
+ * Unlike a {@link BarAggregator}, which aggregates a whole list of bars, a
+ * streaming aggregator is pushed its inputs (trades or lower timeframe bars)
+ * one at a time. It maintains the in-progress bar in constant time per input,
+ * and emits each finalized bar (e.g. into a target {@link BarSeries}).
+ *
+ * The subclasses decide when an input starts a new bar and when the
+ * in-progress bar is complete.
+ *
+ * The end times of the bars strictly increase: a bar which would not end after
+ * the previous one (e.g. two volume bars completed by trades of a same
+ * timestamp) begins at the end of the previous one, and ends one nanosecond
+ * after it.
+ */
+public abstract class StreamingBarAggregator {
+
+    /** The consumer of the finalized bars */
+    private final Consumer<Bar> sink;
+
+    /** The in-progress bar (beginTime is null if none) */
+    private ZonedDateTime beginTime;
+    private ZonedDateTime endTime;
+    private Num openPrice;
+    private Num highPrice;
+    private Num lowPrice;
+    private Num closePrice;
+    private Num volume;
+    private Num amount;
+    private long trades;
+    private int inputCount;
+
+    /** The number of finalized bars */
+    private long barCount;
+
+    /** The end time of the last finalized bar (null if none) */
+    private ZonedDateTime lastEndTime;
+
+    /**
+     * Constructor.
+     *
+     * @param target the series receiving the finalized bars
+     */
+    protected StreamingBarAggregator(BarSeries target) {
+        this((Consumer<Bar>) target::addBar);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sink the consumer of the finalized bars
+     */
+    protected StreamingBarAggregator(Consumer<Bar> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Adds a lower timeframe bar.
+     *
+     * @param bar the bar
+     */
+    public void addBar(Bar bar) {
+        add(bar.getBeginTime(), bar.getEndTime(), bar.getOpenPrice(), bar.getHighPrice(), bar.getLowPrice(),
+                bar.getClosePrice(), bar.getVolume(), amountOf(bar), bar.getTrades());
+    }
+
+    /**
+     * @param bar a lower timeframe bar
+     * @return the amount the bar adds to the in-progress bar (null if none)
+     */
+    protected Num amountOf(Bar bar) {
+        return bar.getAmount();
+    }
+
+    /**
+     * Adds a trade.
+     *
+     * @param time   the time of the trade
+     * @param price  the price of the trade
+     * @param volume the traded volume
+     */
+    public void addTrade(ZonedDateTime time, Num price, Num volume) {
+        add(time, time, price, price, price, price, volume, price.multipliedBy(volume), 1);
+    }
+
+    private void add(ZonedDateTime inputBeginTime, ZonedDateTime inputEndTime, Num open, Num high, Num low,
+            Num close, Num inputVolume, Num inputAmount, long inputTrades) {
+        if (beginTime != null && isNewBar(inputBeginTime)) {
+            emit();
+        }
+        if (beginTime == null) {
+            beginTime = barBeginTime(inputBeginTime);
+            openPrice = open;
+            highPrice = high;
+            lowPrice = low;
+            Num zero = open.numOf(0);
+            volume = zero;
+            amount = zero;
+            trades = 0;
+            inputCount = 0;
+        } else {
+            if (high.isGreaterThan(highPrice)) {
+                highPrice = high;
+            }
+            if (low.isLessThan(lowPrice)) {
+                lowPrice = low;
+            }
+        }
+        endTime = inputEndTime;
+        closePrice = close;
+        if (inputVolume != null) {
+            volume = volume.plus(inputVolume);
+        }
+        if (inputAmount != null) {
+            amount = amount.plus(inputAmount);
+        }
+        trades += inputTrades;
+        inputCount++;
+        if (isComplete()) {
+            emit();
+        }
+    }
+
+    /**
+     * Emits the in-progress bar, if any, even if it is not complete.
+     */
+    public void flush() {
+        if (beginTime != null) {
+            emit();
+        }
+    }
+
+    private void emit() {
+        Bar bar = currentBar();
+        beginTime = null;
+        barCount++;
+        lastEndTime = bar.getEndTime();
+        sink.accept(bar);
+    }
+
+    /**
+     * @return the in-progress bar, ending after the last finalized one
+     */
+    private Bar currentBar() {
+        Duration timePeriod = barTimePeriod();
+        ZonedDateTime barEndTime = beginTime.plus(timePeriod);
+        if (lastEndTime != null && !barEndTime.isAfter(lastEndTime)) {
+            barEndTime = lastEndTime.plusNanos(1);
+            timePeriod = Duration.between(beginTime.isAfter(lastEndTime) ? beginTime : lastEndTime, barEndTime);
+        }
+        return new BaseBar(timePeriod, barEndTime, openPrice, highPrice, lowPrice, closePrice, volume, amount,
+                trades);
+    }
+
+    /**
+     * @return the in-progress bar (null if none)
+     */
+    public Bar getCurrentBar() {
+        if (beginTime == null) {
+            return null;
+        }
+        return currentBar();
+    }
+
+    /**
+     * @return the number of finalized bars
+     */
+    public long getBarCount() {
+        return barCount;
+    }
+
+    /**
+     * @return true if a bar is in progress
+     */
+    protected boolean hasCurrentBar() {
+        return beginTime != null;
+    }
+
+    /**
+     * @return the begin time of the in-progress bar
+     */
+    protected ZonedDateTime getBeginTime() {
+        return beginTime;
+    }
+
+    /**
+     * @return the end time of the last input of the in-progress bar
+     */
+    protected ZonedDateTime getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * @return the volume of the in-progress bar
+     */
+    protected Num getVolume() {
+        return volume;
+    }
+
+    /**
+     * @return the amount (i.e. traded value) of the in-progress bar
+     */
+    protected Num getAmount() {
+        return amount;
+    }
+
+    /**
+     * @return the number of inputs of the in-progress bar
+     */
+    protected int getInputCount() {
+        return inputCount;
+    }
+
+    /**
+     * @param inputBeginTime the begin time of the first input of a bar
+     * @return the begin time of the bar
+     */
+    protected ZonedDateTime barBeginTime(ZonedDateTime inputBeginTime) {
+        return inputBeginTime;
+    }
+
+    /**
+     * @return the time period of the in-progress bar
+     */
+    protected Duration barTimePeriod() {
+        return Duration.between(beginTime, endTime);
+    }
+
+    /**
+     * @param inputBeginTime the begin time of an input
+     * @return true if the input cannot belong to the in-progress bar
+     */
+    protected boolean isNewBar(ZonedDateTime inputBeginTime) {
+        return false;
+    }
+
+    /**
+     * @return true if the in-progress bar is complete, after an input was added
+     */
+    protected abstract boolean isComplete();
+}
@@ -0,0 +1,222 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.utils.TimeUtils;
+
+/**
+ * Streaming bar aggregator basing on duration.
+ *
+ * The bars cover consecutive periods of the target duration, aligned on an
+ * anchor time (by default, the begin time of the first input). A bar is
+ * finalized as soon as an input reaches the end of its period (or when an
+ * input, or {@link #advanceTo(ZonedDateTime)}, goes beyond it). Periods without
+ * inputs give no bars.
+ *
+ * On a contiguous list of bars, the finalized bars are the ones of
+ * {@link DurationBarAggregator} (with only final bars).
+ *
+ * Trades can also be given by primitive values (see {@link TradeConsumer}, e.g.
+ * for a {@link org.ta4j.core.io.CsvTradeReader CsvTradeReader}): they are
+ * bucketed into the periods by epoch arithmetic, so that a time is only created
+ * when a trade reaches a new period. These trades must be in ascending time
+ * order, at least from a period to the next one.
+ */
+public class StreamingDurationBarAggregator extends StreamingBarAggregator implements TradeConsumer {
+
+    /** The duration of the bars */
+    private final Duration timePeriod;
+    private final long periodNanos;
+
+    /** The numbers precision and the time zone of the bars of primitive trades */
+    private final Function<Number, Num> numFunction;
+    private final ZoneId zoneId;
+
+    /** The anchor time of the periods (null until the first input) */
+    private ZonedDateTime anchor;
+
+    /** The period of the last primitive trade (tradePeriodBegin is null if none) */
+    private ZonedDateTime tradePeriodBegin;
+    private long tradePeriodNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param target     the series receiving the finalized bars
+     * @param timePeriod the duration of the bars
+     */
+    public StreamingDurationBarAggregator(BarSeries target, Duration timePeriod) {
+        this(target, timePeriod, ZoneOffset.UTC);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param target     the series receiving the finalized bars
+     * @param timePeriod the duration of the bars
+     * @param zoneId     the time zone of the bars of primitive trades
+     */
+    public StreamingDurationBarAggregator(BarSeries target, Duration timePeriod, ZoneId zoneId) {
+        this(target::addBar, target.function(), timePeriod, zoneId, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param target     the series receiving the finalized bars
+     * @param timePeriod the duration of the bars
+     * @param anchor     the begin time of a period (null to use the begin time of
+     *                   the first input)
+     */
+    public StreamingDurationBarAggregator(BarSeries target, Duration timePeriod, ZonedDateTime anchor) {
+        this(target::addBar, target.function(), timePeriod, anchor == null ? ZoneOffset.UTC : anchor.getZone(),
+                anchor);
+    }
+
+    /**
+     * Constructor. The bars of primitive trades have {@link DoubleNum} numbers.
+     *
+     * @param sink       the consumer of the finalized bars
+     * @param timePeriod the duration of the bars
+     * @param anchor     the begin time of a period (null to use the begin time of
+     *                   the first input)
+     */
+    public StreamingDurationBarAggregator(Consumer<Bar> sink, Duration timePeriod, ZonedDateTime anchor) {
+        this(sink, DoubleNum::valueOf, timePeriod, anchor == null ? ZoneOffset.UTC : anchor.getZone(), anchor);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sink        the consumer of the finalized bars
+     * @param numFunction the numbers precision of the bars of primitive trades
+     * @param timePeriod  the duration of the bars
+     * @param zoneId      the time zone of the bars of primitive trades
+     * @param anchor      the begin time of a period (null to use the begin time
+     *                    of the first input)
+     */
+    public StreamingDurationBarAggregator(Consumer<Bar> sink, Function<Number, Num> numFunction, Duration timePeriod,
+            ZoneId zoneId, ZonedDateTime anchor) {
+        super(sink);
+        if (timePeriod.isNegative() || timePeriod.isZero()) {
+            throw new IllegalArgumentException("Time period must be positive");
+        }
+        this.timePeriod = timePeriod;
+        this.periodNanos = timePeriod.toNanos();
+        this.numFunction = numFunction;
+        this.zoneId = zoneId;
+        this.anchor = anchor == null ? null : anchor.withZoneSameInstant(zoneId);
+    }
+
+    /**
+     * Adds a trade.
+     *
+     * The trade is added at the begin time of its period, which gives the same
+     * bars.
+     *
+     * @param epochNanos  the time of the trade in epoch nanoseconds
+     * @param price       the price of the trade
+     * @param tradeVolume the traded volume
+     * @throws IllegalArgumentException if the trade is in a period before the one
+     *                                  of the in-progress bar
+     */
+    @Override
+    public void addTrade(long epochNanos, double price, double tradeVolume) {
+        if (tradePeriodBegin == null || epochNanos < tradePeriodNanos || epochNanos - tradePeriodNanos >= periodNanos) {
+            ZonedDateTime periodBegin = barBeginTime(TimeUtils.ofEpochNanos(epochNanos, zoneId));
+            if (hasCurrentBar() && periodBegin.isBefore(getBeginTime())) {
+                throw new IllegalArgumentException("Trades must be in ascending time order");
+            }
+            tradePeriodBegin = periodBegin;
+            tradePeriodNanos = TimeUtils.toEpochNanos(periodBegin);
+        }
+        addTrade(tradePeriodBegin, numFunction.apply(price), numFunction.apply(tradeVolume));
+    }
+
+    /**
+     * Finalizes the in-progress bar if its period ended at the given time (e.g. on
+     * a timer, when no trade comes).
+     *
+     * @param epochNanos the current time in epoch nanoseconds
+     */
+    public void advanceTo(long epochNanos) {
+        if (hasCurrentBar() && epochNanos - TimeUtils.toEpochNanos(getBeginTime()) >= periodNanos) {
+            flush();
+        }
+    }
+
+    /**
+     * Finalizes the in-progress bar if its period ended at the given time (e.g. on
+     * a timer, when no trade comes).
+     *
+     * @param time the current time
+     */
+    public void advanceTo(ZonedDateTime time) {
+        if (hasCurrentBar() && !time.isBefore(getBeginTime().plus(timePeriod))) {
+            flush();
+        }
+    }
+
+    /**
+     * @return the duration of the bars
+     */
+    public Duration getTimePeriod() {
+        return timePeriod;
+    }
+
+    @Override
+    protected ZonedDateTime barBeginTime(ZonedDateTime inputBeginTime) {
+        if (anchor == null) {
+            anchor = inputBeginTime;
+        }
+        long elapsed = Duration.between(anchor, inputBeginTime).toNanos();
+        return anchor.plusNanos(Math.floorDiv(elapsed, periodNanos) * periodNanos);
+    }
+
+    @Override
+    protected Duration barTimePeriod() {
+        return timePeriod;
+    }
+
+    @Override
+    protected boolean isNewBar(ZonedDateTime inputBeginTime) {
+        return !inputBeginTime.isBefore(getBeginTime().plus(timePeriod));
+    }
+
+    @Override
+    protected boolean isComplete() {
+        return !getEndTime().isBefore(getBeginTime().plus(timePeriod));
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import java.util.function.Consumer;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+
+/**
+ * Streaming bar aggregator basing on the number of inputs (i.e. tick bars, when
+ * aggregating trades).
+ *
+ * A bar is finalized as soon as it aggregated the given number of inputs.
+ */
+public class StreamingTickBarAggregator extends StreamingBarAggregator {
+
+    private final int tickCount;
+
+    /**
+     * Constructor.
+     *
+     * @param target    the series receiving the finalized bars
+     * @param tickCount the number of inputs of a bar
+     */
+    public StreamingTickBarAggregator(BarSeries target, int tickCount) {
+        this((Consumer<Bar>) target::addBar, tickCount);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sink      the consumer of the finalized bars
+     * @param tickCount the number of inputs of a bar
+     */
+    public StreamingTickBarAggregator(Consumer<Bar> sink, int tickCount) {
+        super(sink);
+        if (tickCount < 1) {
+            throw new IllegalArgumentException("Tick count must be positive");
+        }
+        this.tickCount = tickCount;
+    }
+
+    @Override
+    protected boolean isComplete() {
+        return getInputCount() >= tickCount;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import java.util.function.Consumer;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.num.Num;
+
+/**
+ * Streaming bar aggregator basing on volume.
+ *
+ * A bar is finalized as soon as its volume reaches the threshold (the input
+ * reaching it is not split: the bar may exceed the threshold).
+ */
+public class StreamingVolumeBarAggregator extends StreamingBarAggregator {
+
+    private final Number threshold;
+
+    /** The threshold, in the num type of the inputs */
+    private Num thresholdNum;
+
+    /**
+     * Constructor.
+     *
+     * @param target    the series receiving the finalized bars
+     * @param threshold the minimum volume of a bar
+     */
+    public StreamingVolumeBarAggregator(BarSeries target, Number threshold) {
+        this((Consumer<Bar>) target::addBar, threshold);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sink      the consumer of the finalized bars
+     * @param threshold the minimum volume of a bar
+     */
+    public StreamingVolumeBarAggregator(Consumer<Bar> sink, Number threshold) {
+        super(sink);
+        if (threshold.doubleValue() <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected boolean isComplete() {
+        Num value = getVolume();
+        if (thresholdNum == null || thresholdNum.getClass() != value.getClass()) {
+            thresholdNum = value.numOf(threshold);
+        }
+        return value.isGreaterThanOrEqual(thresholdNum);
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import java.util.Iterator;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Consumer of trades given by primitive values (e.g. parsed from a file of
+ * trades).
+ */
+@FunctionalInterface
+public interface TradeConsumer {
+
+    /**
+     * Adds a trade.
+     *
+     * @param epochNanos the time of the trade in epoch nanoseconds
+     * @param price      the price of the trade
+     * @param volume     the traded volume
+     */
+    void addTrade(long epochNanos, double price, double volume);
+
+    /**
+     * Adds trades of any type.
+     *
+     * @param iterator the trades
+     * @param time     the time of a trade in epoch nanoseconds
+     * @param price    the price of a trade
+     * @param volume   the traded volume of a trade
+     * @param <T>      the type of the trades
+     */
+    default <T> void addTrades(Iterator<T> iterator, ToLongFunction<T> time, ToDoubleFunction<T> price,
+            ToDoubleFunction<T> volume) {
+        while (iterator.hasNext()) {
+            T trade = iterator.next();
+            addTrade(time.applyAsLong(trade), price.applyAsDouble(trade), volume.applyAsDouble(trade));
+        }
+    }
+}
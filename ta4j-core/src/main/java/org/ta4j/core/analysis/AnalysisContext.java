@@ -0,0 +1,293 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.analysis;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ta4j.core.AggregatingTradingRecord;
+import org.ta4j.core.AnalysisCriterion;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Position;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.num.Num;
+
+/**
+ * The analysis context of a trading record.
+ *
+ * Computes once (and lazily) what many {@link AnalysisCriterion criteria} need
+ * from a trading record: the {@link CashFlow cash flow}, the {@link Returns
+ * returns} and the aggregates of the closed positions (profits, losses,
+ * numbers of winning/losing positions, etc.). Any number of criteria can then
+ * be evaluated on the context without iterating the positions again.
+ *
+ * A context is not thread-safe.
+ */
+public class AnalysisContext {
+
+    /** The bar series */
+    private final BarSeries series;
+
+    /** The trading record */
+    private final TradingRecord tradingRecord;
+
+    /** The cash flow of the closed positions */
+    private CashFlow cashFlow;
+
+    /** The returns of the closed positions, by type */
+    private final Map<Returns.ReturnType, Returns> returns = new EnumMap<>(Returns.ReturnType.class);
+
+    /** True if the position aggregates have been computed */
+    private boolean aggregated;
+
+    private int winningPositionCount;
+    private int losingPositionCount;
+    private int breakEvenPositionCount;
+    private Num profitLoss;
+    private Num profitLossPercentage;
+    private Num netProfit;
+    private Num netLoss;
+    private Num grossProfit;
+    private Num grossLoss;
+    private Num grossReturn;
+
+    /**
+     * Constructor.
+     *
+     * @param series        the bar series
+     * @param tradingRecord the trading record
+     */
+    public AnalysisContext(BarSeries series, TradingRecord tradingRecord) {
+        this.series = series;
+        this.tradingRecord = tradingRecord;
+    }
+
+    /**
+     * @return the bar series
+     */
+    public BarSeries getBarSeries() {
+        return series;
+    }
+
+    /**
+     * @return the trading record
+     */
+    public TradingRecord getTradingRecord() {
+        return tradingRecord;
+    }
+
+    /**
+     * @return the cash flow of the closed positions
+     */
+    public CashFlow getCashFlow() {
+        if (cashFlow == null) {
+            cashFlow = new CashFlow(series, tradingRecord);
+        }
+        return cashFlow;
+    }
+
+    /**
+     * @param type the type of the returns
+     * @return the returns of the closed positions (must not be modified)
+     */
+    public Returns getReturns(Returns.ReturnType type) {
+        return returns.computeIfAbsent(type, t -> new Returns(series, tradingRecord, t));
+    }
+
+    /**
+     * Evaluates a criterion on this context.
+     *
+     * @param criterion the criterion
+     * @return the criterion value for the positions of the trading record
+     */
+    public Num calculate(AnalysisCriterion criterion) {
+        return criterion.calculate(this);
+    }
+
+    /**
+     * Evaluates criteria on this context.
+     *
+     * @param criteria the criteria
+     * @return the criterion values (same order as the criteria)
+     */
+    public List<Num> calculate(List<? extends AnalysisCriterion> criteria) {
+        List<Num> values = new ArrayList<>(criteria.size());
+        for (AnalysisCriterion criterion : criteria) {
+            values.add(criterion.calculate(this));
+        }
+        return values;
+    }
+
+    /**
+     * @return the number of closed positions
+     */
+    public int getPositionCount() {
+        return tradingRecord.getPositionCount();
+    }
+
+    /**
+     * @return the number of positions with a profit
+     */
+    public int getWinningPositionCount() {
+        aggregate();
+        return winningPositionCount;
+    }
+
+    /**
+     * @return the number of positions with a loss
+     */
+    public int getLosingPositionCount() {
+        aggregate();
+        return losingPositionCount;
+    }
+
+    /**
+     * @return the number of positions with neither a profit nor a loss
+     */
+    public int getBreakEvenPositionCount() {
+        aggregate();
+        return breakEvenPositionCount;
+    }
+
+    /**
+     * @return the sum of the profits (net of costs) of the positions
+     */
+    public Num getProfitLoss() {
+        aggregate();
+        return profitLoss;
+    }
+
+    /**
+     * @return the sum of the profits (net of costs) of the positions, in
+     *         percentage of their entry values
+     */
+    public Num getProfitLossPercentage() {
+        aggregate();
+        return profitLossPercentage;
+    }
+
+    /**
+     * @return the sum of the profits (net of costs) of the winning positions
+     */
+    public Num getNetProfit() {
+        aggregate();
+        return netProfit;
+    }
+
+    /**
+     * @return the sum of the losses (net of costs) of the losing positions
+     */
+    public Num getNetLoss() {
+        aggregate();
+        return netLoss;
+    }
+
+    /**
+     * @return the sum of the gross profits of the positions with a gross profit
+     */
+    public Num getGrossProfit() {
+        aggregate();
+        return grossProfit;
+    }
+
+    /**
+     * @return the sum of the gross losses of the positions with a gross loss
+     */
+    public Num getGrossLoss() {
+        aggregate();
+        return grossLoss;
+    }
+
+    /**
+     * @return the product of the gross returns of the positions
+     */
+    public Num getGrossReturn() {
+        aggregate();
+        return grossReturn;
+    }
+
+    /**
+     * Computes the aggregates of the closed positions, in one pass.
+     */
+    private void aggregate() {
+        if (aggregated) {
+            return;
+        }
+        if (tradingRecord instanceof AggregatingTradingRecord
+                && ((AggregatingTradingRecord) tradingRecord).getBarSeries() == series) {
+            // already aggregated by the trading record
+            AggregatingTradingRecord record = (AggregatingTradingRecord) tradingRecord;
+            winningPositionCount = record.getWinningPositionCount();
+            losingPositionCount = record.getLosingPositionCount();
+            breakEvenPositionCount = record.getBreakEvenPositionCount();
+            profitLoss = record.getProfitLoss();
+            profitLossPercentage = record.getProfitLossPercentage();
+            netProfit = record.getNetProfit();
+            netLoss = record.getNetLoss();
+            grossProfit = record.getGrossProfit();
+            grossLoss = record.getGrossLoss();
+            grossReturn = record.getGrossReturn();
+            aggregated = true;
+            return;
+        }
+        Num zero = series.numOf(0);
+        Num hundred = series.numOf(100);
+        profitLoss = zero;
+        profitLossPercentage = zero;
+        netProfit = zero;
+        netLoss = zero;
+        grossProfit = zero;
+        grossLoss = zero;
+        grossReturn = series.numOf(1);
+        for (Position position : tradingRecord.getPositions()) {
+            if (!position.isClosed()) {
+                continue;
+            }
+            Num profit = position.getProfit();
+            if (profit.isPositive()) {
+                winningPositionCount++;
+                netProfit = netProfit.plus(profit);
+            } else if (profit.isNegative()) {
+                losingPositionCount++;
+                netLoss = netLoss.plus(profit);
+            } else {
+                breakEvenPositionCount++;
+            }
+            profitLoss = profitLoss.plus(profit);
+            profitLossPercentage = profitLossPercentage
+                    .plus(profit.dividedBy(position.getEntry().getValue()).multipliedBy(hundred));
+
+            Num positionGrossProfit = position.getGrossProfit();
+            if (positionGrossProfit.isPositive()) {
+                grossProfit = grossProfit.plus(positionGrossProfit);
+            } else if (positionGrossProfit.isNegative()) {
+                grossLoss = grossLoss.plus(positionGrossProfit);
+            }
+            grossReturn = grossReturn.multipliedBy(position.getGrossReturn(series));
+        }
+        aggregated = true;
+    }
+}
@@ -0,0 +1,453 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.ta4j.core.AnalysisCriterion;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Position;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.criteria.MaximumDrawdownCriterion;
+import org.ta4j.core.analysis.criteria.pnl.GrossReturnCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossPercentageCriterion;
+import org.ta4j.core.num.Num;
+
+/**
+ * Monte Carlo simulation of the closed positions of a trading record.
+ *
+ * The closed positions are resampled (see {@link Method}), and each resampled
+ * sequence of positions is compounded into an equity curve, the same way as
+ * the {@link CashFlow cash flow} does (including the values within the
+ * positions). Each simulation gives:
+ * <ul>
+ * <li>the final equity (the last value of the cash flow)
+ * <li>the maximum drawdown of the equity (see
+ * {@link MaximumDrawdownCriterion})
+ * <li>the minimum of the equity (for the probability of ruin)
+ * <li>the gross return (see {@link GrossReturnCriterion})
+ * <li>the profit/loss (see {@link ProfitLossCriterion}) and the profit/loss
+ * percentage (see {@link ProfitLossPercentageCriterion})
+ * </ul>
+ *
+ * The positions are read once into primitive arrays, and the simulations are
+ * run in parallel. Each simulation draws from its own {@link SplittableRandom}
+ * stream, split from the seed in the order of the simulations: the results only
+ * depend on the seed, not on the scheduling of the threads.
+ */
+public class MonteCarloSimulation {
+
+    /**
+     * The resampling methods of the positions.
+     */
+    public enum Method {
+        /** Random permutation of the positions (each position is used once) */
+        SHUFFLE,
+        /** Positions drawn with replacement */
+        BOOTSTRAP,
+        /**
+         * Blocks of consecutive positions (wrapping around) drawn with replacement,
+         * keeping the serial dependence of the positions within the blocks
+         */
+        BLOCK_BOOTSTRAP
+    }
+
+    /** The number of closed positions */
+    private final int positionCount;
+
+    /** The cash flow ratios within the positions (relative to their entries) */
+    private final double[] ratios;
+
+    /** The offsets of the positions in the ratios (positionCount + 1 values) */
+    private final int[] offsets;
+
+    private final double[] grossReturns;
+    private final double[] profits;
+    private final double[] profitPercentages;
+
+    /**
+     * Constructor.
+     *
+     * @param series        the bar series
+     * @param tradingRecord the trading record (only its closed positions are
+     *                      simulated)
+     */
+    public MonteCarloSimulation(BarSeries series, TradingRecord tradingRecord) {
+        List<Position> positions = new ArrayList<>();
+        for (Position position : tradingRecord.getPositions()) {
+            if (position.isClosed()) {
+                positions.add(position);
+            }
+        }
+        positionCount = positions.size();
+        offsets = new int[positionCount + 1];
+        grossReturns = new double[positionCount];
+        profits = new double[positionCount];
+        profitPercentages = new double[positionCount];
+        List<double[]> positionRatios = new ArrayList<>(positionCount);
+        Num hundred = series.numOf(100);
+        for (int p = 0; p < positionCount; p++) {
+            Position position = positions.get(p);
+            double[] values = cashFlowRatios(series, position);
+            positionRatios.add(values);
+            offsets[p + 1] = offsets[p] + values.length;
+            grossReturns[p] = position.getGrossReturn(series).doubleValue();
+            Num profit = position.getProfit();
+            profits[p] = profit.doubleValue();
+            profitPercentages[p] = profit.dividedBy(position.getEntry().getValue()).multipliedBy(hundred)
+                    .doubleValue();
+        }
+        ratios = new double[offsets[positionCount]];
+        for (int p = 0; p < positionCount; p++) {
+            System.arraycopy(positionRatios.get(p), 0, ratios, offsets[p], positionRatios.get(p).length);
+        }
+    }
+
+    /**
+     * Computes the cash flow values of a closed position, relative to its entry
+     * (as in {@link CashFlow}).
+     *
+     * @param series   the bar series
+     * @param position the closed position
+     * @return the cash flow ratios, from the bar after the entry to the exit
+     */
+    private static double[] cashFlowRatios(BarSeries series, Position position) {
+        boolean isLongTrade = position.getEntry().isBuy();
+        int entryIndex = position.getEntry().getIndex();
+        int endIndex = CashFlow.determineEndIndex(position, position.getExit().getIndex(), series.getEndIndex());
+        int nPeriods = endIndex - entryIndex;
+        if (nPeriods <= 0) {
+            return new double[0];
+        }
+        Num holdingCost = position.getHoldingCost(endIndex);
+        Num avgCost = holdingCost.dividedBy(holdingCost.numOf(nPeriods));
+        Num netEntryPrice = position.getEntry().getNetPrice();
+        double[] values = new double[nPeriods];
+        for (int i = entryIndex + 1; i <= endIndex; i++) {
+            Num price = i < endIndex ? series.getBar(i).getClosePrice() : position.getExit().getNetPrice();
+            Num netPrice = CashFlow.addCost(price, avgCost, isLongTrade);
+            Num ratio = isLongTrade ? netPrice.dividedBy(netEntryPrice)
+                    : netEntryPrice.numOf(2).minus(netPrice.dividedBy(netEntryPrice));
+            values[i - entryIndex - 1] = ratio.doubleValue();
+        }
+        return values;
+    }
+
+    /**
+     * @return the number of closed positions
+     */
+    public int getPositionCount() {
+        return positionCount;
+    }
+
+    /**
+     * Runs the simulations, on the common fork-join pool.
+     *
+     * @param method      the resampling method (with blocks of 1 position for
+     *                    {@link Method#BLOCK_BOOTSTRAP})
+     * @param simulations the number of simulations
+     * @param seed        the seed of the random streams
+     * @return the results of the simulations
+     */
+    public Result run(Method method, int simulations, long seed) {
+        return run(method, 1, simulations, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the simulations.
+     *
+     * @param method      the resampling method
+     * @param blockSize   the number of consecutive positions of a block (for
+     *                    {@link Method#BLOCK_BOOTSTRAP})
+     * @param simulations the number of simulations
+     * @param seed        the seed of the random streams
+     * @param pool        the pool running the simulations
+     * @return the results of the simulations
+     */
+    public Result run(Method method, int blockSize, int simulations, long seed, ForkJoinPool pool) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        if (simulations < 1) {
+            throw new IllegalArgumentException("Simulation count must be positive");
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[simulations];
+        for (int s = 0; s < simulations; s++) {
+            randoms[s] = root.split();
+        }
+        Result result = new Result(simulations);
+        pool.submit(() -> IntStream.range(0, simulations).parallel()
+                .forEach(s -> simulate(resample(method, blockSize, randoms[s]), s, result))).join();
+        return result;
+    }
+
+    /**
+     * @return the order of the positions of a simulation
+     */
+    private int[] resample(Method method, int blockSize, SplittableRandom random) {
+        int[] order = new int[positionCount];
+        switch (method) {
+        case SHUFFLE:
+            for (int i = 0; i < positionCount; i++) {
+                order[i] = i;
+            }
+            // Fisher-Yates
+            for (int i = positionCount - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            break;
+        case BOOTSTRAP:
+            for (int i = 0; i < positionCount; i++) {
+                order[i] = random.nextInt(positionCount);
+            }
+            break;
+        case BLOCK_BOOTSTRAP:
+            for (int i = 0; i < positionCount;) {
+                int start = random.nextInt(positionCount);
+                for (int k = 0; k < blockSize && i < positionCount; k++, i++) {
+                    order[i] = (start + k) % positionCount;
+                }
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown method: " + method);
+        }
+        return order;
+    }
+
+    /**
+     * Compounds the positions of a simulation.
+     */
+    private void simulate(int[] order, int simulation, Result result) {
+        double equity = 1;
+        double peak = 1;
+        double maxDrawdown = 0;
+        double minEquity = 1;
+        double grossReturn = 1;
+        double profitLoss = 0;
+        double profitLossPercentage = 0;
+        for (int position : order) {
+            grossReturn *= grossReturns[position];
+            profitLoss += profits[position];
+            profitLossPercentage += profitPercentages[position];
+            // as in the cash flow, a position is not valid if the equity is not positive
+            if (equity > 0) {
+                double entryEquity = equity;
+                for (int j = offsets[position]; j < offsets[position + 1]; j++) {
+                    equity = entryEquity * ratios[j];
+                    if (equity > peak) {
+                        peak = equity;
+                    }
+                    double drawdown = (peak - equity) / peak;
+                    if (drawdown > maxDrawdown) {
+                        maxDrawdown = drawdown;
+                    }
+                    if (equity < minEquity) {
+                        minEquity = equity;
+                    }
+                }
+            }
+        }
+        result.finalEquity[simulation] = equity;
+        result.maxDrawdown[simulation] = maxDrawdown;
+        result.minEquity[simulation] = minEquity;
+        result.grossReturn[simulation] = grossReturn;
+        result.profitLoss[simulation] = profitLoss;
+        result.profitLossPercentage[simulation] = profitLossPercentage;
+    }
+
+    /**
+     * The results of the simulations (one value per simulation, in the order of
+     * the simulations).
+     */
+    public static class Result {
+
+        private final double[] finalEquity;
+        private final double[] maxDrawdown;
+        private final double[] minEquity;
+        private final double[] grossReturn;
+        private final double[] profitLoss;
+        private final double[] profitLossPercentage;
+
+        private Result(int simulations) {
+            finalEquity = new double[simulations];
+            maxDrawdown = new double[simulations];
+            minEquity = new double[simulations];
+            grossReturn = new double[simulations];
+            profitLoss = new double[simulations];
+            profitLossPercentage = new double[simulations];
+        }
+
+        /**
+         * @return the number of simulations
+         */
+        public int getSimulationCount() {
+            return finalEquity.length;
+        }
+
+        /**
+         * @return the distribution of the final equity (starting at 1)
+         */
+        public Distribution getFinalEquity() {
+            return new Distribution(finalEquity);
+        }
+
+        /**
+         * @return the distribution of the minimum equity (starting at 1)
+         */
+        public Distribution getMinEquity() {
+            return new Distribution(minEquity);
+        }
+
+        /**
+         * Returns the distribution of a criterion. The supported criteria are
+         * {@link MaximumDrawdownCriterion}, {@link GrossReturnCriterion},
+         * {@link ProfitLossCriterion} and {@link ProfitLossPercentageCriterion}.
+         *
+         * @param criterion the criterion
+         * @return the distribution of the criterion
+         * @throws IllegalArgumentException if the criterion is not supported
+         */
+        public Distribution getDistribution(AnalysisCriterion criterion) {
+            if (criterion instanceof MaximumDrawdownCriterion) {
+                return new Distribution(maxDrawdown);
+            }
+            if (criterion instanceof GrossReturnCriterion) {
+                return new Distribution(grossReturn);
+            }
+            if (criterion instanceof ProfitLossCriterion) {
+                return new Distribution(profitLoss);
+            }
+            if (criterion instanceof ProfitLossPercentageCriterion) {
+                return new Distribution(profitLossPercentage);
+            }
+            throw new IllegalArgumentException("Unsupported criterion: " + criterion);
+        }
+
+        /**
+         * Returns the probability of ruin, i.e. the share of the simulations in which
+         * the equity falls to or below a level.
+         *
+         * @param maxLoss the loss defining the ruin (e.g. 0.5 for an equity falling
+         *                to half of its initial value)
+         * @return the probability of ruin
+         */
+        public double getProbabilityOfRuin(double maxLoss) {
+            double ruinLevel = 1 - maxLoss;
+            int ruined = 0;
+            for (double value : minEquity) {
+                if (value <= ruinLevel) {
+                    ruined++;
+                }
+            }
+            return (double) ruined / minEquity.length;
+        }
+    }
+
+    /**
+     * The distribution of a value over the simulations.
+     */
+    public static class Distribution {
+
+        /** The sorted values */
+        private final double[] values;
+
+        private Distribution(double[] values) {
+            this.values = values.clone();
+            Arrays.sort(this.values);
+        }
+
+        /**
+         * @return the sorted values
+         */
+        public double[] getValues() {
+            return values.clone();
+        }
+
+        /**
+         * @return the lowest value
+         */
+        public double getMin() {
+            return values[0];
+        }
+
+        /**
+         * @return the highest value
+         */
+        public double getMax() {
+            return values[values.length - 1];
+        }
+
+        /**
+         * @return the mean of the values
+         */
+        public double getMean() {
+            double sum = 0;
+            for (double value : values) {
+                sum += value;
+            }
+            return sum / values.length;
+        }
+
+        /**
+         * @return the (population) standard deviation of the values
+         */
+        public double getStandardDeviation() {
+            double mean = getMean();
+            double sum = 0;
+            for (double value : values) {
+                sum += (value - mean) * (value - mean);
+            }
+            return Math.sqrt(sum / values.length);
+        }
+
+        /**
+         * Returns a percentile of the values, interpolated linearly between the
+         * closest ranks.
+         *
+         * @param probability the probability (between 0 and 1, e.g. 0.05 and 0.95
+         *                    for the bounds of a 90% confidence interval)
+         * @return the percentile
+         */
+        public double getPercentile(double probability) {
+            if (probability < 0 || probability > 1) {
+                throw new IllegalArgumentException("Probability must be between 0 and 1");
+            }
+            double rank = probability * (values.length - 1);
+            int lower = (int) Math.floor(rank);
+            int upper = (int) Math.ceil(rank);
+            return values[lower] + (rank - lower) * (values[upper] - values[lower]);
+        }
+    }
+}
@@ -26,6 +26,7 @@ package org.ta4j.core.analysis;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Indicator;
@@ -53,7 +54,7 @@ public class Returns implements Indicator<Num> {
             @Override
             public Num calculate(Num xNew, Num xOld) {
                 // r_i = P_i/P_(i-1) - 1
-                return xNew.dividedBy(xOld).minus(one);
+                return xNew.dividedBy(xOld).minus(xNew.numOf(1));
             }
         };
 
@@ -75,11 +76,6 @@ public class Returns implements Indicator<Num> {
      */
     private List<Num> values;
 
-    /**
-     * Unit element for efficient arithmetic return computation
-     */
-    private static Num one;
-
     /**
      * Constructor.
      *
@@ -87,7 +83,6 @@ public class Returns implements Indicator<Num> {
      * @param position  a single position
      */
     public Returns(BarSeries barSeries, Position position, ReturnType type) {
-        one = barSeries.numOf(1);
         this.barSeries = barSeries;
         this.type = type;
         // at index 0, there is no return
@@ -104,7 +99,6 @@ public class Returns implements Indicator<Num> {
      * @param tradingRecord the trading record
      */
     public Returns(BarSeries barSeries, TradingRecord tradingRecord, ReturnType type) {
-        one = barSeries.numOf(1);
         this.barSeries = barSeries;
         this.type = type;
         // at index 0, there is no return
@@ -156,13 +150,88 @@ public class Returns implements Indicator<Num> {
      * @param finalIndex index up until cash flow of open positions is considered
      */
     public void calculate(Position position, int finalIndex) {
+        calculate(barSeries, type, position, finalIndex, values.size(), values::add);
+    }
+
+    /**
+     * Streams the return rates of a trading record, without storing them.
+     *
+     * The streamed values are the ones of
+     * {@code new Returns(barSeries, tradingRecord, type).getValues()} from index 1
+     * to {@link #getSize()} (i.e. without the first one, which is NaN).
+     *
+     * @param barSeries     the bar series
+     * @param tradingRecord the trading record
+     * @param type          the type of the returns
+     * @param action        the action for each return rate
+     */
+    public static void forEachReturn(BarSeries barSeries, TradingRecord tradingRecord, ReturnType type,
+            Consumer<Num> action) {
+        Consumer<Num> sink = boundedSink(barSeries, action);
+        int size = 1;
+        for (Position position : tradingRecord.getPositions()) {
+            size = calculate(barSeries, type, position, barSeries.getEndIndex(), size, sink);
+        }
+        fillToTheEnd(barSeries, size, sink);
+    }
+
+    /**
+     * Streams the return rates of a position, without storing them.
+     *
+     * The streamed values are the ones of
+     * {@code new Returns(barSeries, position, type).getValues()} from index 1 to
+     * {@link #getSize()} (i.e. without the first one, which is NaN).
+     *
+     * @param barSeries the bar series
+     * @param position  a single position
+     * @param type      the type of the returns
+     * @param action    the action for each return rate
+     */
+    public static void forEachReturn(BarSeries barSeries, Position position, ReturnType type,
+            Consumer<Num> action) {
+        Consumer<Num> sink = boundedSink(barSeries, action);
+        int size = calculate(barSeries, type, position, barSeries.getEndIndex(), 1, sink);
+        fillToTheEnd(barSeries, size, sink);
+    }
+
+    /**
+     * @return a sink passing the return rates from index 1 to the size of the
+     *         returns to the action
+     */
+    private static Consumer<Num> boundedSink(BarSeries barSeries, Consumer<Num> action) {
+        int lastIndex = barSeries.getBarCount() - 1;
+        int[] index = { 1 };
+        return value -> {
+            if (index[0]++ <= lastIndex) {
+                action.accept(value);
+            }
+        };
+    }
+
+    /**
+     * Calculates the return rates of a single position (including accrued returns
+     * for open positions).
+     *
+     * @param barSeries  the bar series
+     * @param type       the type of the returns
+     * @param position   a single position
+     * @param finalIndex index up until returns of open positions are considered
+     * @param size       the number of return rates before the position
+     * @param sink       the consumer of the new return rates
+     * @return the number of return rates after the position
+     */
+    private static int calculate(BarSeries barSeries, ReturnType type, Position position, int finalIndex, int size,
+            Consumer<Num> sink) {
         boolean isLongTrade = position.getEntry().isBuy();
         Num minusOne = barSeries.numOf(-1);
         int endIndex = CashFlow.determineEndIndex(position, finalIndex, barSeries.getEndIndex());
         final int entryIndex = position.getEntry().getIndex();
         int begin = entryIndex + 1;
-        if (begin > values.size()) {
-            values.addAll(Collections.nCopies(begin - values.size(), barSeries.numOf(0)));
+        if (begin > size) {
+            Num zero = barSeries.numOf(0);
+            for (; size < begin; size++) {
+                sink.accept(zero);
+            }
         }
 
         int startingIndex = Math.max(begin, 1);
@@ -183,7 +252,8 @@ public class Returns implements Indicator<Num> {
             } else {
                 strategyReturn = assetReturn.multipliedBy(minusOne);
             }
-            values.add(strategyReturn);
+            sink.accept(strategyReturn);
+            size++;
             // update base price
             lastPrice = barSeries.getBar(i).getClosePrice();
         }
@@ -203,7 +273,8 @@ public class Returns implements Indicator<Num> {
         } else {
             strategyReturn = assetReturn.multipliedBy(minusOne);
         }
-        values.add(strategyReturn);
+        sink.accept(strategyReturn);
+        return size + 1;
     }
 
     /**
@@ -220,8 +291,13 @@ public class Returns implements Indicator<Num> {
      * Fills with zeroes until the end of the series.
      */
     private void fillToTheEnd() {
-        if (barSeries.getEndIndex() >= values.size()) {
-            values.addAll(Collections.nCopies(barSeries.getEndIndex() - values.size() + 1, barSeries.numOf(0)));
+        fillToTheEnd(barSeries, values.size(), values::add);
+    }
+
+    private static void fillToTheEnd(BarSeries barSeries, int size, Consumer<Num> sink) {
+        Num zero = barSeries.numOf(0);
+        for (; size <= barSeries.getEndIndex(); size++) {
+            sink.accept(zero);
         }
     }
 }
\ No newline at end of file
@@ -23,14 +23,17 @@
  */
 package org.ta4j.core.analysis.criteria;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.analysis.Returns;
 import org.ta4j.core.num.Num;
+import org.ta4j.core.utils.P2QuantileEstimator;
+import org.ta4j.core.utils.QuantileUtils;
 
 /**
  * Expected Shortfall criterion.
@@ -47,18 +50,42 @@ public class ExpectedShortfallCriterion extends AbstractAnalysisCriterion {
      */
     private final double confidence;
 
+    /**
+     * True to estimate the Expected Shortfall in constant memory
+     */
+    private final boolean approximate;
+
     /**
      * Constructor
      *
      * @param confidence the confidence level
      */
     public ExpectedShortfallCriterion(double confidence) {
+        this(confidence, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param confidence  the confidence level
+     * @param approximate true to average the returns below a VaR estimated with a
+     *                    streaming {@link P2QuantileEstimator quantile estimator}
+     *                    (constant memory, for very long records), false to
+     *                    select the tail exactly
+     */
+    public ExpectedShortfallCriterion(double confidence, boolean approximate) {
         this.confidence = confidence;
+        this.approximate = approximate;
     }
 
     @Override
     public Num calculate(BarSeries series, Position position) {
         if (position != null && position.getEntry() != null && position.getExit() != null) {
+            if (approximate) {
+                return estimateES(
+                        action -> Returns.forEachReturn(series, position, Returns.ReturnType.LOG, action),
+                        series.numOf(0), confidence);
+            }
             Returns returns = new Returns(series, position, Returns.ReturnType.LOG);
             return calculateES(returns, confidence);
         }
@@ -67,6 +94,11 @@ public class ExpectedShortfallCriterion extends AbstractAnalysisCriterion {
 
     @Override
     public Num calculate(BarSeries series, TradingRecord tradingRecord) {
+        if (approximate) {
+            return estimateES(
+                    action -> Returns.forEachReturn(series, tradingRecord, Returns.ReturnType.LOG, action),
+                    series.numOf(0), confidence);
+        }
         Returns returns = new Returns(series, tradingRecord, Returns.ReturnType.LOG);
         return calculateES(returns, confidence);
     }
@@ -89,11 +121,10 @@ public class ExpectedShortfallCriterion extends AbstractAnalysisCriterion {
             int nInTail = returns.getSize() - nInBody;
 
             // calculate average tail loss
-            Collections.sort(returnRates);
-            List<Num> tailEvents = returnRates.subList(0, nInTail);
+            Num[] tailEvents = QuantileUtils.lowestValues(returnRates, nInTail);
             Num sum = zero;
             for (int i = 0; i < nInTail; i++) {
-                sum = sum.plus(tailEvents.get(i));
+                sum = sum.plus(tailEvents[i]);
             }
             expectedShortfall = sum.dividedBy(returns.numOf(nInTail));
 
@@ -105,6 +136,46 @@ public class ExpectedShortfallCriterion extends AbstractAnalysisCriterion {
         return expectedShortfall;
     }
 
+    /**
+     * Estimates the Expected Shortfall on streamed return rates, in constant
+     * memory: the rates are streamed once to estimate the VaR, then once more to
+     * average the ones below it.
+     *
+     * @param returnRates streams the non-NaN return rates to an action
+     * @param zero        zero as a Num
+     * @param confidence  the confidence level
+     * @return the estimated relative Expected Shortfall
+     */
+    private static Num estimateES(Consumer<Consumer<Num>> returnRates, Num zero, double confidence) {
+        P2QuantileEstimator estimator = new P2QuantileEstimator(1 - confidence);
+        returnRates.accept(r -> estimator.add(r.doubleValue()));
+        if (estimator.getCount() == 0) {
+            return zero;
+        }
+        Num var = zero.numOf(estimator.getQuantile());
+        Num[] sum = { zero };
+        int[] nInTail = { 0 };
+        returnRates.accept(r -> {
+            if (r.isLessThanOrEqual(var)) {
+                sum[0] = sum[0].plus(r);
+                nInTail[0]++;
+            }
+        });
+        Num expectedShortfall = nInTail[0] == 0 ? var : sum[0].dividedBy(zero.numOf(nInTail[0]));
+        // ES is non-positive
+        return expectedShortfall.isGreaterThan(zero) ? zero : expectedShortfall;
+    }
+
+    @Override
+    public Num calculate(AnalysisContext context) {
+        Returns returns = context.getReturns(Returns.ReturnType.LOG);
+        if (approximate) {
+            List<Num> returnRates = returns.getValues().subList(1, returns.getSize() + 1);
+            return estimateES(returnRates::forEach, returns.numOf(0), confidence);
+        }
+        return calculateES(returns, confidence);
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         return criterionValue1.isGreaterThan(criterionValue2);
@@ -24,8 +24,10 @@
 package org.ta4j.core.analysis.criteria;
 
 import org.ta4j.core.BarSeries;
+import org.ta4j.core.EquityTrackingTradingRecord;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.analysis.CashFlow;
 import org.ta4j.core.num.Num;
 
@@ -48,10 +50,23 @@ public class MaximumDrawdownCriterion extends AbstractAnalysisCriterion {
 
     @Override
     public Num calculate(BarSeries series, TradingRecord tradingRecord) {
+        if (tradingRecord instanceof EquityTrackingTradingRecord && series.getBeginIndex() == 0
+                && ((EquityTrackingTradingRecord) tradingRecord).getBarSeries() == series) {
+            // the equity curve is tracked from index 0
+            return ((EquityTrackingTradingRecord) tradingRecord).getClosedMaxDrawdown();
+        }
         CashFlow cashFlow = new CashFlow(series, tradingRecord);
         return calculateMaximumDrawdown(series, cashFlow);
     }
 
+    @Override
+    public Num calculate(AnalysisContext context) {
+        if (context.getTradingRecord() instanceof EquityTrackingTradingRecord) {
+            return calculate(context.getBarSeries(), context.getTradingRecord());
+        }
+        return calculateMaximumDrawdown(context.getBarSeries(), context.getCashFlow());
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         return criterionValue1.isLessThan(criterionValue2);
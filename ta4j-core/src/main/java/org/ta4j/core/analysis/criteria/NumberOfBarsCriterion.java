@@ -24,6 +24,7 @@
 package org.ta4j.core.analysis.criteria;
 
 import org.ta4j.core.BarSeries;
+import org.ta4j.core.CompactTradingRecord;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
 import org.ta4j.core.num.Num;
@@ -47,6 +48,14 @@ public class NumberOfBarsCriterion extends AbstractAnalysisCriterion {
 
     @Override
     public Num calculate(BarSeries series, TradingRecord tradingRecord) {
+        if (tradingRecord instanceof CompactTradingRecord) {
+            CompactTradingRecord record = (CompactTradingRecord) tradingRecord;
+            int numberOfBars = 0;
+            for (int entry = 0; entry + 1 < record.getTradeCount(); entry += 2) {
+                numberOfBars += record.getIndex(entry + 1) - record.getIndex(entry) + 1;
+            }
+            return series.numOf(numberOfBars);
+        }
         return tradingRecord.getPositions().stream().filter(Position::isClosed).map(t -> calculate(series, t))
                 .reduce(series.numOf(0), Num::plus);
     }
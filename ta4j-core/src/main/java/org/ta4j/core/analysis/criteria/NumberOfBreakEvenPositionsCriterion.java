@@ -23,9 +23,11 @@
  */
 package org.ta4j.core.analysis.criteria;
 
+import org.ta4j.core.AggregatingTradingRecord;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.num.Num;
 
 /**
@@ -40,6 +42,9 @@ public class NumberOfBreakEvenPositionsCriterion extends AbstractAnalysisCriteri
 
     @Override
     public Num calculate(BarSeries series, TradingRecord tradingRecord) {
+        if (tradingRecord instanceof AggregatingTradingRecord) {
+            return series.numOf(((AggregatingTradingRecord) tradingRecord).getBreakEvenPositionCount());
+        }
         long numberOfBreakEvenTrades = tradingRecord.getPositions().stream().filter(Position::isClosed)
                 .filter(this::isBreakEvenTrade).count();
         return series.numOf(numberOfBreakEvenTrades);
@@ -52,6 +57,11 @@ public class NumberOfBreakEvenPositionsCriterion extends AbstractAnalysisCriteri
         return false;
     }
 
+    @Override
+    public Num calculate(AnalysisContext context) {
+        return context.getBarSeries().numOf(context.getBreakEvenPositionCount());
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         return criterionValue1.isLessThan(criterionValue2);
@@ -24,6 +24,7 @@
 package org.ta4j.core.analysis.criteria;
 
 import org.ta4j.core.BarSeries;
+import org.ta4j.core.CompactTradingRecord;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
 import org.ta4j.core.num.Num;
@@ -42,6 +43,19 @@ public class NumberOfConsecutiveWinningPositionsCriterion extends AbstractAnalys
     public Num calculate(BarSeries series, TradingRecord tradingRecord) {
         int maxConsecutiveWins = 0;
         int consecutiveWins = 0;
+        if (tradingRecord instanceof CompactTradingRecord) {
+            // reads the profit column instead of creating the positions
+            CompactTradingRecord record = (CompactTradingRecord) tradingRecord;
+            for (int position = 0; position < record.getPositionCount(); position++) {
+                if (record.getProfit(position) > 0) {
+                    consecutiveWins = consecutiveWins + 1;
+                } else {
+                    maxConsecutiveWins = Math.max(maxConsecutiveWins, consecutiveWins);
+                    consecutiveWins = 0; // reset
+                }
+            }
+            return series.numOf(Math.max(maxConsecutiveWins, consecutiveWins));
+        }
         for (Position position : tradingRecord.getPositions()) {
             if (isWinningPosition(position)) {
                 consecutiveWins = consecutiveWins + 1;
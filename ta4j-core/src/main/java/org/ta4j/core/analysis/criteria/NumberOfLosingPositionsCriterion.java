@@ -23,9 +23,11 @@
  */
 package org.ta4j.core.analysis.criteria;
 
+import org.ta4j.core.AggregatingTradingRecord;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.num.Num;
 
 /**
@@ -40,10 +42,18 @@ public class NumberOfLosingPositionsCriterion extends AbstractAnalysisCriterion
 
     @Override
     public Num calculate(BarSeries series, TradingRecord tradingRecord) {
+        if (tradingRecord instanceof AggregatingTradingRecord) {
+            return series.numOf(((AggregatingTradingRecord) tradingRecord).getLosingPositionCount());
+        }
         long numberOfLosingPositions = tradingRecord.getPositions().stream().filter(Position::hasLoss).count();
         return series.numOf(numberOfLosingPositions);
     }
 
+    @Override
+    public Num calculate(AnalysisContext context) {
+        return context.getBarSeries().numOf(context.getLosingPositionCount());
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         return criterionValue1.isLessThan(criterionValue2);
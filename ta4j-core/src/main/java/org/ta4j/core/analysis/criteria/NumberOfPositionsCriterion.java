@@ -26,6 +26,7 @@ package org.ta4j.core.analysis.criteria;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.num.Num;
 
 /**
@@ -43,6 +44,11 @@ public class NumberOfPositionsCriterion extends AbstractAnalysisCriterion {
         return series.numOf(tradingRecord.getPositionCount());
     }
 
+    @Override
+    public Num calculate(AnalysisContext context) {
+        return context.getBarSeries().numOf(context.getPositionCount());
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         return criterionValue1.isLessThan(criterionValue2);
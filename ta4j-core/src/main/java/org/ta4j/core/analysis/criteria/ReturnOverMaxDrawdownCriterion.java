@@ -27,6 +27,7 @@ import org.ta4j.core.AnalysisCriterion;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.analysis.criteria.pnl.GrossReturnCriterion;
 import org.ta4j.core.num.NaN;
 import org.ta4j.core.num.Num;
@@ -62,6 +63,17 @@ public class ReturnOverMaxDrawdownCriterion extends AbstractAnalysisCriterion {
         }
     }
 
+    @Override
+    public Num calculate(AnalysisContext context) {
+        final Num maxDrawdown = maxDrawdownCriterion.calculate(context);
+        if (maxDrawdown.isZero()) {
+            return NaN.NaN;
+        } else {
+            final Num totalProfit = grossReturnCriterion.calculate(context);
+            return totalProfit.dividedBy(maxDrawdown);
+        }
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         return criterionValue1.isGreaterThan(criterionValue2);
@@ -23,14 +23,17 @@
  */
 package org.ta4j.core.analysis.criteria;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.analysis.Returns;
 import org.ta4j.core.num.Num;
+import org.ta4j.core.utils.P2QuantileEstimator;
+import org.ta4j.core.utils.QuantileUtils;
 
 /**
  * Value at Risk criterion.
@@ -44,18 +47,42 @@ public class ValueAtRiskCriterion extends AbstractAnalysisCriterion {
      */
     private final Double confidence;
 
+    /**
+     * True to estimate the VaR in constant memory
+     */
+    private final boolean approximate;
+
     /**
      * Constructor
      *
      * @param confidence the confidence level
      */
     public ValueAtRiskCriterion(Double confidence) {
+        this(confidence, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param confidence  the confidence level
+     * @param approximate true to estimate the VaR with a streaming
+     *                    {@link P2QuantileEstimator quantile estimator} (constant
+     *                    memory, for very long records), false to select it
+     *                    exactly
+     */
+    public ValueAtRiskCriterion(Double confidence, boolean approximate) {
         this.confidence = confidence;
+        this.approximate = approximate;
     }
 
     @Override
     public Num calculate(BarSeries series, Position position) {
         if (position != null && position.isClosed()) {
+            if (approximate) {
+                return estimateVaR(
+                        action -> Returns.forEachReturn(series, position, Returns.ReturnType.LOG, action),
+                        series.numOf(0), confidence);
+            }
             Returns returns = new Returns(series, position, Returns.ReturnType.LOG);
             return calculateVaR(returns, confidence);
         }
@@ -64,6 +91,11 @@ public class ValueAtRiskCriterion extends AbstractAnalysisCriterion {
 
     @Override
     public Num calculate(BarSeries series, TradingRecord tradingRecord) {
+        if (approximate) {
+            return estimateVaR(
+                    action -> Returns.forEachReturn(series, tradingRecord, Returns.ReturnType.LOG, action),
+                    series.numOf(0), confidence);
+        }
         Returns returns = new Returns(series, tradingRecord, Returns.ReturnType.LOG);
         return calculateVaR(returns, confidence);
     }
@@ -86,8 +118,8 @@ public class ValueAtRiskCriterion extends AbstractAnalysisCriterion {
             int nInTail = returns.getSize() - nInBody;
 
             // The series is not empty, nInTail > 0
-            Collections.sort(returnRates);
-            var = returnRates.get(nInTail - 1);
+            Num[] tail = QuantileUtils.lowestValues(returnRates, nInTail);
+            var = tail[nInTail - 1];
 
             // VaR is non-positive
             if (var.isGreaterThan(zero)) {
@@ -97,6 +129,35 @@ public class ValueAtRiskCriterion extends AbstractAnalysisCriterion {
         return var;
     }
 
+    /**
+     * Estimates the VaR on streamed return rates, in constant memory
+     *
+     * @param returnRates streams the non-NaN return rates to an action
+     * @param zero        zero as a Num
+     * @param confidence  the confidence level
+     * @return the estimated relative Value at Risk
+     */
+    private static Num estimateVaR(Consumer<Consumer<Num>> returnRates, Num zero, double confidence) {
+        P2QuantileEstimator estimator = new P2QuantileEstimator(1 - confidence);
+        returnRates.accept(r -> estimator.add(r.doubleValue()));
+        if (estimator.getCount() == 0) {
+            return zero;
+        }
+        Num var = zero.numOf(estimator.getQuantile());
+        // VaR is non-positive
+        return var.isGreaterThan(zero) ? zero : var;
+    }
+
+    @Override
+    public Num calculate(AnalysisContext context) {
+        Returns returns = context.getReturns(Returns.ReturnType.LOG);
+        if (approximate) {
+            List<Num> returnRates = returns.getValues().subList(1, returns.getSize() + 1);
+            return estimateVaR(returnRates::forEach, returns.numOf(0), confidence);
+        }
+        return calculateVaR(returns, confidence);
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         // because it represents a loss, VaR is non-positive
@@ -26,6 +26,7 @@ package org.ta4j.core.analysis.criteria;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.num.Num;
 
 /**
@@ -48,6 +49,12 @@ public class WinningPositionsRatioCriterion extends AbstractAnalysisCriterion {
         return numberOfWinningPositions.dividedBy(series.numOf(tradingRecord.getPositionCount()));
     }
 
+    @Override
+    public Num calculate(AnalysisContext context) {
+        BarSeries series = context.getBarSeries();
+        return series.numOf(context.getWinningPositionCount()).dividedBy(series.numOf(context.getPositionCount()));
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         return criterionValue1.isGreaterThan(criterionValue2);
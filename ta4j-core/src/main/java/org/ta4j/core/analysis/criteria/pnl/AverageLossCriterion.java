@@ -26,6 +26,7 @@ package org.ta4j.core.analysis.criteria.pnl;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.analysis.criteria.AbstractAnalysisCriterion;
 import org.ta4j.core.analysis.criteria.NumberOfLosingPositionsCriterion;
 import org.ta4j.core.num.Num;
@@ -64,6 +65,19 @@ public class AverageLossCriterion extends AbstractAnalysisCriterion {
         return grossLoss.dividedBy(numberOfLosingPositions);
     }
 
+    @Override
+    public Num calculate(AnalysisContext context) {
+        Num numberOfLosingPositions = numberOfLosingPositionsCriterion.calculate(context);
+        if (numberOfLosingPositions.isZero()) {
+            return context.getBarSeries().numOf(0);
+        }
+        Num grossLoss = grossLossCriterion.calculate(context);
+        if (grossLoss.isZero()) {
+            return context.getBarSeries().numOf(0);
+        }
+        return grossLoss.dividedBy(numberOfLosingPositions);
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         return criterionValue1.isGreaterThan(criterionValue2);
@@ -26,6 +26,7 @@ package org.ta4j.core.analysis.criteria.pnl;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.analysis.criteria.AbstractAnalysisCriterion;
 import org.ta4j.core.analysis.criteria.NumberOfWinningPositionsCriterion;
 import org.ta4j.core.num.Num;
@@ -64,6 +65,19 @@ public class AverageProfitCriterion extends AbstractAnalysisCriterion {
         return grossProfit.dividedBy(numberOfWinningPositions);
     }
 
+    @Override
+    public Num calculate(AnalysisContext context) {
+        Num numberOfWinningPositions = numberOfWinningPositionsCriterion.calculate(context);
+        if (numberOfWinningPositions.isZero()) {
+            return context.getBarSeries().numOf(0);
+        }
+        Num grossProfit = grossProfitCriterion.calculate(context);
+        if (grossProfit.isZero()) {
+            return context.getBarSeries().numOf(0);
+        }
+        return grossProfit.dividedBy(numberOfWinningPositions);
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         return criterionValue1.isGreaterThan(criterionValue2);
@@ -23,9 +23,11 @@
  */
 package org.ta4j.core.analysis.criteria.pnl;
 
+import org.ta4j.core.AggregatingTradingRecord;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.analysis.criteria.AbstractAnalysisCriterion;
 import org.ta4j.core.num.Num;
 
@@ -49,10 +51,18 @@ public class GrossProfitCriterion extends AbstractAnalysisCriterion {
 
     @Override
     public Num calculate(BarSeries series, TradingRecord tradingRecord) {
+        if (tradingRecord instanceof AggregatingTradingRecord) {
+            return ((AggregatingTradingRecord) tradingRecord).getGrossProfit();
+        }
         return tradingRecord.getPositions().stream().filter(Position::isClosed)
                 .map(position -> calculate(series, position)).reduce(series.numOf(0), Num::plus);
     }
 
+    @Override
+    public Num calculate(AnalysisContext context) {
+        return context.getGrossProfit();
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         return criterionValue1.isGreaterThan(criterionValue2);
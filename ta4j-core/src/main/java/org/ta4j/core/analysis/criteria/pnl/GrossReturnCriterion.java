@@ -23,9 +23,11 @@
  */
 package org.ta4j.core.analysis.criteria.pnl;
 
+import org.ta4j.core.AggregatingTradingRecord;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.analysis.criteria.AbstractAnalysisCriterion;
 import org.ta4j.core.num.Num;
 
@@ -45,10 +47,19 @@ public class GrossReturnCriterion extends AbstractAnalysisCriterion {
 
     @Override
     public Num calculate(BarSeries series, TradingRecord tradingRecord) {
+        if (tradingRecord instanceof AggregatingTradingRecord
+                && ((AggregatingTradingRecord) tradingRecord).getBarSeries() == series) {
+            return ((AggregatingTradingRecord) tradingRecord).getGrossReturn();
+        }
         return tradingRecord.getPositions().stream().map(position -> calculateProfit(series, position))
                 .reduce(series.numOf(1), Num::multipliedBy);
     }
 
+    @Override
+    public Num calculate(AnalysisContext context) {
+        return context.getGrossReturn();
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         return criterionValue1.isGreaterThan(criterionValue2);
@@ -26,6 +26,7 @@ package org.ta4j.core.analysis.criteria.pnl;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Position;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.analysis.criteria.AbstractAnalysisCriterion;
 import org.ta4j.core.num.Num;
 
@@ -68,6 +69,21 @@ public class ProfitLossRatioCriterion extends AbstractAnalysisCriterion {
         return averageProfit.dividedBy(averageLoss).abs();
     }
 
+    @Override
+    public Num calculate(AnalysisContext context) {
+        Num averageProfit = averageProfitCriterion.calculate(context);
+        if (averageProfit.isZero()) {
+            // only loosing positions means a ratio of 0
+            return context.getBarSeries().numOf(0);
+        }
+        Num averageLoss = averageLossCriterion.calculate(context);
+        if (averageLoss.isZero()) {
+            // only winning positions means a ratio of 1
+            return context.getBarSeries().numOf(1);
+        }
+        return averageProfit.dividedBy(averageLoss).abs();
+    }
+
     @Override
     public boolean betterThan(Num criterionValue1, Num criterionValue2) {
         return criterionValue1.isGreaterThan(criterionValue2);
@@ -44,6 +44,13 @@ public class LinearBorrowingCostModel implements CostModel {
         this.feePerPeriod = feePerPeriod;
     }
 
+    /**
+     * @return the fee per period
+     */
+    public double getFeePerPeriod() {
+        return feePerPeriod;
+    }
+
     public Num calculate(Num price, Num amount) {
         // borrowing costs depend on borrowed period
         return price.numOf(0);
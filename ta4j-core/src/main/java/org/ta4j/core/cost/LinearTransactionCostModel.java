@@ -45,6 +45,13 @@ public class LinearTransactionCostModel implements CostModel {
         this.feePerPosition = feePerPosition;
     }
 
+    /**
+     * @return the feePerPosition coefficient
+     */
+    public double getFeePerPosition() {
+        return feePerPosition;
+    }
+
     /**
      * Calculates the transaction cost of a position.
      * 
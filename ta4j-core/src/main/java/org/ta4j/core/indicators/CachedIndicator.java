@@ -26,6 +26,7 @@ package org.ta4j.core.indicators;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.IntFunction;
 
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Indicator;
@@ -49,6 +50,18 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
      */
     protected int highestResultIndex = -1;
 
+    /**
+     * Values stored in advance (e.g. by a feature store) for the first indexes of
+     * the series, null if none
+     */
+    private IntFunction<T> storedValues;
+
+    /**
+     * The number of stored values (i.e. the stored values are the ones of the
+     * indexes 0 to storedCount - 1)
+     */
+    protected int storedCount;
+
     /**
      * Constructor.
      *
@@ -75,6 +88,36 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
      */
     protected abstract T calculate(int index);
 
+    /**
+     * Sets values stored in advance (e.g. persisted by a feature store) for the
+     * first indexes of the series. They are read instead of being calculated.
+     *
+     * @param storedValues the stored value of an index (null to calculate it)
+     * @param storedCount  the number of stored values (i.e. for the indexes 0 to
+     *                     storedCount - 1)
+     */
+    public void setStoredValues(IntFunction<T> storedValues, int storedCount) {
+        this.storedValues = storedValues;
+        this.storedCount = storedValues == null ? 0 : storedCount;
+    }
+
+    /**
+     * @param index the bar index
+     * @return the stored value of the index, null if none
+     */
+    T storedValue(int index) {
+        return index < storedCount ? storedValues.apply(index) : null;
+    }
+
+    /**
+     * @param index the bar index
+     * @return the stored value of the index if any, else the calculated one
+     */
+    private T storedOrCalculate(int index) {
+        T stored = storedValue(index);
+        return stored != null ? stored : calculate(index);
+    }
+
     @Override
     public T getValue(int index) {
         BarSeries series = getBarSeries();
@@ -104,26 +147,26 @@ public abstract class CachedIndicator<T> extends AbstractIndicator<T> {
                 // It should be "result = calculate(removedBarsCount);".
                 // We use "result = calculate(0);" as a workaround
                 // to fix issue #120 (https://github.com/mdeverdelhan/ta4j/issues/120).
-                result = calculate(0);
+                result = storedOrCalculate(0);
                 results.set(0, result);
             }
         } else {
             if (index == series.getEndIndex()) {
                 // Don't cache result if last bar
-                result = calculate(index);
+                result = storedOrCalculate(index);
             } else {
                 increaseLengthTo(index, maximumResultCount);
                 if (index > highestResultIndex) {
                     // Result not calculated yet
                     highestResultIndex = index;
-                    result = calculate(index);
+                    result = storedOrCalculate(index);
                     results.set(results.size() - 1, result);
                 } else {
                     // Result covered by current cache
                     int resultInnerIndex = results.size() - 1 - (highestResultIndex - index);
                     result = results.get(resultInnerIndex);
                     if (result == null) {
-                        result = calculate(index);
+                        result = storedOrCalculate(index);
                         results.set(resultInnerIndex, result);
                     }
                 }
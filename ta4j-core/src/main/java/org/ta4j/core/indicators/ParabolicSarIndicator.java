@@ -30,6 +30,8 @@ import org.ta4j.core.indicators.helpers.HighPriceIndicator;
 import org.ta4j.core.indicators.helpers.HighestValueIndicator;
 import org.ta4j.core.indicators.helpers.LowPriceIndicator;
 import org.ta4j.core.indicators.helpers.LowestValueIndicator;
+import org.ta4j.core.io.Checkpointable;
+import org.ta4j.core.io.IndicatorCheckpoint;
 import org.ta4j.core.num.Num;
 
 /**
@@ -41,7 +43,7 @@ import org.ta4j.core.num.Num;
  * @see <a href="https://www.investopedia.com/terms/p/parabolicindicator.asp">
  *      https://www.investopedia.com/terms/p/parabolicindicator.asp</a>
  */
-public class ParabolicSarIndicator extends RecursiveCachedIndicator<Num> {
+public class ParabolicSarIndicator extends RecursiveCachedIndicator<Num> implements Checkpointable {
 
     private final Num maxAcceleration;
     private final Num accelerationIncrement;
@@ -181,4 +183,22 @@ public class ParabolicSarIndicator extends RecursiveCachedIndicator<Num> {
             accelerationFactor = accelerationFactor.plus(accelerationIncrement);
         }
     }
+
+    @Override
+    public void saveState(IndicatorCheckpoint.State state) {
+        state.putNum("accelerationFactor", accelerationFactor);
+        state.putBoolean("currentTrend", currentTrend);
+        state.putIndex("startTrendIndex", startTrendIndex);
+        state.putNum("currentExtremePoint", currentExtremePoint);
+        state.putNum("minMaxExtremePoint", minMaxExtremePoint);
+    }
+
+    @Override
+    public void restoreState(IndicatorCheckpoint.State state) {
+        accelerationFactor = state.getNum("accelerationFactor");
+        currentTrend = state.getBoolean("currentTrend");
+        startTrendIndex = state.getIndex("startTrendIndex");
+        currentExtremePoint = state.getNum("currentExtremePoint");
+        minMaxExtremePoint = state.getNum("minMaxExtremePoint");
+    }
 }
\ No newline at end of file
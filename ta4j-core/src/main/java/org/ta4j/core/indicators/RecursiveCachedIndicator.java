@@ -71,6 +71,12 @@ public abstract class RecursiveCachedIndicator<T> extends CachedIndicator<T> {
                 // We are not after the end of the series
                 final int removedBarsCount = series.getRemovedBarsCount();
                 int startIndex = Math.max(removedBarsCount, highestResultIndex);
+                // the stored values need no calculation
+                if (index >= storedCount) {
+                    startIndex = Math.max(startIndex, storedCount - 1);
+                } else if (storedValue(index) != null) {
+                    startIndex = index;
+                }
                 if (index - startIndex > RECURSION_THRESHOLD) {
                     // Too many uncalculated values; the risk for a StackOverflowError becomes high.
                     // Calculating the previous values iteratively
@@ -38,11 +38,11 @@ import org.ta4j.core.num.Num;
  */
 public class UlcerIndexIndicator extends CachedIndicator<Num> {
 
-    private Indicator<Num> indicator;
+    private final Indicator<Num> indicator;
 
-    private HighestValueIndicator highestValueInd;
+    private final HighestValueIndicator highestValueInd;
 
-    private int barCount;
+    private final int barCount;
 
     /**
      * Constructor.
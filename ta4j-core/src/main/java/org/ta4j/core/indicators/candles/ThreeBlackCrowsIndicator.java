@@ -50,8 +50,6 @@ public class ThreeBlackCrowsIndicator extends CachedIndicator<Boolean> {
      */
     private final Num factor;
 
-    private int whiteCandleIndex = -1;
-
     /**
      * Constructor.
      *
@@ -73,16 +71,17 @@ public class ThreeBlackCrowsIndicator extends CachedIndicator<Boolean> {
             // We need 4 candles: 1 white, 3 black
             return false;
         }
-        whiteCandleIndex = index - 3;
-        return getBarSeries().getBar(whiteCandleIndex).isBullish() && isBlackCrow(index - 2) && isBlackCrow(index - 1)
-                && isBlackCrow(index);
+        int whiteCandleIndex = index - 3;
+        return getBarSeries().getBar(whiteCandleIndex).isBullish() && isBlackCrow(index - 2, whiteCandleIndex)
+                && isBlackCrow(index - 1, whiteCandleIndex) && isBlackCrow(index, whiteCandleIndex);
     }
 
     /**
-     * @param index the bar/candle index
+     * @param index            the bar/candle index
+     * @param whiteCandleIndex the index of the white candle
      * @return true if the bar/candle has a very short lower shadow, false otherwise
      */
-    private boolean hasVeryShortLowerShadow(int index) {
+    private boolean hasVeryShortLowerShadow(int index, int whiteCandleIndex) {
         Num currentLowerShadow = lowerShadowInd.getValue(index);
         // We use the white candle index to remove to bias of the previous crows
         Num averageLowerShadow = averageLowerShadowInd.getValue(whiteCandleIndex);
@@ -109,18 +108,20 @@ public class ThreeBlackCrowsIndicator extends CachedIndicator<Boolean> {
     }
 
     /**
-     * @param index the current bar/candle index
+     * @param index            the current bar/candle index
+     * @param whiteCandleIndex the index of the white candle
      * @return true if the current bar/candle is a black crow, false otherwise
      */
-    private boolean isBlackCrow(int index) {
+    private boolean isBlackCrow(int index, int whiteCandleIndex) {
         Bar prevBar = getBarSeries().getBar(index - 1);
         Bar currBar = getBarSeries().getBar(index);
         if (currBar.isBearish()) {
             if (prevBar.isBullish()) {
                 // First crow case
-                return hasVeryShortLowerShadow(index) && currBar.getOpenPrice().isLessThan(prevBar.getHighPrice());
+                return hasVeryShortLowerShadow(index, whiteCandleIndex)
+                        && currBar.getOpenPrice().isLessThan(prevBar.getHighPrice());
             } else {
-                return hasVeryShortLowerShadow(index) && isDeclining(index);
+                return hasVeryShortLowerShadow(index, whiteCandleIndex) && isDeclining(index);
             }
         }
         return false;
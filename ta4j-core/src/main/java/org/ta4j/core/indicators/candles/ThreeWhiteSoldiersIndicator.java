@@ -50,8 +50,6 @@ public class ThreeWhiteSoldiersIndicator extends CachedIndicator<Boolean> {
      */
     private final Num factor;
 
-    private int blackCandleIndex = -1;
-
     /**
      * Constructor.
      *
@@ -73,16 +71,17 @@ public class ThreeWhiteSoldiersIndicator extends CachedIndicator<Boolean> {
             // We need 4 candles: 1 black, 3 white
             return false;
         }
-        blackCandleIndex = index - 3;
-        return getBarSeries().getBar(blackCandleIndex).isBearish() && isWhiteSoldier(index - 2)
-                && isWhiteSoldier(index - 1) && isWhiteSoldier(index);
+        int blackCandleIndex = index - 3;
+        return getBarSeries().getBar(blackCandleIndex).isBearish() && isWhiteSoldier(index - 2, blackCandleIndex)
+                && isWhiteSoldier(index - 1, blackCandleIndex) && isWhiteSoldier(index, blackCandleIndex);
     }
 
     /**
-     * @param index the bar/candle index
+     * @param index            the bar/candle index
+     * @param blackCandleIndex the index of the black candle
      * @return true if the bar/candle has a very short upper shadow, false otherwise
      */
-    private boolean hasVeryShortUpperShadow(int index) {
+    private boolean hasVeryShortUpperShadow(int index, int blackCandleIndex) {
         Num currentUpperShadow = upperShadowInd.getValue(index);
         // We use the black candle index to remove to bias of the previous soldiers
         Num averageUpperShadow = averageUpperShadowInd.getValue(blackCandleIndex);
@@ -109,18 +108,20 @@ public class ThreeWhiteSoldiersIndicator extends CachedIndicator<Boolean> {
     }
 
     /**
-     * @param index the current bar/candle index
+     * @param index            the current bar/candle index
+     * @param blackCandleIndex the index of the black candle
      * @return true if the current bar/candle is a white soldier, false otherwise
      */
-    private boolean isWhiteSoldier(int index) {
+    private boolean isWhiteSoldier(int index, int blackCandleIndex) {
         Bar prevBar = getBarSeries().getBar(index - 1);
         Bar currBar = getBarSeries().getBar(index);
         if (currBar.isBullish()) {
             if (prevBar.isBearish()) {
                 // First soldier case
-                return hasVeryShortUpperShadow(index) && currBar.getOpenPrice().isGreaterThan(prevBar.getLowPrice());
+                return hasVeryShortUpperShadow(index, blackCandleIndex)
+                        && currBar.getOpenPrice().isGreaterThan(prevBar.getLowPrice());
             } else {
-                return hasVeryShortUpperShadow(index) && isGrowing(index);
+                return hasVeryShortUpperShadow(index, blackCandleIndex) && isGrowing(index);
             }
         }
         return false;
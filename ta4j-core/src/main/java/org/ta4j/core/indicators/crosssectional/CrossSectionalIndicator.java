@@ -0,0 +1,188 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.crosssectional;
+
+import static org.ta4j.core.num.NaN.NaN;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.AbstractIndicator;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.universe.BarSeriesUniverse;
+
+/**
+ * Cross-sectional indicator.
+ *
+ * Evaluates an input {@link Indicator indicator} (e.g. a ROC) on all the series
+ * of a {@link BarSeriesUniverse universe} at one timestamp, and transforms the
+ * resulting time slice (e.g. into ranks). The inputs of a time slice are
+ * evaluated in parallel, and the results are cached per timestamp.
+ *
+ * Like the other indicators, a cross-sectional indicator is not thread-safe.
+ */
+public abstract class CrossSectionalIndicator {
+
+    /** The universe */
+    private final BarSeriesUniverse universe;
+
+    /** The input indicators (same order as the symbols of the universe) */
+    private final List<? extends Indicator<Num>> inputs;
+
+    /** The cached results, by global index */
+    private final double[][] results;
+
+    /**
+     * Constructor.
+     *
+     * @param universe     the universe
+     * @param inputFactory builds the input indicator of a series (e.g.
+     *                     {@code series -> new ROCIndicator(new ClosePriceIndicator(series), 20)})
+     */
+    protected CrossSectionalIndicator(BarSeriesUniverse universe,
+            Function<BarSeries, ? extends Indicator<Num>> inputFactory) {
+        this.universe = universe;
+        this.inputs = universe.map(inputFactory);
+        this.results = new double[universe.getTimeCount()][];
+    }
+
+    /**
+     * Transforms the input values of a time slice.
+     *
+     * @param inputs  the input values of the symbols (NaN if missing), must not
+     *                be modified
+     * @param results the results to be filled (same order as the symbols)
+     */
+    protected abstract void calculate(double[] inputs, double[] results);
+
+    /**
+     * @return the universe
+     */
+    public BarSeriesUniverse getUniverse() {
+        return universe;
+    }
+
+    /**
+     * @param globalIndex a global index of the universe
+     * @return the values of all the symbols at the global index (NaN if missing),
+     *         must not be modified
+     */
+    public double[] getValues(int globalIndex) {
+        double[] values = results[globalIndex];
+        if (values == null) {
+            double[] inputValues = universe.getValues(inputs, globalIndex);
+            values = new double[inputValues.length];
+            calculate(inputValues, values);
+            results[globalIndex] = values;
+        }
+        return values;
+    }
+
+    /**
+     * @param symbol      the position of a symbol in the universe
+     * @param globalIndex a global index of the universe
+     * @return the value of the symbol at the global index (NaN if missing)
+     */
+    public double getValue(int symbol, int globalIndex) {
+        return getValues(globalIndex)[symbol];
+    }
+
+    /**
+     * Returns the values of a symbol as a regular (time-series) indicator on the
+     * series of the symbol.
+     *
+     * @param symbol a symbol of the universe
+     * @return the indicator of the symbol
+     */
+    public Indicator<Num> getIndicator(String symbol) {
+        final int symbolIndex = universe.getSymbolIndex(symbol);
+        return new AbstractIndicator<Num>(universe.getSeries(symbol)) {
+            @Override
+            public Num getValue(int index) {
+                int globalIndex = universe.getGlobalIndex(symbolIndex, index);
+                if (globalIndex == BarSeriesUniverse.NO_INDEX) {
+                    return NaN;
+                }
+                double value = CrossSectionalIndicator.this.getValue(symbolIndex, globalIndex);
+                return Double.isNaN(value) ? NaN : numOf(value);
+            }
+
+            @Override
+            public String toString() {
+                return CrossSectionalIndicator.this.toString() + "[" + symbol + "]";
+            }
+        };
+    }
+
+    /**
+     * @param inputs the input values of a time slice (NaN if missing)
+     * @return the sorted available values
+     */
+    static double[] sortedValues(double[] inputs) {
+        double[] sorted = new double[inputs.length];
+        int n = 0;
+        for (double value : inputs) {
+            if (!Double.isNaN(value)) {
+                sorted[n++] = value;
+            }
+        }
+        sorted = Arrays.copyOf(sorted, n);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * @param sorted the sorted available values
+     * @param value  an available value
+     * @return the average ascending rank (starting at 1) of the value
+     */
+    static double ascendingRank(double[] sorted, double value) {
+        int first = lowerBound(sorted, value);
+        int last = lowerBound(sorted, Math.nextUp(value)) - 1;
+        // ties share the average of their ranks
+        return (first + last) / 2.0 + 1;
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+}
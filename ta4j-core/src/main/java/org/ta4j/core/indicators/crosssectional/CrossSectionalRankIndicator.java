@@ -0,0 +1,86 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.crosssectional;
+
+import java.util.function.Function;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.universe.BarSeriesUniverse;
+
+/**
+ * Cross-sectional rank indicator.
+ *
+ * Ranks the input values of all the symbols at each timestamp, from 1 to the
+ * number of symbols having a value. Tied values share the average of their
+ * ranks. Symbols without a value get a NaN rank.
+ */
+public class CrossSectionalRankIndicator extends CrossSectionalIndicator {
+
+    private final boolean descending;
+
+    /**
+     * Constructor. The highest value gets rank 1.
+     *
+     * @param universe     the universe
+     * @param inputFactory builds the input indicator of a series
+     */
+    public CrossSectionalRankIndicator(BarSeriesUniverse universe,
+            Function<BarSeries, ? extends Indicator<Num>> inputFactory) {
+        this(universe, inputFactory, true);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param universe     the universe
+     * @param inputFactory builds the input indicator of a series
+     * @param descending   true if the highest value gets rank 1, false if the
+     *                     lowest value gets rank 1
+     */
+    public CrossSectionalRankIndicator(BarSeriesUniverse universe,
+            Function<BarSeries, ? extends Indicator<Num>> inputFactory, boolean descending) {
+        super(universe, inputFactory);
+        this.descending = descending;
+    }
+
+    @Override
+    protected void calculate(double[] inputs, double[] results) {
+        double[] sorted = sortedValues(inputs);
+        for (int i = 0; i < inputs.length; i++) {
+            if (Double.isNaN(inputs[i])) {
+                results[i] = Double.NaN;
+            } else {
+                double rank = ascendingRank(sorted, inputs[i]);
+                results[i] = descending ? sorted.length + 1 - rank : rank;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " descending: " + descending;
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.crosssectional;
+
+import java.util.function.Function;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.universe.BarSeriesUniverse;
+
+/**
+ * Cross-sectional z-score indicator.
+ *
+ * Returns the number of (population) standard deviations between the input
+ * value of each symbol and the mean of the values of all the symbols at the same
+ * timestamp. Symbols without a value get a NaN z-score, and all the z-scores are
+ * 0 if all the values are equal.
+ */
+public class CrossSectionalZScoreIndicator extends CrossSectionalIndicator {
+
+    /**
+     * Constructor.
+     *
+     * @param universe     the universe
+     * @param inputFactory builds the input indicator of a series
+     */
+    public CrossSectionalZScoreIndicator(BarSeriesUniverse universe,
+            Function<BarSeries, ? extends Indicator<Num>> inputFactory) {
+        super(universe, inputFactory);
+    }
+
+    @Override
+    protected void calculate(double[] inputs, double[] results) {
+        int n = 0;
+        double sum = 0;
+        for (double value : inputs) {
+            if (!Double.isNaN(value)) {
+                sum += value;
+                n++;
+            }
+        }
+        double mean = sum / n;
+        double squares = 0;
+        for (double value : inputs) {
+            if (!Double.isNaN(value)) {
+                squares += (value - mean) * (value - mean);
+            }
+        }
+        double standardDeviation = Math.sqrt(squares / n);
+        for (int i = 0; i < inputs.length; i++) {
+            if (Double.isNaN(inputs[i])) {
+                results[i] = Double.NaN;
+            } else {
+                results[i] = standardDeviation == 0 ? 0 : (inputs[i] - mean) / standardDeviation;
+            }
+        }
+    }
+}
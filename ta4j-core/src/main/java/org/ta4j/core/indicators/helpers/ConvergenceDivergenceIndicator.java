@@ -130,7 +130,7 @@ public class ConvergenceDivergenceIndicator extends CachedIndicator<Boolean> {
     private final ConvergenceDivergenceStrictType strictType;
 
     /** The minimum strength for convergence or divergence. **/
-    private Num minStrength;
+    private final Num minStrength;
 
     /** The minimum slope for convergence or divergence. **/
     private final Num minSlope;
@@ -171,7 +171,8 @@ public class ConvergenceDivergenceIndicator extends CachedIndicator<Boolean> {
         this.barCount = barCount;
         this.type = type;
         this.strictType = null;
-        this.minStrength = numOf(minStrength).abs();
+        // the strength is at most 1
+        this.minStrength = numOf(Math.min(Math.abs(minStrength), 1));
         this.minSlope = numOf(minSlope);
     }
 
@@ -222,10 +223,6 @@ public class ConvergenceDivergenceIndicator extends CachedIndicator<Boolean> {
             return false;
         }
 
-        if (minStrength != null && minStrength.isGreaterThan(numOf(1))) {
-            minStrength = numOf(1);
-        }
-
         if (type != null) {
             switch (type) {
             case positiveConvergent:
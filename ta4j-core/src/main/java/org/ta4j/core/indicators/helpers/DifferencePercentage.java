@@ -25,6 +25,8 @@ package org.ta4j.core.indicators.helpers;
 
 import org.ta4j.core.Indicator;
 import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.io.Checkpointable;
+import org.ta4j.core.io.IndicatorCheckpoint;
 import org.ta4j.core.num.NaN;
 import org.ta4j.core.num.Num;
 
@@ -38,7 +40,7 @@ import org.ta4j.core.num.Num;
  * percentage from the precious value.
  *
  */
-public class DifferencePercentage extends CachedIndicator<Num> {
+public class DifferencePercentage extends CachedIndicator<Num> implements Checkpointable {
 
     private final Indicator<Num> indicator;
     private final Num percentageThreshold;
@@ -81,4 +83,14 @@ public class DifferencePercentage extends CachedIndicator<Num> {
     private Num fractionToPercentage(Num changeFraction) {
         return changeFraction.multipliedBy(hundred).minus(hundred);
     }
+
+    @Override
+    public void saveState(IndicatorCheckpoint.State state) {
+        state.putNum("lastNotification", lastNotification);
+    }
+
+    @Override
+    public void restoreState(IndicatorCheckpoint.State state) {
+        lastNotification = state.getNum("lastNotification");
+    }
 }
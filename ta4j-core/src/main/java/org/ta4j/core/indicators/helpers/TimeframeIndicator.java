@@ -0,0 +1,79 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.helpers;
+
+import static org.ta4j.core.num.NaN.NaN;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.TimeframeBarSeries;
+import org.ta4j.core.indicators.AbstractIndicator;
+import org.ta4j.core.num.Num;
+
+/**
+ * Higher timeframe indicator.
+ *
+ * Reads the values of an indicator of a {@link TimeframeBarSeries} at the
+ * indexes of its base series, without look-ahead: the value at a base index is
+ * the value of the last higher timeframe bar complete at the end of the base
+ * bar (NaN if none).
+ */
+public class TimeframeIndicator extends AbstractIndicator<Num> {
+
+    private final Indicator<Num> indicator;
+
+    private final TimeframeBarSeries timeframeSeries;
+
+    /**
+     * Constructor.
+     *
+     * @param indicator an indicator of a {@link TimeframeBarSeries}
+     */
+    public TimeframeIndicator(Indicator<Num> indicator) {
+        super(baseSeries(indicator));
+        this.indicator = indicator;
+        this.timeframeSeries = (TimeframeBarSeries) indicator.getBarSeries();
+    }
+
+    private static BarSeries baseSeries(Indicator<Num> indicator) {
+        if (!(indicator.getBarSeries() instanceof TimeframeBarSeries)) {
+            throw new IllegalArgumentException("The indicator must be an indicator of a TimeframeBarSeries");
+        }
+        return ((TimeframeBarSeries) indicator.getBarSeries()).getBaseSeries();
+    }
+
+    @Override
+    public Num getValue(int index) {
+        int derivedIndex = timeframeSeries.getCompletedIndex(index);
+        if (derivedIndex < timeframeSeries.getBeginIndex()) {
+            return NaN;
+        }
+        return indicator.getValue(derivedIndex);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " " + indicator;
+    }
+}
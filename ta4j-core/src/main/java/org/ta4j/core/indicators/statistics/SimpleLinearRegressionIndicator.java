@@ -45,11 +45,9 @@ public class SimpleLinearRegressionIndicator extends CachedIndicator<Num> {
         Y, SLOPE, INTERCEPT
     }
 
-    private Indicator<Num> indicator;
-    private int barCount;
-    private Num slope;
-    private Num intercept;
-    private SimpleLinearRegressionType type;
+    private final Indicator<Num> indicator;
+    private final int barCount;
+    private final SimpleLinearRegressionType type;
 
     /**
      * Constructor for the y-values of the formula (y = slope * x + intercept).
@@ -82,7 +80,9 @@ public class SimpleLinearRegressionIndicator extends CachedIndicator<Num> {
             // Not enough observations to compute a regression line
             return NaN;
         }
-        calculateRegressionLine(startIndex, index);
+        Num[] line = calculateRegressionLine(startIndex, index);
+        Num slope = line[0];
+        Num intercept = line[1];
 
         if (type == SimpleLinearRegressionType.SLOPE) {
             return slope;
@@ -100,8 +100,9 @@ public class SimpleLinearRegressionIndicator extends CachedIndicator<Num> {
      *
      * @param startIndex the start index (inclusive) in the bar series
      * @param endIndex   the end index (inclusive) in the bar series
+     * @return the slope and the intercept of the regression line
      */
-    private void calculateRegressionLine(int startIndex, int endIndex) {
+    private Num[] calculateRegressionLine(int startIndex, int endIndex) {
         // First pass: compute xBar and yBar
         Num sumX = numOf(0);
         Num sumY = numOf(0);
@@ -123,7 +124,8 @@ public class SimpleLinearRegressionIndicator extends CachedIndicator<Num> {
             xyBar = xyBar.plus(dX.multipliedBy(dY));
         }
 
-        slope = xyBar.dividedBy(xxBar);
-        intercept = yBar.minus(slope.multipliedBy(xBar));
+        Num slope = xyBar.dividedBy(xxBar);
+        Num intercept = yBar.minus(slope.multipliedBy(xBar));
+        return new Num[] { slope, intercept };
     }
 }
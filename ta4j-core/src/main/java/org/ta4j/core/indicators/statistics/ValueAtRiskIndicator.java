@@ -0,0 +1,91 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.utils.QuantileUtils;
+
+/**
+ * Rolling Value at Risk indicator.
+ *
+ * Calculates the Value at Risk of the returns over a moving window, by
+ * selecting the tail of the window (in linear time) instead of sorting it.
+ *
+ * The window holds the (non-NaN) returns of the last {@code barCount} bars. As
+ * in the {@link org.ta4j.core.analysis.criteria.ValueAtRiskCriterion
+ * criterion}, the result is non-positive.
+ */
+public class ValueAtRiskIndicator extends CachedIndicator<Num> {
+
+    private final Indicator<Num> returns;
+    private final int barCount;
+    private final double confidence;
+
+    /**
+     * Constructor.
+     *
+     * @param returns    the returns (e.g. {@link org.ta4j.core.analysis.Returns})
+     * @param barCount   the time frame
+     * @param confidence the confidence level (e.g. 0.95)
+     */
+    public ValueAtRiskIndicator(Indicator<Num> returns, int barCount, double confidence) {
+        super(returns);
+        this.returns = returns;
+        this.barCount = barCount;
+        this.confidence = confidence;
+    }
+
+    @Override
+    protected Num calculate(int index) {
+        final int startIndex = Math.max(0, index - barCount + 1);
+        List<Num> window = new ArrayList<>(index - startIndex + 1);
+        for (int i = startIndex; i <= index; i++) {
+            Num value = returns.getValue(i);
+            if (!value.isNaN()) {
+                window.add(value);
+            }
+        }
+        Num zero = numOf(0);
+        if (window.isEmpty()) {
+            return zero;
+        }
+        // F(x_var) >= alpha (=1-confidence)
+        int nInBody = (int) (window.size() * confidence);
+        int nInTail = window.size() - nInBody;
+        Num[] tail = QuantileUtils.lowestValues(window, nInTail);
+        Num var = tail[nInTail - 1];
+        // VaR is non-positive
+        return var.isGreaterThan(zero) ? zero : var;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " barCount: " + barCount + " confidence: " + confidence;
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.CompactBar;
+import org.ta4j.core.CompactBarSeries;
+import org.ta4j.core.num.Num;
+
+/**
+ * Bars stored by columns of primitive values.
+ *
+ * The end times are stored in epoch nanoseconds. The absent prices are NaN,
+ * the absent volumes, amounts and trades counts are 0.
+ */
+public final class BarColumns {
+
+    private final Duration timePeriod;
+    private final ZoneId zoneId;
+    private long[] endEpochNanos;
+    private double[] openPrices;
+    private double[] highPrices;
+    private double[] lowPrices;
+    private double[] closePrices;
+    private double[] volumes;
+    private double[] amounts;
+    private long[] trades;
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param timePeriod the time period of the bars
+     * @param zoneId     the time zone of the bars
+     * @param capacity   the initial capacity
+     */
+    public BarColumns(Duration timePeriod, ZoneId zoneId, int capacity) {
+        this.timePeriod = timePeriod;
+        this.zoneId = zoneId;
+        int initialCapacity = Math.max(capacity, 16);
+        this.endEpochNanos = new long[initialCapacity];
+        this.openPrices = new double[initialCapacity];
+        this.highPrices = new double[initialCapacity];
+        this.lowPrices = new double[initialCapacity];
+        this.closePrices = new double[initialCapacity];
+        this.volumes = new double[initialCapacity];
+        this.amounts = new double[initialCapacity];
+        this.trades = new long[initialCapacity];
+    }
+
+    /**
+     * Adds a bar.
+     *
+     * @param endEpochNanos the end time of the bar in epoch nanoseconds
+     * @param openPrice     the open price
+     * @param highPrice     the high price
+     * @param lowPrice      the low price
+     * @param closePrice    the close price
+     * @param volume        the volume
+     * @param amount        the amount
+     * @param tradeCount    the trades count
+     */
+    public void add(long endEpochNanos, double openPrice, double highPrice, double lowPrice, double closePrice,
+            double volume, double amount, long tradeCount) {
+        if (size == this.endEpochNanos.length) {
+            grow(size + (size >> 1));
+        }
+        this.endEpochNanos[size] = endEpochNanos;
+        openPrices[size] = openPrice;
+        highPrices[size] = highPrice;
+        lowPrices[size] = lowPrice;
+        closePrices[size] = closePrice;
+        volumes[size] = volume;
+        amounts[size] = amount;
+        trades[size] = tradeCount;
+        size++;
+    }
+
+    /**
+     * Concatenates columns of bars of the same time period and time zone.
+     *
+     * @param parts the columns to concatenate, in order
+     * @return the concatenated columns
+     */
+    public static BarColumns concat(List<BarColumns> parts) {
+        int total = 0;
+        for (BarColumns part : parts) {
+            total += part.size;
+        }
+        BarColumns first = parts.get(0);
+        BarColumns columns = new BarColumns(first.timePeriod, first.zoneId, total);
+        for (BarColumns part : parts) {
+            int offset = columns.size;
+            System.arraycopy(part.endEpochNanos, 0, columns.endEpochNanos, offset, part.size);
+            System.arraycopy(part.openPrices, 0, columns.openPrices, offset, part.size);
+            System.arraycopy(part.highPrices, 0, columns.highPrices, offset, part.size);
+            System.arraycopy(part.lowPrices, 0, columns.lowPrices, offset, part.size);
+            System.arraycopy(part.closePrices, 0, columns.closePrices, offset, part.size);
+            System.arraycopy(part.volumes, 0, columns.volumes, offset, part.size);
+            System.arraycopy(part.amounts, 0, columns.amounts, offset, part.size);
+            System.arraycopy(part.trades, 0, columns.trades, offset, part.size);
+            columns.size += part.size;
+        }
+        return columns;
+    }
+
+    /**
+     * Reverses the order of the bars (e.g. for files with the most recent bars
+     * first).
+     */
+    public void reverse() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            swap(endEpochNanos, i, j);
+            swap(openPrices, i, j);
+            swap(highPrices, i, j);
+            swap(lowPrices, i, j);
+            swap(closePrices, i, j);
+            swap(volumes, i, j);
+            swap(amounts, i, j);
+            swap(trades, i, j);
+        }
+    }
+
+    /**
+     * @param name        the name of the series
+     * @param numFunction the numbers precision
+     * @return a compact bar series of the bars
+     */
+    public CompactBarSeries toBarSeries(String name, Function<Number, Num> numFunction) {
+        CompactBar.Frame frame = new CompactBar.Frame(timePeriod, zoneId, numFunction);
+        List<Bar> bars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            bars.add(new CompactBar(frame, endEpochNanos[i], openPrices[i], highPrices[i], lowPrices[i],
+                    closePrices[i], volumes[i], amounts[i], trades[i]));
+        }
+        return new CompactBarSeries(name, bars, frame);
+    }
+
+    /**
+     * @return the number of bars
+     */
+    public int size() {
+        return size;
+    }
+
+    public Duration getTimePeriod() {
+        return timePeriod;
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    public long getEndEpochNanos(int index) {
+        return endEpochNanos[checkIndex(index)];
+    }
+
+    public double getOpenPrice(int index) {
+        return openPrices[checkIndex(index)];
+    }
+
+    public double getHighPrice(int index) {
+        return highPrices[checkIndex(index)];
+    }
+
+    public double getLowPrice(int index) {
+        return lowPrices[checkIndex(index)];
+    }
+
+    public double getClosePrice(int index) {
+        return closePrices[checkIndex(index)];
+    }
+
+    public double getVolume(int index) {
+        return volumes[checkIndex(index)];
+    }
+
+    public double getAmount(int index) {
+        return amounts[checkIndex(index)];
+    }
+
+    public long getTrades(int index) {
+        return trades[checkIndex(index)];
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return index;
+    }
+
+    private void grow(int capacity) {
+        endEpochNanos = Arrays.copyOf(endEpochNanos, capacity);
+        openPrices = Arrays.copyOf(openPrices, capacity);
+        highPrices = Arrays.copyOf(highPrices, capacity);
+        lowPrices = Arrays.copyOf(lowPrices, capacity);
+        closePrices = Arrays.copyOf(closePrices, capacity);
+        volumes = Arrays.copyOf(volumes, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        trades = Arrays.copyOf(trades, capacity);
+    }
+
+    private static void swap(long[] values, int i, int j) {
+        long value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
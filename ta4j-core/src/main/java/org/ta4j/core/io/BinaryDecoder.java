@@ -0,0 +1,337 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBar;
+import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.BaseTradingRecord;
+import org.ta4j.core.CompactBar;
+import org.ta4j.core.CompactBarSeries;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.cost.LinearBorrowingCostModel;
+import org.ta4j.core.cost.LinearTransactionCostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.num.DecimalNum;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.NaN;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.reports.PerformanceReport;
+import org.ta4j.core.reports.PositionStatsReport;
+import org.ta4j.core.reports.TradingStatement;
+import org.ta4j.core.utils.ScaleUtils;
+import org.ta4j.core.utils.TimeUtils;
+
+/**
+ * Decoder of the bar series, trading records and trading statements written by
+ * a {@link BinaryEncoder}, read in the order they were written.
+ */
+public class BinaryDecoder implements Closeable {
+
+    /** The default precision of the DecimalNum numbers */
+    private static final int DECIMAL_PRECISION = 32;
+
+    private final DataInputStream in;
+
+    /**
+     * Constructor.
+     *
+     * @param in the input stream
+     * @throws IOException if the header of the stream cannot be read, or is not
+     *                     the one of a binary encoder
+     */
+    public BinaryDecoder(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        if (this.in.readInt() != BinaryEncoder.FORMAT_MAGIC || this.in.readInt() != BinaryEncoder.FORMAT_VERSION) {
+            throw new IOException("Not a binary encoder stream");
+        }
+    }
+
+    /**
+     * Reads a bar series.
+     *
+     * @return the bar series (a {@link CompactBarSeries} if a compact series was
+     *         written, else a {@link org.ta4j.core.BaseBarSeries BaseBarSeries})
+     * @throws IOException if the next object of the stream is not a bar series,
+     *                     or cannot be read
+     */
+    public BarSeries readBarSeries() throws IOException {
+        readTag(BinaryEncoder.BAR_SERIES);
+        String name = readString();
+        byte numType = in.readByte();
+        boolean compact = in.readBoolean();
+        int count = (int) readVarLong();
+        Function<Number, Num> numFunction = numType == BinaryEncoder.DECIMAL_NUM ? DecimalNum::valueOf
+                : DoubleNum::valueOf;
+        BarSeries series;
+        CompactBar.Frame frame = null;
+        ZoneId zoneId = null;
+        if (compact) {
+            zoneId = ZoneId.of(readString());
+            CompactBarSeries compactSeries = new CompactBarSeries(name, Duration.ofNanos(readVarLong()), zoneId,
+                    numFunction);
+            frame = compactSeries.getFrame();
+            series = compactSeries;
+        } else {
+            series = new BaseBarSeriesBuilder().withName(name).withNumTypeOf(numFunction).build();
+        }
+        if (count == 0) {
+            return series;
+        }
+        if (!compact) {
+            zoneId = ZoneId.of(readString());
+        }
+        int priceScale = in.readByte();
+        int volumeScale = in.readByte();
+        int amountScale = in.readByte();
+        boolean doubles = compact || numType == BinaryEncoder.DOUBLE_NUM;
+
+        long endNanos = 0;
+        long periodNanos = 0;
+        long previousClose = 0;
+        Num[] nums = new Num[6];
+        double[] values = new double[6];
+        for (int i = 0; i < count; i++) {
+            periodNanos += readSignedVarLong();
+            endNanos += periodNanos + readSignedVarLong();
+            if (priceScale == BinaryEncoder.UNSCALED) {
+                for (int column = 0; column < 4; column++) {
+                    nums[column] = readNum(numType);
+                }
+            } else {
+                long open = previousClose + readSignedVarLong();
+                long high = open + readSignedVarLong();
+                long low = open - readSignedVarLong();
+                long close = open + readSignedVarLong();
+                previousClose = close;
+                if (doubles) {
+                    values[0] = open / ScaleUtils.pow10(priceScale);
+                    values[1] = high / ScaleUtils.pow10(priceScale);
+                    values[2] = low / ScaleUtils.pow10(priceScale);
+                    values[3] = close / ScaleUtils.pow10(priceScale);
+                } else {
+                    nums[0] = decimal(BigDecimal.valueOf(open, priceScale));
+                    nums[1] = decimal(BigDecimal.valueOf(high, priceScale));
+                    nums[2] = decimal(BigDecimal.valueOf(low, priceScale));
+                    nums[3] = decimal(BigDecimal.valueOf(close, priceScale));
+                }
+            }
+            readColumn(4, volumeScale, numType, doubles, nums, values);
+            readColumn(5, amountScale, numType, doubles, nums, values);
+            long trades = readVarLong();
+
+            if (compact) {
+                for (int column = 0; column < 6; column++) {
+                    if (column < 4 && priceScale == BinaryEncoder.UNSCALED
+                            || column == 4 && volumeScale == BinaryEncoder.UNSCALED
+                            || column == 5 && amountScale == BinaryEncoder.UNSCALED) {
+                        values[column] = toDouble(nums[column]);
+                    }
+                }
+                series.addBar(new CompactBar(frame, endNanos, values[0], values[1], values[2], values[3], values[4],
+                        values[5], trades));
+            } else {
+                if (doubles) {
+                    for (int column = 0; column < 6; column++) {
+                        if (column < 4 && priceScale != BinaryEncoder.UNSCALED
+                                || column == 4 && volumeScale != BinaryEncoder.UNSCALED
+                                || column == 5 && amountScale != BinaryEncoder.UNSCALED) {
+                            nums[column] = DoubleNum.valueOf(values[column]);
+                        }
+                    }
+                }
+                ZonedDateTime endTime = TimeUtils.ofEpochNanos(endNanos, zoneId);
+                series.addBar(new BaseBar(Duration.ofNanos(periodNanos), endTime, nums[0], nums[1], nums[2], nums[3],
+                        nums[4], nums[5], trades));
+            }
+        }
+        return series;
+    }
+
+    /**
+     * Reads the value of the volume or amount column of a bar.
+     */
+    private void readColumn(int column, int scale, byte numType, boolean doubles, Num[] nums, double[] values)
+            throws IOException {
+        if (scale == BinaryEncoder.UNSCALED) {
+            nums[column] = readNum(numType);
+        } else if (doubles) {
+            values[column] = readSignedVarLong() / ScaleUtils.pow10(scale);
+        } else {
+            nums[column] = decimal(BigDecimal.valueOf(readSignedVarLong(), scale));
+        }
+    }
+
+    /**
+     * Reads a trading record.
+     *
+     * @return the trading record
+     * @throws IOException if the next object of the stream is not a trading
+     *                     record, or cannot be read
+     */
+    public TradingRecord readTradingRecord() throws IOException {
+        readTag(BinaryEncoder.TRADING_RECORD);
+        String name = readString();
+        TradeType startingType = TradeType.values()[in.readByte()];
+        CostModel transactionCostModel = readCostModel();
+        CostModel holdingCostModel = readCostModel();
+        byte numType = in.readByte();
+        int count = (int) readVarLong();
+        TradingRecord tradingRecord = new BaseTradingRecord(name, startingType, transactionCostModel,
+                holdingCostModel);
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            index += (int) readSignedVarLong();
+            Num price = readNum(numType);
+            Num amount = readNum(numType);
+            tradingRecord.operate(index, price, amount);
+        }
+        return tradingRecord;
+    }
+
+    /**
+     * Reads a trading statement.
+     *
+     * @param strategies the function giving the strategy of a name
+     * @return the trading statement
+     * @throws IOException if the next object of the stream is not a trading
+     *                     statement, or cannot be read
+     */
+    public TradingStatement readTradingStatement(Function<String, Strategy> strategies) throws IOException {
+        readTag(BinaryEncoder.TRADING_STATEMENT);
+        String strategyName = readString();
+        byte numType = in.readByte();
+        PositionStatsReport positionStatsReport = new PositionStatsReport(readNum(numType), readNum(numType),
+                readNum(numType));
+        PerformanceReport performanceReport = new PerformanceReport(readNum(numType), readNum(numType),
+                readNum(numType), readNum(numType));
+        Strategy strategy = strategyName == null ? null : strategies.apply(strategyName);
+        return new TradingStatement(strategy, positionStatsReport, performanceReport);
+    }
+
+    private void readTag(byte expectedTag) throws IOException {
+        byte tag = in.readByte();
+        if (tag != expectedTag) {
+            throw new IOException("Unexpected object tag " + tag + " (expected " + expectedTag + ")");
+        }
+    }
+
+    private CostModel readCostModel() throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+        case BinaryEncoder.ZERO_COST:
+            return new ZeroCostModel();
+        case BinaryEncoder.LINEAR_TRANSACTION_COST:
+            return new LinearTransactionCostModel(in.readDouble());
+        case BinaryEncoder.LINEAR_BORROWING_COST:
+            return new LinearBorrowingCostModel(in.readDouble());
+        default:
+            throw new IOException("Unknown cost model tag " + tag);
+        }
+    }
+
+    /**
+     * Reads a number written by {@link BinaryEncoder}, as a number of a num type.
+     */
+    private Num readNum(byte numType) throws IOException {
+        byte tag = in.readByte();
+        boolean decimal = numType == BinaryEncoder.DECIMAL_NUM;
+        switch (tag) {
+        case BinaryEncoder.NULL:
+            return null;
+        case BinaryEncoder.NAN:
+            return NaN.NaN;
+        case BinaryEncoder.DOUBLE:
+            double value = in.readDouble();
+            return decimal ? DecimalNum.valueOf(value) : DoubleNum.valueOf(value);
+        case BinaryEncoder.DECIMAL:
+            int scale = (int) readSignedVarLong();
+            byte[] unscaled = new byte[(int) readVarLong()];
+            in.readFully(unscaled);
+            BigDecimal decimalValue = new BigDecimal(new BigInteger(unscaled), scale);
+            return decimal ? decimal(decimalValue) : DoubleNum.valueOf(decimalValue.doubleValue());
+        default:
+            int numScale = tag - BinaryEncoder.SCALED;
+            if (numScale < 0 || numScale > ScaleUtils.MAX_DECIMAL_SCALE) {
+                throw new IOException("Unknown number tag " + tag);
+            }
+            long unscaledValue = readSignedVarLong();
+            return decimal ? decimal(BigDecimal.valueOf(unscaledValue, numScale))
+                    : DoubleNum.valueOf(unscaledValue / ScaleUtils.pow10(numScale));
+        }
+    }
+
+    /**
+     * @return the DecimalNum of a decimal, with the precision of
+     *         {@link DecimalNum#valueOf(Number)}
+     */
+    private static Num decimal(BigDecimal value) {
+        return DecimalNum.valueOf(value, Math.max(value.precision(), DECIMAL_PRECISION));
+    }
+
+    private static double toDouble(Num num) {
+        return num == null || num.isNaN() ? Double.NaN : num.doubleValue();
+    }
+
+    private String readString() throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private long readSignedVarLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
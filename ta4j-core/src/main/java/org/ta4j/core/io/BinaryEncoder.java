@@ -0,0 +1,512 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.CompactBar;
+import org.ta4j.core.CompactBarSeries;
+import org.ta4j.core.Position;
+import org.ta4j.core.Trade;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.cost.LinearBorrowingCostModel;
+import org.ta4j.core.cost.LinearTransactionCostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.num.DecimalNum;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.reports.TradingStatement;
+import org.ta4j.core.utils.ScaleUtils;
+import org.ta4j.core.utils.TimeUtils;
+
+/**
+ * Compact binary encoder of bar series, trading records and trading statements
+ * (e.g. to move backtest inputs and results between processes). The objects are
+ * read by a {@link BinaryDecoder}.
+ *
+ * The objects are written one after another to the stream:
+ * <ul>
+ * <li>the integers are written as varints (zigzag encoded when signed)</li>
+ * <li>the bar times are delta-encoded (from the end of the previous bar)</li>
+ * <li>the numbers are scale-aware: a number with a few decimals (e.g. a price
+ * of 101.25) is written as its unscaled value (10125) and its scale (2)</li>
+ * <li>the prices of the bars are written with a common scale, as deltas (from
+ * the open price of the bar, and from the previous close price for the open
+ * price)</li>
+ * </ul>
+ * The numbers which cannot be scaled (e.g. the results of divisions) are
+ * written as is.
+ *
+ * Only {@link DoubleNum} and {@link DecimalNum} numbers, and the cost models of
+ * ta4j are supported. The names of the strategies of the trading statements are
+ * written, not the strategies.
+ */
+public class BinaryEncoder implements Flushable, Closeable {
+
+    /** The header of the stream */
+    static final int FORMAT_MAGIC = 0x74346263;
+    static final int FORMAT_VERSION = 1;
+
+    /** The object tags */
+    static final byte BAR_SERIES = 1;
+    static final byte TRADING_RECORD = 2;
+    static final byte TRADING_STATEMENT = 3;
+
+    /** The num types */
+    static final byte DOUBLE_NUM = 0;
+    static final byte DECIMAL_NUM = 1;
+
+    /** The cost model tags */
+    static final byte ZERO_COST = 0;
+    static final byte LINEAR_TRANSACTION_COST = 1;
+    static final byte LINEAR_BORROWING_COST = 2;
+
+    /** The number tags (the scaled numbers are tagged by SCALED + their scale) */
+    static final byte NULL = 0;
+    static final byte NAN = 1;
+    static final byte DOUBLE = 2;
+    static final byte DECIMAL = 3;
+    static final byte SCALED = 4;
+
+    /** The scale of the bar columns written as is */
+    static final byte UNSCALED = -1;
+
+    private final DataOutputStream out;
+
+    /**
+     * Constructor.
+     *
+     * @param out the output stream
+     * @throws IOException if the header of the stream cannot be written
+     */
+    public BinaryEncoder(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.writeInt(FORMAT_MAGIC);
+        this.out.writeInt(FORMAT_VERSION);
+    }
+
+    /**
+     * Writes the bars of a bar series (from its begin index, or from its first
+     * bar not removed). The series is read back as a
+     * {@link org.ta4j.core.BaseBarSeries BaseBarSeries}, or as a
+     * {@link CompactBarSeries} if it is one.
+     *
+     * @param series the bar series
+     * @throws IOException              if the series cannot be written
+     * @throws IllegalArgumentException if the numbers of the series are not
+     *                                  supported
+     */
+    public void writeBarSeries(BarSeries series) throws IOException {
+        boolean compact = series instanceof CompactBarSeries;
+        int firstIndex = Math.max(series.getBeginIndex(), series.getRemovedBarsCount());
+        int count = series.isEmpty() ? 0 : series.getEndIndex() - firstIndex + 1;
+        byte numType = numType(series.numOf(0));
+        out.writeByte(BAR_SERIES);
+        writeString(series.getName());
+        out.writeByte(numType);
+        out.writeBoolean(compact);
+        writeVarLong(count);
+        if (compact) {
+            CompactBar.Frame frame = ((CompactBarSeries) series).getFrame();
+            writeString(frame.getZoneId().getId());
+            writeVarLong(frame.getTimePeriod().toNanos());
+        }
+        if (count == 0) {
+            return;
+        }
+        List<Bar> bars = new ArrayList<>(count);
+        for (int i = firstIndex; i <= series.getEndIndex(); i++) {
+            bars.add(series.getBar(i));
+        }
+        if (!compact) {
+            writeString(bars.get(0).getEndTime().getZone().getId());
+        }
+
+        Columns columns = numType == DOUBLE_NUM || compact ? new DoubleColumns(bars) : new DecimalColumns(bars);
+        int priceScale = columns.scale(Columns.OPEN, Columns.CLOSE);
+        int volumeScale = columns.scale(Columns.VOLUME, Columns.VOLUME);
+        int amountScale = columns.scale(Columns.AMOUNT, Columns.AMOUNT);
+        out.writeByte(priceScale);
+        out.writeByte(volumeScale);
+        out.writeByte(amountScale);
+
+        long previousEndNanos = 0;
+        long previousPeriodNanos = 0;
+        long previousClose = 0;
+        for (int i = 0; i < count; i++) {
+            Bar bar = bars.get(i);
+            long endNanos = bar instanceof CompactBar ? ((CompactBar) bar).getEndEpochNanos()
+                    : TimeUtils.toEpochNanos(bar.getEndTime());
+            long periodNanos = bar.getTimePeriod().toNanos();
+            writeSignedVarLong(periodNanos - previousPeriodNanos);
+            // 0 for contiguous bars
+            writeSignedVarLong(endNanos - previousEndNanos - periodNanos);
+            previousEndNanos = endNanos;
+            previousPeriodNanos = periodNanos;
+
+            if (priceScale == UNSCALED) {
+                for (int column = Columns.OPEN; column <= Columns.CLOSE; column++) {
+                    writeNum(columns.num(i, column));
+                }
+            } else {
+                long open = columns.scaled(i, Columns.OPEN);
+                long close = columns.scaled(i, Columns.CLOSE);
+                writeSignedVarLong(open - previousClose);
+                writeSignedVarLong(columns.scaled(i, Columns.HIGH) - open);
+                writeSignedVarLong(open - columns.scaled(i, Columns.LOW));
+                writeSignedVarLong(close - open);
+                previousClose = close;
+            }
+            if (volumeScale == UNSCALED) {
+                writeNum(columns.num(i, Columns.VOLUME));
+            } else {
+                writeSignedVarLong(columns.scaled(i, Columns.VOLUME));
+            }
+            if (amountScale == UNSCALED) {
+                writeNum(columns.num(i, Columns.AMOUNT));
+            } else {
+                writeSignedVarLong(columns.scaled(i, Columns.AMOUNT));
+            }
+            writeVarLong(bar.getTrades());
+        }
+    }
+
+    /**
+     * Writes the trades of a trading record, with its name, its starting type and
+     * its cost models. The record is read back as a
+     * {@link org.ta4j.core.BaseTradingRecord BaseTradingRecord}.
+     *
+     * @param tradingRecord the trading record
+     * @throws IOException              if the record cannot be written
+     * @throws IllegalArgumentException if the numbers or the cost models of the
+     *                                  record are not supported
+     */
+    public void writeTradingRecord(TradingRecord tradingRecord) throws IOException {
+        List<Trade> trades = new ArrayList<>();
+        for (Position position : tradingRecord.getPositions()) {
+            trades.add(position.getEntry());
+            trades.add(position.getExit());
+        }
+        Position currentPosition = tradingRecord.getCurrentPosition();
+        if (currentPosition.isOpened()) {
+            trades.add(currentPosition.getEntry());
+        }
+        out.writeByte(TRADING_RECORD);
+        writeString(tradingRecord.getName());
+        out.writeByte(tradingRecord.getStartingType().ordinal());
+        writeCostModel(currentPosition.getTransactionCostModel());
+        writeCostModel(currentPosition.getHoldingCostModel());
+        out.writeByte(trades.isEmpty() ? DOUBLE_NUM : numType(trades.get(0).getPricePerAsset()));
+        writeVarLong(trades.size());
+        int previousIndex = 0;
+        for (Trade trade : trades) {
+            writeSignedVarLong(trade.getIndex() - previousIndex);
+            writeNum(trade.getPricePerAsset());
+            writeNum(trade.getAmount());
+            previousIndex = trade.getIndex();
+        }
+    }
+
+    /**
+     * Writes a trading statement (with the name of its strategy).
+     *
+     * @param statement the trading statement
+     * @throws IOException              if the statement cannot be written
+     * @throws IllegalArgumentException if the numbers of the statement are not
+     *                                  supported
+     */
+    public void writeTradingStatement(TradingStatement statement) throws IOException {
+        out.writeByte(TRADING_STATEMENT);
+        writeString(statement.getStrategy() == null ? null : statement.getStrategy().getName());
+        Num profitCount = statement.getPositionStatsReport().getProfitCount();
+        out.writeByte(numType(profitCount));
+        writeNum(profitCount);
+        writeNum(statement.getPositionStatsReport().getLossCount());
+        writeNum(statement.getPositionStatsReport().getBreakEvenCount());
+        writeNum(statement.getPerformanceReport().getTotalProfitLoss());
+        writeNum(statement.getPerformanceReport().getTotalProfitLossPercentage());
+        writeNum(statement.getPerformanceReport().getTotalProfit());
+        writeNum(statement.getPerformanceReport().getTotalLoss());
+    }
+
+    private void writeCostModel(CostModel costModel) throws IOException {
+        if (costModel == null || costModel instanceof ZeroCostModel) {
+            out.writeByte(ZERO_COST);
+        } else if (costModel instanceof LinearTransactionCostModel) {
+            out.writeByte(LINEAR_TRANSACTION_COST);
+            out.writeDouble(((LinearTransactionCostModel) costModel).getFeePerPosition());
+        } else if (costModel instanceof LinearBorrowingCostModel) {
+            out.writeByte(LINEAR_BORROWING_COST);
+            out.writeDouble(((LinearBorrowingCostModel) costModel).getFeePerPeriod());
+        } else {
+            throw new IllegalArgumentException("Unsupported cost model " + costModel.getClass().getName());
+        }
+    }
+
+    /**
+     * Writes a number, scaled if possible.
+     */
+    private void writeNum(Num num) throws IOException {
+        if (num == null) {
+            out.writeByte(NULL);
+        } else if (num.isNaN()) {
+            out.writeByte(NAN);
+        } else if (num instanceof DoubleNum) {
+            double value = num.doubleValue();
+            int scale = ScaleUtils.scale(value);
+            if (scale < 0) {
+                out.writeByte(DOUBLE);
+                out.writeDouble(value);
+            } else {
+                out.writeByte(SCALED + scale);
+                writeSignedVarLong(ScaleUtils.unscaledValue(value, scale));
+            }
+        } else if (num instanceof DecimalNum) {
+            BigDecimal value = (BigDecimal) num.getDelegate();
+            int scale = ScaleUtils.scale(value);
+            if (scale < 0) {
+                byte[] unscaled = value.unscaledValue().toByteArray();
+                out.writeByte(DECIMAL);
+                writeSignedVarLong(value.scale());
+                writeVarLong(unscaled.length);
+                out.write(unscaled);
+            } else {
+                out.writeByte(SCALED + scale);
+                writeSignedVarLong(value.setScale(scale).unscaledValue().longValue());
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported number " + num.getClass().getName());
+        }
+    }
+
+    private static byte numType(Num num) {
+        if (num instanceof DoubleNum) {
+            return DOUBLE_NUM;
+        }
+        if (num instanceof DecimalNum) {
+            return DECIMAL_NUM;
+        }
+        throw new IllegalArgumentException("Unsupported number " + num.getClass().getName());
+    }
+
+    private void writeString(String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    private void writeSignedVarLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * The price, volume and amount columns of bars, with their scaled values.
+     */
+    private abstract static class Columns {
+
+        static final int OPEN = 0;
+        static final int HIGH = 1;
+        static final int LOW = 2;
+        static final int CLOSE = 3;
+        static final int VOLUME = 4;
+        static final int AMOUNT = 5;
+
+        /** The scaled values, by column */
+        final long[][] scaled = new long[AMOUNT + 1][];
+
+        final List<Bar> bars;
+
+        Columns(List<Bar> bars) {
+            this.bars = bars;
+        }
+
+        /**
+         * Scales the values of columns with their smallest common scale.
+         *
+         * @return the scale, {@link BinaryEncoder#UNSCALED} if the values cannot be
+         *         scaled
+         */
+        abstract int scale(int fromColumn, int toColumn);
+
+        long scaled(int bar, int column) {
+            return scaled[column][bar];
+        }
+
+        Num num(int bar, int column) {
+            Bar b = bars.get(bar);
+            switch (column) {
+            case OPEN:
+                return b.getOpenPrice();
+            case HIGH:
+                return b.getHighPrice();
+            case LOW:
+                return b.getLowPrice();
+            case CLOSE:
+                return b.getClosePrice();
+            case VOLUME:
+                return b.getVolume();
+            default:
+                return b.getAmount();
+            }
+        }
+    }
+
+    /**
+     * The columns of bars of doubles.
+     */
+    private static final class DoubleColumns extends Columns {
+
+        private final double[][] values = new double[AMOUNT + 1][];
+
+        DoubleColumns(List<Bar> bars) {
+            super(bars);
+            for (int column = OPEN; column <= AMOUNT; column++) {
+                values[column] = new double[bars.size()];
+            }
+            for (int i = 0; i < bars.size(); i++) {
+                Bar bar = bars.get(i);
+                if (bar instanceof CompactBar) {
+                    CompactBar compactBar = (CompactBar) bar;
+                    values[OPEN][i] = compactBar.getOpenPriceAsDouble();
+                    values[HIGH][i] = compactBar.getHighPriceAsDouble();
+                    values[LOW][i] = compactBar.getLowPriceAsDouble();
+                    values[CLOSE][i] = compactBar.getClosePriceAsDouble();
+                    values[VOLUME][i] = compactBar.getVolumeAsDouble();
+                    values[AMOUNT][i] = compactBar.getAmountAsDouble();
+                } else {
+                    for (int column = OPEN; column <= AMOUNT; column++) {
+                        Num num = num(i, column);
+                        values[column][i] = num == null || num.isNaN() ? Double.NaN : num.doubleValue();
+                    }
+                }
+            }
+        }
+
+        @Override
+        Num num(int bar, int column) {
+            if (bars.get(bar) instanceof CompactBar) {
+                return DoubleNum.valueOf(values[column][bar]);
+            }
+            return super.num(bar, column);
+        }
+
+        @Override
+        int scale(int fromColumn, int toColumn) {
+            int scale = 0;
+            for (int column = fromColumn; column <= toColumn; column++) {
+                for (double value : values[column]) {
+                    int valueScale = ScaleUtils.scale(value);
+                    if (valueScale < 0) {
+                        return UNSCALED;
+                    }
+                    scale = Math.max(scale, valueScale);
+                }
+            }
+            for (int column = fromColumn; column <= toColumn; column++) {
+                long[] columnScaled = new long[values[column].length];
+                for (int i = 0; i < columnScaled.length; i++) {
+                    double value = values[column][i];
+                    if (!ScaleUtils.isExact(value, scale)) {
+                        return UNSCALED;
+                    }
+                    columnScaled[i] = ScaleUtils.unscaledValue(value, scale);
+                }
+                scaled[column] = columnScaled;
+            }
+            return scale;
+        }
+    }
+
+    /**
+     * The columns of bars of decimals.
+     */
+    private static final class DecimalColumns extends Columns {
+
+        DecimalColumns(List<Bar> bars) {
+            super(bars);
+        }
+
+        @Override
+        int scale(int fromColumn, int toColumn) {
+            int scale = 0;
+            for (int column = fromColumn; column <= toColumn; column++) {
+                for (int i = 0; i < bars.size(); i++) {
+                    Num num = num(i, column);
+                    int valueScale = num instanceof DecimalNum ? ScaleUtils.scale((BigDecimal) num.getDelegate())
+                            : -1;
+                    if (valueScale < 0) {
+                        return UNSCALED;
+                    }
+                    scale = Math.max(scale, valueScale);
+                }
+            }
+            BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+            for (int column = fromColumn; column <= toColumn; column++) {
+                long[] columnScaled = new long[bars.size()];
+                for (int i = 0; i < columnScaled.length; i++) {
+                    BigInteger unscaled = ((BigDecimal) num(i, column).getDelegate()).setScale(scale)
+                            .unscaledValue();
+                    if (unscaled.abs().compareTo(max) > 0) {
+                        return UNSCALED;
+                    }
+                    columnScaled[i] = unscaled.longValue();
+                }
+                scaled[column] = columnScaled;
+            }
+            return scale;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+/**
+ * Indicator or rule with a mutable state besides its cached values (e.g. the
+ * acceleration factor of a parabolic SAR), saved into and restored from an
+ * {@link IndicatorCheckpoint}.
+ *
+ * The state does not include the configuration of the node (e.g. a bar count),
+ * which is the one of the restored definition.
+ */
+public interface Checkpointable {
+
+    /**
+     * Saves the state, after the last calculation.
+     *
+     * @param state the state of the checkpoint
+     */
+    void saveState(IndicatorCheckpoint.State state);
+
+    /**
+     * Restores the state, before any calculation.
+     *
+     * @param state the state of the checkpoint
+     */
+    void restoreState(IndicatorCheckpoint.State state);
+}
@@ -0,0 +1,350 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Reader of CSV files of bars.
+ *
+ * The bytes of the file (memory-mapped, or buffered from a stream) are split in
+ * chunks of whole lines, which are parsed in parallel on a {@link ForkJoinPool}
+ * directly into {@link BarColumns}, without intermediate strings: the numbers
+ * with at most 15 significant digits and the times are parsed without
+ * allocation.
+ *
+ * The fields cannot contain the delimiter (quotes around the fields are
+ * removed, but not interpreted). The empty lines are skipped. If the bars are
+ * in descending time order (e.g. most recent first), they are reversed.
+ */
+public class CsvBarReader {
+
+    private static final int TIME = 0;
+    private static final int OPEN = 1;
+    private static final int HIGH = 2;
+    private static final int LOW = 3;
+    private static final int CLOSE = 4;
+    private static final int VOLUME = 5;
+    private static final int AMOUNT = 6;
+    private static final int TRADES = 7;
+
+    /** Maximum size of a chunk (i.e. of a mapped region) */
+    private static final int MAX_CHUNK_SIZE = 1 << 30;
+
+    /** Minimum size of a chunk, when automatic */
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    private final CsvLayout layout;
+    /** The role of each column (-1 for ignored columns) */
+    private final int[] roles;
+    private final byte delimiter;
+    private final long timePeriodNanos;
+    private int chunkSize;
+
+    /**
+     * Constructor.
+     *
+     * @param layout the layout of the files (copied, its later changes are
+     *               ignored)
+     */
+    public CsvBarReader(CsvLayout layout) {
+        this.layout = new CsvLayout().setDelimiter(layout.getDelimiter())
+                .setHeaderLines(layout.getHeaderLines())
+                .setTimeColumn(layout.getTimeColumn(), layout.getTimeFormat())
+                .setBeginTimes(layout.isBeginTimes())
+                .setPriceColumns(layout.getOpenColumn(), layout.getHighColumn(), layout.getLowColumn(),
+                        layout.getCloseColumn())
+                .setVolumeColumn(layout.getVolumeColumn())
+                .setAmountColumn(layout.getAmountColumn())
+                .setTradesColumn(layout.getTradesColumn())
+                .setTimePeriod(layout.getTimePeriod())
+                .setZoneId(layout.getZoneId());
+        int[] columns = { layout.getTimeColumn(), layout.getOpenColumn(), layout.getHighColumn(),
+                layout.getLowColumn(), layout.getCloseColumn(), layout.getVolumeColumn(), layout.getAmountColumn(),
+                layout.getTradesColumn() };
+        int columnCount = 0;
+        for (int column : columns) {
+            columnCount = Math.max(columnCount, column + 1);
+        }
+        this.roles = new int[columnCount];
+        Arrays.fill(roles, -1);
+        for (int role = 0; role < columns.length; role++) {
+            if (columns[role] != CsvLayout.ABSENT) {
+                if (roles[columns[role]] != -1) {
+                    throw new IllegalArgumentException("Column " + columns[role] + " is used twice");
+                }
+                roles[columns[role]] = role;
+            }
+        }
+        this.delimiter = (byte) layout.getDelimiter();
+        this.timePeriodNanos = layout.getTimePeriod().toNanos();
+    }
+
+    /**
+     * @param chunkSize the size in bytes of the chunks parsed in parallel (0 to
+     *                  split the input in 4 chunks per thread of the pool, of at
+     *                  least 1 MB)
+     * @return this reader
+     */
+    public CsvBarReader setChunkSize(int chunkSize) {
+        if (chunkSize < 0 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @return the layout of the files
+     */
+    public CsvLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Reads a file, memory-mapped, on the common pool.
+     *
+     * @param path the path of the file
+     * @return the bars of the file
+     * @throws IOException if the file cannot be read
+     */
+    public BarColumns read(Path path) throws IOException {
+        return read(path, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads a file, memory-mapped.
+     *
+     * @param path the path of the file
+     * @param pool the pool parsing the chunks
+     * @return the bars of the file
+     * @throws IOException if the file cannot be read
+     */
+    public BarColumns read(Path path, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<Long> bounds = new ArrayList<>();
+            long position = 0;
+            for (int i = 0; i < layout.getHeaderLines() && position < size; i++) {
+                position = nextLine(channel, position, size);
+            }
+            bounds.add(position);
+            long step = chunkStep(size - position, pool);
+            while (position < size) {
+                position = position + step >= size ? size : nextLine(channel, position + step, size);
+                bounds.add(position);
+            }
+            List<ByteBuffer> chunks = new ArrayList<>(bounds.size());
+            for (int i = 1; i < bounds.size(); i++) {
+                chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, bounds.get(i - 1),
+                        bounds.get(i) - bounds.get(i - 1)));
+            }
+            return parse(chunks, bounds, pool);
+        }
+    }
+
+    /**
+     * Reads a stream, buffered in memory, on the common pool.
+     *
+     * @param stream the stream (not closed)
+     * @return the bars of the stream
+     * @throws IOException if the stream cannot be read
+     */
+    public BarColumns read(InputStream stream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1 << 16];
+        int count;
+        while ((count = stream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, count);
+        }
+        return read(ByteBuffer.wrap(bytes.toByteArray()), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads bytes, from the position to the limit of the buffer.
+     *
+     * @param buffer the bytes (its position is not changed)
+     * @param pool   the pool parsing the chunks
+     * @return the bars of the bytes
+     */
+    public BarColumns read(ByteBuffer buffer, ForkJoinPool pool) {
+        int size = buffer.limit();
+        int position = buffer.position();
+        for (int i = 0; i < layout.getHeaderLines() && position < size; i++) {
+            position = nextLine(buffer, position, size);
+        }
+        List<Long> bounds = new ArrayList<>();
+        bounds.add((long) position);
+        long step = chunkStep(size - position, pool);
+        while (position < size) {
+            position = position + step >= size ? size : nextLine(buffer, (int) (position + step), size);
+            bounds.add((long) position);
+        }
+        List<ByteBuffer> chunks = new ArrayList<>(bounds.size());
+        for (int i = 1; i < bounds.size(); i++) {
+            ByteBuffer chunk = buffer.duplicate();
+            chunk.limit(bounds.get(i).intValue()).position(bounds.get(i - 1).intValue());
+            chunks.add(chunk.slice());
+        }
+        return parse(chunks, bounds, pool);
+    }
+
+    private long chunkStep(long size, ForkJoinPool pool) {
+        if (chunkSize > 0) {
+            return chunkSize;
+        }
+        long step = Math.max(MIN_CHUNK_SIZE, size / (4L * pool.getParallelism()) + 1);
+        return Math.min(step, MAX_CHUNK_SIZE - (1 << 20));
+    }
+
+    private BarColumns parse(List<ByteBuffer> chunks, List<Long> bounds, ForkJoinPool pool) {
+        if (chunks.isEmpty()) {
+            return new BarColumns(layout.getTimePeriod(), layout.getZoneId(), 0);
+        }
+        List<BarColumns> parts = pool.submit(() -> IntStream.range(0, chunks.size())
+                .parallel()
+                .mapToObj(i -> new ChunkParser(chunks.get(i), bounds.get(i)).parse())
+                .collect(Collectors.toList())).join();
+        BarColumns columns = BarColumns.concat(parts);
+        if (columns.size() > 1 && columns.getEndEpochNanos(0) > columns.getEndEpochNanos(columns.size() - 1)) {
+            columns.reverse();
+        }
+        return columns;
+    }
+
+    /**
+     * @return the position after the end of the line containing the position
+     */
+    private static long nextLine(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long current = position;
+        while (current < size) {
+            buffer.clear();
+            int count = channel.read(buffer, current);
+            if (count <= 0) {
+                break;
+            }
+            for (int i = 0; i < count; i++) {
+                if (buffer.get(i) == '\n') {
+                    return current + i + 1;
+                }
+            }
+            current += count;
+        }
+        return size;
+    }
+
+    /**
+     * @return the position after the end of the line containing the position
+     */
+    private static int nextLine(ByteBuffer buffer, int position, int size) {
+        for (int i = position; i < size; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The parser of a chunk of whole lines.
+     */
+    private final class ChunkParser {
+
+        private final ByteBuffer buffer;
+        /** The position of the chunk in the input, for the error messages */
+        private final long offset;
+        private final BarColumns columns;
+        private final CsvFieldParser fields;
+
+        private long time;
+        private final double[] values = new double[TRADES + 1];
+
+        private ChunkParser(ByteBuffer buffer, long offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.columns = new BarColumns(layout.getTimePeriod(), layout.getZoneId(), buffer.limit() / 40);
+            this.fields = new CsvFieldParser(layout.getTimeFormat(), layout.getZoneId());
+            fields.setBuffer(buffer, offset);
+        }
+
+        private BarColumns parse() {
+            int limit = buffer.limit();
+            int position = 0;
+            while (position < limit) {
+                int lineEnd = position;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int end = lineEnd > position && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                if (end > position) {
+                    parseLine(position, end);
+                }
+                position = lineEnd + 1;
+            }
+            return columns;
+        }
+
+        private void parseLine(int start, int end) {
+            values[OPEN] = Double.NaN;
+            values[HIGH] = Double.NaN;
+            values[LOW] = Double.NaN;
+            values[VOLUME] = 0;
+            values[AMOUNT] = 0;
+            values[TRADES] = 0;
+            int column = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end && column < roles.length; i++) {
+                if (i == end || buffer.get(i) == delimiter) {
+                    int role = roles[column];
+                    if (role == TIME) {
+                        time = fields.parseTime(fieldStart, i);
+                    } else if (role >= 0) {
+                        values[role] = fields.parseDouble(fieldStart, i);
+                    }
+                    column++;
+                    fieldStart = i + 1;
+                }
+            }
+            if (column < roles.length) {
+                throw new NumberFormatException("Missing columns in line at byte " + (offset + start));
+            }
+            long endTime = layout.isBeginTimes() ? time + timePeriodNanos : time;
+            columns.add(endTime, values[OPEN], values[HIGH], values[LOW], values[CLOSE], values[VOLUME],
+                    values[AMOUNT], (long) values[TRADES]);
+        }
+    }
+}
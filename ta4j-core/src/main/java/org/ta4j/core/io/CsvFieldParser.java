@@ -0,0 +1,364 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+
+import org.ta4j.core.io.CsvLayout.TimeFormat;
+import org.ta4j.core.utils.TimeUtils;
+
+/**
+ * Parser of the fields of CSV lines, directly from their bytes.
+ *
+ * The numbers with at most 15 significant digits and the times are parsed
+ * without allocation, and give the same values as
+ * {@link Double#parseDouble(String)} and {@link java.time}. Not thread-safe.
+ */
+final class CsvFieldParser {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private final TimeFormat timeFormat;
+    private final ZoneId zoneId;
+    private final ZoneRules rules;
+    /** The offset of the time zone if fixed, else null */
+    private final ZoneOffset fixedOffset;
+
+    /** The day of the cached offset of the time zone */
+    private long cachedDay = Long.MIN_VALUE;
+    /** True if the cached offset is valid for the whole cached day */
+    private boolean cachedDayUniform;
+    private int cachedOffsetSeconds;
+
+    private ByteBuffer buffer;
+    /** The position of the buffer in the input, for the error messages */
+    private long offset;
+
+    /**
+     * Constructor.
+     *
+     * @param timeFormat the format of the times
+     * @param zoneId     the time zone of the ISO times without offset
+     */
+    CsvFieldParser(TimeFormat timeFormat, ZoneId zoneId) {
+        this.timeFormat = timeFormat;
+        this.zoneId = zoneId;
+        this.rules = zoneId.getRules();
+        this.fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+    }
+
+    /**
+     * @param buffer the bytes of the fields
+     * @param offset the position of the buffer in the input, for the error
+     *               messages
+     */
+    void setBuffer(ByteBuffer buffer, long offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    int trimStart(int start, int end) {
+        int i = start;
+        while (i < end && (buffer.get(i) == ' ' || buffer.get(i) == '"')) {
+            i++;
+        }
+        return i;
+    }
+
+    int trimEnd(int start, int end) {
+        int i = end;
+        while (i > start && (buffer.get(i - 1) == ' ' || buffer.get(i - 1) == '"')) {
+            i--;
+        }
+        return i;
+    }
+
+    double parseDouble(int fieldStart, int fieldEnd) {
+        int start = trimStart(fieldStart, fieldEnd);
+        int end = trimEnd(start, fieldEnd);
+        if (start == end) {
+            return Double.NaN;
+        }
+        int i = start;
+        boolean negative = buffer.get(i) == '-';
+        if (negative || buffer.get(i) == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean dot = false;
+        boolean anyDigit = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                anyDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    if (++digits > 15) {
+                        return parseDoubleSlowly(start, end);
+                    }
+                    mantissa = mantissa * 10 + (b - '0');
+                }
+                if (dot) {
+                    exponent--;
+                }
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else if ((b == 'e' || b == 'E') && anyDigit) {
+                int exponentValue = parseExponent(i + 1, end);
+                if (exponentValue == Integer.MIN_VALUE) {
+                    return parseDoubleSlowly(start, end);
+                }
+                exponent += exponentValue;
+                break;
+            } else {
+                return parseDoubleSlowly(start, end);
+            }
+        }
+        if (!anyDigit) {
+            return parseDoubleSlowly(start, end);
+        }
+        double value;
+        if (mantissa == 0) {
+            value = 0;
+        } else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return parseDoubleSlowly(start, end);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return the exponent, or Integer.MIN_VALUE if invalid
+     */
+    private int parseExponent(int start, int end) {
+        int i = start;
+        boolean negative = i < end && buffer.get(i) == '-';
+        if (i < end && (negative || buffer.get(i) == '+')) {
+            i++;
+        }
+        if (i == end || end - i > 3) {
+            return Integer.MIN_VALUE;
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return Integer.MIN_VALUE;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a number through a string (e.g. with more than 15 significant
+     * digits, or NaN).
+     */
+    private double parseDoubleSlowly(int start, int end) {
+        String text = text(start, end);
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException nfe) {
+            throw new NumberFormatException("Invalid number \"" + text + "\" at byte " + (offset + start));
+        }
+    }
+
+    String text(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = start; i < end; i++) {
+            bytes[i - start] = buffer.get(i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    long parseTime(int fieldStart, int fieldEnd) {
+        int start = trimStart(fieldStart, fieldEnd);
+        int end = trimEnd(start, fieldEnd);
+        if (timeFormat == TimeFormat.ISO) {
+            return parseIsoTime(start, end);
+        }
+        long unitNanos = timeFormat.getUnitNanos();
+        int i = start;
+        boolean negative = i < end && buffer.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        long value = 0;
+        long fraction = 0;
+        long fractionUnit = unitNanos;
+        boolean dot = false;
+        if (i == end) {
+            throw invalidTime(start, end);
+        }
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                if (!dot) {
+                    value = Math.addExact(Math.multiplyExact(value, 10), b - '0');
+                } else if (fractionUnit >= 10) {
+                    fractionUnit /= 10;
+                    fraction += (b - '0') * fractionUnit;
+                }
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else {
+                throw invalidTime(start, end);
+            }
+        }
+        long nanos = Math.addExact(Math.multiplyExact(value, unitNanos), fraction);
+        return negative ? -nanos : nanos;
+    }
+
+    private long parseIsoTime(int start, int end) {
+        if (end - start < 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+            throw invalidTime(start, end);
+        }
+        int year = digits(start, 4, start, end);
+        int month = digits(start + 5, 2, start, end);
+        int day = digits(start + 8, 2, start, end);
+        if (month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            throw invalidTime(start, end);
+        }
+        int secondOfDay = 0;
+        long nanos = 0;
+        int i = start + 10;
+        if (i < end && (buffer.get(i) == 'T' || buffer.get(i) == ' ')) {
+            if (end - i < 6 || buffer.get(i + 3) != ':') {
+                throw invalidTime(start, end);
+            }
+            int hour = digits(i + 1, 2, start, end);
+            int minute = digits(i + 4, 2, start, end);
+            int second = 0;
+            i += 6;
+            if (i < end && buffer.get(i) == ':') {
+                if (end - i < 3) {
+                    throw invalidTime(start, end);
+                }
+                second = digits(i + 1, 2, start, end);
+                i += 3;
+                if (i < end && buffer.get(i) == '.') {
+                    long unit = TimeUtils.NANOS_PER_SECOND;
+                    for (i++; i < end && buffer.get(i) >= '0' && buffer.get(i) <= '9'; i++) {
+                        if (unit >= 10) {
+                            unit /= 10;
+                            nanos += (buffer.get(i) - '0') * unit;
+                        }
+                    }
+                }
+            }
+            if (hour > 23 || minute > 59 || second > 59) {
+                throw invalidTime(start, end);
+            }
+            secondOfDay = hour * 3600 + minute * 60 + second;
+        }
+        long epochDay = epochDay(year, month, day);
+        long epochSecond;
+        if (i == end) {
+            epochSecond = toEpochSecond(epochDay, secondOfDay);
+        } else if (buffer.get(i) == 'Z' && i + 1 == end) {
+            epochSecond = epochDay * SECONDS_PER_DAY + secondOfDay;
+        } else if ((buffer.get(i) == '+' || buffer.get(i) == '-') && (end - i == 6 || end - i == 5)) {
+            int offsetHours = digits(i + 1, 2, start, end);
+            int offsetMinutes = digits(end - 2, 2, start, end);
+            int offsetSeconds = offsetHours * 3600 + offsetMinutes * 60;
+            epochSecond = epochDay * SECONDS_PER_DAY + secondOfDay
+                    - (buffer.get(i) == '-' ? -offsetSeconds : offsetSeconds);
+        } else {
+            throw invalidTime(start, end);
+        }
+        return epochSecond * TimeUtils.NANOS_PER_SECOND + nanos;
+    }
+
+    /**
+     * @return the epoch second of a local time in the time zone of the layout
+     */
+    private long toEpochSecond(long epochDay, int secondOfDay) {
+        long localSecond = epochDay * SECONDS_PER_DAY + secondOfDay;
+        if (fixedOffset != null) {
+            return localSecond - fixedOffset.getTotalSeconds();
+        }
+        if (epochDay != cachedDay) {
+            // the offset changes at most once a day (and not in most days)
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            int startOffset = rules.getOffset(date.atStartOfDay()).getTotalSeconds();
+            int endOffset = rules.getOffset(date.plusDays(1).atStartOfDay()).getTotalSeconds();
+            cachedDay = epochDay;
+            cachedDayUniform = startOffset == endOffset;
+            cachedOffsetSeconds = startOffset;
+        }
+        if (cachedDayUniform) {
+            return localSecond - cachedOffsetSeconds;
+        }
+        return LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC)
+                .atZone(zoneId)
+                .toEpochSecond();
+    }
+
+    private int digits(int position, int count, int start, int end) {
+        if (position + count > end) {
+            throw invalidTime(start, end);
+        }
+        int value = 0;
+        for (int i = position; i < position + count; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                throw invalidTime(start, end);
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private NumberFormatException invalidTime(int start, int end) {
+        return new NumberFormatException(
+                "Invalid time \"" + text(start, end) + "\" at byte " + (offset + start));
+    }
+
+    /**
+     * @return the epoch day of a date of the proleptic Gregorian calendar
+     */
+    static long epochDay(long year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
@@ -0,0 +1,265 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * The layout of a CSV file of bars: the delimiter, the header lines and the
+ * indexes (from 0) of the columns.
+ *
+ * The default layout is the one of the "date,open,high,low,close,volume" files,
+ * with a header line, daily bars ending at the dates, in the system default
+ * time zone.
+ */
+public class CsvLayout {
+
+    /**
+     * The format of the time column.
+     */
+    public enum TimeFormat {
+        /** Seconds since the epoch, with an optional fraction */
+        EPOCH_SECONDS(1_000_000_000L),
+        /** Milliseconds since the epoch, with an optional fraction */
+        EPOCH_MILLIS(1_000_000L),
+        /** Microseconds since the epoch, with an optional fraction */
+        EPOCH_MICROS(1_000L),
+        /** Nanoseconds since the epoch */
+        EPOCH_NANOS(1L),
+        /**
+         * ISO-8601 date (yyyy-MM-dd), with an optional time of day
+         * ([T ]HH:mm[:ss[.SSSSSSSSS]]) and an optional offset (Z or +HH:MM), in the
+         * time zone of the layout if no offset
+         */
+        ISO(0L);
+
+        private final long unitNanos;
+
+        TimeFormat(long unitNanos) {
+            this.unitNanos = unitNanos;
+        }
+
+        /**
+         * @return the nanoseconds of the unit of an epoch format, 0 for ISO
+         */
+        long getUnitNanos() {
+            return unitNanos;
+        }
+    }
+
+    /** Index of an absent column */
+    public static final int ABSENT = -1;
+
+    private char delimiter = ',';
+    private int headerLines = 1;
+    private int timeColumn = 0;
+    private TimeFormat timeFormat = TimeFormat.ISO;
+    private boolean beginTimes = false;
+    private int openColumn = 1;
+    private int highColumn = 2;
+    private int lowColumn = 3;
+    private int closeColumn = 4;
+    private int volumeColumn = 5;
+    private int amountColumn = ABSENT;
+    private int tradesColumn = ABSENT;
+    private Duration timePeriod = Duration.ofDays(1);
+    private ZoneId zoneId = ZoneId.systemDefault();
+
+    /**
+     * @param delimiter the delimiter of the columns (a single byte character)
+     * @return this layout
+     */
+    public CsvLayout setDelimiter(char delimiter) {
+        if (delimiter > 0x7F || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Invalid delimiter: " + delimiter);
+        }
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * @param headerLines the number of lines to skip at the beginning of the file
+     * @return this layout
+     */
+    public CsvLayout setHeaderLines(int headerLines) {
+        if (headerLines < 0) {
+            throw new IllegalArgumentException("Header lines must not be negative");
+        }
+        this.headerLines = headerLines;
+        return this;
+    }
+
+    /**
+     * @param timeColumn the index of the time column
+     * @param timeFormat the format of the time column
+     * @return this layout
+     */
+    public CsvLayout setTimeColumn(int timeColumn, TimeFormat timeFormat) {
+        this.timeColumn = checkColumn(timeColumn, false);
+        this.timeFormat = timeFormat;
+        return this;
+    }
+
+    /**
+     * @param beginTimes true if the times are the begin times of the bars, false
+     *                   if they are the end times
+     * @return this layout
+     */
+    public CsvLayout setBeginTimes(boolean beginTimes) {
+        this.beginTimes = beginTimes;
+        return this;
+    }
+
+    /**
+     * @param openColumn  the index of the open price column (or {@link #ABSENT})
+     * @param highColumn  the index of the high price column (or {@link #ABSENT})
+     * @param lowColumn   the index of the low price column (or {@link #ABSENT})
+     * @param closeColumn the index of the close price column
+     * @return this layout
+     */
+    public CsvLayout setPriceColumns(int openColumn, int highColumn, int lowColumn, int closeColumn) {
+        this.openColumn = checkColumn(openColumn, true);
+        this.highColumn = checkColumn(highColumn, true);
+        this.lowColumn = checkColumn(lowColumn, true);
+        this.closeColumn = checkColumn(closeColumn, false);
+        return this;
+    }
+
+    /**
+     * @param volumeColumn the index of the volume column (or {@link #ABSENT})
+     * @return this layout
+     */
+    public CsvLayout setVolumeColumn(int volumeColumn) {
+        this.volumeColumn = checkColumn(volumeColumn, true);
+        return this;
+    }
+
+    /**
+     * @param amountColumn the index of the amount column (or {@link #ABSENT})
+     * @return this layout
+     */
+    public CsvLayout setAmountColumn(int amountColumn) {
+        this.amountColumn = checkColumn(amountColumn, true);
+        return this;
+    }
+
+    /**
+     * @param tradesColumn the index of the trades count column (or
+     *                     {@link #ABSENT})
+     * @return this layout
+     */
+    public CsvLayout setTradesColumn(int tradesColumn) {
+        this.tradesColumn = checkColumn(tradesColumn, true);
+        return this;
+    }
+
+    /**
+     * @param timePeriod the time period of the bars
+     * @return this layout
+     */
+    public CsvLayout setTimePeriod(Duration timePeriod) {
+        if (timePeriod == null || timePeriod.isNegative() || timePeriod.isZero()) {
+            throw new IllegalArgumentException("Time period must be positive");
+        }
+        this.timePeriod = timePeriod;
+        return this;
+    }
+
+    /**
+     * @param zoneId the time zone of the bars (and of the ISO times without
+     *               offset)
+     * @return this layout
+     */
+    public CsvLayout setZoneId(ZoneId zoneId) {
+        if (zoneId == null) {
+            throw new IllegalArgumentException("Zone id cannot be null");
+        }
+        this.zoneId = zoneId;
+        return this;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public int getHeaderLines() {
+        return headerLines;
+    }
+
+    public int getTimeColumn() {
+        return timeColumn;
+    }
+
+    public TimeFormat getTimeFormat() {
+        return timeFormat;
+    }
+
+    public boolean isBeginTimes() {
+        return beginTimes;
+    }
+
+    public int getOpenColumn() {
+        return openColumn;
+    }
+
+    public int getHighColumn() {
+        return highColumn;
+    }
+
+    public int getLowColumn() {
+        return lowColumn;
+    }
+
+    public int getCloseColumn() {
+        return closeColumn;
+    }
+
+    public int getVolumeColumn() {
+        return volumeColumn;
+    }
+
+    public int getAmountColumn() {
+        return amountColumn;
+    }
+
+    public int getTradesColumn() {
+        return tradesColumn;
+    }
+
+    public Duration getTimePeriod() {
+        return timePeriod;
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    private static int checkColumn(int column, boolean optional) {
+        if (column < 0 && !(optional && column == ABSENT)) {
+            throw new IllegalArgumentException("Invalid column index: " + column);
+        }
+        return column;
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.ta4j.core.aggregator.StreamingDurationBarAggregator;
+import org.ta4j.core.aggregator.TradeConsumer;
+import org.ta4j.core.io.CsvLayout.TimeFormat;
+
+/**
+ * Streaming reader of CSV files of trades.
+ *
+ * The bytes are read through a buffer of fixed size and each trade is parsed
+ * without allocation (see {@link CsvBarReader}) and pushed to a
+ * {@link TradeConsumer} (e.g. a {@link StreamingDurationBarAggregator}), so
+ * that files of any size can be read in bounded memory.
+ *
+ * The default layout is the one of the "time,price,volume" files of exchanges,
+ * with a header line and times in epoch seconds.
+ */
+public class CsvTradeReader {
+
+    private char delimiter = ',';
+    private int headerLines = 1;
+    private int timeColumn = 0;
+    private TimeFormat timeFormat = TimeFormat.EPOCH_SECONDS;
+    private int priceColumn = 1;
+    private int volumeColumn = 2;
+    private ZoneId zoneId = ZoneOffset.UTC;
+    private int bufferSize = 1 << 20;
+
+    /**
+     * @param delimiter the delimiter of the columns (a single byte character)
+     * @return this reader
+     */
+    public CsvTradeReader setDelimiter(char delimiter) {
+        if (delimiter > 0x7F || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Invalid delimiter: " + delimiter);
+        }
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * @param headerLines the number of lines to skip at the beginning of the input
+     * @return this reader
+     */
+    public CsvTradeReader setHeaderLines(int headerLines) {
+        if (headerLines < 0) {
+            throw new IllegalArgumentException("Header lines must not be negative");
+        }
+        this.headerLines = headerLines;
+        return this;
+    }
+
+    /**
+     * @param timeColumn   the index of the time column
+     * @param timeFormat   the format of the time column
+     * @param priceColumn  the index of the price column
+     * @param volumeColumn the index of the volume column
+     * @return this reader
+     */
+    public CsvTradeReader setColumns(int timeColumn, TimeFormat timeFormat, int priceColumn, int volumeColumn) {
+        if (timeColumn < 0 || priceColumn < 0 || volumeColumn < 0 || timeColumn == priceColumn
+                || timeColumn == volumeColumn || priceColumn == volumeColumn) {
+            throw new IllegalArgumentException("Invalid column indexes");
+        }
+        this.timeColumn = timeColumn;
+        this.timeFormat = timeFormat;
+        this.priceColumn = priceColumn;
+        this.volumeColumn = volumeColumn;
+        return this;
+    }
+
+    /**
+     * @param zoneId the time zone of the ISO times without offset
+     * @return this reader
+     */
+    public CsvTradeReader setZoneId(ZoneId zoneId) {
+        this.zoneId = zoneId;
+        return this;
+    }
+
+    /**
+     * @param bufferSize the size of the read buffer in bytes (i.e. the maximum
+     *                   length of a line)
+     * @return this reader
+     */
+    public CsvTradeReader setBufferSize(int bufferSize) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("Buffer size must be at least 64 bytes");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Reads a file of trades.
+     *
+     * @param path     the path of the file
+     * @param consumer the consumer of the trades
+     * @return the number of trades
+     * @throws IOException if the file cannot be read
+     */
+    public long read(Path path, TradeConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel, consumer);
+        }
+    }
+
+    /**
+     * Reads trades until the end of a channel.
+     *
+     * @param channel  the channel (not closed)
+     * @param consumer the consumer of the trades
+     * @return the number of trades
+     * @throws IOException if the channel cannot be read, or a line is longer than
+     *                     the buffer
+     */
+    public long read(ReadableByteChannel channel, TradeConsumer consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        CsvFieldParser fields = new CsvFieldParser(timeFormat, zoneId);
+        int columnCount = Math.max(timeColumn, Math.max(priceColumn, volumeColumn)) + 1;
+        byte delimiterByte = (byte) delimiter;
+        // the position of the buffer in the input
+        long offset = 0;
+        int skippedLines = 0;
+        long count = 0;
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            endOfInput = channel.read(buffer) == -1;
+            buffer.flip();
+            fields.setBuffer(buffer, offset);
+            int limit = buffer.limit();
+            int position = 0;
+            int lineEnd = 0;
+            while (position < limit) {
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                if (lineEnd == limit && !endOfInput) {
+                    // incomplete line
+                    break;
+                }
+                int end = lineEnd > position && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                if (skippedLines < headerLines) {
+                    skippedLines++;
+                } else if (end > position) {
+                    long time = 0;
+                    double price = 0;
+                    double volume = 0;
+                    int column = 0;
+                    int fieldStart = position;
+                    for (int i = position; i <= end && column < columnCount; i++) {
+                        if (i == end || buffer.get(i) == delimiterByte) {
+                            if (column == timeColumn) {
+                                time = fields.parseTime(fieldStart, i);
+                            } else if (column == priceColumn) {
+                                price = fields.parseDouble(fieldStart, i);
+                            } else if (column == volumeColumn) {
+                                volume = fields.parseDouble(fieldStart, i);
+                            }
+                            column++;
+                            fieldStart = i + 1;
+                        }
+                    }
+                    if (column < columnCount) {
+                        throw new NumberFormatException("Missing columns in line at byte " + (offset + position));
+                    }
+                    consumer.addTrade(time, price, volume);
+                    count++;
+                }
+                position = lineEnd + 1;
+                lineEnd = position;
+            }
+            if (!endOfInput && position == 0 && limit == buffer.capacity()) {
+                throw new IOException("Line longer than the buffer at byte " + offset);
+            }
+            buffer.position(Math.min(position, limit));
+            buffer.compact();
+            offset += Math.min(position, limit);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.NaN;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.utils.FingerprintUtils;
+
+/**
+ * Persistent store of indicator values.
+ *
+ * The values of an indicator are stored in a file of the store directory,
+ * keyed by the fingerprint of the indicator definition (see
+ * {@link FingerprintUtils#describe(Object, BarSeries)}) and by its series (its
+ * first bar). The file holds a header (with the number of values and the hash
+ * of the bars they were computed from) followed by the values as doubles.
+ *
+ * When an indicator is {@link #attach(CachedIndicator) attached}, the stored
+ * values whose bars did not change are memory-mapped and read by the indicator
+ * instead of being calculated; only the values of the bars added since are
+ * calculated, and appended to the file. The value of the last bar (which may
+ * still change) is never stored.
+ *
+ * The values are stored as doubles, so only the indicators of
+ * {@link DoubleNum} series can be attached: the values of another num type would
+ * be read rounded, and a run would depend on whether its values were stored.
+ * Indicators which cannot be fingerprinted (e.g. holding lambdas) are left
+ * unchanged.
+ *
+ * This class is thread-safe; a file is locked while it is updated.
+ */
+public class FeatureStore {
+
+    /** The logger */
+    private static final Logger log = LoggerFactory.getLogger(FeatureStore.class);
+
+    /** The header of the value files */
+    private static final int FILE_MAGIC = 0x74346673;
+    private static final int FILE_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final String FILE_SUFFIX = ".feature";
+
+    /** The directory of the value files */
+    private final Path directory;
+
+    /** The locks of the value files, by key */
+    private final Map<String, Object> fileLocks = new ConcurrentHashMap<>();
+
+    /** The bar hashes of the series */
+    private final Map<BarSeries, FingerprintUtils.PrefixHashes> barHashes = new WeakHashMap<>();
+
+    private long loadedCount;
+    private long calculatedCount;
+
+    /**
+     * Constructor.
+     *
+     * @param directory the directory of the value files
+     */
+    public FeatureStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Attaches an indicator to the store: its stored values are read instead of
+     * being calculated, and the values of all the bars of its series but the last
+     * one are stored.
+     *
+     * @param indicator the indicator
+     * @param <I>       the type of the indicator
+     * @return the indicator
+     * @throws IllegalArgumentException if the series of the indicator is not a
+     *                                  {@link DoubleNum} series, or if bars were
+     *                                  removed from it (i.e. with a maximum bar
+     *                                  count)
+     */
+    public <I extends CachedIndicator<Num>> I attach(I indicator) {
+        BarSeries series = indicator.getBarSeries();
+        if (!(series.numOf(0) instanceof DoubleNum)) {
+            throw new IllegalArgumentException("Cannot store exactly the values of a series of "
+                    + series.numOf(0).getClass().getSimpleName());
+        }
+        if (series.getRemovedBarsCount() > 0) {
+            throw new IllegalArgumentException("Cannot store the values of a series with removed bars");
+        }
+        // the last bar may still change
+        int count = series.getBarCount() - 1;
+        if (count < 1) {
+            return indicator;
+        }
+        String key;
+        try {
+            key = FingerprintUtils.sha256(FingerprintUtils.describe(indicator, series) + "|"
+                    + FingerprintUtils.hash(series.getBar(0)));
+        } catch (IllegalArgumentException e) {
+            log.debug("Indicator not storable: {}", e.getMessage());
+            return indicator;
+        }
+        Path file = directory.resolve(key + FILE_SUFFIX);
+        // the file locks are held by the JVM, not by its threads
+        synchronized (fileLocks.computeIfAbsent(key, k -> new Object())) {
+            update(indicator, series, count, file);
+        }
+        return indicator;
+    }
+
+    private void update(CachedIndicator<Num> indicator, BarSeries series, int count, Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE); FileLock lock = channel.lock()) {
+            int storedCount = Math.min(readStoredCount(channel, series), count);
+            if (storedCount > 0) {
+                indicator.setStoredValues(values(channel, storedCount, series), storedCount);
+            }
+            if (storedCount < count) {
+                ByteBuffer buffer = ByteBuffer.allocate((count - storedCount) * Double.BYTES);
+                for (int i = storedCount; i < count; i++) {
+                    Num value = indicator.getValue(i);
+                    buffer.putDouble(value.isNaN() ? Double.NaN : value.doubleValue());
+                }
+                buffer.flip();
+                write(channel, buffer, HEADER_SIZE + (long) storedCount * Double.BYTES);
+                writeHeader(channel, count, hash(series, count - 1));
+                indicator.setStoredValues(values(channel, count, series), count);
+            }
+            synchronized (this) {
+                loadedCount += storedCount;
+                calculatedCount += count - storedCount;
+            }
+        } catch (IOException e) {
+            log.warn("Cannot store the values of {} in {}", indicator, file, e);
+        }
+    }
+
+    /**
+     * @return the number of values of the valid stored values (0 if none)
+     */
+    private int readStoredCount(FileChannel channel, BarSeries series) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            return 0;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // reading the whole header
+        }
+        header.flip();
+        if (header.getInt() != FILE_MAGIC || header.getInt() != FILE_VERSION) {
+            return 0;
+        }
+        int storedCount = header.getInt();
+        header.getInt();
+        long storedHash = header.getLong();
+        if (storedCount < 1 || storedCount > series.getBarCount()
+                || channel.size() < HEADER_SIZE + (long) storedCount * Double.BYTES
+                || storedHash != hash(series, storedCount - 1)) {
+            // the bars changed
+            return 0;
+        }
+        return storedCount;
+    }
+
+    private void writeHeader(FileChannel channel, int count, long hash) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(FILE_MAGIC).putInt(FILE_VERSION).putInt(count).putInt(0).putLong(hash).putLong(0);
+        header.flip();
+        write(channel, header, 0);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            current += channel.write(buffer, current);
+        }
+    }
+
+    /**
+     * @return the function reading the values of the memory-mapped file
+     */
+    private static IntFunction<Num> values(FileChannel channel, int count, BarSeries series)
+            throws IOException {
+        DoubleBuffer values = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) count * Double.BYTES)
+                .asDoubleBuffer();
+        return index -> {
+            double value = values.get(index);
+            return Double.isNaN(value) ? NaN.NaN : series.numOf(value);
+        };
+    }
+
+    /**
+     * @return the hash of the bars of a series, from its begin index up to an
+     *         index (included)
+     */
+    private synchronized long hash(BarSeries series, int index) {
+        return barHashes.computeIfAbsent(series, s -> new FingerprintUtils.PrefixHashes()).hash(series, index);
+    }
+
+    /**
+     * @return the number of values read from the store by the attached indicators
+     */
+    public synchronized long getLoadedCount() {
+        return loadedCount;
+    }
+
+    /**
+     * @return the number of values calculated (and stored) by the attached
+     *         indicators
+     */
+    public synchronized long getCalculatedCount() {
+        return calculatedCount;
+    }
+
+    /**
+     * Deletes all the stored values.
+     */
+    public synchronized void clear() {
+        barHashes.clear();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,530 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.Rule;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.num.NaN;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.utils.FingerprintUtils;
+
+/**
+ * Checkpoint of the state of the indicators of a definition (e.g. a strategy),
+ * for the warm restart of a live engine.
+ *
+ * A checkpoint holds, for each indicator, rule or strategy of the definition
+ * graph (see {@link FingerprintUtils#nodes(Object)}):
+ * <ul>
+ * <li>the last cached values of the {@link CachedIndicator cached indicators}
+ * (e.g. the last value of an EMA or a KAMA), up to the checkpoint bar</li>
+ * <li>the state of the {@link Checkpointable} nodes (e.g. the acceleration
+ * factor of a parabolic SAR)</li>
+ * </ul>
+ * and the position of the checkpoint bar in the series.
+ *
+ * After a restart, the checkpoint is {@link #restore(Object, BarSeries)
+ * restored} into the same definition built on a series holding the recent bars
+ * (including the checkpoint bar, at any index): the recursive indicators resume
+ * from the checkpoint bar instead of replaying the whole history. The bar
+ * indexes of the states are shifted to the indexes of the restored series.
+ *
+ * An indicator or a rule with non-final fields of type {@code int},
+ * {@code long}, {@code double}, {@code boolean} or {@link Num} (i.e. a likely
+ * mutable state) must be {@link Checkpointable}: its state would be lost
+ * otherwise.
+ *
+ * The older values (before the checkpoint depth) are calculated from the bars of
+ * the restored series.
+ */
+public class IndicatorCheckpoint {
+
+    /** The header of the checkpoint format */
+    private static final int FORMAT_MAGIC = 0x74346370;
+    private static final int FORMAT_VERSION = 2;
+
+    /** The value tags of the checkpoint format */
+    private static final byte NULL = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte DECIMAL = 5;
+
+    /** The index of the checkpoint bar */
+    private final int index;
+
+    /** The end time of the checkpoint bar */
+    private final ZonedDateTime endTime;
+
+    /** The index of the last kept value */
+    private final int valueIndex;
+
+    /** The class names of the nodes of the definition graph */
+    private final List<String> classNames;
+
+    /** The states of the nodes, by key */
+    private final List<Map<String, Object>> states;
+
+    /**
+     * The last values of the nodes (null if not a cached indicator), up to the
+     * value index. The values of type {@link Num} are
+     * held by their delegate (NaN as {@link Double#NaN}).
+     */
+    private final List<Object[]> values;
+
+    private IndicatorCheckpoint(int index, ZonedDateTime endTime, int valueIndex, List<String> classNames,
+            List<Map<String, Object>> states, List<Object[]> values) {
+        this.index = index;
+        this.endTime = endTime;
+        this.valueIndex = valueIndex;
+        this.classNames = classNames;
+        this.states = states;
+        this.values = values;
+    }
+
+    /**
+     * Creates the checkpoint of the last bar of a series, with the last value of
+     * the cached indicators.
+     *
+     * @param definition the definition (strategy, rule, indicator or an array or
+     *                   list of them)
+     * @param series     the bar series of the definition
+     * @return the checkpoint
+     */
+    public static IndicatorCheckpoint create(Object definition, BarSeries series) {
+        return create(definition, series, series.getEndIndex(), 1);
+    }
+
+    /**
+     * Creates a checkpoint.
+     *
+     * The state fields are the ones of the last calculation (i.e. the one of the
+     * checkpoint bar for a live engine). The value of the last bar of the series
+     * is not kept (like in the cache of the indicators, it is calculated again).
+     *
+     * @param definition the definition (strategy, rule, indicator or an array or
+     *                   list of them)
+     * @param series     the bar series of the definition
+     * @param index      the index of the checkpoint bar
+     * @param depth      the number of values of the cached indicators to keep, up
+     *                   to the checkpoint bar (e.g. 1 for EMA, OBV, etc.)
+     * @return the checkpoint
+     * @throws IllegalArgumentException if the index is not in the series, the
+     *                                  depth is not positive, or a node with a
+     *                                  mutable state is not
+     *                                  {@link Checkpointable}
+     */
+    public static IndicatorCheckpoint create(Object definition, BarSeries series, int index, int depth) {
+        int firstIndex = Math.max(series.getBeginIndex(), series.getRemovedBarsCount());
+        if (series.isEmpty() || index < firstIndex || index > series.getEndIndex()) {
+            throw new IllegalArgumentException("Index " + index + " not in the series");
+        }
+        if (depth < 1) {
+            throw new IllegalArgumentException("Depth must be positive");
+        }
+        List<Object> nodes = FingerprintUtils.nodes(definition);
+        List<String> classNames = new ArrayList<>(nodes.size());
+        List<Map<String, Object>> states = new ArrayList<>(nodes.size());
+        for (Object node : nodes) {
+            classNames.add(node.getClass().getName());
+            Map<String, Object> state = new LinkedHashMap<>();
+            if (node instanceof Checkpointable) {
+                ((Checkpointable) node).saveState(new State(state, 0, series));
+            } else if (node instanceof Indicator || node instanceof Rule) {
+                checkStateless(node.getClass());
+            }
+            states.add(state);
+        }
+        // the values are read after the states: they may be calculated
+        int valueIndex = index == series.getEndIndex() ? index - 1 : index;
+        List<Object[]> values = new ArrayList<>(nodes.size());
+        for (Object node : nodes) {
+            values.add(lastValues(node, series, Math.max(firstIndex, valueIndex - depth + 1), valueIndex));
+        }
+        return new IndicatorCheckpoint(index, series.getBar(index).getEndTime(), valueIndex, classNames, states,
+                values);
+    }
+
+    /**
+     * @return the values of a cached indicator of the series from an index to
+     *         another one (included), null if not a cached indicator of Num or
+     *         Boolean values
+     */
+    private static Object[] lastValues(Object node, BarSeries series, int fromIndex, int toIndex) {
+        if (!(node instanceof CachedIndicator) || ((CachedIndicator<?>) node).getBarSeries() != series) {
+            return null;
+        }
+        Object[] lastValues = new Object[Math.max(0, toIndex - fromIndex + 1)];
+        for (int i = fromIndex; i <= toIndex; i++) {
+            Object value = ((CachedIndicator<?>) node).getValue(i);
+            if (value instanceof Num) {
+                lastValues[i - fromIndex] = delegate((Num) value);
+            } else if (value instanceof Boolean) {
+                lastValues[i - fromIndex] = value;
+            } else {
+                return null;
+            }
+        }
+        return lastValues;
+    }
+
+    /**
+     * Restores the checkpoint into a definition.
+     *
+     * The definition must be the one of the checkpoint, built on a new series
+     * holding the checkpoint bar, and not evaluated yet.
+     *
+     * @param definition the definition (strategy, rule, indicator or an array or
+     *                   list of them)
+     * @param series     the bar series of the definition
+     * @return the index of the checkpoint bar in the series
+     * @throws IllegalArgumentException if the definition is not the one of the
+     *                                  checkpoint, or the series does not hold the
+     *                                  checkpoint bar
+     */
+    public int restore(Object definition, BarSeries series) {
+        List<Object> nodes = FingerprintUtils.nodes(definition);
+        List<String> nodeClassNames = new ArrayList<>(nodes.size());
+        for (Object node : nodes) {
+            nodeClassNames.add(node.getClass().getName());
+        }
+        if (!nodeClassNames.equals(classNames)) {
+            throw new IllegalArgumentException("The definition is not the one of the checkpoint");
+        }
+        int restoredIndex = findIndex(series);
+        int offset = restoredIndex - index;
+        for (int n = 0; n < nodes.size(); n++) {
+            Object node = nodes.get(n);
+            if (node instanceof Checkpointable) {
+                ((Checkpointable) node).restoreState(new State(states.get(n), offset, series));
+            }
+            Object[] lastValues = values.get(n);
+            if (lastValues != null && node instanceof CachedIndicator) {
+                restoreValues((CachedIndicator<?>) node, lastValues, valueIndex + offset, series);
+            }
+        }
+        return restoredIndex;
+    }
+
+    /**
+     * @return the index of the checkpoint bar in the series
+     */
+    private int findIndex(BarSeries series) {
+        if (!series.isEmpty()) {
+            int firstIndex = Math.max(series.getBeginIndex(), series.getRemovedBarsCount());
+            for (int i = series.getEndIndex(); i >= firstIndex; i--) {
+                ZonedDateTime barEndTime = series.getBar(i).getEndTime();
+                if (barEndTime.isEqual(endTime)) {
+                    return i;
+                }
+                if (barEndTime.isBefore(endTime)) {
+                    break;
+                }
+            }
+        }
+        throw new IllegalArgumentException("The series does not hold the checkpoint bar (ending at " + endTime + ")");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void restoreValues(CachedIndicator<T> indicator, Object[] lastValues, int toIndex,
+            BarSeries series) {
+        int fromIndex = toIndex - lastValues.length + 1;
+        Object[] restoredValues = new Object[lastValues.length];
+        for (int i = 0; i < lastValues.length; i++) {
+            restoredValues[i] = lastValues[i] instanceof Number ? toNum((Number) lastValues[i], series)
+                    : lastValues[i];
+        }
+        indicator.setStoredValues(i -> i >= fromIndex ? (T) restoredValues[i - fromIndex] : null, toIndex + 1);
+    }
+
+    /**
+     * Checks that a class which is not {@link Checkpointable} has no mutable state
+     * field (the cache is restored by its values).
+     *
+     * @throws IllegalArgumentException if the class has a mutable state field
+     */
+    private static void checkStateless(Class<?> type) {
+        for (Class<?> c = type; c != null && c != Object.class && c != CachedIndicator.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                Class<?> fieldType = field.getType();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !Modifier.isTransient(modifiers)
+                        && (fieldType == int.class || fieldType == long.class || fieldType == double.class
+                                || fieldType == boolean.class || fieldType == Num.class)) {
+                    throw new IllegalArgumentException(type.getName() + " has a mutable state (field "
+                            + field.getName() + ") but is not " + Checkpointable.class.getSimpleName());
+                }
+            }
+        }
+    }
+
+    private static Number delegate(Num num) {
+        return num.isNaN() ? Double.NaN : num.getDelegate();
+    }
+
+    private static Num toNum(Number delegate, BarSeries series) {
+        if (delegate instanceof Double && ((Double) delegate).isNaN()) {
+            return NaN.NaN;
+        }
+        return series.numOf(delegate);
+    }
+
+    /**
+     * @return the index of the checkpoint bar in the series of the checkpoint
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the end time of the checkpoint bar
+     */
+    public ZonedDateTime getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Writes the checkpoint.
+     *
+     * @param out the output stream (not closed)
+     * @throws IOException if the checkpoint cannot be written
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(FORMAT_MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(index);
+        data.writeLong(endTime.toEpochSecond());
+        data.writeInt(endTime.getNano());
+        data.writeUTF(endTime.getZone().getId());
+        data.writeInt(valueIndex);
+        data.writeInt(classNames.size());
+        for (int n = 0; n < classNames.size(); n++) {
+            data.writeUTF(classNames.get(n));
+            Map<String, Object> state = states.get(n);
+            data.writeInt(state.size());
+            for (Map.Entry<String, Object> entry : state.entrySet()) {
+                data.writeUTF(entry.getKey());
+                writeValue(data, entry.getValue());
+            }
+            Object[] lastValues = values.get(n);
+            data.writeInt(lastValues == null ? -1 : lastValues.length);
+            if (lastValues != null) {
+                for (Object value : lastValues) {
+                    writeValue(data, value);
+                }
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a checkpoint.
+     *
+     * @param in the input stream (not closed)
+     * @return the checkpoint
+     * @throws IOException if the checkpoint cannot be read
+     */
+    public static IndicatorCheckpoint read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != FORMAT_MAGIC || data.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a checkpoint");
+        }
+        int index = data.readInt();
+        Instant endInstant = Instant.ofEpochSecond(data.readLong(), data.readInt());
+        ZonedDateTime endTime = ZonedDateTime.ofInstant(endInstant, ZoneId.of(data.readUTF()));
+        int valueIndex = data.readInt();
+        int nodeCount = data.readInt();
+        List<String> classNames = new ArrayList<>(nodeCount);
+        List<Map<String, Object>> states = new ArrayList<>(nodeCount);
+        List<Object[]> values = new ArrayList<>(nodeCount);
+        for (int n = 0; n < nodeCount; n++) {
+            classNames.add(data.readUTF());
+            int fieldCount = data.readInt();
+            Map<String, Object> state = new LinkedHashMap<>();
+            for (int f = 0; f < fieldCount; f++) {
+                state.put(data.readUTF(), readValue(data));
+            }
+            states.add(state);
+            int valueCount = data.readInt();
+            Object[] lastValues = valueCount < 0 ? null : new Object[valueCount];
+            for (int i = 0; i < valueCount; i++) {
+                lastValues[i] = readValue(data);
+            }
+            values.add(lastValues);
+        }
+        return new IndicatorCheckpoint(index, endTime, valueIndex, classNames, states, values);
+    }
+
+    private static void writeValue(DataOutputStream data, Object value) throws IOException {
+        if (value == null) {
+            data.writeByte(NULL);
+        } else if (value instanceof Boolean) {
+            data.writeByte(BOOLEAN);
+            data.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            data.writeByte(INT);
+            data.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            data.writeByte(LONG);
+            data.writeLong((Long) value);
+        } else if (value instanceof BigDecimal) {
+            data.writeByte(DECIMAL);
+            data.writeUTF(value.toString());
+        } else {
+            data.writeByte(DOUBLE);
+            data.writeDouble(((Number) value).doubleValue());
+        }
+    }
+
+    private static Object readValue(DataInputStream data) throws IOException {
+        byte tag = data.readByte();
+        switch (tag) {
+        case NULL:
+            return null;
+        case BOOLEAN:
+            return data.readBoolean();
+        case INT:
+            return data.readInt();
+        case LONG:
+            return data.readLong();
+        case DOUBLE:
+            return data.readDouble();
+        case DECIMAL:
+            return new BigDecimal(data.readUTF());
+        default:
+            throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    /**
+     * The state of a {@link Checkpointable} node, by key.
+     */
+    public static final class State {
+
+        private final Map<String, Object> values;
+
+        /** The shift from the bar indexes of the checkpoint to the restored ones */
+        private final int offset;
+        private final BarSeries series;
+
+        private State(Map<String, Object> values, int offset, BarSeries series) {
+            this.values = values;
+            this.offset = offset;
+            this.series = series;
+        }
+
+        public void putInt(String key, int value) {
+            values.put(key, value);
+        }
+
+        public void putLong(String key, long value) {
+            values.put(key, value);
+        }
+
+        public void putDouble(String key, double value) {
+            values.put(key, value);
+        }
+
+        public void putBoolean(String key, boolean value) {
+            values.put(key, value);
+        }
+
+        /**
+         * @param key   the key
+         * @param value a number (may be null)
+         */
+        public void putNum(String key, Num value) {
+            values.put(key, value == null ? null : delegate(value));
+        }
+
+        /**
+         * @param key   the key
+         * @param index a bar index, shifted on restore (a negative value, i.e. no
+         *              index, is not shifted)
+         */
+        public void putIndex(String key, int index) {
+            values.put(key, index);
+        }
+
+        public int getInt(String key) {
+            return ((Number) get(key)).intValue();
+        }
+
+        public long getLong(String key) {
+            return ((Number) get(key)).longValue();
+        }
+
+        public double getDouble(String key) {
+            return ((Number) get(key)).doubleValue();
+        }
+
+        public boolean getBoolean(String key) {
+            return (Boolean) get(key);
+        }
+
+        /**
+         * @param key the key
+         * @return the number, in the num type of the restored series (may be null)
+         */
+        public Num getNum(String key) {
+            Object value = get(key);
+            return value == null ? null : toNum((Number) value, series);
+        }
+
+        /**
+         * @param key the key
+         * @return the bar index, in the restored series
+         */
+        public int getIndex(String key) {
+            int index = getInt(key);
+            return index < 0 ? index : index + offset;
+        }
+
+        private Object get(String key) {
+            if (!values.containsKey(key)) {
+                throw new IllegalArgumentException("No state " + key + " in the checkpoint");
+            }
+            return values.get(key);
+        }
+    }
+}
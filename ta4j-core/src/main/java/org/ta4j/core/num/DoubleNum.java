@@ -59,6 +59,10 @@ public class DoubleNum implements Num {
         return new DoubleNum((double) i);
     }
 
+    public static DoubleNum valueOf(double i) {
+        return new DoubleNum(i);
+    }
+
     public static DoubleNum valueOf(String i) {
         return new DoubleNum(Double.parseDouble(i));
     }
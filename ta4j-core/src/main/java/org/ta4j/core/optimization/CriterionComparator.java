@@ -0,0 +1,58 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.optimization;
+
+import java.util.Comparator;
+
+import org.ta4j.core.AnalysisCriterion;
+import org.ta4j.core.num.Num;
+
+/**
+ * Orders the values of a criterion, best first.
+ *
+ * {@link AnalysisCriterion#betterThan(Num, Num)} is false for NaN values (e.g.
+ * the return over max drawdown of a run without drawdown), which would then be
+ * equal to all the others and break the ordering. They are ranked last.
+ */
+final class CriterionComparator implements Comparator<Num> {
+
+    private final AnalysisCriterion criterion;
+
+    CriterionComparator(AnalysisCriterion criterion) {
+        this.criterion = criterion;
+    }
+
+    @Override
+    public int compare(Num value1, Num value2) {
+        boolean isNaN1 = value1.isNaN();
+        boolean isNaN2 = value2.isNaN();
+        if (isNaN1 || isNaN2) {
+            return Boolean.compare(isNaN1, isNaN2);
+        }
+        if (criterion.betterThan(value1, value2)) {
+            return -1;
+        }
+        return criterion.betterThan(value2, value1) ? 1 : 0;
+    }
+}
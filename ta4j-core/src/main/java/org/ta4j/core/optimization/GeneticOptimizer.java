@@ -0,0 +1,449 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.optimization;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.ta4j.core.AnalysisCriterion;
+import org.ta4j.core.BarSeriesManager;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.num.Num;
+
+/**
+ * An optimizer searching the {@link ParameterSpace parameters} of a strategy,
+ * by a genetic algorithm or by a random search.
+ *
+ * The strategies are built from {@link Genome genomes} by a
+ * {@link StrategyBuilder}, run by a {@link BarSeriesManager}, and their fitness
+ * is the value of an {@link AnalysisCriterion}. The genetic algorithm:
+ * <ol>
+ * <li>draws a random initial population
+ * <li>keeps the {@link #setEliteCount(int) best individuals} as they are
+ * <li>breeds the rest of the next generation by tournament selection, uniform
+ * crossover and mutation (each parameter being mutated with the
+ * {@link #setMutationRate(double) mutation rate})
+ * <li>and so on, for a {@link #setGenerationCount(int) number of generations}
+ * </ol>
+ *
+ * The fitness of the individuals of a generation is evaluated in parallel, and
+ * cached by genome: an individual reappearing in a later generation (e.g. an
+ * elite) is not run again. The strategies built by a same thread share an
+ * {@link IndicatorPool}.
+ *
+ * All the random draws are made by the calling thread, from the seed: an
+ * optimization is reproducible whatever the pool evaluating the fitness.
+ */
+public class GeneticOptimizer {
+
+    /** The manager running the strategies */
+    private final BarSeriesManager manager;
+
+    /** The criterion giving the fitness */
+    private final AnalysisCriterion criterion;
+
+    /** The searched parameters */
+    private final ParameterSpace space;
+
+    /** The builder of the strategies */
+    private final StrategyBuilder builder;
+
+    private TradeType tradeType = TradeType.BUY;
+    private int populationSize = 50;
+    private int generationCount = 20;
+    private int eliteCount = 2;
+    private int tournamentSize = 3;
+    private double mutationRate = 0.1;
+
+    /**
+     * Constructor.
+     *
+     * By default, the positions are opened with buy trades, and 20 generations
+     * of 50 individuals are bred, keeping 2 elites, with tournaments of 3
+     * individuals and a mutation rate of 0.1.
+     *
+     * @param manager   the manager running the strategies
+     * @param criterion the criterion giving the fitness
+     * @param space     the searched parameters
+     * @param builder   the builder of the strategies
+     */
+    public GeneticOptimizer(BarSeriesManager manager, AnalysisCriterion criterion, ParameterSpace space,
+            StrategyBuilder builder) {
+        this.manager = manager;
+        this.criterion = criterion;
+        this.space = space;
+        this.builder = builder;
+    }
+
+    /**
+     * @param tradeType the {@link TradeType} used to open the positions
+     * @return this optimizer
+     */
+    public GeneticOptimizer setTradeType(TradeType tradeType) {
+        this.tradeType = tradeType;
+        return this;
+    }
+
+    /**
+     * @param populationSize the number of individuals of a generation (at least
+     *                       2)
+     * @return this optimizer
+     */
+    public GeneticOptimizer setPopulationSize(int populationSize) {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("Population size must be at least 2");
+        }
+        this.populationSize = populationSize;
+        return this;
+    }
+
+    /**
+     * @param generationCount the number of generations (at least 1)
+     * @return this optimizer
+     */
+    public GeneticOptimizer setGenerationCount(int generationCount) {
+        if (generationCount < 1) {
+            throw new IllegalArgumentException("Generation count must be positive");
+        }
+        this.generationCount = generationCount;
+        return this;
+    }
+
+    /**
+     * @param eliteCount the number of best individuals kept as they are in the
+     *                   next generation
+     * @return this optimizer
+     */
+    public GeneticOptimizer setEliteCount(int eliteCount) {
+        if (eliteCount < 0) {
+            throw new IllegalArgumentException("Elite count must not be negative");
+        }
+        this.eliteCount = eliteCount;
+        return this;
+    }
+
+    /**
+     * @param tournamentSize the number of individuals competing to be selected as
+     *                       a parent (at least 1)
+     * @return this optimizer
+     */
+    public GeneticOptimizer setTournamentSize(int tournamentSize) {
+        if (tournamentSize < 1) {
+            throw new IllegalArgumentException("Tournament size must be positive");
+        }
+        this.tournamentSize = tournamentSize;
+        return this;
+    }
+
+    /**
+     * @param mutationRate the probability of a parameter of a child to be mutated
+     * @return this optimizer
+     */
+    public GeneticOptimizer setMutationRate(double mutationRate) {
+        if (!(mutationRate >= 0 && mutationRate <= 1)) {
+            throw new IllegalArgumentException("Mutation rate must be between 0 and 1");
+        }
+        this.mutationRate = mutationRate;
+        return this;
+    }
+
+    /**
+     * Optimizes by a genetic algorithm, on the common pool.
+     *
+     * @param seed the seed of the random draws
+     * @return the result of the optimization
+     */
+    public Result optimize(long seed) {
+        return optimize(seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Optimizes by a genetic algorithm.
+     *
+     * @param seed the seed of the random draws
+     * @param pool the pool evaluating the fitness
+     * @return the result of the optimization
+     */
+    public Result optimize(long seed, ForkJoinPool pool) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Search search = new Search(pool);
+        List<Individual> population = new ArrayList<>(populationSize);
+        List<Genome> genomes = new ArrayList<>(populationSize);
+        for (int i = 0; i < populationSize; i++) {
+            genomes.add(space.sample(random));
+        }
+        for (int generation = 0; generation < generationCount; generation++) {
+            population = search.evaluate(genomes, generation);
+            population.sort(comparator());
+            if (generation == generationCount - 1) {
+                break;
+            }
+            genomes = new ArrayList<>(populationSize);
+            for (int i = 0; i < Math.min(eliteCount, populationSize); i++) {
+                genomes.add(population.get(i).genome);
+            }
+            while (genomes.size() < populationSize) {
+                Genome mother = select(population, random);
+                Genome father = select(population, random);
+                genomes.add(breed(mother, father, random));
+            }
+        }
+        return search.result(generationCount);
+    }
+
+    /**
+     * Optimizes by a random search, on the common pool.
+     *
+     * @param sampleCount the number of genomes drawn
+     * @param seed        the seed of the random draws
+     * @return the result of the optimization
+     */
+    public Result randomSearch(int sampleCount, long seed) {
+        return randomSearch(sampleCount, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Optimizes by a random search: the genomes are drawn uniformly from the
+     * parameter space.
+     *
+     * @param sampleCount the number of genomes drawn
+     * @param seed        the seed of the random draws
+     * @param pool        the pool evaluating the fitness
+     * @return the result of the optimization
+     */
+    public Result randomSearch(int sampleCount, long seed, ForkJoinPool pool) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Search search = new Search(pool);
+        List<Genome> genomes = new ArrayList<>(sampleCount);
+        for (int i = 0; i < sampleCount; i++) {
+            genomes.add(space.sample(random));
+        }
+        search.evaluate(genomes, 0);
+        return search.result(1);
+    }
+
+    /**
+     * @return the winner of a tournament among random individuals
+     */
+    private Genome select(List<Individual> population, SplittableRandom random) {
+        Individual winner = population.get(random.nextInt(population.size()));
+        for (int i = 1; i < tournamentSize; i++) {
+            Individual challenger = population.get(random.nextInt(population.size()));
+            if (comparator().compare(challenger, winner) < 0) {
+                winner = challenger;
+            }
+        }
+        return winner.genome;
+    }
+
+    /**
+     * @return a child of the parents, by uniform crossover and mutation
+     */
+    private Genome breed(Genome mother, Genome father, SplittableRandom random) {
+        double[] values = new double[space.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextBoolean() ? mother.values()[i] : father.values()[i];
+            if (random.nextDouble() < mutationRate) {
+                values[i] = space.getParameters().get(i).mutate(values[i], random);
+            }
+        }
+        return new Genome(space, values);
+    }
+
+    /**
+     * @return the comparator of the individuals (best first)
+     */
+    private Comparator<Individual> comparator() {
+        return Comparator.comparing(i -> i.value, new CriterionComparator(criterion));
+    }
+
+    /**
+     * The state of an optimization: the fitness cache and the indicator pools.
+     */
+    private class Search {
+
+        private final ForkJoinPool pool;
+
+        /** The evaluated individuals, by genome (in evaluation order) */
+        private final Map<Genome, Individual> cache = new LinkedHashMap<>();
+
+        /**
+         * The indicator pool of each thread, held by the search only: the pools are
+         * dropped with it when the optimization returns, not kept by the threads of
+         * the pool
+         */
+        private final Map<Thread, IndicatorPool> indicatorPools = new ConcurrentHashMap<>();
+
+        private int requestCount;
+
+        private Search(ForkJoinPool pool) {
+            this.pool = pool;
+        }
+
+        /**
+         * @return the individuals of the genomes, evaluating the ones not cached
+         */
+        private List<Individual> evaluate(List<Genome> genomes, int generation) {
+            requestCount += genomes.size();
+            List<Genome> missing = genomes.stream().distinct().filter(genome -> !cache.containsKey(genome))
+                    .collect(Collectors.toList());
+            List<Individual> evaluated = pool
+                    .submit(() -> missing.parallelStream()
+                            .map(genome -> new Individual(genome, fitness(genome), generation))
+                            .collect(Collectors.toList()))
+                    .join();
+            for (Individual individual : evaluated) {
+                cache.put(individual.genome, individual);
+            }
+            return genomes.stream().map(cache::get).collect(Collectors.toList());
+        }
+
+        private Num fitness(Genome genome) {
+            Strategy strategy = builder.build(genome, indicatorPools.computeIfAbsent(Thread.currentThread(),
+                    thread -> new IndicatorPool(manager.getBarSeries())));
+            return criterion.calculate(manager.getBarSeries(), manager.run(strategy, tradeType));
+        }
+
+        private Result result(int generationCount) {
+            List<Individual> ranking = new ArrayList<>(cache.values());
+            ranking.sort(comparator());
+            return new Result(ranking, generationCount, requestCount - cache.size());
+        }
+    }
+
+    /**
+     * An evaluated genome.
+     */
+    public static class Individual {
+
+        private final Genome genome;
+
+        private final Num value;
+
+        private final int generation;
+
+        private Individual(Genome genome, Num value, int generation) {
+            this.genome = genome;
+            this.value = value;
+            this.generation = generation;
+        }
+
+        /**
+         * @return the genome
+         */
+        public Genome getGenome() {
+            return genome;
+        }
+
+        /**
+         * @return the criterion value of the strategy of the genome
+         */
+        public Num getValue() {
+            return value;
+        }
+
+        /**
+         * @return the first generation in which the genome appeared
+         */
+        public int getGeneration() {
+            return generation;
+        }
+
+        @Override
+        public String toString() {
+            return genome + " -> " + value;
+        }
+    }
+
+    /**
+     * The result of an optimization.
+     */
+    public class Result {
+
+        private final List<Individual> ranking;
+
+        private final int generationCount;
+
+        private final int cacheHitCount;
+
+        private Result(List<Individual> ranking, int generationCount, int cacheHitCount) {
+            this.ranking = Collections.unmodifiableList(ranking);
+            this.generationCount = generationCount;
+            this.cacheHitCount = cacheHitCount;
+        }
+
+        /**
+         * @return all the evaluated individuals (each genome once), best first
+         */
+        public List<Individual> getRanking() {
+            return ranking;
+        }
+
+        /**
+         * @return the best individual (null if none was evaluated)
+         */
+        public Individual getBest() {
+            return ranking.isEmpty() ? null : ranking.get(0);
+        }
+
+        /**
+         * @return a new strategy built from the best genome (null if none was
+         *         evaluated)
+         */
+        public Strategy getBestStrategy() {
+            return ranking.isEmpty() ? null
+                    : builder.build(ranking.get(0).genome, new IndicatorPool(manager.getBarSeries()));
+        }
+
+        /**
+         * @return the number of generations
+         */
+        public int getGenerationCount() {
+            return generationCount;
+        }
+
+        /**
+         * @return the number of strategies run (i.e. of distinct genomes)
+         */
+        public int getEvaluationCount() {
+            return ranking.size();
+        }
+
+        /**
+         * @return the number of fitness requests answered by the cache
+         */
+        public int getCacheHitCount() {
+            return cacheHitCount;
+        }
+    }
+}
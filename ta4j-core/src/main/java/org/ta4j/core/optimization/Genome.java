@@ -0,0 +1,141 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.optimization;
+
+import java.util.Arrays;
+
+/**
+ * A point of a {@link ParameterSpace}: the values of all its parameters.
+ *
+ * The values are stored as doubles (integer and choice values being whole
+ * numbers). Two genomes of the same space are equal if their values are, so
+ * that genomes can key the fitness cache of an optimizer.
+ */
+public final class Genome {
+
+    private final ParameterSpace space;
+
+    private final double[] values;
+
+    private final int hashCode;
+
+    Genome(ParameterSpace space, double[] values) {
+        this.space = space;
+        this.values = values;
+        this.hashCode = Arrays.hashCode(values);
+    }
+
+    /**
+     * @return the parameter space of the genome
+     */
+    public ParameterSpace getSpace() {
+        return space;
+    }
+
+    /**
+     * @param index the index of a parameter
+     * @return the value of the parameter
+     */
+    public double getDouble(int index) {
+        return values[index];
+    }
+
+    /**
+     * @param name the name of a parameter
+     * @return the value of the parameter
+     */
+    public double getDouble(String name) {
+        return values[indexOf(name)];
+    }
+
+    /**
+     * @param index the index of an integer or choice parameter
+     * @return the value of the parameter
+     */
+    public int getInt(int index) {
+        return (int) values[index];
+    }
+
+    /**
+     * @param name the name of an integer or choice parameter
+     * @return the value of the parameter
+     */
+    public int getInt(String name) {
+        return (int) values[indexOf(name)];
+    }
+
+    /**
+     * @return a copy of the values of the parameters
+     */
+    public double[] getValues() {
+        return values.clone();
+    }
+
+    /**
+     * @return the number of values (i.e. of parameters)
+     */
+    public int size() {
+        return values.length;
+    }
+
+    double[] values() {
+        return values;
+    }
+
+    private int indexOf(String name) {
+        int index = space.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown parameter: " + name);
+        }
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Genome)) {
+            return false;
+        }
+        return Arrays.equals(values, ((Genome) obj).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Genome{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(space.getParameters().get(i).getName()).append('=').append(values[i]);
+        }
+        return sb.append('}').toString();
+    }
+}
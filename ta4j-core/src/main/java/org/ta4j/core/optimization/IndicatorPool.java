@@ -0,0 +1,91 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.optimization;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+
+/**
+ * A pool of indicators shared by the strategies built by a
+ * {@link StrategyBuilder}.
+ *
+ * The strategies built from different genomes often use indicators with the
+ * same sub-parameters (e.g. the same short moving average, with different long
+ * ones). Getting those indicators from the pool, keyed by their parameters,
+ * lets the strategies share them, and their cached values.
+ *
+ * A pool is not thread-safe (like the cached indicators it holds): the
+ * {@link GeneticOptimizer} gives one pool to each of its threads.
+ */
+public class IndicatorPool {
+
+    private final BarSeries series;
+
+    private final Map<List<Object>, Indicator<?>> indicators = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param series the bar series of the indicators
+     */
+    public IndicatorPool(BarSeries series) {
+        this.series = series;
+    }
+
+    /**
+     * @return the bar series of the indicators
+     */
+    public BarSeries getBarSeries() {
+        return series;
+    }
+
+    /**
+     * Gets the indicator of a key, creating it if it is not pooled yet.
+     *
+     * The key must identify the indicator and all its parameters (e.g.
+     * {@code get(() -> new SMAIndicator(close, 20), "sma", 20)}).
+     *
+     * @param factory the factory of the indicator
+     * @param key     the key of the indicator
+     * @param <T>     the type of the indicator
+     * @return the pooled indicator
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Indicator<?>> T get(Supplier<T> factory, Object... key) {
+        return (T) indicators.computeIfAbsent(Arrays.asList(key), k -> factory.get());
+    }
+
+    /**
+     * @return the number of pooled indicators
+     */
+    public int size() {
+        return indicators.size();
+    }
+}
@@ -0,0 +1,276 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.optimization;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The parameter space searched by a {@link GeneticOptimizer}.
+ *
+ * A space is an ordered list of named parameters, each one being either:
+ * <ul>
+ * <li>an integer in a range (e.g. the bar count of a moving average)
+ * <li>a decimal in a range (e.g. a threshold or a stop loss percentage)
+ * <li>a choice among a number of alternatives (e.g. the rule closing the
+ * positions)
+ * </ul>
+ * A point of the space is a {@link Genome}.
+ */
+public class ParameterSpace {
+
+    private final List<Parameter> parameters = new ArrayList<>();
+
+    /**
+     * Adds an integer parameter.
+     *
+     * @param name the name of the parameter
+     * @param min  the minimum value (included)
+     * @param max  the maximum value (included)
+     * @return this space
+     */
+    public ParameterSpace addInteger(String name, int min, int max) {
+        return add(new IntegerParameter(name, min, max));
+    }
+
+    /**
+     * Adds a decimal parameter.
+     *
+     * @param name the name of the parameter
+     * @param min  the minimum value (included)
+     * @param max  the maximum value (included)
+     * @return this space
+     */
+    public ParameterSpace addDecimal(String name, double min, double max) {
+        return add(new DecimalParameter(name, min, max));
+    }
+
+    /**
+     * Adds a choice parameter, whose values are the indexes of the alternatives.
+     *
+     * @param name        the name of the parameter
+     * @param choiceCount the number of alternatives
+     * @return this space
+     */
+    public ParameterSpace addChoice(String name, int choiceCount) {
+        return add(new ChoiceParameter(name, choiceCount));
+    }
+
+    private ParameterSpace add(Parameter parameter) {
+        if (indexOf(parameter.getName()) >= 0) {
+            throw new IllegalArgumentException("Duplicate parameter: " + parameter.getName());
+        }
+        parameters.add(parameter);
+        return this;
+    }
+
+    /**
+     * @return the parameters of the space
+     */
+    public List<Parameter> getParameters() {
+        return Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * @return the number of parameters
+     */
+    public int size() {
+        return parameters.size();
+    }
+
+    /**
+     * @param name the name of a parameter
+     * @return the index of the parameter (-1 if none)
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < parameters.size(); i++) {
+            if (parameters.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param values the values of the parameters (clamped into their ranges)
+     * @return the genome of the values
+     */
+    public Genome genome(double... values) {
+        if (values.length != parameters.size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + parameters.size() + " values, got " + values.length);
+        }
+        double[] clamped = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            clamped[i] = parameters.get(i).clamp(values[i]);
+        }
+        return new Genome(this, clamped);
+    }
+
+    /**
+     * @param random the random generator
+     * @return a genome drawn uniformly from the space
+     */
+    Genome sample(SplittableRandom random) {
+        double[] values = new double[parameters.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = parameters.get(i).sample(random);
+        }
+        return new Genome(this, values);
+    }
+
+    /**
+     * A parameter of the space.
+     */
+    public abstract static class Parameter {
+
+        private final String name;
+
+        private Parameter(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return the name of the parameter
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @param random the random generator
+         * @return a value drawn uniformly from the parameter range
+         */
+        abstract double sample(SplittableRandom random);
+
+        /**
+         * @param value  a value of the parameter
+         * @param random the random generator
+         * @return a value near the given one (another alternative for a choice)
+         */
+        abstract double mutate(double value, SplittableRandom random);
+
+        /**
+         * @param value a value
+         * @return the nearest valid value of the parameter
+         */
+        abstract double clamp(double value);
+    }
+
+    private static final class IntegerParameter extends Parameter {
+
+        private final int min;
+        private final int max;
+
+        private IntegerParameter(String name, int min, int max) {
+            super(name);
+            if (min > max) {
+                throw new IllegalArgumentException("Empty range for parameter " + name);
+            }
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        double sample(SplittableRandom random) {
+            return random.nextInt(min, max + 1);
+        }
+
+        @Override
+        double mutate(double value, SplittableRandom random) {
+            int step = Math.max(1, (max - min) / 10);
+            return clamp(value + random.nextInt(-step, step + 1));
+        }
+
+        @Override
+        double clamp(double value) {
+            return Math.max(min, Math.min(max, Math.round(value)));
+        }
+    }
+
+    private static final class DecimalParameter extends Parameter {
+
+        private final double min;
+        private final double max;
+
+        private DecimalParameter(String name, double min, double max) {
+            super(name);
+            if (!(min <= max)) {
+                throw new IllegalArgumentException("Empty range for parameter " + name);
+            }
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        double sample(SplittableRandom random) {
+            return min + random.nextDouble() * (max - min);
+        }
+
+        @Override
+        double mutate(double value, SplittableRandom random) {
+            return clamp(value + (random.nextDouble() * 2 - 1) * (max - min) / 10);
+        }
+
+        @Override
+        double clamp(double value) {
+            return Math.max(min, Math.min(max, value));
+        }
+    }
+
+    private static final class ChoiceParameter extends Parameter {
+
+        private final int choiceCount;
+
+        private ChoiceParameter(String name, int choiceCount) {
+            super(name);
+            if (choiceCount < 1) {
+                throw new IllegalArgumentException("No alternative for parameter " + name);
+            }
+            this.choiceCount = choiceCount;
+        }
+
+        @Override
+        double sample(SplittableRandom random) {
+            return random.nextInt(choiceCount);
+        }
+
+        @Override
+        double mutate(double value, SplittableRandom random) {
+            if (choiceCount == 1) {
+                return value;
+            }
+            // another alternative, uniformly
+            int choice = random.nextInt(choiceCount - 1);
+            return choice >= value ? choice + 1 : choice;
+        }
+
+        @Override
+        double clamp(double value) {
+            return Math.max(0, Math.min(choiceCount - 1, Math.round(value)));
+        }
+    }
+}
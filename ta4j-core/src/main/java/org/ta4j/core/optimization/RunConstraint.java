@@ -0,0 +1,68 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.optimization;
+
+import org.ta4j.core.EquityTrackingTradingRecord;
+
+/**
+ * A hard constraint on a strategy run, checked after each bar.
+ *
+ * A run violating one of its constraints is aborted, and its candidate is
+ * dropped by the optimizer.
+ */
+@FunctionalInterface
+public interface RunConstraint {
+
+    /**
+     * @param index         the index of the last bar of the run
+     * @param tradingRecord the trading record of the run, advanced up to the
+     *                      index
+     * @return true if the run violates the constraint
+     */
+    boolean isViolated(int index, EquityTrackingTradingRecord tradingRecord);
+
+    /**
+     * Constraint on the maximum drawdown of the equity (including the open
+     * position).
+     *
+     * @param maxDrawdown the maximum drawdown (e.g. 0.2 for 20%)
+     * @return the constraint
+     */
+    static RunConstraint maxDrawdown(double maxDrawdown) {
+        return (index, tradingRecord) -> tradingRecord.getMaxDrawdown().doubleValue() > maxDrawdown;
+    }
+
+    /**
+     * Constraint on the minimum number of closed positions within the first bars
+     * of the run.
+     *
+     * @param positionCount the minimum number of closed positions
+     * @param barCount      the number of bars (from the beginning of the series)
+     * @return the constraint
+     */
+    static RunConstraint minPositionCount(int positionCount, int barCount) {
+        return (index, tradingRecord) -> index - tradingRecord.getBarSeries().getBeginIndex() + 1 >= barCount
+                && tradingRecord.getPositionCount() < positionCount;
+    }
+}
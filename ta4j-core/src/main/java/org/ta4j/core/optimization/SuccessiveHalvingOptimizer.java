@@ -0,0 +1,388 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.optimization;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.ta4j.core.AnalysisCriterion;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.EquityTrackingTradingRecord;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.num.Num;
+
+/**
+ * An optimizer choosing the best strategies by successive halving.
+ *
+ * Instead of running every candidate strategy over the whole series (see
+ * {@link AnalysisCriterion#chooseBest}), the candidates are run over growing
+ * prefixes of the series:
+ * <ol>
+ * <li>all the candidates are run over the first
+ * {@link #setMinimumBarCount(int) bars}
+ * <li>only the best 1/{@link #setReductionFactor(int) reduction factor} of
+ * them (according to the criterion) are kept, and their runs are continued
+ * over a prefix longer by the reduction factor
+ * <li>and so on, until the remaining candidates are run over the whole series
+ * </ol>
+ * The runs are continued (not restarted) from one prefix to the next, so that
+ * a candidate reaching the whole series costs the same as a single run.
+ *
+ * The runs are also checked against hard {@link RunConstraint constraints}
+ * after each bar: a run violating a constraint is aborted, and its candidate is
+ * dropped.
+ *
+ * The criterion is calculated, on each prefix, with the trading record of the
+ * run up to the last bar of the prefix (only its closed positions are
+ * accounted for by most criteria).
+ */
+public class SuccessiveHalvingOptimizer {
+
+    /** The bar series */
+    private final BarSeries series;
+
+    /** The criterion ranking the candidates */
+    private final AnalysisCriterion criterion;
+
+    /** The trading cost models */
+    private final CostModel transactionCostModel;
+    private final CostModel holdingCostModel;
+
+    /** The hard constraints of the runs */
+    private final List<RunConstraint> constraints = new ArrayList<>();
+
+    private TradeType tradeType = TradeType.BUY;
+    private Num amount;
+    private int reductionFactor = 3;
+    private int minimumBarCount;
+
+    /**
+     * Constructor (no trading costs).
+     *
+     * @param series    the bar series
+     * @param criterion the criterion ranking the candidates
+     */
+    public SuccessiveHalvingOptimizer(BarSeries series, AnalysisCriterion criterion) {
+        this(series, criterion, new ZeroCostModel(), new ZeroCostModel());
+    }
+
+    /**
+     * Constructor.
+     *
+     * By default, the positions are opened with buy trades of an amount of 1, the
+     * reduction factor is 3 and the minimum number of bars is 1/27 of the series
+     * (i.e. 4 rounds).
+     *
+     * @param series               the bar series
+     * @param criterion            the criterion ranking the candidates
+     * @param transactionCostModel the cost model for transactions of the asset
+     * @param holdingCostModel     the cost model for holding asset (e.g. borrowing)
+     */
+    public SuccessiveHalvingOptimizer(BarSeries series, AnalysisCriterion criterion,
+            CostModel transactionCostModel, CostModel holdingCostModel) {
+        this.series = series;
+        this.criterion = criterion;
+        this.transactionCostModel = transactionCostModel;
+        this.holdingCostModel = holdingCostModel;
+        this.amount = series.numOf(1);
+        this.minimumBarCount = Math.max(1, series.getBarCount() / 27);
+    }
+
+    /**
+     * @param tradeType the {@link TradeType} used to open the positions
+     * @return this optimizer
+     */
+    public SuccessiveHalvingOptimizer setTradeType(TradeType tradeType) {
+        this.tradeType = tradeType;
+        return this;
+    }
+
+    /**
+     * @param amount the amount used to open/close the trades
+     * @return this optimizer
+     */
+    public SuccessiveHalvingOptimizer setAmount(Num amount) {
+        this.amount = amount;
+        return this;
+    }
+
+    /**
+     * @param reductionFactor the factor by which the number of candidates is
+     *                        divided, and the number of bars multiplied, from one
+     *                        round to the next (at least 2)
+     * @return this optimizer
+     */
+    public SuccessiveHalvingOptimizer setReductionFactor(int reductionFactor) {
+        if (reductionFactor < 2) {
+            throw new IllegalArgumentException("Reduction factor must be at least 2");
+        }
+        this.reductionFactor = reductionFactor;
+        return this;
+    }
+
+    /**
+     * @param minimumBarCount the number of bars of the first round
+     * @return this optimizer
+     */
+    public SuccessiveHalvingOptimizer setMinimumBarCount(int minimumBarCount) {
+        if (minimumBarCount < 1) {
+            throw new IllegalArgumentException("Minimum bar count must be positive");
+        }
+        this.minimumBarCount = minimumBarCount;
+        return this;
+    }
+
+    /**
+     * @param constraint a hard constraint of the runs
+     * @return this optimizer
+     */
+    public SuccessiveHalvingOptimizer addConstraint(RunConstraint constraint) {
+        constraints.add(constraint);
+        return this;
+    }
+
+    /**
+     * Optimizes the candidates, sequentially.
+     *
+     * @param candidates the candidate strategies
+     * @return the result of the optimization
+     */
+    public Result optimize(List<Strategy> candidates) {
+        return optimize(candidates, null);
+    }
+
+    /**
+     * Optimizes the candidates, running the candidates of a round in parallel.
+     *
+     * The candidates must not share cached indicators, since the indicators are
+     * not thread-safe.
+     *
+     * @param candidates the candidate strategies
+     * @param pool       the pool running the candidates (null to run them
+     *                   sequentially)
+     * @return the result of the optimization
+     */
+    public Result optimize(List<Strategy> candidates, ForkJoinPool pool) {
+        List<Evaluation> evaluations = candidates.stream().map(Evaluation::new).collect(Collectors.toList());
+        List<Evaluation> remaining = evaluations;
+        int totalBarCount = series.getBarCount();
+        int prefixBarCount = Math.min(minimumBarCount, totalBarCount);
+        int round = 0;
+        while (!remaining.isEmpty() && totalBarCount > 0) {
+            int lastIndex = series.getBeginIndex() + prefixBarCount - 1;
+            List<Evaluation> runs = remaining;
+            if (pool == null) {
+                runs.forEach(evaluation -> evaluation.runTo(lastIndex));
+            } else {
+                pool.submit(() -> runs.parallelStream().forEach(evaluation -> evaluation.runTo(lastIndex))).join();
+            }
+            remaining = runs.stream().filter(evaluation -> evaluation.violatedConstraint == null)
+                    .sorted(comparator()).collect(Collectors.toList());
+            for (Evaluation evaluation : remaining) {
+                evaluation.round = round;
+            }
+            if (remaining.isEmpty() || prefixBarCount == totalBarCount) {
+                break;
+            }
+            int keptCount = Math.max(1, (remaining.size() + reductionFactor - 1) / reductionFactor);
+            remaining = remaining.subList(0, Math.min(keptCount, remaining.size()));
+            prefixBarCount = (int) Math.min(totalBarCount, (long) prefixBarCount * reductionFactor);
+            round++;
+        }
+        return new Result(evaluations, remaining, round);
+    }
+
+    /**
+     * @return the comparator of the evaluations (best first)
+     */
+    private Comparator<Evaluation> comparator() {
+        return Comparator.comparing(e -> e.value, new CriterionComparator(criterion));
+    }
+
+    /**
+     * The evaluation of a candidate strategy.
+     */
+    public class Evaluation {
+
+        private final Strategy strategy;
+
+        private final EquityTrackingTradingRecord tradingRecord;
+
+        /** The next index of the run */
+        private int nextIndex = series.getBeginIndex();
+
+        /** The criterion value on the last prefix */
+        private Num value;
+
+        /** The last round in which the candidate was ranked (-1 if none) */
+        private int round = -1;
+
+        /** The violated constraint (null if none) */
+        private RunConstraint violatedConstraint;
+
+        private Evaluation(Strategy strategy) {
+            this.strategy = strategy;
+            this.tradingRecord = new EquityTrackingTradingRecord(series, tradeType, transactionCostModel,
+                    holdingCostModel);
+        }
+
+        /**
+         * Continues the run up to an index (included), and calculates the criterion.
+         */
+        private void runTo(int lastIndex) {
+            for (int i = nextIndex; i <= lastIndex; i++) {
+                tradingRecord.advance(i);
+                if (strategy.shouldOperate(i, tradingRecord)) {
+                    tradingRecord.operate(i, series.getBar(i).getClosePrice(), amount);
+                }
+                for (RunConstraint constraint : constraints) {
+                    if (constraint.isViolated(i, tradingRecord)) {
+                        violatedConstraint = constraint;
+                        nextIndex = i + 1;
+                        return;
+                    }
+                }
+            }
+            nextIndex = lastIndex + 1;
+            value = criterion.calculate(series, tradingRecord);
+        }
+
+        /**
+         * @return the candidate strategy
+         */
+        public Strategy getStrategy() {
+            return strategy;
+        }
+
+        /**
+         * @return the trading record of the run, up to the last run bar
+         */
+        public EquityTrackingTradingRecord getTradingRecord() {
+            return tradingRecord;
+        }
+
+        /**
+         * @return the criterion value on the last prefix over which the candidate
+         *         was run (null if the run was aborted before the end of the first
+         *         prefix)
+         */
+        public Num getValue() {
+            return value;
+        }
+
+        /**
+         * @return the number of bars over which the candidate was run
+         */
+        public int getBarCount() {
+            return nextIndex - series.getBeginIndex();
+        }
+
+        /**
+         * @return the last round in which the candidate was ranked (-1 if its run was
+         *         aborted in the first round)
+         */
+        public int getRound() {
+            return round;
+        }
+
+        /**
+         * @return true if the candidate was run over the whole series
+         */
+        public boolean isComplete() {
+            return violatedConstraint == null && nextIndex > series.getEndIndex();
+        }
+
+        /**
+         * @return the constraint violated by the run (null if none)
+         */
+        public RunConstraint getViolatedConstraint() {
+            return violatedConstraint;
+        }
+    }
+
+    /**
+     * The result of an optimization.
+     */
+    public class Result {
+
+        private final List<Evaluation> evaluations;
+
+        private final List<Evaluation> ranking;
+
+        private final int roundCount;
+
+        private Result(List<Evaluation> evaluations, List<Evaluation> ranking, int lastRound) {
+            this.evaluations = Collections.unmodifiableList(evaluations);
+            this.ranking = Collections.unmodifiableList(new ArrayList<>(ranking));
+            this.roundCount = lastRound + 1;
+        }
+
+        /**
+         * @return the evaluations of all the candidates (same order as the
+         *         candidates)
+         */
+        public List<Evaluation> getEvaluations() {
+            return evaluations;
+        }
+
+        /**
+         * @return the evaluations of the candidates of the last round, best first
+         */
+        public List<Evaluation> getRanking() {
+            return ranking;
+        }
+
+        /**
+         * @return the best candidate strategy (null if all the runs were aborted)
+         */
+        public Strategy getBestStrategy() {
+            return ranking.isEmpty() ? null : ranking.get(0).getStrategy();
+        }
+
+        /**
+         * @return the number of rounds
+         */
+        public int getRoundCount() {
+            return roundCount;
+        }
+
+        /**
+         * @return the total number of bars run, over all the candidates
+         */
+        public long getTotalBarCount() {
+            long total = 0;
+            for (Evaluation evaluation : evaluations) {
+                total += evaluation.getBarCount();
+            }
+            return total;
+        }
+    }
+}
@@ -26,6 +26,7 @@ package org.ta4j.core.reports;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Strategy;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.analysis.criteria.pnl.NetLossCriterion;
 import org.ta4j.core.analysis.criteria.pnl.NetProfitCriterion;
 import org.ta4j.core.analysis.criteria.pnl.ProfitLossCriterion;
@@ -42,10 +43,15 @@ public class PerformanceReportGenerator implements ReportGenerator<PerformanceRe
 
     @Override
     public PerformanceReport generate(Strategy strategy, TradingRecord tradingRecord, BarSeries series) {
-        final Num pnl = new ProfitLossCriterion().calculate(series, tradingRecord);
-        final Num pnlPercentage = new ProfitLossPercentageCriterion().calculate(series, tradingRecord);
-        final Num netProfit = new NetProfitCriterion().calculate(series, tradingRecord);
-        final Num netLoss = new NetLossCriterion().calculate(series, tradingRecord);
+        return generate(strategy, new AnalysisContext(series, tradingRecord));
+    }
+
+    @Override
+    public PerformanceReport generate(Strategy strategy, AnalysisContext context) {
+        final Num pnl = new ProfitLossCriterion().calculate(context);
+        final Num pnlPercentage = new ProfitLossPercentageCriterion().calculate(context);
+        final Num netProfit = new NetProfitCriterion().calculate(context);
+        final Num netLoss = new NetLossCriterion().calculate(context);
         return new PerformanceReport(pnl, pnlPercentage, netProfit, netLoss);
     }
 }
@@ -26,6 +26,7 @@ package org.ta4j.core.reports;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Strategy;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 import org.ta4j.core.analysis.criteria.NumberOfBreakEvenPositionsCriterion;
 import org.ta4j.core.analysis.criteria.NumberOfLosingPositionsCriterion;
 import org.ta4j.core.analysis.criteria.NumberOfWinningPositionsCriterion;
@@ -41,9 +42,14 @@ public class PositionStatsReportGenerator implements ReportGenerator<PositionSta
 
     @Override
     public PositionStatsReport generate(Strategy strategy, TradingRecord tradingRecord, BarSeries series) {
-        final Num winningPositions = new NumberOfWinningPositionsCriterion().calculate(series, tradingRecord);
-        final Num losingPositions = new NumberOfLosingPositionsCriterion().calculate(series, tradingRecord);
-        final Num breakEvenPositions = new NumberOfBreakEvenPositionsCriterion().calculate(series, tradingRecord);
+        return generate(strategy, new AnalysisContext(series, tradingRecord));
+    }
+
+    @Override
+    public PositionStatsReport generate(Strategy strategy, AnalysisContext context) {
+        final Num winningPositions = new NumberOfWinningPositionsCriterion().calculate(context);
+        final Num losingPositions = new NumberOfLosingPositionsCriterion().calculate(context);
+        final Num breakEvenPositions = new NumberOfBreakEvenPositionsCriterion().calculate(context);
         return new PositionStatsReport(winningPositions, losingPositions, breakEvenPositions);
     }
 }
@@ -26,6 +26,7 @@ package org.ta4j.core.reports;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.Strategy;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.AnalysisContext;
 
 /**
  * Generic interface for generating trading reports
@@ -43,4 +44,16 @@ public interface ReportGenerator<T> {
      * @return generated report
      */
     T generate(Strategy strategy, TradingRecord tradingRecord, BarSeries series);
+
+    /**
+     * Generate report from an analysis context, so that the cash flow, returns
+     * and position aggregates are shared with other reports and criteria
+     *
+     * @param strategy the strategy
+     * @param context  the analysis context of the trading record, not null
+     * @return generated report
+     */
+    default T generate(Strategy strategy, AnalysisContext context) {
+        return generate(strategy, context.getTradingRecord(), context.getBarSeries());
+    }
 }
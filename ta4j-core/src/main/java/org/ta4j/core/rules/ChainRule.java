@@ -24,7 +24,9 @@
 package org.ta4j.core.rules;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 
 import org.ta4j.core.Rule;
 import org.ta4j.core.TradingRecord;
@@ -91,4 +93,18 @@ public class ChainRule extends AbstractRule {
         traceIsSatisfied(index, true);
         return true;
     }
+
+    /**
+     * @return the initial rule
+     */
+    public Rule getInitialRule() {
+        return initialRule;
+    }
+
+    /**
+     * @return the chain links, in evaluation order
+     */
+    public List<ChainLink> getRulesInChain() {
+        return Collections.unmodifiableList(rulesInChain);
+    }
 }
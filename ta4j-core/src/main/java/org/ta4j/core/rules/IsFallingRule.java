@@ -40,7 +40,7 @@ public class IsFallingRule extends AbstractRule {
     /** The barCount */
     private final int barCount;
     /** The minimum required strenght of the falling */
-    private double minStrenght;
+    private final double minStrenght;
 
     /**
      * Constructor.
@@ -63,15 +63,11 @@ public class IsFallingRule extends AbstractRule {
     public IsFallingRule(Indicator<Num> ref, int barCount, double minStrenght) {
         this.ref = ref;
         this.barCount = barCount;
-        this.minStrenght = minStrenght;
+        this.minStrenght = minStrenght >= 1 ? 0.99 : minStrenght;
     }
 
     @Override
     public boolean isSatisfied(int index, TradingRecord tradingRecord) {
-        if (minStrenght >= 1) {
-            minStrenght = 0.99;
-        }
-
         int count = 0;
         for (int i = Math.max(0, index - barCount + 1); i <= index; i++) {
             if (ref.getValue(i).isLessThan(ref.getValue(Math.max(0, i - 1)))) {
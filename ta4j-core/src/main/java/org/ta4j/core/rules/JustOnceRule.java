@@ -25,13 +25,15 @@ package org.ta4j.core.rules;
 
 import org.ta4j.core.Rule;
 import org.ta4j.core.TradingRecord;
+import org.ta4j.core.io.Checkpointable;
+import org.ta4j.core.io.IndicatorCheckpoint;
 
 /**
  * A one-shot rule.
  *
  * Satisfied the first time it's checked then never again.
  */
-public class JustOnceRule extends AbstractRule {
+public class JustOnceRule extends AbstractRule implements Checkpointable {
 
     private final Rule rule;
     private boolean satisfied = false;
@@ -68,4 +70,14 @@ public class JustOnceRule extends AbstractRule {
         this.satisfied = this.rule.isSatisfied(index, tradingRecord);
         return this.satisfied;
     }
+
+    @Override
+    public void saveState(IndicatorCheckpoint.State state) {
+        state.putBoolean("satisfied", satisfied);
+    }
+
+    @Override
+    public void restoreState(IndicatorCheckpoint.State state) {
+        satisfied = state.getBoolean("satisfied");
+    }
 }
@@ -50,6 +50,8 @@ import org.ta4j.core.TradingRecord;
 import org.ta4j.core.indicators.helpers.HighestValueIndicator;
 import org.ta4j.core.indicators.helpers.LowestValueIndicator;
 import org.ta4j.core.indicators.helpers.PriceIndicator;
+import org.ta4j.core.io.Checkpointable;
+import org.ta4j.core.io.IndicatorCheckpoint;
 import org.ta4j.core.num.Num;
 
 /**
@@ -57,7 +59,7 @@ import org.ta4j.core.num.Num;
  *
  * Satisfied when the price reaches the trailing loss threshold.
  */
-public class TrailingStopLossRule extends AbstractRule {
+public class TrailingStopLossRule extends AbstractRule implements Checkpointable {
 
     /**
      * The price indicator
@@ -72,7 +74,7 @@ public class TrailingStopLossRule extends AbstractRule {
      */
     private Num currentStopLossLimitActivation = null;
     /** The barCount */
-    private int barCount;
+    private final int barCount;
     /** the loss-distance as percentage */
     private final Num lossPercentage;
 
@@ -154,4 +156,14 @@ public class TrailingStopLossRule extends AbstractRule {
                     currentStopLossLimitActivation);
         }
     }
+
+    @Override
+    public void saveState(IndicatorCheckpoint.State state) {
+        state.putNum("currentStopLossLimitActivation", currentStopLossLimitActivation);
+    }
+
+    @Override
+    public void restoreState(IndicatorCheckpoint.State state) {
+        currentStopLossLimitActivation = state.getNum("currentStopLossLimitActivation");
+    }
 }
@@ -0,0 +1,451 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.universe;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BarSeriesManager;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.utils.TimeUtils;
+
+/**
+ * A universe of {@link BarSeries bar series} (e.g. the instruments of an
+ * index) over a shared time axis.
+ *
+ * The time axis is the sorted and deduplicated union of the bar end times of
+ * all the series. A global index (i.e. a position on the time axis) is mapped
+ * to the local index of each series (and back) in O(1). The close prices and
+ * volumes are stored in columns laid out time slice by time slice, so that the
+ * values of all the symbols at one timestamp are contiguous.
+ *
+ * The universe is a view of the series at construction time: bars added later
+ * to the series are ignored. The columns are built on first use, but right away
+ * if a series has a maximum bar count (its bars could be removed in the
+ * meantime).
+ */
+public class BarSeriesUniverse {
+
+    /** Value of a missing local or global index */
+    public static final int NO_INDEX = -1;
+
+    /** The symbols of the universe */
+    private final List<String> symbols;
+
+    /** The positions of the symbols */
+    private final Map<String, Integer> symbolIndexes;
+
+    /** The series of the universe (same order as the symbols) */
+    private final List<BarSeries> series;
+
+    /** The index of the first bar and the bar count of each series */
+    private final int[] firstIndexes;
+    private final int[] barCounts;
+
+    /** The time axis: the bar end times in epoch nanoseconds */
+    private final long[] times;
+
+    /** The time zone used to build end times */
+    private final ZoneId zoneId;
+
+    /** Global index to local index: [symbol][global index] */
+    private final int[][] localIndexes;
+
+    /** Local index to global index: [symbol][local index - begin index] */
+    private final int[][] globalIndexes;
+
+    /** The close prices: [global index * symbol count + symbol] */
+    private volatile double[] closePrices;
+
+    /** The volumes: [global index * symbol count + symbol] */
+    private volatile double[] volumes;
+
+    /**
+     * Constructor.
+     *
+     * @param series the series of the universe, by symbol
+     */
+    public BarSeriesUniverse(Map<String, ? extends BarSeries> series) {
+        this.symbols = Collections.unmodifiableList(new ArrayList<>(series.keySet()));
+        this.series = Collections.unmodifiableList(new ArrayList<>(series.values()));
+        this.symbolIndexes = new HashMap<>();
+        for (int s = 0; s < symbols.size(); s++) {
+            symbolIndexes.put(symbols.get(s), s);
+        }
+        this.firstIndexes = new int[symbols.size()];
+        this.barCounts = new int[symbols.size()];
+        for (int s = 0; s < symbols.size(); s++) {
+            BarSeries barSeries = this.series.get(s);
+            firstIndexes[s] = Math.max(barSeries.getBeginIndex(), barSeries.getRemovedBarsCount());
+            barCounts[s] = barSeries.getBarCount();
+        }
+        this.times = buildTimeAxis();
+        this.zoneId = findZoneId(this.series);
+        this.localIndexes = new int[symbols.size()][];
+        this.globalIndexes = new int[symbols.size()][];
+        for (int s = 0; s < symbols.size(); s++) {
+            mapIndexes(s);
+        }
+        if (this.series.stream().anyMatch(s -> s.getMaximumBarCount() != Integer.MAX_VALUE)) {
+            getClosePrices();
+            getVolumes();
+        }
+    }
+
+    /**
+     * Builds a universe using the names of the series as symbols.
+     *
+     * @param series the series of the universe (with distinct names)
+     * @return the universe
+     */
+    public static BarSeriesUniverse of(Collection<? extends BarSeries> series) {
+        Map<String, BarSeries> bySymbol = new LinkedHashMap<>();
+        for (BarSeries s : series) {
+            if (bySymbol.put(s.getName(), s) != null) {
+                throw new IllegalArgumentException("Duplicate series name: " + s.getName());
+            }
+        }
+        return new BarSeriesUniverse(bySymbol);
+    }
+
+    /**
+     * @return the symbols of the universe
+     */
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * @return the number of symbols
+     */
+    public int getSymbolCount() {
+        return symbols.size();
+    }
+
+    /**
+     * @param symbol a symbol
+     * @return the position of the symbol in the universe
+     * @throws IllegalArgumentException if the symbol is unknown
+     */
+    public int getSymbolIndex(String symbol) {
+        Integer index = symbolIndexes.get(symbol);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        }
+        return index;
+    }
+
+    /**
+     * @return the series of the universe (same order as the symbols)
+     */
+    public List<BarSeries> getSeries() {
+        return series;
+    }
+
+    /**
+     * @param symbol a symbol
+     * @return the series of the symbol
+     */
+    public BarSeries getSeries(String symbol) {
+        return series.get(getSymbolIndex(symbol));
+    }
+
+    /**
+     * @return the number of timestamps of the time axis
+     */
+    public int getTimeCount() {
+        return times.length;
+    }
+
+    /**
+     * @param globalIndex a global index
+     * @return the end time of the bars at the global index, in epoch nanoseconds
+     */
+    public long getEpochNanos(int globalIndex) {
+        return times[globalIndex];
+    }
+
+    /**
+     * @param globalIndex a global index
+     * @return the end time of the bars at the global index
+     */
+    public ZonedDateTime getEndTime(int globalIndex) {
+        return TimeUtils.ofEpochNanos(times[globalIndex], zoneId);
+    }
+
+    /**
+     * @param endTime an end time
+     * @return the global index of the end time, or {@link #NO_INDEX} if no series
+     *         has a bar ending at that time
+     */
+    public int getGlobalIndex(ZonedDateTime endTime) {
+        int index = Arrays.binarySearch(times, TimeUtils.toEpochNanos(endTime));
+        return index < 0 ? NO_INDEX : index;
+    }
+
+    /**
+     * @param symbol      the position of a symbol
+     * @param globalIndex a global index
+     * @return the index of the bar of the symbol at the global index, or
+     *         {@link #NO_INDEX} if the series has no bar at that time
+     */
+    public int getLocalIndex(int symbol, int globalIndex) {
+        return localIndexes[symbol][globalIndex];
+    }
+
+    /**
+     * @param symbol      a symbol
+     * @param globalIndex a global index
+     * @return the index of the bar of the symbol at the global index, or
+     *         {@link #NO_INDEX} if the series has no bar at that time
+     */
+    public int getLocalIndex(String symbol, int globalIndex) {
+        return getLocalIndex(getSymbolIndex(symbol), globalIndex);
+    }
+
+    /**
+     * @param symbol     the position of a symbol
+     * @param localIndex the index of a bar of the symbol
+     * @return the global index of the bar, or {@link #NO_INDEX} if the bar is out
+     *         of the universe
+     */
+    public int getGlobalIndex(int symbol, int localIndex) {
+        int[] indexes = globalIndexes[symbol];
+        int i = localIndex - firstIndexes[symbol];
+        return i < 0 || i >= indexes.length ? NO_INDEX : indexes[i];
+    }
+
+    /**
+     * @param symbol      the position of a symbol
+     * @param globalIndex a global index
+     * @return the close price of the symbol at the global index, NaN if missing
+     */
+    public double getClosePrice(int symbol, int globalIndex) {
+        return getClosePrices()[globalIndex * symbols.size() + symbol];
+    }
+
+    /**
+     * @param globalIndex a global index
+     * @return the close prices of all the symbols at the global index (NaN if
+     *         missing)
+     */
+    public double[] getClosePrices(int globalIndex) {
+        return slice(getClosePrices(), globalIndex);
+    }
+
+    /**
+     * @param symbol      the position of a symbol
+     * @param globalIndex a global index
+     * @return the volume of the symbol at the global index, NaN if missing
+     */
+    public double getVolume(int symbol, int globalIndex) {
+        return getVolumes()[globalIndex * symbols.size() + symbol];
+    }
+
+    /**
+     * @param globalIndex a global index
+     * @return the volumes of all the symbols at the global index (NaN if missing)
+     */
+    public double[] getVolumes(int globalIndex) {
+        return slice(getVolumes(), globalIndex);
+    }
+
+    /**
+     * Evaluates a function on each series, in parallel on the common fork-join
+     * pool.
+     *
+     * @param function the function to evaluate
+     * @return the results (same order as the symbols)
+     */
+    public <T> List<T> map(Function<BarSeries, T> function) {
+        return map(function, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Evaluates a function on each series, in parallel.
+     *
+     * @param function the function to evaluate
+     * @param pool     the pool running the evaluations
+     * @return the results (same order as the symbols)
+     */
+    public <T> List<T> map(Function<BarSeries, T> function, ForkJoinPool pool) {
+        return pool.submit(() -> series.parallelStream().map(function).collect(Collectors.toList())).join();
+    }
+
+    /**
+     * Evaluates one indicator per symbol at a global index, in parallel.
+     *
+     * @param indicators  the indicators (same order as the symbols), each one
+     *                    built on the series of its symbol
+     * @param globalIndex a global index
+     * @return the values of the indicators (NaN if the symbol has no bar at that
+     *         time)
+     */
+    public double[] getValues(List<? extends Indicator<Num>> indicators, int globalIndex) {
+        checkSymbolCount(indicators);
+        double[] values = new double[symbols.size()];
+        ForkJoinPool.commonPool().submit(() -> IntStream.range(0, values.length).parallel().forEach(s -> {
+            int localIndex = localIndexes[s][globalIndex];
+            values[s] = localIndex == NO_INDEX ? Double.NaN : indicators.get(s).getValue(localIndex).doubleValue();
+        })).join();
+        return values;
+    }
+
+    /**
+     * Runs a strategy on each series, in parallel.
+     *
+     * @param strategyFactory builds the strategy of a series
+     * @return the trading records (same order as the symbols)
+     */
+    public List<TradingRecord> run(Function<BarSeries, Strategy> strategyFactory) {
+        return map(s -> new BarSeriesManager(s).run(strategyFactory.apply(s)));
+    }
+
+    private void checkSymbolCount(List<?> values) {
+        if (values.size() != symbols.size()) {
+            throw new IllegalArgumentException(
+                    String.format("Expected %s values (one per symbol), got %s", symbols.size(), values.size()));
+        }
+    }
+
+    private double[] slice(double[] column, int globalIndex) {
+        int symbolCount = symbols.size();
+        return Arrays.copyOfRange(column, globalIndex * symbolCount, (globalIndex + 1) * symbolCount);
+    }
+
+    private double[] getClosePrices() {
+        double[] values = closePrices;
+        if (values == null) {
+            values = buildColumn(Bar::getClosePrice);
+            closePrices = values;
+        }
+        return values;
+    }
+
+    private double[] getVolumes() {
+        double[] values = volumes;
+        if (values == null) {
+            values = buildColumn(Bar::getVolume);
+            volumes = values;
+        }
+        return values;
+    }
+
+    /**
+     * @param field a bar field
+     * @return the column of the field for all the symbols, time slice by time
+     *         slice
+     */
+    private double[] buildColumn(Function<Bar, Num> field) {
+        int symbolCount = symbols.size();
+        double[] column = new double[times.length * symbolCount];
+        Arrays.fill(column, Double.NaN);
+        IntStream.range(0, symbolCount).parallel().forEach(s -> {
+            BarSeries barSeries = series.get(s);
+            int[] indexes = globalIndexes[s];
+            for (int i = 0; i < indexes.length; i++) {
+                Num value = field.apply(barSeries.getBar(firstIndexes[s] + i));
+                if (value != null) {
+                    column[indexes[i] * symbolCount + s] = value.doubleValue();
+                }
+            }
+        });
+        return column;
+    }
+
+    /**
+     * Maps the local indexes of a series to the time axis (and back).
+     *
+     * @param symbol the position of the symbol
+     */
+    private void mapIndexes(int symbol) {
+        BarSeries barSeries = series.get(symbol);
+        int[] toLocal = new int[times.length];
+        Arrays.fill(toLocal, NO_INDEX);
+        int[] toGlobal = new int[barCounts[symbol]];
+        int globalIndex = 0;
+        for (int i = 0; i < toGlobal.length; i++) {
+            int localIndex = firstIndexes[symbol] + i;
+            long time = TimeUtils.toEpochNanos(barSeries.getBar(localIndex).getEndTime());
+            // bars and time axis are both sorted
+            while (times[globalIndex] < time) {
+                globalIndex++;
+            }
+            toLocal[globalIndex] = localIndex;
+            toGlobal[i] = globalIndex;
+        }
+        localIndexes[symbol] = toLocal;
+        globalIndexes[symbol] = toGlobal;
+    }
+
+    private long[] buildTimeAxis() {
+        int total = 0;
+        for (int s = 0; s < series.size(); s++) {
+            total += barCounts[s];
+        }
+        long[] allTimes = new long[total];
+        int n = 0;
+        for (int s = 0; s < series.size(); s++) {
+            BarSeries barSeries = series.get(s);
+            for (int i = 0; i < barCounts[s]; i++) {
+                allTimes[n++] = TimeUtils.toEpochNanos(barSeries.getBar(firstIndexes[s] + i).getEndTime());
+            }
+        }
+        Arrays.sort(allTimes);
+        // deduplicate
+        int size = 0;
+        for (int i = 0; i < allTimes.length; i++) {
+            if (size == 0 || allTimes[i] != allTimes[size - 1]) {
+                allTimes[size++] = allTimes[i];
+            }
+        }
+        return Arrays.copyOf(allTimes, size);
+    }
+
+    private static ZoneId findZoneId(List<BarSeries> series) {
+        for (BarSeries s : series) {
+            if (!s.isEmpty()) {
+                return s.getFirstBar().getEndTime().getZone();
+            }
+        }
+        return ZoneId.systemDefault();
+    }
+}
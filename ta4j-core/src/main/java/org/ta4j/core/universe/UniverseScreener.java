@@ -0,0 +1,331 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.universe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Rule;
+import org.ta4j.core.Strategy;
+
+/**
+ * Screener of many {@link BarSeries bar series}.
+ *
+ * Evaluates a {@link Rule rule} on the last bar of each series, in parallel on
+ * a bounded fork-join pool. The rule of a series is built once (by a factory)
+ * and kept between scans, so that the indicator caches of the series are
+ * computed only once: the following scans (e.g. after new bars have been added
+ * to the series) only compute the values of the new bars.
+ *
+ * Scans must not run concurrently with each other, nor with additions of bars
+ * to the series.
+ */
+public class UniverseScreener implements AutoCloseable {
+
+    /** The screened series */
+    private final List<BarSeries> series;
+
+    /** Builds the rule of a series */
+    private final Function<BarSeries, ? extends Rule> ruleFactory;
+
+    /** The rules of the series (same order as the series), built lazily */
+    private final Rule[] rules;
+
+    /** The pool running the evaluations */
+    private final ForkJoinPool pool;
+
+    /** True if the pool has been created by (and must be shut down with) this */
+    private final boolean ownsPool;
+
+    /**
+     * Constructor.
+     *
+     * @param series      the series to be screened
+     * @param ruleFactory builds the rule of a series
+     * @param parallelism the maximum number of series evaluated at the same time
+     */
+    public UniverseScreener(Collection<? extends BarSeries> series, Function<BarSeries, ? extends Rule> ruleFactory,
+            int parallelism) {
+        this(series, ruleFactory, new ForkJoinPool(parallelism), true);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param series      the series to be screened
+     * @param ruleFactory builds the rule of a series
+     * @param pool        the pool running the evaluations (not shut down by
+     *                    {@link #close()})
+     */
+    public UniverseScreener(Collection<? extends BarSeries> series, Function<BarSeries, ? extends Rule> ruleFactory,
+            ForkJoinPool pool) {
+        this(series, ruleFactory, pool, false);
+    }
+
+    private UniverseScreener(Collection<? extends BarSeries> series, Function<BarSeries, ? extends Rule> ruleFactory,
+            ForkJoinPool pool, boolean ownsPool) {
+        this.series = Collections.unmodifiableList(new ArrayList<>(series));
+        this.ruleFactory = ruleFactory;
+        this.rules = new Rule[this.series.size()];
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+    }
+
+    /**
+     * Builds a screener of the entry signals of a strategy.
+     *
+     * @param series          the series to be screened
+     * @param strategyFactory builds the strategy of a series
+     * @param parallelism     the maximum number of series evaluated at the same
+     *                        time
+     * @return the screener, satisfied when the strategy should enter
+     */
+    public static UniverseScreener ofStrategy(Collection<? extends BarSeries> series,
+            Function<BarSeries, ? extends Strategy> strategyFactory, int parallelism) {
+        return new UniverseScreener(series, entryRule(strategyFactory), parallelism);
+    }
+
+    /**
+     * Builds a screener of the entry signals of a strategy.
+     *
+     * @param series          the series to be screened
+     * @param strategyFactory builds the strategy of a series
+     * @param pool            the pool running the evaluations (not shut down by
+     *                        {@link #close()})
+     * @return the screener, satisfied when the strategy should enter
+     */
+    public static UniverseScreener ofStrategy(Collection<? extends BarSeries> series,
+            Function<BarSeries, ? extends Strategy> strategyFactory, ForkJoinPool pool) {
+        return new UniverseScreener(series, entryRule(strategyFactory), pool);
+    }
+
+    private static Function<BarSeries, Rule> entryRule(Function<BarSeries, ? extends Strategy> strategyFactory) {
+        return s -> {
+            Strategy strategy = strategyFactory.apply(s);
+            return strategy::shouldEnter;
+        };
+    }
+
+    /**
+     * @return the screened series
+     */
+    public List<BarSeries> getSeries() {
+        return series;
+    }
+
+    /**
+     * Builds the missing rules and evaluates all the rules on the last bar of
+     * their series, so that the indicator caches are filled before the first
+     * {@link #scan()}.
+     *
+     * @return the timing of the warm-up
+     */
+    public Scan warmUp() {
+        return scan();
+    }
+
+    /**
+     * Evaluates the rules on the last bar of their series.
+     *
+     * @return the results of the scan
+     */
+    public Scan scan() {
+        long start = System.nanoTime();
+        List<ScreenResult> results = pool.submit(() -> IntStream.range(0, series.size())
+                .parallel()
+                .mapToObj(this::evaluate)
+                .collect(Collectors.toList())).join();
+        return new Scan(results, System.nanoTime() - start);
+    }
+
+    /**
+     * Drops the rules of all the series, e.g. after bars of the series have been
+     * modified. The rules (and their indicators) are built again by the next
+     * scan.
+     */
+    public void reset() {
+        Arrays.fill(rules, null);
+    }
+
+    private ScreenResult evaluate(int position) {
+        long start = System.nanoTime();
+        BarSeries s = series.get(position);
+        Rule rule = rules[position];
+        if (rule == null) {
+            rule = ruleFactory.apply(s);
+            rules[position] = rule;
+        }
+        int index = s.getEndIndex();
+        boolean satisfied = !s.isEmpty() && rule.isSatisfied(index);
+        return new ScreenResult(s, index, satisfied, System.nanoTime() - start);
+    }
+
+    /**
+     * Shuts down the pool, if it has been created by this screener.
+     */
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The result of the evaluation of a series.
+     */
+    public static final class ScreenResult {
+
+        private final BarSeries series;
+        private final int index;
+        private final boolean satisfied;
+        private final long nanos;
+
+        ScreenResult(BarSeries series, int index, boolean satisfied, long nanos) {
+            this.series = series;
+            this.index = index;
+            this.satisfied = satisfied;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return the series
+         */
+        public BarSeries getSeries() {
+            return series;
+        }
+
+        /**
+         * @return the evaluated (i.e. last) index of the series
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return true if the rule is satisfied at the index
+         */
+        public boolean isSatisfied() {
+            return satisfied;
+        }
+
+        /**
+         * @return the evaluation time in nanoseconds (including the build of the
+         *         rule on the first scan)
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ScreenResult{series=%s, index=%s, satisfied=%s, nanos=%s}", series.getName(),
+                    index, satisfied, nanos);
+        }
+    }
+
+    /**
+     * The results and timing statistics of a scan.
+     */
+    public static final class Scan {
+
+        private final List<ScreenResult> results;
+        private final long wallNanos;
+
+        Scan(List<ScreenResult> results, long wallNanos) {
+            this.results = Collections.unmodifiableList(results);
+            this.wallNanos = wallNanos;
+        }
+
+        /**
+         * @return the results (same order as the series)
+         */
+        public List<ScreenResult> getResults() {
+            return results;
+        }
+
+        /**
+         * @return the stream of the results (same order as the series)
+         */
+        public Stream<ScreenResult> stream() {
+            return results.stream();
+        }
+
+        /**
+         * @return the stream of the satisfied results
+         */
+        public Stream<ScreenResult> matches() {
+            return results.stream().filter(ScreenResult::isSatisfied);
+        }
+
+        /**
+         * @return the number of satisfied results
+         */
+        public int getMatchCount() {
+            return (int) matches().count();
+        }
+
+        /**
+         * @return the elapsed (wall clock) time of the scan in nanoseconds
+         */
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * @return the sum of the evaluation times in nanoseconds
+         */
+        public long getTotalNanos() {
+            return results.stream().mapToLong(ScreenResult::getNanos).sum();
+        }
+
+        /**
+         * @return the longest evaluation time in nanoseconds
+         */
+        public long getMaxNanos() {
+            return results.stream().mapToLong(ScreenResult::getNanos).max().orElse(0);
+        }
+
+        /**
+         * @return the slowest result (null if no series)
+         */
+        public ScreenResult getSlowest() {
+            return results.stream().max((a, b) -> Long.compare(a.getNanos(), b.getNanos())).orElse(null);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Scan{series=%s, matches=%s, wallNanos=%s, totalNanos=%s, maxNanos=%s}",
+                    results.size(), getMatchCount(), wallNanos, getTotalNanos(), getMaxNanos());
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.utils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.Rule;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.num.Num;
+
+/**
+ * Fingerprints of bar series and strategy definitions.
+ *
+ * The fingerprints are content based (i.e. they do not depend on the object
+ * identities), so that equal definitions and equal bars always give the same
+ * fingerprints, from one JVM to another.
+ */
+public final class FingerprintUtils {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final String LAMBDA_MARKER = "$$Lambda";
+
+    private FingerprintUtils() {
+    }
+
+    /**
+     * @param hash  a hash
+     * @param value a value
+     * @return the hash combined with the value
+     */
+    public static long combine(long hash, long value) {
+        long h = hash ^ value;
+        // 64-bit finalizer of MurmurHash3
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * @param bar a bar
+     * @return the hash of the bar data (time period, end time, prices, volume,
+     *         amount and number of trades)
+     */
+    public static long hash(Bar bar) {
+        long h = FNV_OFFSET;
+        h = combine(h, bar.getTimePeriod() == null ? 0 : bar.getTimePeriod().toNanos());
+        if (bar.getEndTime() != null) {
+            h = combine(h, bar.getEndTime().toEpochSecond());
+            h = combine(h, bar.getEndTime().getNano());
+        }
+        h = combine(h, hash(bar.getOpenPrice()));
+        h = combine(h, hash(bar.getHighPrice()));
+        h = combine(h, hash(bar.getLowPrice()));
+        h = combine(h, hash(bar.getClosePrice()));
+        h = combine(h, hash(bar.getVolume()));
+        h = combine(h, hash(bar.getAmount()));
+        return combine(h, bar.getTrades());
+    }
+
+    /**
+     * @param num a num (may be null)
+     * @return the hash of the num value
+     */
+    private static long hash(Num num) {
+        if (num == null) {
+            return 0;
+        }
+        long h = FNV_OFFSET;
+        String value = num.toString();
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    /**
+     * @param series     a bar series
+     * @param beginIndex the index of the first bar
+     * @param endIndex   the index of the last bar
+     * @return the hash of the bars between both indexes (included)
+     */
+    public static long hash(BarSeries series, int beginIndex, int endIndex) {
+        long h = FNV_OFFSET;
+        for (int i = beginIndex; i <= endIndex; i++) {
+            h = combine(h, hash(series.getBar(i)));
+        }
+        return h;
+    }
+
+    /**
+     * @param text a text
+     * @return the hexadecimal SHA-256 digest of the text
+     */
+    public static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Describes the definition of a strategy (or of a rule, an indicator, a cost
+     * model...): the graph of the ta4j objects reachable from it, with the values
+     * of their fields.
+     *
+     * The values cached by the {@link CachedIndicator cached indicators} and the
+     * transient fields are not described. The bar series of the definition is
+     * described as such (its bars are fingerprinted separately), any other bar
+     * series by its bars.
+     *
+     * @param definition the definition
+     * @param series     the bar series of the definition
+     * @return the description of the definition
+     * @throws IllegalArgumentException if the definition holds objects which
+     *                                  cannot be described (e.g. lambdas)
+     */
+    public static String describe(Object definition, BarSeries series) {
+        StringBuilder sb = new StringBuilder();
+        describe(definition, series, sb, new IdentityHashMap<>());
+        return sb.toString();
+    }
+
+    private static void describe(Object value, BarSeries series, StringBuilder sb, Map<Object, Integer> visited) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof String) {
+            sb.append('"').append(((String) value).replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        } else if (value instanceof Num) {
+            sb.append(((Num) value).getName()).append(':').append(value);
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            sb.append(value.getClass().getSimpleName()).append(':').append(value);
+        } else if (value instanceof Enum) {
+            sb.append(((Enum<?>) value).getDeclaringClass().getName()).append('.').append(((Enum<?>) value).name());
+        } else if (value instanceof Class) {
+            sb.append(((Class<?>) value).getName()).append(".class");
+        } else if (value instanceof TemporalAccessor || value instanceof Duration) {
+            sb.append(value);
+        } else if (value == series) {
+            sb.append("<series>");
+        } else if (value instanceof BarSeries) {
+            BarSeries other = (BarSeries) value;
+            sb.append("<series ").append(other.getBeginIndex()).append('-').append(other.getEndIndex()).append(':')
+                    .append(other.isEmpty() ? 0 : hash(other, other.getBeginIndex(), other.getEndIndex()))
+                    .append('>');
+        } else if (value instanceof Bar) {
+            sb.append("<bar ").append(hash((Bar) value)).append('>');
+        } else if (value.getClass().isArray()) {
+            sb.append('[');
+            for (int i = 0; i < Array.getLength(value); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                describe(Array.get(value, i), series, sb, visited);
+            }
+            sb.append(']');
+        } else if (value instanceof List) {
+            describe(((List<?>) value).toArray(), series, sb, visited);
+        } else if (isTa4jClass(value.getClass()) || isTa4jLambda(value.getClass())) {
+            Integer id = visited.get(value);
+            if (id != null) {
+                // shared node of the graph
+                sb.append('@').append(id);
+                return;
+            }
+            visited.put(value, visited.size());
+            String name = value.getClass().getName();
+            int lambdaIndex = name.indexOf(LAMBDA_MARKER);
+            // the name of a lambda class is not stable, its declaring class is
+            sb.append(lambdaIndex < 0 ? name : name.substring(0, lambdaIndex) + "::lambda").append('{');
+            for (Field field : fields(value.getClass())) {
+                sb.append(field.getDeclaringClass().getSimpleName()).append('.').append(field.getName()).append('=');
+                try {
+                    field.setAccessible(true);
+                    describe(field.get(value), series, sb, visited);
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    throw new IllegalArgumentException("Cannot describe field " + field, e);
+                }
+                sb.append(';');
+            }
+            sb.append('}');
+        } else {
+            throw new IllegalArgumentException("Cannot describe " + value.getClass().getName());
+        }
+    }
+
+    /**
+     * Returns the strategies, rules, indicators and other ta4j objects of a
+     * definition graph, each one once, in the order of their description (see
+     * {@link #describe(Object, BarSeries)}).
+     *
+     * @param definition the definition
+     * @return the objects of the definition graph
+     * @throws IllegalArgumentException if a field of the graph cannot be read
+     */
+    public static List<Object> nodes(Object definition) {
+        List<Object> nodes = new ArrayList<>();
+        nodes(definition, nodes, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return nodes;
+    }
+
+    private static void nodes(Object value, List<Object> nodes, Set<Object> visited) {
+        if (value == null || value instanceof BarSeries || value instanceof Bar || value instanceof Num
+                || value instanceof Enum) {
+            return;
+        }
+        if (value.getClass().isArray()) {
+            for (int i = 0; i < Array.getLength(value); i++) {
+                nodes(Array.get(value, i), nodes, visited);
+            }
+        } else if (value instanceof List) {
+            nodes(((List<?>) value).toArray(), nodes, visited);
+        } else if ((isTa4jClass(value.getClass()) || isTa4jLambda(value.getClass()) || value instanceof Indicator
+                || value instanceof Rule || value instanceof Strategy) && visited.add(value)) {
+            nodes.add(value);
+            for (Field field : fields(value.getClass())) {
+                try {
+                    field.setAccessible(true);
+                    nodes(field.get(value), nodes, visited);
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    throw new IllegalArgumentException("Cannot read field " + field, e);
+                }
+            }
+        }
+    }
+
+    private static boolean isTa4jClass(Class<?> type) {
+        return type.getName().startsWith("org.ta4j.") && !type.getName().contains(LAMBDA_MARKER);
+    }
+
+    /**
+     * The lambdas of the ta4j library are described by their declaring class and
+     * their captured values (e.g. the price function of a
+     * {@link org.ta4j.core.indicators.helpers.PriceIndicator}). The other lambdas
+     * (e.g. rules written as lambdas by the users) cannot be described.
+     */
+    private static boolean isTa4jLambda(Class<?> type) {
+        String name = type.getName();
+        int lambdaIndex = name.indexOf(LAMBDA_MARKER);
+        if (lambdaIndex < 0 || !name.startsWith("org.ta4j.")) {
+            return false;
+        }
+        try {
+            Class<?> declaringClass = Class.forName(name.substring(0, lambdaIndex), false, type.getClassLoader());
+            return codeSource(declaringClass).equals(codeSource(FingerprintUtils.class));
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static String codeSource(Class<?> type) {
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        return codeSource == null || codeSource.getLocation() == null ? "" : codeSource.getLocation().toString();
+    }
+
+    /**
+     * @return the described fields of a class and of its superclasses
+     */
+    private static List<Field> fields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            List<Field> declared = new ArrayList<>();
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || c == CachedIndicator.class) {
+                    continue;
+                }
+                declared.add(field);
+            }
+            declared.sort(Comparator.comparing(Field::getName));
+            fields.addAll(declared);
+        }
+        return fields;
+    }
+
+    /**
+     * The cumulative hashes of the bars of a series, from its begin index,
+     * computed incrementally as the series grows.
+     */
+    public static final class PrefixHashes {
+
+        private int beginIndex = -1;
+
+        /** The hash of each bar */
+        private long[] bars = new long[0];
+
+        /** The hash of the bars from the begin index up to each bar */
+        private long[] prefixes = new long[0];
+
+        private int count;
+
+        /**
+         * @param series a bar series (always the same one)
+         * @param index  an index of the series
+         * @return the hash of the bars from the begin index of the series up to the
+         *         index (included)
+         */
+        public long hash(BarSeries series, int index) {
+            if (series.getBeginIndex() != beginIndex) {
+                beginIndex = series.getBeginIndex();
+                count = 0;
+            }
+            // the last bar of a series may be replaced, or updated in place
+            if (count > 0 && bars[count - 1] != FingerprintUtils.hash(series.getBar(beginIndex + count - 1))) {
+                count--;
+            }
+            int length = index - beginIndex + 1;
+            if (length > bars.length) {
+                int capacity = Math.max(length, bars.length + (bars.length >> 1));
+                bars = Arrays.copyOf(bars, capacity);
+                prefixes = Arrays.copyOf(prefixes, capacity);
+            }
+            for (; count < length; count++) {
+                bars[count] = FingerprintUtils.hash(series.getBar(beginIndex + count));
+                prefixes[count] = FingerprintUtils.combine(count == 0 ? 0 : prefixes[count - 1], bars[count]);
+            }
+            return prefixes[length - 1];
+        }
+    }
+}
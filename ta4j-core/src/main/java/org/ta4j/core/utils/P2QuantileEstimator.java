@@ -0,0 +1,183 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.utils;
+
+import java.util.Arrays;
+
+/**
+ * Streaming estimator of a quantile, using the P-square algorithm.
+ *
+ * Estimates a quantile of a stream of values in constant memory (five
+ * markers) and constant time per value, without storing the values. The
+ * estimate is exact up to five values.
+ *
+ * @see <a href="https://www.cse.wustl.edu/~jain/papers/ftp/psqr.pdf">Jain &amp;
+ *      Chlamtac, The P-square algorithm for dynamic calculation of quantiles and
+ *      histograms without storing observations</a>
+ */
+public class P2QuantileEstimator {
+
+    private static final int MARKERS = 5;
+
+    /** The estimated quantile, in [0, 1] */
+    private final double probability;
+
+    /** The heights of the markers */
+    private final double[] heights = new double[MARKERS];
+
+    /** The actual positions of the markers (starting at 1) */
+    private final int[] positions = new int[MARKERS];
+
+    /** The desired positions of the markers */
+    private final double[] desiredPositions = new double[MARKERS];
+
+    /** The increments of the desired positions */
+    private final double[] increments = new double[MARKERS];
+
+    /** The number of values */
+    private long count;
+
+    /**
+     * Constructor.
+     *
+     * @param probability the quantile to estimate, in [0, 1] (e.g. 0.05 for the
+     *                    5% quantile)
+     */
+    public P2QuantileEstimator(double probability) {
+        if (probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("Probability must be in [0, 1]: " + probability);
+        }
+        this.probability = probability;
+        increments[0] = 0;
+        increments[1] = probability / 2;
+        increments[2] = probability;
+        increments[3] = (1 + probability) / 2;
+        increments[4] = 1;
+    }
+
+    /**
+     * @return the estimated quantile, in [0, 1]
+     */
+    public double getProbability() {
+        return probability;
+    }
+
+    /**
+     * @return the number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Adds a value to the stream.
+     *
+     * @param value the value (not NaN)
+     */
+    public void add(double value) {
+        if (count < MARKERS) {
+            heights[(int) count] = value;
+            count++;
+            if (count == MARKERS) {
+                Arrays.sort(heights);
+                for (int i = 0; i < MARKERS; i++) {
+                    positions[i] = i + 1;
+                }
+                desiredPositions[0] = 1;
+                desiredPositions[1] = 1 + 2 * probability;
+                desiredPositions[2] = 1 + 4 * probability;
+                desiredPositions[3] = 3 + 2 * probability;
+                desiredPositions[4] = 5;
+            }
+            return;
+        }
+
+        // find the cell of the value, and extend the extreme markers if needed
+        int cell;
+        if (value < heights[0]) {
+            heights[0] = value;
+            cell = 0;
+        } else if (value >= heights[4]) {
+            heights[4] = value;
+            cell = 3;
+        } else {
+            cell = 0;
+            while (value >= heights[cell + 1]) {
+                cell++;
+            }
+        }
+        for (int i = cell + 1; i < MARKERS; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < MARKERS; i++) {
+            desiredPositions[i] += increments[i];
+        }
+
+        // adjust the heights of the middle markers
+        for (int i = 1; i < MARKERS - 1; i++) {
+            double delta = desiredPositions[i] - positions[i];
+            if ((delta >= 1 && positions[i + 1] - positions[i] > 1)
+                    || (delta <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int sign = delta > 0 ? 1 : -1;
+                double height = parabolic(i, sign);
+                if (heights[i - 1] < height && height < heights[i + 1]) {
+                    heights[i] = height;
+                } else {
+                    heights[i] = linear(i, sign);
+                }
+                positions[i] += sign;
+            }
+        }
+        count++;
+    }
+
+    /**
+     * @return the estimated quantile (NaN if no value)
+     */
+    public double getQuantile() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count <= MARKERS) {
+            double[] values = Arrays.copyOf(heights, (int) count);
+            Arrays.sort(values);
+            int index = (int) Math.ceil(count * probability) - 1;
+            return values[Math.max(0, index)];
+        }
+        return heights[2];
+    }
+
+    private double parabolic(int i, int sign) {
+        double n = positions[i];
+        double nPrevious = positions[i - 1];
+        double nNext = positions[i + 1];
+        return heights[i] + sign / (nNext - nPrevious)
+                * ((n - nPrevious + sign) * (heights[i + 1] - heights[i]) / (nNext - n)
+                        + (nNext - n - sign) * (heights[i] - heights[i - 1]) / (n - nPrevious));
+    }
+
+    private double linear(int i, int sign) {
+        return heights[i] + sign * (heights[i + sign] - heights[i]) / (positions[i + sign] - positions[i]);
+    }
+}
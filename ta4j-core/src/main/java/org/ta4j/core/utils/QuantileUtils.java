@@ -0,0 +1,226 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.utils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+
+/**
+ * Common utilities for order statistics (quantiles, tails) of values.
+ *
+ * The selections run in expected linear time (quickselect) instead of sorting
+ * all the values.
+ */
+public final class QuantileUtils {
+
+    /** Below this size, ranges are sorted by insertion */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    private QuantileUtils() {
+    }
+
+    /**
+     * Returns the lowest values, in ascending order.
+     *
+     * Values of {@link DoubleNum} are selected over a primitive array, other
+     * values (e.g. {@link org.ta4j.core.num.DecimalNum DecimalNum}) over an array
+     * of {@link Num} (keeping their precision). The values must not contain
+     * {@link org.ta4j.core.num.NaN NaN}.
+     *
+     * @param values the values (not modified)
+     * @param count  the number of lowest values to return, between 0 and the
+     *               number of values
+     * @return the {@code count} lowest values, sorted in ascending order
+     */
+    public static Num[] lowestValues(List<Num> values, int count) {
+        if (count < 0 || count > values.size()) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid count %s for %s values", count, values.size()));
+        }
+        Num[] lowest = new Num[count];
+        if (count == 0) {
+            return lowest;
+        }
+        if (values.get(0) instanceof DoubleNum) {
+            double[] doubles = new double[values.size()];
+            for (int i = 0; i < doubles.length; i++) {
+                doubles[i] = values.get(i).doubleValue();
+            }
+            select(doubles, 0, doubles.length, count - 1);
+            Arrays.sort(doubles, 0, count);
+            for (int i = 0; i < count; i++) {
+                lowest[i] = DoubleNum.valueOf(doubles[i]);
+            }
+        } else {
+            Num[] nums = values.toArray(new Num[0]);
+            select(nums, 0, nums.length, count - 1);
+            System.arraycopy(nums, 0, lowest, 0, count);
+            Arrays.sort(lowest);
+        }
+        return lowest;
+    }
+
+    /**
+     * Partially sorts a range of values so that the k-th position holds the value
+     * it would hold if the range were sorted, with lower or equal values before it
+     * and greater or equal values after it.
+     *
+     * @param values the values
+     * @param from   the first index of the range (inclusive)
+     * @param to     the last index of the range (exclusive)
+     * @param k      the index to be selected, in the range
+     * @return the selected value
+     */
+    public static double select(double[] values, int from, int to, int k) {
+        checkRange(from, to, k);
+        int left = from;
+        int right = to - 1;
+        while (right - left >= INSERTION_THRESHOLD) {
+            int p = partition(values, left, right);
+            if (k < p) {
+                right = p - 1;
+            } else if (k > p) {
+                left = p + 1;
+            } else {
+                return values[k];
+            }
+        }
+        Arrays.sort(values, left, right + 1);
+        return values[k];
+    }
+
+    /**
+     * Partially sorts a range of values so that the k-th position holds the value
+     * it would hold if the range were sorted, with lower or equal values before it
+     * and greater or equal values after it.
+     *
+     * @param values the values
+     * @param from   the first index of the range (inclusive)
+     * @param to     the last index of the range (exclusive)
+     * @param k      the index to be selected, in the range
+     * @return the selected value
+     */
+    public static <T extends Comparable<? super T>> T select(T[] values, int from, int to, int k) {
+        checkRange(from, to, k);
+        int left = from;
+        int right = to - 1;
+        while (right - left >= INSERTION_THRESHOLD) {
+            int p = partition(values, left, right);
+            if (k < p) {
+                right = p - 1;
+            } else if (k > p) {
+                left = p + 1;
+            } else {
+                return values[k];
+            }
+        }
+        Arrays.sort(values, left, right + 1);
+        return values[k];
+    }
+
+    private static void checkRange(int from, int to, int k) {
+        if (from < 0 || k < from || k >= to) {
+            throw new IllegalArgumentException(String.format("Invalid selection of %s in [%s, %s)", k, from, to));
+        }
+    }
+
+    /**
+     * Partitions around the median of the first, middle and last values.
+     *
+     * @return the final index of the pivot
+     */
+    private static int partition(double[] values, int left, int right) {
+        int middle = (left + right) >>> 1;
+        // order left <= middle <= right, then use the middle as pivot
+        if (Double.compare(values[middle], values[left]) < 0) {
+            swap(values, left, middle);
+        }
+        if (Double.compare(values[right], values[left]) < 0) {
+            swap(values, left, right);
+        }
+        if (Double.compare(values[right], values[middle]) < 0) {
+            swap(values, middle, right);
+        }
+        swap(values, middle, right - 1);
+        double pivot = values[right - 1];
+        int i = left;
+        int j = right - 1;
+        while (true) {
+            while (Double.compare(values[++i], pivot) < 0) {
+            }
+            while (Double.compare(values[--j], pivot) > 0) {
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(values, i, j);
+        }
+        swap(values, i, right - 1);
+        return i;
+    }
+
+    private static <T extends Comparable<? super T>> int partition(T[] values, int left, int right) {
+        int middle = (left + right) >>> 1;
+        if (values[middle].compareTo(values[left]) < 0) {
+            swap(values, left, middle);
+        }
+        if (values[right].compareTo(values[left]) < 0) {
+            swap(values, left, right);
+        }
+        if (values[right].compareTo(values[middle]) < 0) {
+            swap(values, middle, right);
+        }
+        swap(values, middle, right - 1);
+        T pivot = values[right - 1];
+        int i = left;
+        int j = right - 1;
+        while (true) {
+            while (values[++i].compareTo(pivot) < 0) {
+            }
+            while (values[--j].compareTo(pivot) > 0) {
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(values, i, j);
+        }
+        swap(values, i, right - 1);
+        return i;
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
+    private static void swap(Object[] values, int i, int j) {
+        Object tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
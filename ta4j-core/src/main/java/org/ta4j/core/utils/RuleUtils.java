@@ -0,0 +1,87 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.utils;
+
+import java.util.function.Predicate;
+
+import org.ta4j.core.Rule;
+import org.ta4j.core.rules.AndRule;
+import org.ta4j.core.rules.ChainRule;
+import org.ta4j.core.rules.NotRule;
+import org.ta4j.core.rules.OrRule;
+import org.ta4j.core.rules.XorRule;
+import org.ta4j.core.rules.helper.ChainLink;
+
+/**
+ * Common utilities and helper methods for {@link Rule rules}.
+ */
+public final class RuleUtils {
+
+    private RuleUtils() {
+    }
+
+    /**
+     * Checks whether a rule, or one of its sub-rules, matches a predicate.
+     *
+     * The sub-rules of the composite rules of ta4j ({@link AndRule},
+     * {@link OrRule}, {@link XorRule}, {@link NotRule} and {@link ChainRule}) are
+     * inspected recursively.
+     *
+     * @param rule      the rule
+     * @param predicate the predicate
+     * @return true if the rule or one of its sub-rules matches the predicate
+     */
+    public static boolean anyMatch(Rule rule, Predicate<Rule> predicate) {
+        if (predicate.test(rule)) {
+            return true;
+        }
+        if (rule instanceof AndRule) {
+            AndRule andRule = (AndRule) rule;
+            return anyMatch(andRule.getRule1(), predicate) || anyMatch(andRule.getRule2(), predicate);
+        }
+        if (rule instanceof OrRule) {
+            OrRule orRule = (OrRule) rule;
+            return anyMatch(orRule.getRule1(), predicate) || anyMatch(orRule.getRule2(), predicate);
+        }
+        if (rule instanceof XorRule) {
+            XorRule xorRule = (XorRule) rule;
+            return anyMatch(xorRule.getRule1(), predicate) || anyMatch(xorRule.getRule2(), predicate);
+        }
+        if (rule instanceof NotRule) {
+            return anyMatch(((NotRule) rule).getRuleToNegate(), predicate);
+        }
+        if (rule instanceof ChainRule) {
+            ChainRule chainRule = (ChainRule) rule;
+            if (anyMatch(chainRule.getInitialRule(), predicate)) {
+                return true;
+            }
+            for (ChainLink link : chainRule.getRulesInChain()) {
+                if (anyMatch(link.getRule(), predicate)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
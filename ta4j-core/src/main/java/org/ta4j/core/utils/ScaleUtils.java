@@ -0,0 +1,114 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.utils;
+
+import java.math.BigDecimal;
+
+/**
+ * Common utilities to store decimal values as scaled integers (e.g. prices as
+ * a number of ticks).
+ */
+public final class ScaleUtils {
+
+    /** The maximum scale of a double */
+    public static final int MAX_DOUBLE_SCALE = 15;
+
+    /** The maximum scale of a decimal */
+    public static final int MAX_DECIMAL_SCALE = 18;
+
+    /** The powers of ten, exact as doubles */
+    private static final double[] POW10 = new double[MAX_DECIMAL_SCALE + 1];
+
+    /** The limit of the integers exactly represented by a double */
+    private static final double MAX_EXACT_DOUBLE = 1L << 53;
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private ScaleUtils() {
+    }
+
+    /**
+     * @param scale a scale, between 0 and {@link #MAX_DECIMAL_SCALE}
+     * @return ten to the power of the scale
+     */
+    public static double pow10(int scale) {
+        return POW10[scale];
+    }
+
+    /**
+     * @param value a double
+     * @return the smallest scale of the double written as a long without loss, -1
+     *         if none
+     */
+    public static int scale(double value) {
+        for (int scale = 0; scale <= MAX_DOUBLE_SCALE; scale++) {
+            double unscaled = Math.rint(value * POW10[scale]);
+            if (Math.abs(unscaled) >= MAX_EXACT_DOUBLE) {
+                return -1;
+            }
+            if (unscaled / POW10[scale] == value) {
+                return scale;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param value a decimal
+     * @return the smallest scale of the decimal written as a long without loss, -1
+     *         if none
+     */
+    public static int scale(BigDecimal value) {
+        BigDecimal stripped = value.stripTrailingZeros();
+        int scale = Math.max(0, stripped.scale());
+        if (scale > MAX_DECIMAL_SCALE || stripped.precision() - stripped.scale() + scale > MAX_DECIMAL_SCALE) {
+            return -1;
+        }
+        return scale;
+    }
+
+    /**
+     * @param value a double
+     * @param scale a scale, between 0 and {@link #MAX_DOUBLE_SCALE}
+     * @return true if the double is written as a long with the scale without loss
+     */
+    public static boolean isExact(double value, int scale) {
+        double unscaled = Math.rint(value * POW10[scale]);
+        return Math.abs(unscaled) < MAX_EXACT_DOUBLE && unscaled / POW10[scale] == value;
+    }
+
+    /**
+     * @param value a double
+     * @param scale a scale, between 0 and {@link #MAX_DOUBLE_SCALE}
+     * @return the double written as a long with the scale (rounded)
+     */
+    public static long unscaledValue(double value, int scale) {
+        return (long) Math.rint(value * POW10[scale]);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.utils;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Common utilities to convert times to and from epoch nanoseconds (e.g. to
+ * store the times of bars as primitive values).
+ */
+public final class TimeUtils {
+
+    /** The number of nanoseconds in a second */
+    public static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private TimeUtils() {
+    }
+
+    /**
+     * @param dateTime a date time
+     * @return the epoch nanoseconds of the date time
+     * @throws IllegalArgumentException if the date time is null
+     * @throws ArithmeticException      if the date time is out of the range of
+     *                                  the epoch nanoseconds
+     */
+    public static long toEpochNanos(ZonedDateTime dateTime) {
+        if (dateTime == null) {
+            throw new IllegalArgumentException("Time cannot be null");
+        }
+        return Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(), NANOS_PER_SECOND), dateTime.getNano());
+    }
+
+    /**
+     * @param epochNanos a time in epoch nanoseconds
+     * @param zoneId     the time zone
+     * @return the date time of the epoch nanoseconds in the time zone
+     */
+    public static ZonedDateTime ofEpochNanos(long epochNanos, ZoneId zoneId) {
+        Instant instant = Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                Math.floorMod(epochNanos, NANOS_PER_SECOND));
+        return ZonedDateTime.ofInstant(instant, zoneId);
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.cost.LinearTransactionCostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.reports.TradingStatement;
+import org.ta4j.core.reports.TradingStatementGenerator;
+import org.ta4j.core.rules.CrossedDownIndicatorRule;
+import org.ta4j.core.rules.CrossedUpIndicatorRule;
+import org.ta4j.core.rules.FixedRule;
+import org.ta4j.core.utils.FingerprintUtils;
+
+public class BacktestCacheTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private BarSeries series;
+
+    private BarSeriesManager manager;
+
+    public BacktestCacheTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        series = new MockBarSeries(numFunction, 10, 11, 12, 11, 10, 9, 10, 12, 13, 14, 13, 12, 11, 12, 13, 14, 15, 14,
+                13, 12);
+        manager = new BarSeriesManager(series, new LinearTransactionCostModel(0.01), new ZeroCostModel());
+    }
+
+    private Strategy crossover(int shortBarCount, int longBarCount) {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        SMAIndicator shortSma = new SMAIndicator(closePrice, shortBarCount);
+        SMAIndicator longSma = new SMAIndicator(closePrice, longBarCount);
+        return new BaseStrategy(new CrossedUpIndicatorRule(shortSma, longSma),
+                new CrossedDownIndicatorRule(shortSma, longSma));
+    }
+
+    private static List<Trade> trades(TradingRecord tradingRecord) {
+        List<Trade> trades = new ArrayList<>();
+        for (Position position : tradingRecord.getPositions()) {
+            trades.add(position.getEntry());
+            trades.add(position.getExit());
+        }
+        if (tradingRecord.getCurrentPosition().isOpened()) {
+            trades.add(tradingRecord.getCurrentPosition().getEntry());
+        }
+        return trades;
+    }
+
+    private static void assertSameTrades(TradingRecord expected, TradingRecord actual) {
+        List<Trade> expectedTrades = trades(expected);
+        List<Trade> actualTrades = trades(actual);
+        assertEquals(expectedTrades.size(), actualTrades.size());
+        for (int i = 0; i < expectedTrades.size(); i++) {
+            Trade expectedTrade = expectedTrades.get(i);
+            Trade actualTrade = actualTrades.get(i);
+            assertEquals(expectedTrade.getType(), actualTrade.getType());
+            assertEquals(expectedTrade.getIndex(), actualTrade.getIndex());
+            assertNumEquals(expectedTrade.getPricePerAsset(), actualTrade.getPricePerAsset());
+            assertNumEquals(expectedTrade.getAmount(), actualTrade.getAmount());
+            assertNumEquals(expectedTrade.getCost(), actualTrade.getCost());
+        }
+    }
+
+    @Test
+    public void equalStrategiesHitTheCache() {
+        BacktestCache cache = new BacktestCache(10);
+        TradingRecord first = cache.run(manager, crossover(2, 5), TradeType.BUY, numOf(1));
+        TradingRecord second = cache.run(manager, crossover(2, 5), TradeType.BUY, numOf(1));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertSameTrades(manager.run(crossover(2, 5), TradeType.BUY, numOf(1)), first);
+        assertSameTrades(first, second);
+
+        cache.run(manager, crossover(2, 6), TradeType.BUY, numOf(1));
+        cache.run(manager, crossover(2, 5), TradeType.SELL, numOf(1));
+        cache.run(manager, crossover(2, 5), TradeType.BUY, numOf(2));
+        cache.run(new BarSeriesManager(series), crossover(2, 5), TradeType.BUY, numOf(1));
+        assertEquals(5, cache.getMissCount());
+        assertEquals(5, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedResultsAreEvicted() {
+        BacktestCache cache = new BacktestCache(2);
+        cache.run(manager, crossover(2, 5), TradeType.BUY, numOf(1));
+        cache.run(manager, crossover(3, 5), TradeType.BUY, numOf(1));
+        cache.run(manager, crossover(2, 5), TradeType.BUY, numOf(1));
+        cache.run(manager, crossover(4, 5), TradeType.BUY, numOf(1));
+        assertEquals(2, cache.size());
+        cache.run(manager, crossover(2, 5), TradeType.BUY, numOf(1));
+        cache.run(manager, crossover(3, 5), TradeType.BUY, numOf(1));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void diskTierSurvivesTheMemoryTier() {
+        TradingRecord expected = new BacktestCache(1, folder.getRoot().toPath()).run(manager, crossover(2, 5),
+                TradeType.BUY, numOf(1));
+        BacktestCache cache = new BacktestCache(1, folder.getRoot().toPath());
+        TradingRecord actual = cache.run(manager, crossover(2, 5), TradeType.BUY, numOf(1));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+        assertSameTrades(expected, actual);
+
+        cache.clear();
+        cache.run(manager, crossover(2, 5), TradeType.BUY, numOf(1));
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void appendingBarsInvalidatesOnlyTheOpenRuns() {
+        BacktestCache cache = new BacktestCache(10);
+        // closed at index 5, within the run
+        Strategy closed = new BaseStrategy(new FixedRule(2), new FixedRule(5));
+        // closed at index 15, beyond the run
+        Strategy closedBeyond = new BaseStrategy(new FixedRule(2), new FixedRule(15));
+        // still open at the end of the series
+        Strategy open = new BaseStrategy(new FixedRule(2, 12), new FixedRule(5));
+        cache.run(manager, closed, TradeType.BUY, numOf(1), 0, 10);
+        cache.run(manager, closedBeyond, TradeType.BUY, numOf(1), 0, 10);
+        cache.run(manager, open, TradeType.BUY, numOf(1), 0, 19);
+        assertEquals(3, cache.getMissCount());
+
+        series.addBar(series.getLastBar().getEndTime().plusDays(1), 12, 12, 12, 12, 1);
+        cache.run(manager, closed, TradeType.BUY, numOf(1), 0, 10);
+        cache.run(manager, closedBeyond, TradeType.BUY, numOf(1), 0, 10);
+        assertEquals(2, cache.getHitCount());
+        TradingRecord reopened = cache.run(manager, open, TradeType.BUY, numOf(1), 0, 19);
+        assertEquals(4, cache.getMissCount());
+        assertSameTrades(manager.run(open, TradeType.BUY, numOf(1), 0, 19), reopened);
+    }
+
+    @Test
+    public void strategiesWithLambdasAreNotCached() {
+        BacktestCache cache = new BacktestCache(10);
+        Strategy strategy = new BaseStrategy((index, tradingRecord) -> index == 2, new FixedRule(5));
+        cache.run(manager, strategy, TradeType.BUY, numOf(1));
+        cache.run(manager, strategy, TradeType.BUY, numOf(1));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void executorSkipsCachedStrategies() {
+        BacktestCache cache = new BacktestCache(10);
+        List<Strategy> strategies = Arrays.asList(crossover(2, 5), crossover(3, 6));
+        BacktestExecutor executor = new BacktestExecutor(series, new TradingStatementGenerator(), cache);
+        List<TradingStatement> first = executor.execute(strategies, numOf(1));
+        List<Strategy> sameStrategies = Arrays.asList(crossover(2, 5), crossover(3, 6));
+        List<TradingStatement> second = executor.execute(sameStrategies, numOf(1));
+        assertEquals(2, cache.getHitCount());
+        for (int i = 0; i < strategies.size(); i++) {
+            assertSame(sameStrategies.get(i), second.get(i).getStrategy());
+            assertNumEquals(first.get(i).getPerformanceReport().getTotalProfitLoss(),
+                    second.get(i).getPerformanceReport().getTotalProfitLoss());
+            assertNumEquals(first.get(i).getPositionStatsReport().getProfitCount(),
+                    second.get(i).getPositionStatsReport().getProfitCount());
+        }
+    }
+
+    @Test
+    public void fingerprintsDescribeTheDefinition() {
+        assertEquals(FingerprintUtils.describe(crossover(2, 5), series),
+                FingerprintUtils.describe(crossover(2, 5), series));
+        assertNotEquals(FingerprintUtils.describe(crossover(2, 5), series),
+                FingerprintUtils.describe(crossover(5, 2), series));
+        BarSeries other = new MockBarSeries(numFunction, 1, 2, 3);
+        assertNotEquals(FingerprintUtils.describe(crossover(2, 5), series),
+                FingerprintUtils.describe(crossover(2, 5), other));
+        ZonedDateTime[] times = new ZonedDateTime[6];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = ZonedDateTime.of(2021, 1, 1 + i, 0, 0, 0, 0, ZoneOffset.UTC);
+        }
+        double[] prices = { 10, 11, 12, 11, 10, 9 };
+        long hash = FingerprintUtils.hash(new MockBarSeries(numFunction, prices, times), 0, 5);
+        assertEquals(hash, FingerprintUtils.hash(new MockBarSeries(numFunction, prices, times), 0, 5));
+        prices[3] = 11.5;
+        assertNotEquals(hash, FingerprintUtils.hash(new MockBarSeries(numFunction, prices, times), 0, 5));
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.num.Num;
+
+public class CompactBarTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private CompactBar.Frame frame;
+
+    private ZonedDateTime beginTime;
+
+    private ZonedDateTime endTime;
+
+    public CompactBarTest(Function<Number, Num> numFunction) {
+        super(null, numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        frame = new CompactBar.Frame(Duration.ofHours(1), ZoneId.systemDefault(), numFunction);
+        beginTime = ZonedDateTime.of(2014, 6, 25, 0, 0, 0, 0, ZoneId.systemDefault());
+        endTime = ZonedDateTime.of(2014, 6, 25, 1, 0, 0, 0, ZoneId.systemDefault());
+    }
+
+    @Test
+    public void addTrades() {
+        Bar bar = new CompactBar(frame, endTime);
+        assertNull(bar.getClosePrice());
+
+        bar.addTrade(numOf(3), numOf(200));
+        bar.addTrade(numOf(4), numOf(201));
+        bar.addTrade(numOf(2), numOf(198));
+
+        assertEquals(3, bar.getTrades());
+        assertNumEquals(3 * 200 + 4 * 201 + 2 * 198, bar.getAmount());
+        assertNumEquals(200, bar.getOpenPrice());
+        assertNumEquals(198, bar.getClosePrice());
+        assertNumEquals(198, bar.getLowPrice());
+        assertNumEquals(201, bar.getHighPrice());
+        assertNumEquals(9, bar.getVolume());
+        assertEquals(numOf(1).getClass(), bar.getClosePrice().getClass());
+    }
+
+    @Test
+    public void timesAreMaterializedFromEpochNanos() {
+        Bar bar = new CompactBar(frame, endTime);
+        assertEquals(endTime, bar.getEndTime());
+        assertEquals(beginTime, bar.getBeginTime());
+        assertEquals(Duration.ofHours(1), bar.getTimePeriod());
+    }
+
+    @Test
+    public void inPeriod() {
+        Bar bar = new CompactBar(frame, endTime);
+        assertFalse(bar.inPeriod(null));
+        assertFalse(bar.inPeriod(beginTime.withDayOfMonth(24)));
+        assertFalse(bar.inPeriod(beginTime.withDayOfMonth(26)));
+        assertTrue(bar.inPeriod(beginTime.withMinute(30)));
+        assertTrue(bar.inPeriod(beginTime));
+        assertFalse(bar.inPeriod(endTime));
+    }
+
+    @Test
+    public void copyOfBaseBar() {
+        Bar baseBar = new BaseBar(Duration.ofHours(1), endTime, numOf(1), numOf(4), numOf(0.5), numOf(2), numOf(10),
+                numOf(20), 5);
+        CompactBar bar = CompactBar.of(frame, baseBar);
+        assertEquals(baseBar.getEndTime(), bar.getEndTime());
+        assertNumEquals(1, bar.getOpenPrice());
+        assertNumEquals(4, bar.getHighPrice());
+        assertNumEquals(0.5, bar.getLowPrice());
+        assertNumEquals(2, bar.getClosePrice());
+        assertNumEquals(10, bar.getVolume());
+        assertNumEquals(20, bar.getAmount());
+        assertEquals(5, bar.getTrades());
+        assertEquals(bar, CompactBar.of(frame, baseBar));
+        assertEquals(bar.hashCode(), CompactBar.of(frame, baseBar).hashCode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void copyWithOtherTimePeriod() {
+        CompactBar.of(frame, new BaseBar(Duration.ofMinutes(1), endTime, numFunction));
+    }
+
+    @Test
+    public void seriesBuilderWithCompactBars() {
+        BarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction)
+                .withCompactBars(Duration.ofHours(1), ZoneId.systemDefault()).withMaxBarCount(50).build();
+        BarSeries baseSeries = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).withMaxBarCount(50).build();
+        assertTrue(series instanceof CompactBarSeries);
+
+        for (int i = 0; i < 100; i++) {
+            ZonedDateTime time = endTime.plusHours(i);
+            series.addBar(Duration.ofHours(1), time, i, i + 2, i - 1, i + 1, 10);
+            baseSeries.addBar(Duration.ofHours(1), time, i, i + 2, i - 1, i + 1, 10);
+        }
+        series.addTrade(1, 102);
+        baseSeries.addTrade(1, 102);
+
+        assertEquals(50, series.getBarCount());
+        assertEquals(50, series.getRemovedBarsCount());
+        assertTrue(series.getLastBar() instanceof CompactBar);
+        assertEquals(baseSeries.getLastBar().getEndTime(), series.getLastBar().getEndTime());
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 10);
+        SMAIndicator baseSma = new SMAIndicator(new ClosePriceIndicator(baseSeries), 10);
+        for (int i = series.getBeginIndex(); i <= series.getEndIndex(); i++) {
+            assertNumEquals(baseSma.getValue(i), sma.getValue(i));
+        }
+    }
+
+    @Test
+    public void compactSeriesConvertsAddedBars() {
+        CompactBarSeries series = new CompactBarSeries("compact", Duration.ofHours(1), ZoneId.systemDefault(),
+                numFunction);
+        series.addBar(new BaseBar(Duration.ofHours(1), endTime, numOf(1), numOf(4), numOf(0.5), numOf(2), numOf(10),
+                numOf(20), 5));
+        series.addBar(Duration.ofHours(1), endTime.plusHours(1));
+        series.addPrice(3);
+
+        assertTrue(series.getBar(0) instanceof CompactBar);
+        assertNumEquals(3, series.getBar(1).getClosePrice());
+        assertTrue(series.getSubSeries(0, 1) instanceof CompactBarSeries);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compactSeriesRejectsOtherTimePeriods() {
+        CompactBarSeries series = new CompactBarSeries("compact", Duration.ofHours(1), ZoneId.systemDefault(),
+                numFunction);
+        series.addBar(Duration.ofMinutes(5), endTime, numOf(1), numOf(1), numOf(1), numOf(1), numOf(1));
+    }
+}
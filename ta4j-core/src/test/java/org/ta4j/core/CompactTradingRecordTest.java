@@ -0,0 +1,193 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.analysis.AnalysisContext;
+import org.ta4j.core.analysis.criteria.NumberOfBarsCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfBreakEvenPositionsCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfConsecutiveWinningPositionsCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfLosingPositionsCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfPositionsCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfWinningPositionsCriterion;
+import org.ta4j.core.analysis.criteria.WinningPositionsRatioCriterion;
+import org.ta4j.core.analysis.criteria.pnl.AverageProfitCriterion;
+import org.ta4j.core.analysis.criteria.pnl.GrossLossCriterion;
+import org.ta4j.core.analysis.criteria.pnl.GrossProfitCriterion;
+import org.ta4j.core.analysis.criteria.pnl.GrossReturnCriterion;
+import org.ta4j.core.analysis.criteria.pnl.NetLossCriterion;
+import org.ta4j.core.analysis.criteria.pnl.NetProfitCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossPercentageCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossRatioCriterion;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.cost.LinearBorrowingCostModel;
+import org.ta4j.core.cost.LinearTransactionCostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.rules.FixedRule;
+
+public class CompactTradingRecordTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private BarSeries series;
+
+    public CompactTradingRecordTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        series = new MockBarSeries(numFunction, 100, 105, 110, 100, 95, 105, 90, 90, 80, 85, 95, 100, 98, 97);
+    }
+
+    private void assertSameAsBaseTradingRecord(TradeType tradeType, CostModel transactionCostModel,
+            CostModel holdingCostModel) {
+        Strategy strategy = new BaseStrategy(new FixedRule(0, 3, 6, 8), new FixedRule(2, 4, 7, 11));
+        BarSeriesManager manager = new BarSeriesManager(series, transactionCostModel, holdingCostModel);
+        TradingRecord base = manager.run(strategy, tradeType);
+        CompactTradingRecord compact = (CompactTradingRecord) manager.run(strategy,
+                new CompactTradingRecord(series, tradeType, transactionCostModel, holdingCostModel), numOf(1),
+                series.getBeginIndex(), series.getEndIndex());
+
+        assertEquals(base.getPositionCount(), compact.getPositionCount());
+        assertEquals(2 * base.getPositionCount(), compact.getTradeCount());
+        for (int i = 0; i < base.getPositionCount(); i++) {
+            Position expected = base.getPositions().get(i);
+            Position actual = compact.getPositions().get(i);
+            assertEquals(expected.getEntry().getIndex(), actual.getEntry().getIndex());
+            assertEquals(expected.getExit().getIndex(), actual.getExit().getIndex());
+            assertEquals(expected.getEntry().getType(), actual.getEntry().getType());
+            assertNumEquals(expected.getProfit().doubleValue(), actual.getProfit());
+            assertNumEquals(expected.getProfit().doubleValue(), numOf(compact.getProfit(i)));
+        }
+
+        List<AnalysisCriterion> criteria = Arrays.asList(new GrossReturnCriterion(), new GrossProfitCriterion(),
+                new GrossLossCriterion(), new NetProfitCriterion(), new NetLossCriterion(),
+                new ProfitLossCriterion(), new ProfitLossPercentageCriterion(), new AverageProfitCriterion(),
+                new ProfitLossRatioCriterion(), new NumberOfPositionsCriterion(),
+                new NumberOfWinningPositionsCriterion(), new NumberOfLosingPositionsCriterion(),
+                new NumberOfBreakEvenPositionsCriterion(), new WinningPositionsRatioCriterion(),
+                new NumberOfConsecutiveWinningPositionsCriterion(), new NumberOfBarsCriterion());
+        List<Num> contextValues = new AnalysisContext(series, compact).calculate(criteria);
+        for (int i = 0; i < criteria.size(); i++) {
+            AnalysisCriterion criterion = criteria.get(i);
+            double expected = criterion.calculate(series, base).doubleValue();
+            assertNumEquals(expected, criterion.calculate(series, compact));
+            assertNumEquals(expected, contextValues.get(i));
+        }
+    }
+
+    @Test
+    public void sameAsBaseTradingRecordForLongPositions() {
+        assertSameAsBaseTradingRecord(TradeType.BUY, new LinearTransactionCostModel(0.01), new ZeroCostModel());
+    }
+
+    @Test
+    public void sameAsBaseTradingRecordForShortPositionsWithHoldingCost() {
+        assertSameAsBaseTradingRecord(TradeType.SELL, new LinearTransactionCostModel(0.005),
+                new LinearBorrowingCostModel(0.01));
+    }
+
+    @Test
+    public void tradeViews() {
+        CompactTradingRecord record = new CompactTradingRecord(series, TradeType.SELL,
+                new LinearTransactionCostModel(0.01), new ZeroCostModel());
+        assertTrue(record.isClosed());
+        assertTrue(record.getCurrentPosition().isNew());
+        assertNull(record.getLastTrade());
+        assertNull(record.getLastEntry());
+        assertFalse(record.exit(0, numOf(100), numOf(1)));
+
+        assertTrue(record.enter(1, numOf(105), numOf(2)));
+        assertFalse(record.enter(2, numOf(110), numOf(2)));
+        assertFalse(record.isClosed());
+        Position current = record.getCurrentPosition();
+        assertTrue(current.isOpened());
+        assertSame(current, record.getCurrentPosition());
+        assertEquals(1, current.getEntry().getIndex());
+        assertEquals(TradeType.SELL, current.getEntry().getType());
+        assertNumEquals(105, current.getEntry().getPricePerAsset());
+        assertNumEquals(2, current.getEntry().getAmount());
+        assertEquals(1, record.getLastEntry().getIndex());
+        assertNull(record.getLastExit());
+        assertNull(record.getLastTrade(TradeType.BUY));
+        assertEquals(0, record.getPositionCount());
+        assertTrue(record.getPositions().isEmpty());
+
+        assertTrue(record.exit(3, numOf(100), numOf(2)));
+        assertTrue(record.getCurrentPosition().isNew());
+        assertEquals(1, record.getPositionCount());
+        assertEquals(3, record.getLastExit().getIndex());
+        assertEquals(TradeType.BUY, record.getLastTrade().getType());
+        assertEquals(1, record.getLastTrade(TradeType.SELL).getIndex());
+        assertEquals(3, record.getIndex(1));
+        assertEquals(100, record.getPricePerAsset(1), 0);
+        assertEquals(2, record.getAmount(1), 0);
+        assertEquals(0.01 * 100 * 2, record.getCost(1), 1e-12);
+        assertEquals(TradeType.BUY, record.getType(1));
+
+        // short position: (210 - 200) - (2.1 + 2)
+        assertNumEquals(5.9, record.getProfitLoss());
+        assertNumEquals(5.9, record.getPositions().get(0).getProfit());
+        assertEquals(1, record.getWinningPositionCount());
+    }
+
+    @Test
+    public void growsBeyondInitialCapacity() {
+        CompactTradingRecord record = new CompactTradingRecord(series);
+        int positions = 1000;
+        for (int i = 0; i < positions; i++) {
+            record.enter(2 * i, numOf(100), numOf(1));
+            record.exit(2 * i + 1, numOf(i % 2 == 0 ? 101 : 99), numOf(1));
+        }
+        assertEquals(positions, record.getPositionCount());
+        assertEquals(positions / 2, record.getWinningPositionCount());
+        assertEquals(positions / 2, record.getLosingPositionCount());
+        assertNumEquals(0, record.getProfitLoss());
+        assertEquals(2 * positions - 1, record.getPositions().get(positions - 1).getExit().getIndex());
+        assertNumEquals(positions / 2, new NumberOfBarsCriterion().calculate(series, record).dividedBy(numOf(4)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void exitBeforeEntry() {
+        CompactTradingRecord record = new CompactTradingRecord(series);
+        record.enter(5, numOf(100), numOf(1));
+        record.exit(4, numOf(100), numOf(1));
+    }
+}
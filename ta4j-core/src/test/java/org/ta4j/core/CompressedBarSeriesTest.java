@@ -0,0 +1,232 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.ATRIndicator;
+import org.ta4j.core.indicators.RSIIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.num.Num;
+
+public class CompressedBarSeriesTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2020, 1, 2, 9, 0, 0, 0, ZoneId.of("UTC"));
+
+    public CompressedBarSeriesTest(Function<Number, Num> numFunction) {
+        super(null, numFunction);
+    }
+
+    /**
+     * @return a random walk of 1 minute bars with 2 decimal prices, integer
+     *         volumes and some gaps
+     */
+    private BarSeries randomWalk(int barCount) {
+        BarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).withName("walk").build();
+        Random random = new Random(42);
+        long close = 10_000;
+        ZonedDateTime endTime = START;
+        for (int i = 0; i < barCount; i++) {
+            endTime = endTime.plusMinutes(i % 1000 == 999 ? 61 : 1);
+            long open = close;
+            close = Math.max(100, open + random.nextInt(51) - 25);
+            long high = Math.max(open, close) + random.nextInt(10);
+            long low = Math.min(open, close) - random.nextInt(10);
+            series.addBar(new BaseBar(Duration.ofMinutes(1), endTime, numOf(open / 100d), numOf(high / 100d),
+                    numOf(low / 100d), numOf(close / 100d), numOf(100 + random.nextInt(900)), numOf(0),
+                    1 + random.nextInt(50)));
+        }
+        return series;
+    }
+
+    private static void assertSameBars(BarSeries expected, BarSeries actual, List<Integer> indexes) {
+        CompactBar.Frame frame = new CompactBar.Frame(expected.getFirstBar().getTimePeriod(),
+                expected.getFirstBar().getEndTime().getZone(), expected.function());
+        for (int i : indexes) {
+            Bar bar = actual.getBar(i);
+            assertEquals(CompactBar.of(frame, expected.getBar(i)), bar);
+            assertEquals(expected.getBar(i).getEndTime().toInstant(), bar.getEndTime().toInstant());
+        }
+    }
+
+    private static List<Integer> indexes(BarSeries series) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = series.getBeginIndex(); i <= series.getEndIndex(); i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+
+    @Test
+    public void sequentialAccess() {
+        BarSeries series = randomWalk(5000);
+        CompressedBarSeries compressed = new CompressedBarSeries(series);
+
+        assertEquals("walk", compressed.getName());
+        assertEquals(5000, compressed.getBarCount());
+        assertEquals(0, compressed.getBeginIndex());
+        assertEquals(4999, compressed.getEndIndex());
+        assertEquals(numOf(1).getClass(), compressed.getLastBar().getClosePrice().getClass());
+        assertSameBars(series, compressed, indexes(series));
+    }
+
+    @Test
+    public void randomAccess() {
+        BarSeries series = randomWalk(5000);
+        CompressedBarSeries compressed = new CompressedBarSeries(series);
+
+        List<Integer> indexes = indexes(series);
+        Collections.shuffle(indexes, new Random(7));
+        assertSameBars(series, compressed, indexes);
+    }
+
+    @Test
+    public void compressionRatio() {
+        BarSeries series = randomWalk(10_000);
+        CompressedBarSeries compressed = new CompressedBarSeries(series);
+
+        // a compact bar takes about 80 bytes, a base bar several hundreds
+        assertTrue(compressed.getCompressedSize() < 8 * series.getBarCount());
+    }
+
+    @Test
+    public void unscaledValuesAndIrregularTimes() {
+        BarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        ZonedDateTime endTime = START;
+        for (int i = 0; i < 200; i++) {
+            endTime = endTime.plusHours(1).plusSeconds(i % 7);
+            double price = Math.PI * (i + 1);
+            series.addBar(new BaseBar(Duration.ofHours(1), endTime, numOf(price), numOf(price * 1.5),
+                    numOf(price / 3), numOf(price * 1.1), numOf(Math.E * i), numOf(0.1 * i), i));
+        }
+        CompressedBarSeries compressed = new CompressedBarSeries(series);
+
+        assertSameBars(series, compressed, indexes(series));
+    }
+
+    @Test
+    public void barsWithoutPrices() {
+        BarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        series.addBar(new BaseBar(Duration.ofDays(1), START, numFunction));
+        series.addBar(Duration.ofDays(1), START.plusDays(1), 1, 2, 0.5, 1.5, 10);
+        CompressedBarSeries compressed = new CompressedBarSeries(series);
+
+        assertEquals(null, compressed.getBar(0).getClosePrice());
+        assertSameBars(series, compressed, indexes(series));
+    }
+
+    @Test
+    public void sameIndicatorValues() {
+        BarSeries series = randomWalk(3000);
+        CompressedBarSeries compressed = new CompressedBarSeries(series);
+
+        List<Function<BarSeries, Indicator<Num>>> factories = new ArrayList<>();
+        factories.add(s -> new SMAIndicator(new ClosePriceIndicator(s), 20));
+        factories.add(s -> new RSIIndicator(new ClosePriceIndicator(s), 14));
+        factories.add(s -> new ATRIndicator(s, 14));
+        for (Function<BarSeries, Indicator<Num>> factory : factories) {
+            Indicator<Num> expected = factory.apply(series);
+            Indicator<Num> actual = factory.apply(compressed);
+            for (int i = 0; i <= series.getEndIndex(); i++) {
+                assertEquals(expected.getValue(i), actual.getValue(i));
+            }
+        }
+    }
+
+    @Test
+    public void subSeriesSharesTheBlocks() {
+        BarSeries series = randomWalk(1000);
+        CompressedBarSeries compressed = new CompressedBarSeries(series);
+        CompressedBarSeries subSeries = compressed.getSubSeries(100, 2000);
+
+        assertEquals(900, subSeries.getBarCount());
+        assertEquals(compressed.getCompressedSize(), subSeries.getCompressedSize());
+        for (int i = 0; i < subSeries.getBarCount(); i++) {
+            assertEquals(compressed.getBar(100 + i), subSeries.getBar(i));
+        }
+    }
+
+    @Test
+    public void compressesFromTheBeginIndex() {
+        BarSeries series = randomWalk(500);
+        series.setMaximumBarCount(130);
+        series.addBar(Duration.ofMinutes(1), series.getLastBar().getEndTime().plusMinutes(1), 1, 1, 1, 1, 1);
+        CompressedBarSeries compressed = new CompressedBarSeries(series);
+
+        assertEquals(130, compressed.getBarCount());
+        assertEquals(series.getFirstBar().getEndTime(), compressed.getFirstBar().getEndTime());
+        assertEquals(series.getLastBar().getEndTime(), compressed.getLastBar().getEndTime());
+    }
+
+    @Test
+    public void serialization() throws Exception {
+        BarSeries series = randomWalk(300);
+        CompressedBarSeries compressed = new CompressedBarSeries(series);
+        compressed.getBar(10);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(compressed);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            BarSeries deserialized = (BarSeries) in.readObject();
+            assertSameBars(series, deserialized, indexes(series));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnly() {
+        CompressedBarSeries compressed = new CompressedBarSeries(randomWalk(10));
+        compressed.addBar(Duration.ofMinutes(1), START.plusYears(1), 1, 1, 1, 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void differentTimePeriods() {
+        BarSeries series = randomWalk(10);
+        series.addBar(Duration.ofHours(1), START.plusYears(1), 1, 1, 1, 1, 1);
+        new CompressedBarSeries(series);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptySeries() {
+        new CompressedBarSeries(new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build());
+    }
+}
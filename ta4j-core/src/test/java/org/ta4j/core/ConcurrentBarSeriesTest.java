@@ -0,0 +1,207 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.num.Num;
+
+public class ConcurrentBarSeriesTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2021, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    public ConcurrentBarSeriesTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Test
+    public void behavesLikeBaseBarSeries() {
+        ConcurrentBarSeries series = new ConcurrentBarSeries("concurrent", numFunction);
+        BaseBarSeries baseSeries = new BaseBarSeries("base", numFunction);
+        series.setMaximumBarCount(20);
+        baseSeries.setMaximumBarCount(20);
+        for (int i = 0; i < 50; i++) {
+            series.addBar(Duration.ofMinutes(1), START.plusMinutes(i), i, i + 1, i - 1, i, 10);
+            baseSeries.addBar(Duration.ofMinutes(1), START.plusMinutes(i), i, i + 1, i - 1, i, 10);
+        }
+        series.addTrade(2, 60);
+        baseSeries.addTrade(2, 60);
+
+        assertEquals(baseSeries.getBeginIndex(), series.getBeginIndex());
+        assertEquals(baseSeries.getEndIndex(), series.getEndIndex());
+        assertEquals(baseSeries.getBarCount(), series.getBarCount());
+        assertEquals(baseSeries.getRemovedBarsCount(), series.getRemovedBarsCount());
+        assertEquals(baseSeries.getBarData().size(), series.getBarData().size());
+        // removed bars are replaced by the first available bar
+        assertEquals(baseSeries.getBar(3).getEndTime(), series.getBar(3).getEndTime());
+        assertNumEquals(baseSeries.getLastBar().getClosePrice(), series.getLastBar().getClosePrice());
+        assertNumEquals(baseSeries.getLastBar().getVolume(), series.getLastBar().getVolume());
+        assertEquals(1, series.getLastBar().getTrades());
+
+        SMAIndicator sma = new SMAIndicator(new ClosePriceIndicator(series), 5);
+        SMAIndicator baseSma = new SMAIndicator(new ClosePriceIndicator(baseSeries), 5);
+        for (int i = series.getBeginIndex(); i <= series.getEndIndex(); i++) {
+            assertNumEquals(baseSma.getValue(i), sma.getValue(i));
+        }
+        assertEquals(10, series.getSubSeries(35, 45).getBarCount());
+    }
+
+    @Test
+    public void snapshotsAreStable() {
+        ConcurrentBarSeries series = new ConcurrentBarSeries("concurrent", numFunction);
+        series.addBar(Duration.ofMinutes(1), START, 1, 1, 1, 1, 1);
+        ConcurrentBarSeries.Snapshot snapshot = series.getSnapshot();
+        for (int i = 1; i < 100; i++) {
+            series.addBar(Duration.ofMinutes(1), START.plusMinutes(i), i, i, i, i, 1);
+        }
+        assertEquals(0, snapshot.getEndIndex());
+        assertEquals(1, snapshot.getBarCount());
+        assertEquals(START, snapshot.getBar(0).getEndTime());
+        assertEquals(99, series.getSnapshot().getEndIndex());
+    }
+
+    @Test
+    public void snapshotsKeepTheirLastBar() {
+        ConcurrentBarSeries series = new ConcurrentBarSeries("concurrent", numFunction);
+        series.addBar(Duration.ofMinutes(1), START, 1, 1, 1, 1, 1);
+        series.addBar(Duration.ofMinutes(1), START.plusMinutes(1), 2, 2, 2, 2, 1);
+        ConcurrentBarSeries.Snapshot snapshot = series.getSnapshot();
+        series.addTrade(3, 5);
+        series.addPrice(6);
+
+        assertNumEquals(2, snapshot.getBar(1).getClosePrice());
+        assertNumEquals(1, snapshot.getBar(1).getVolume());
+        assertNumEquals(2, snapshot.getBarData().get(1).getClosePrice());
+        assertNumEquals(6, series.getLastBar().getClosePrice());
+        assertNumEquals(4, series.getLastBar().getVolume());
+
+        series.addBar(Duration.ofMinutes(1), START.plusMinutes(2), 7, 7, 7, 7, 1);
+        assertNumEquals(6, series.getBar(1).getClosePrice());
+        assertNumEquals(2, snapshot.getBar(1).getClosePrice());
+    }
+
+    @Test
+    public void addPriceToEmptyBar() {
+        ConcurrentBarSeries series = new ConcurrentBarSeries("concurrent", numFunction);
+        series.addBar(Duration.ofMinutes(1), START);
+        assertNull(series.getLastBar().getClosePrice());
+        series.addPrice(5);
+        series.addPrice(3);
+        assertNumEquals(5, series.getLastBar().getOpenPrice());
+        assertNumEquals(3, series.getLastBar().getClosePrice());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBarsInThePast() {
+        ConcurrentBarSeries series = new ConcurrentBarSeries("concurrent", numFunction);
+        series.addBar(Duration.ofMinutes(1), START, 1, 1, 1, 1, 1);
+        series.addBar(Duration.ofMinutes(1), START, 1, 1, 1, 1, 1);
+    }
+
+    /**
+     * Stress test: one writer adds bars and trades at a high rate while several
+     * readers check the consistency of the snapshots.
+     */
+    @Test
+    public void concurrentReadersAndWriter() throws InterruptedException {
+        final int barCount = 20_000;
+        final int readerCount = 8;
+        final int maximumBarCount = 500;
+        final ConcurrentBarSeries series = new ConcurrentBarSeries("stress", numFunction);
+        series.setMaximumBarCount(maximumBarCount);
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicLong reads = new AtomicLong();
+        final CountDownLatch started = new CountDownLatch(readerCount);
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < readerCount; r++) {
+            Thread reader = new Thread(() -> {
+                started.countDown();
+                int lastEndIndex = -1;
+                try {
+                    while (running.get()) {
+                        ConcurrentBarSeries.Snapshot snapshot = series.getSnapshot();
+                        int endIndex = snapshot.getEndIndex();
+                        if (endIndex < 0) {
+                            continue;
+                        }
+                        assertTrue(endIndex >= lastEndIndex);
+                        lastEndIndex = endIndex;
+                        assertTrue(snapshot.getBarCount() <= maximumBarCount);
+                        int first = Math.max(snapshot.getBeginIndex(), snapshot.getRemovedBarsCount());
+                        assertEquals(endIndex - first + 1, snapshot.getBarCount());
+                        for (int i = Math.max(first, endIndex - 10); i <= endIndex; i++) {
+                            Bar bar = snapshot.getBar(i);
+                            // every bar is fully initialized and at its expected position
+                            assertEquals(START.plusMinutes(i), bar.getEndTime());
+                            assertEquals(i, bar.getOpenPrice().intValue());
+                        }
+                        reads.incrementAndGet();
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        started.await();
+        for (int i = 0; i < barCount; i++) {
+            series.addBar(Duration.ofMinutes(1), START.plusMinutes(i), i, i, i, i, 0);
+            series.addTrade(1, i + 1);
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError("Inconsistent read", failure.get());
+        }
+        assertTrue(reads.get() > 0);
+        assertEquals(barCount - 1, series.getEndIndex());
+        assertEquals(maximumBarCount, series.getBarCount());
+        assertNumEquals(barCount, series.getLastBar().getClosePrice());
+    }
+}
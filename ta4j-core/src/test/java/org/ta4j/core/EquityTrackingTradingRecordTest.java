@@ -0,0 +1,158 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.analysis.AnalysisContext;
+import org.ta4j.core.analysis.CashFlow;
+import org.ta4j.core.analysis.criteria.MaximumDrawdownCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfBreakEvenPositionsCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfLosingPositionsCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfWinningPositionsCriterion;
+import org.ta4j.core.analysis.criteria.pnl.GrossLossCriterion;
+import org.ta4j.core.analysis.criteria.pnl.GrossProfitCriterion;
+import org.ta4j.core.analysis.criteria.pnl.GrossReturnCriterion;
+import org.ta4j.core.analysis.criteria.pnl.NetLossCriterion;
+import org.ta4j.core.analysis.criteria.pnl.NetProfitCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossPercentageCriterion;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.cost.LinearBorrowingCostModel;
+import org.ta4j.core.cost.LinearTransactionCostModel;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+
+public class EquityTrackingTradingRecordTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private BarSeries series;
+
+    public EquityTrackingTradingRecordTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        series = new MockBarSeries(numFunction, 100, 105, 110, 100, 95, 105, 90, 90, 80, 85, 95, 100, 98, 97);
+    }
+
+    /**
+     * Places the trades at the given indexes (at close price), advancing the bars
+     * one by one.
+     */
+    private void run(TradingRecord record, int... indexes) {
+        int next = 0;
+        for (int i = series.getBeginIndex(); i <= series.getEndIndex(); i++) {
+            if (record instanceof EquityTrackingTradingRecord) {
+                ((EquityTrackingTradingRecord) record).advance(i);
+            }
+            if (next < indexes.length && indexes[next] == i) {
+                record.operate(i, series.getBar(i).getClosePrice(), numOf(1));
+                next++;
+            }
+        }
+    }
+
+    private void assertSameAsCashFlow(TradeType tradeType, CostModel transactionCostModel,
+            CostModel holdingCostModel) {
+        EquityTrackingTradingRecord tracked = new EquityTrackingTradingRecord(series, tradeType,
+                transactionCostModel, holdingCostModel);
+        BaseTradingRecord base = new BaseTradingRecord(tradeType, transactionCostModel, holdingCostModel);
+        int[] indexes = { 0, 2, 3, 4, 6, 7, 8, 11 };
+        run(tracked, indexes);
+        run(base, indexes);
+
+        assertEquals(series.getEndIndex(), tracked.getLastIndex());
+        CashFlow cashFlow = new CashFlow(series, base);
+        for (int i = 0; i <= series.getEndIndex(); i++) {
+            assertEquals(cashFlow.getValue(i), tracked.getEquity(i));
+        }
+
+        List<AnalysisCriterion> criteria = Arrays.asList(new MaximumDrawdownCriterion(), new GrossReturnCriterion(),
+                new GrossProfitCriterion(), new GrossLossCriterion(), new NetProfitCriterion(),
+                new NetLossCriterion(), new ProfitLossCriterion(), new ProfitLossPercentageCriterion(),
+                new NumberOfWinningPositionsCriterion(), new NumberOfLosingPositionsCriterion(),
+                new NumberOfBreakEvenPositionsCriterion());
+        List<Num> contextValues = new AnalysisContext(series, tracked).calculate(criteria);
+        for (int i = 0; i < criteria.size(); i++) {
+            AnalysisCriterion criterion = criteria.get(i);
+            Num expected = criterion.calculate(series, base);
+            assertEquals(criterion.toString(), expected, criterion.calculate(series, tracked));
+            assertEquals(criterion.toString(), expected, contextValues.get(i));
+        }
+    }
+
+    @Test
+    public void sameAsCashFlowForLongPositions() {
+        assertSameAsCashFlow(TradeType.BUY, new LinearTransactionCostModel(0.01), new LinearBorrowingCostModel(0));
+    }
+
+    @Test
+    public void sameAsCashFlowForShortPositionsWithHoldingCost() {
+        assertSameAsCashFlow(TradeType.SELL, new LinearTransactionCostModel(0.005),
+                new LinearBorrowingCostModel(0.01));
+    }
+
+    @Test
+    public void trackOpenPosition() {
+        EquityTrackingTradingRecord record = new EquityTrackingTradingRecord(series);
+        assertNumEquals(1, record.getEquity());
+        record.enter(1, series.getBar(1).getClosePrice(), numOf(1));
+        record.advance(2);
+        // 110 / 105
+        assertNumEquals(110d / 105, record.getEquity());
+        assertNumEquals(110d / 105, record.getPeak());
+        record.advance(4);
+        // 95 / 105, from a peak of 110 / 105
+        assertNumEquals(95d / 105, record.getEquity());
+        assertNumEquals(15d / 110, record.getDrawdown());
+        assertNumEquals(15d / 110, record.getMaxDrawdown());
+        // the open position is not accounted for by the closed values
+        assertNumEquals(0, record.getClosedMaxDrawdown());
+        assertNumEquals(1, record.getClosedPeak());
+        assertNumEquals(0, new MaximumDrawdownCriterion().calculate(series, record));
+
+        record.exit(5, series.getBar(5).getClosePrice(), numOf(1));
+        assertNumEquals(1, record.getEquity());
+        assertNumEquals(15d / 110, record.getClosedMaxDrawdown());
+        assertNumEquals(15d / 110, new MaximumDrawdownCriterion().calculate(series, record));
+        assertEquals(1, record.getBreakEvenPositionCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotGoBack() {
+        EquityTrackingTradingRecord record = new EquityTrackingTradingRecord(series);
+        record.advance(5);
+        record.enter(3, series.getBar(3).getClosePrice(), numOf(1));
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.cost.LinearBorrowingCostModel;
+import org.ta4j.core.cost.LinearTransactionCostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.rules.CrossedDownIndicatorRule;
+import org.ta4j.core.rules.CrossedUpIndicatorRule;
+import org.ta4j.core.rules.JustOnceRule;
+import org.ta4j.core.rules.StopGainRule;
+import org.ta4j.core.rules.StopLossRule;
+import org.ta4j.core.rules.WaitForRule;
+
+public class ParallelBarSeriesManagerTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private BarSeries series;
+
+    private ForkJoinPool pool;
+
+    public ParallelBarSeriesManagerTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        Random random = new Random(42);
+        double[] prices = new double[600];
+        double price = 100;
+        for (int i = 0; i < prices.length; i++) {
+            price = Math.max(1, price + random.nextGaussian());
+            prices[i] = Math.round(price * 100) / 100d;
+        }
+        series = new MockBarSeries(numFunction, prices);
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static Strategy crossover(BarSeries series) {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        SMAIndicator sma = new SMAIndicator(closePrice, 5);
+        EMAIndicator ema = new EMAIndicator(closePrice, 20);
+        return new BaseStrategy(new CrossedUpIndicatorRule(sma, ema), new CrossedDownIndicatorRule(sma, ema), 20);
+    }
+
+    private static Strategy crossoverWithStops(BarSeries series) {
+        Strategy strategy = crossover(series);
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        return new BaseStrategy(strategy.getEntryRule(), strategy.getExitRule()
+                .or(new StopLossRule(closePrice, 2))
+                .or(new StopGainRule(closePrice, 3)), strategy.getUnstablePeriod());
+    }
+
+    private void assertSameAsSequentialRun(Function<BarSeries, Strategy> strategyFactory, TradeType tradeType,
+            int startIndex, int finishIndex) {
+        LinearTransactionCostModel transactionCostModel = new LinearTransactionCostModel(0.001);
+        LinearBorrowingCostModel holdingCostModel = new LinearBorrowingCostModel(0.0001);
+        TradingRecord expected = new BarSeriesManager(series, transactionCostModel, holdingCostModel)
+                .run(strategyFactory.apply(series), tradeType, numOf(1), startIndex, finishIndex);
+        assertTrue(expected.getPositionCount() > 5);
+        ParallelBarSeriesManager manager = new ParallelBarSeriesManager(series, transactionCostModel,
+                holdingCostModel, pool);
+        for (int segmentCount : new int[] { 1, 2, 3, 7, 16, 50, 1000 }) {
+            TradingRecord actual = manager.run(strategyFactory, tradeType, numOf(1), startIndex, finishIndex,
+                    segmentCount);
+            assertEquals("segments: " + segmentCount, expected.getPositions(), actual.getPositions());
+            assertEquals("segments: " + segmentCount, expected.getCurrentPosition(), actual.getCurrentPosition());
+        }
+    }
+
+    @Test
+    public void sameAsSequentialRun() {
+        assertSameAsSequentialRun(ParallelBarSeriesManagerTest::crossover, TradeType.BUY, series.getBeginIndex(),
+                series.getEndIndex());
+        assertSameAsSequentialRun(ParallelBarSeriesManagerTest::crossover, TradeType.SELL, series.getBeginIndex(),
+                series.getEndIndex());
+    }
+
+    @Test
+    public void sameAsSequentialRunWithStops() {
+        assertSameAsSequentialRun(ParallelBarSeriesManagerTest::crossoverWithStops, TradeType.BUY,
+                series.getBeginIndex(), series.getEndIndex());
+        assertSameAsSequentialRun(ParallelBarSeriesManagerTest::crossoverWithStops, TradeType.SELL,
+                series.getBeginIndex(), series.getEndIndex());
+    }
+
+    @Test
+    public void sameAsSequentialRunOnSubRange() {
+        assertSameAsSequentialRun(ParallelBarSeriesManagerTest::crossover, TradeType.BUY, 50, 450);
+    }
+
+    @Test
+    public void strategiesAreSharedBetweenTheSegmentsOfAThread() {
+        AtomicInteger strategyCount = new AtomicInteger();
+        Function<BarSeries, Strategy> strategyFactory = s -> {
+            strategyCount.incrementAndGet();
+            return crossover(s);
+        };
+        new ParallelBarSeriesManager(series, new ZeroCostModel(), new ZeroCostModel(), pool).run(strategyFactory,
+                TradeType.BUY, numOf(1), series.getBeginIndex(), series.getEndIndex(), 50);
+        // the probe, and at most one per thread of the pool
+        assertTrue(strategyCount.get() <= 1 + pool.getParallelism());
+    }
+
+    @Test
+    public void historyDependentStrategiesAreRunSequentially() {
+        Function<BarSeries, Strategy> strategyFactory = s -> {
+            Strategy strategy = crossover(s);
+            // the first entry, then entries at least 10 bars after the previous exit
+            Rule wait = new JustOnceRule().or(new WaitForRule(TradeType.SELL, 10));
+            return new BaseStrategy(strategy.getEntryRule().and(wait), strategy.getExitRule(),
+                    strategy.getUnstablePeriod());
+        };
+        assertFalse(ParallelBarSeriesManager.isSegmentable(strategyFactory.apply(series)));
+        assertTrue(ParallelBarSeriesManager.isSegmentable(crossoverWithStops(series)));
+        assertSameAsSequentialRun(strategyFactory, TradeType.BUY, series.getBeginIndex(), series.getEndIndex());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void segmentCountMustBePositive() {
+        new ParallelBarSeriesManager(series).run(ParallelBarSeriesManagerTest::crossover, TradeType.BUY, numOf(1),
+                0, 10, 0);
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.cost.CostModel;
+import org.ta4j.core.cost.LinearBorrowingCostModel;
+import org.ta4j.core.cost.LinearTransactionCostModel;
+import org.ta4j.core.cost.ZeroCostModel;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.rules.AbstractRule;
+import org.ta4j.core.rules.BooleanRule;
+import org.ta4j.core.rules.ChainRule;
+import org.ta4j.core.rules.CrossedDownIndicatorRule;
+import org.ta4j.core.rules.CrossedUpIndicatorRule;
+import org.ta4j.core.rules.FixedRule;
+import org.ta4j.core.rules.JustOnceRule;
+import org.ta4j.core.rules.StopLossRule;
+import org.ta4j.core.rules.helper.ChainLink;
+
+public class SignalTimelineTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private BarSeries series;
+
+    private Strategy strategy;
+
+    public SignalTimelineTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        series = new MockBarSeries(numFunction, 10, 11, 12, 11, 10, 9, 10, 12, 13, 12, 11, 10, 11, 12, 14, 13, 12, 10,
+                9, 11);
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+        SMAIndicator sma = new SMAIndicator(closePrice, 3);
+        strategy = new BaseStrategy(new CrossedUpIndicatorRule(closePrice, sma),
+                new CrossedDownIndicatorRule(closePrice, sma));
+    }
+
+    private void assertSameAsRun(SignalTimeline timeline, Strategy strategy, int startIndex, int finishIndex) {
+        List<CostModel[]> costModels = Arrays.asList(new CostModel[] { new ZeroCostModel(), new ZeroCostModel() },
+                new CostModel[] { new LinearTransactionCostModel(0.01), new ZeroCostModel() },
+                new CostModel[] { new LinearTransactionCostModel(0.005), new LinearBorrowingCostModel(0.01) });
+        for (CostModel[] models : costModels) {
+            for (TradeType tradeType : TradeType.values()) {
+                for (Num amount : Arrays.asList(numOf(1), numOf(2.5))) {
+                    TradingRecord expected = new BarSeriesManager(series, models[0], models[1]).run(strategy,
+                            tradeType, amount, startIndex, finishIndex);
+                    TradingRecord actual = timeline.replay(tradeType, amount, models[0], models[1]);
+                    assertEquals(expected.getPositions(), actual.getPositions());
+                    assertEquals(expected.getCurrentPosition(), actual.getCurrentPosition());
+                    assertEquals(expected.getPositions().get(0).getProfit(), actual.getPositions().get(0).getProfit());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void replaySameAsRun() {
+        SignalTimeline timeline = SignalTimeline.record(series, strategy);
+        assertFalse(timeline.isEntryRuleRecordDependent());
+        assertFalse(timeline.isExitRuleRecordDependent());
+        assertSameAsRun(timeline, strategy, series.getBeginIndex(), series.getEndIndex());
+    }
+
+    @Test
+    public void replaySameAsRunOnSubRange() {
+        // the last position is closed after the finish index
+        Strategy fixed = new BaseStrategy(new FixedRule(2, 8, 12), new FixedRule(5, 10, 16));
+        SignalTimeline timeline = SignalTimeline.record(series, fixed, 1, 13);
+        assertSameAsRun(timeline, fixed, 1, 13);
+        assertEquals(3, timeline.replay(new BaseTradingRecord(), numOf(1)).getPositionCount());
+    }
+
+    @Test
+    public void replaySameAsRunWithUnstablePeriod() {
+        strategy.setUnstablePeriod(8);
+        SignalTimeline timeline = SignalTimeline.record(series, strategy);
+        assertSameAsRun(timeline, strategy, series.getBeginIndex(), series.getEndIndex());
+    }
+
+    @Test
+    public void replaySameAsRunWithRecordDependentExitRule() {
+        Strategy withStopLoss = new BaseStrategy(strategy.getEntryRule(),
+                new FixedRule(19).or(new StopLossRule(new ClosePriceIndicator(series), 5)));
+        SignalTimeline timeline = SignalTimeline.record(series, withStopLoss);
+        assertFalse(timeline.isEntryRuleRecordDependent());
+        assertTrue(timeline.isExitRuleRecordDependent());
+        assertTrue(timeline.getExitSignals().isEmpty());
+        assertSameAsRun(timeline, withStopLoss, series.getBeginIndex(), series.getEndIndex());
+    }
+
+    @Test
+    public void replayDoesNotEvaluateRules() {
+        AtomicInteger evaluations = new AtomicInteger();
+        Rule countingRule = new AbstractRule() {
+            @Override
+            public boolean isSatisfied(int index, TradingRecord tradingRecord) {
+                evaluations.incrementAndGet();
+                return index % 3 == 0;
+            }
+        };
+        Strategy counted = new BaseStrategy(countingRule, countingRule.negation());
+        SignalTimeline timeline = SignalTimeline.record(series, counted);
+        int recorded = evaluations.get();
+        assertEquals(2 * series.getBarCount(), recorded);
+        for (int i = 0; i < 10; i++) {
+            timeline.replay(new CompactTradingRecord(series), numOf(1));
+        }
+        assertEquals(recorded, evaluations.get());
+    }
+
+    @Test
+    public void recordDependentRules() {
+        Rule independent = new BooleanRule(true);
+        Rule stopLoss = new StopLossRule(new ClosePriceIndicator(series), 5);
+        assertFalse(SignalTimeline.isRecordDependent(independent));
+        assertFalse(SignalTimeline.isRecordDependent(strategy.getEntryRule().and(independent).negation()));
+        assertTrue(SignalTimeline.isRecordDependent(stopLoss));
+        assertTrue(SignalTimeline.isRecordDependent(new JustOnceRule(independent)));
+        assertTrue(SignalTimeline.isRecordDependent(independent.xor(stopLoss.negation())));
+        assertTrue(SignalTimeline.isRecordDependent(new ChainRule(independent, new ChainLink(stopLoss, 2))));
+    }
+}
@@ -0,0 +1,242 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.ta4j.core.aggregator.DurationBarAggregator;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.indicators.helpers.TimeframeIndicator;
+import org.ta4j.core.num.NaN;
+import org.ta4j.core.num.Num;
+
+public class TimeframeBarSeriesTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private final ZonedDateTime start = ZonedDateTime.of(2021, 3, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    public TimeframeBarSeriesTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    private Bar minuteBar(int i) {
+        double open = 100 + (i * 7) % 11;
+        double close = 100 + (i * 5) % 13;
+        return new BaseBar(Duration.ofMinutes(1), start.plusMinutes(i + 1), numOf(open),
+                numOf(Math.max(open, close) + i % 3), numOf(Math.min(open, close) - i % 2), numOf(close),
+                numOf(10 + i % 4), numOf(1000 + i), 3);
+    }
+
+    private BaseBarSeries emptySeries() {
+        return (BaseBarSeries) new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+    }
+
+    private static void assertBarEquals(Bar expected, Bar actual) {
+        assertEquals(expected.getBeginTime(), actual.getBeginTime());
+        assertEquals(expected.getEndTime(), actual.getEndTime());
+        assertNumEquals(expected.getOpenPrice(), actual.getOpenPrice());
+        assertNumEquals(expected.getHighPrice(), actual.getHighPrice());
+        assertNumEquals(expected.getLowPrice(), actual.getLowPrice());
+        assertNumEquals(expected.getClosePrice(), actual.getClosePrice());
+        assertNumEquals(expected.getVolume(), actual.getVolume());
+        assertNumEquals(expected.getAmount(), actual.getAmount());
+        assertEquals(expected.getTrades(), actual.getTrades());
+    }
+
+    @Test
+    public void followsTheBaseSeries() {
+        BaseBarSeries base = emptySeries();
+        TimeframeBarSeries derived = new TimeframeBarSeries(base, Duration.ofMinutes(5));
+        List<Bar> bars = new ArrayList<>();
+        for (int i = 0; i < 62; i++) {
+            bars.add(minuteBar(i));
+            base.addBar(bars.get(i));
+            assertEquals(i / 5, derived.getEndIndex());
+            assertEquals(i % 5 == 4, derived.isLastBarComplete());
+        }
+        List<Bar> expected = new DurationBarAggregator(Duration.ofMinutes(5)).aggregate(bars);
+        assertEquals(13, derived.getBarCount());
+        for (int i = 0; i < expected.size(); i++) {
+            assertBarEquals(expected.get(i), derived.getBar(i));
+        }
+        // the last bar is in progress, over the last 2 base bars
+        Bar last = derived.getLastBar();
+        assertEquals(start.plusMinutes(60), last.getBeginTime());
+        assertNumEquals(bars.get(60).getOpenPrice(), last.getOpenPrice());
+        assertNumEquals(bars.get(61).getClosePrice(), last.getClosePrice());
+        assertNumEquals(bars.get(60).getVolume().plus(bars.get(61).getVolume()), last.getVolume());
+    }
+
+    @Test
+    public void derivesExistingBars() {
+        BaseBarSeries base = emptySeries();
+        BaseBarSeries incremental = emptySeries();
+        TimeframeBarSeries expected = new TimeframeBarSeries(incremental, Duration.ofMinutes(15));
+        for (int i = 0; i < 50; i++) {
+            base.addBar(minuteBar(i));
+            incremental.addBar(minuteBar(i));
+        }
+        TimeframeBarSeries derived = new TimeframeBarSeries(base, Duration.ofMinutes(15));
+        assertEquals(expected.getBarCount(), derived.getBarCount());
+        for (int i = 0; i < expected.getBarCount(); i++) {
+            assertBarEquals(expected.getBar(i), derived.getBar(i));
+        }
+    }
+
+    @Test
+    public void tradesUpdateTheLastBar() {
+        BaseBarSeries base = emptySeries();
+        TimeframeBarSeries derived = new TimeframeBarSeries(base, Duration.ofMinutes(5));
+        for (int i = 0; i < 7; i++) {
+            base.addBar(minuteBar(i));
+        }
+        Num volume = derived.getLastBar().getVolume();
+        base.addTrade(numOf(4), numOf(150));
+        assertEquals(1, derived.getEndIndex());
+        assertNumEquals(150, derived.getLastBar().getClosePrice());
+        assertNumEquals(150, derived.getLastBar().getHighPrice());
+        assertNumEquals(volume.plus(numOf(4)), derived.getLastBar().getVolume());
+        // the traded bar is committed with its trade
+        base.addBar(minuteBar(7));
+        assertNumEquals(150, derived.getLastBar().getHighPrice());
+
+        derived.detach();
+        base.addBar(minuteBar(8));
+        base.addBar(minuteBar(9));
+        assertEquals(1, derived.getEndIndex());
+        assertFalse(derived.isLastBarComplete());
+    }
+
+    @Test
+    public void followsEmptyBaseBarsFilledByTrades() {
+        BaseBarSeries base = emptySeries();
+        TimeframeBarSeries derived = new TimeframeBarSeries(base, Duration.ofMinutes(5));
+        List<Bar> bars = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            base.addBar(Duration.ofMinutes(1), start.plusMinutes(i + 1));
+            assertEquals(i / 5, derived.getEndIndex());
+            base.addTrade(numOf(10), numOf(100 + i % 7));
+            base.addTrade(numOf(5), numOf(100 - i % 3));
+            bars.add(base.getLastBar());
+        }
+        // an empty base bar does not change the last bar
+        base.addBar(Duration.ofMinutes(1), start.plusMinutes(13));
+        assertNumEquals(bars.get(11).getClosePrice(), derived.getLastBar().getClosePrice());
+
+        assertNumEquals(bars.get(10).getOpenPrice(), derived.getLastBar().getOpenPrice());
+        assertEquals(3, derived.getBarCount());
+
+        // the complete bars
+        List<Bar> expected = new DurationBarAggregator(Duration.ofMinutes(5)).aggregate(bars);
+        assertEquals(2, expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertBarEquals(expected.get(i), derived.getBar(i));
+        }
+    }
+
+    @Test
+    public void mapsBaseIndexes() {
+        BaseBarSeries base = emptySeries();
+        TimeframeBarSeries derived = new TimeframeBarSeries(base, Duration.ofMinutes(5));
+        for (int i = 0; i < 23; i++) {
+            base.addBar(minuteBar(i));
+        }
+        for (int i = 0; i < 23; i++) {
+            assertEquals(i / 5, derived.getDerivedIndex(i));
+            assertEquals(i % 5 == 4 ? i / 5 : i / 5 - 1, derived.getCompletedIndex(i));
+        }
+    }
+
+    @Test
+    public void forgetsTheRemovedBaseBars() {
+        BaseBarSeries base = emptySeries();
+        base.setMaximumBarCount(10);
+        TimeframeBarSeries derived = new TimeframeBarSeries(base, Duration.ofMinutes(5));
+        for (int i = 0; i < 1000; i++) {
+            base.addBar(minuteBar(i));
+        }
+        assertEquals(990, base.getRemovedBarsCount());
+        for (int i = 990; i < 1000; i++) {
+            assertEquals(i / 5, derived.getDerivedIndex(i));
+            assertEquals(i % 5 == 4 ? i / 5 : i / 5 - 1, derived.getCompletedIndex(i));
+        }
+        try {
+            derived.getDerivedIndex(989);
+            fail("The base bar is removed");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void periodsWithoutBaseBarsAreSkipped() {
+        BaseBarSeries base = emptySeries();
+        TimeframeBarSeries derived = new TimeframeBarSeries(base, Duration.ofMinutes(5));
+        base.addBar(minuteBar(0));
+        base.addBar(minuteBar(12));
+        base.addBar(minuteBar(14));
+        assertEquals(2, derived.getBarCount());
+        assertEquals(start.plusMinutes(10), derived.getBar(1).getBeginTime());
+        assertTrue(derived.isLastBarComplete());
+        assertEquals(0, derived.getCompletedIndex(1));
+        assertEquals(1, derived.getCompletedIndex(2));
+    }
+
+    @Test
+    public void timeframeIndicatorHasNoLookAhead() {
+        BaseBarSeries base = emptySeries();
+        TimeframeBarSeries derived = new TimeframeBarSeries(base, Duration.ofMinutes(5));
+        TimeframeIndicator close = new TimeframeIndicator(new ClosePriceIndicator(derived));
+        assertSame(base, close.getBarSeries());
+        for (int i = 0; i < 8; i++) {
+            base.addBar(minuteBar(i));
+        }
+        assertEquals(NaN.NaN, close.getValue(3));
+        assertNumEquals(minuteBar(4).getClosePrice(), close.getValue(4));
+        assertNumEquals(minuteBar(4).getClosePrice(), close.getValue(7));
+        for (int i = 8; i < 12; i++) {
+            base.addBar(minuteBar(i));
+        }
+        assertNumEquals(minuteBar(4).getClosePrice(), close.getValue(7));
+        assertNumEquals(minuteBar(9).getClosePrice(), close.getValue(11));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timeframeIndicatorNeedsATimeframeSeries() {
+        new TimeframeIndicator(new ClosePriceIndicator(emptySeries()));
+    }
+}
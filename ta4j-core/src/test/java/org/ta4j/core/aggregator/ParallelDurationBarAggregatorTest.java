@@ -0,0 +1,171 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBar;
+import org.ta4j.core.BaseBarSeries;
+import org.ta4j.core.CompactBar;
+import org.ta4j.core.CompactBarSeries;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.num.Num;
+
+public class ParallelDurationBarAggregatorTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private static final ZonedDateTime TIME = ZonedDateTime.of(2021, 3, 1, 9, 1, 0, 0, ZoneId.of("UTC"));
+
+    public ParallelDurationBarAggregatorTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    private List<Bar> getMinuteBars(int count) {
+        Random random = new Random(42);
+        List<Bar> bars = new ArrayList<>();
+        double close = 100;
+        for (int i = 0; i < count; i++) {
+            double open = close;
+            close = Math.max(1, open + random.nextInt(11) - 5);
+            double high = Math.max(open, close) + random.nextInt(3);
+            double low = Math.min(open, close) - random.nextInt(3);
+            bars.add(new BaseBar(Duration.ofMinutes(1), TIME.plusMinutes(i), open, high, low, close,
+                    random.nextInt(100), random.nextInt(1000), random.nextInt(10), numFunction));
+        }
+        return bars;
+    }
+
+    private static void assertBarsEquals(List<Bar> expected, List<Bar> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Bar expectedBar = expected.get(i);
+            Bar actualBar = actual.get(i);
+            assertEquals(expectedBar.getTimePeriod(), actualBar.getTimePeriod());
+            assertTrue(expectedBar.getEndTime().isEqual(actualBar.getEndTime()));
+            assertEquals(expectedBar.getOpenPrice().doubleValue(), actualBar.getOpenPrice().doubleValue(), 1e-9);
+            assertEquals(expectedBar.getHighPrice().doubleValue(), actualBar.getHighPrice().doubleValue(), 1e-9);
+            assertEquals(expectedBar.getLowPrice().doubleValue(), actualBar.getLowPrice().doubleValue(), 1e-9);
+            assertEquals(expectedBar.getClosePrice().doubleValue(), actualBar.getClosePrice().doubleValue(), 1e-9);
+            assertEquals(expectedBar.getVolume().doubleValue(), actualBar.getVolume().doubleValue(), 1e-9);
+            assertEquals(expectedBar.getAmount().doubleValue(), actualBar.getAmount().doubleValue(), 1e-9);
+            assertEquals(expectedBar.getTrades(), actualBar.getTrades());
+        }
+    }
+
+    @Test
+    public void aggregateLikeDurationBarAggregator() {
+        List<Bar> bars = getMinuteBars(1000);
+        for (Duration timePeriod : Arrays.asList(Duration.ofMinutes(5), Duration.ofMinutes(7), Duration.ofHours(1))) {
+            List<Bar> expected = new DurationBarAggregator(timePeriod).aggregate(bars);
+            // small chunks, for periods across the chunk boundaries
+            ParallelDurationBarAggregator aggregator = new ParallelDurationBarAggregator(
+                    Arrays.asList(timePeriod), true, ForkJoinPool.commonPool(), 13);
+            assertBarsEquals(expected, aggregator.aggregate(bars));
+            assertBarsEquals(expected, new ParallelDurationBarAggregator(timePeriod).aggregate(bars));
+        }
+    }
+
+    @Test
+    public void aggregateWithPendingBar() {
+        List<Bar> bars = getMinuteBars(62);
+        List<Bar> expected = new DurationBarAggregator(Duration.ofMinutes(5), false).aggregate(bars);
+        List<Bar> aggregated = new ParallelDurationBarAggregator(Arrays.asList(Duration.ofMinutes(5)), false,
+                ForkJoinPool.commonPool(), 4).aggregate(bars);
+        assertEquals(13, aggregated.size());
+        assertBarsEquals(expected, aggregated);
+        assertEquals(12, new ParallelDurationBarAggregator(Duration.ofMinutes(5)).aggregate(bars).size());
+    }
+
+    @Test
+    public void aggregateSeveralTimePeriodsAtOnce() {
+        List<Bar> bars = getMinuteBars(500);
+        List<Duration> timePeriods = Arrays.asList(Duration.ofMinutes(5), Duration.ofMinutes(15),
+                Duration.ofMinutes(30));
+        Map<Duration, List<Bar>> aggregated = new ParallelDurationBarAggregator(timePeriods, true,
+                ForkJoinPool.commonPool(), 32).aggregateAll(bars);
+        assertEquals(timePeriods, new ArrayList<>(aggregated.keySet()));
+        for (Duration timePeriod : timePeriods) {
+            assertBarsEquals(new DurationBarAggregator(timePeriod).aggregate(bars), aggregated.get(timePeriod));
+        }
+    }
+
+    @Test
+    public void skipPeriodsWithoutBars() {
+        List<Bar> bars = getMinuteBars(30);
+        // gap of 20 minutes
+        List<Bar> gapped = new ArrayList<>(bars.subList(0, 10));
+        gapped.addAll(bars.subList(30 - 10, 30));
+        List<Bar> aggregated = new ParallelDurationBarAggregator(Arrays.asList(Duration.ofMinutes(5)), true,
+                ForkJoinPool.commonPool(), 3).aggregate(gapped);
+        assertEquals(4, aggregated.size());
+        assertTrue(aggregated.get(2).getEndTime().isEqual(TIME.plusMinutes(24)));
+        assertEquals(bars.get(20).getOpenPrice().doubleValue(), aggregated.get(2).getOpenPrice().doubleValue(),
+                1e-9);
+    }
+
+    @Test
+    public void aggregateCompactSeries() {
+        List<Bar> bars = getMinuteBars(300);
+        CompactBarSeries series = new CompactBarSeries("compact", bars,
+                new CompactBar.Frame(Duration.ofMinutes(1), TIME.getZone(), numFunction));
+        List<Duration> timePeriods = Arrays.asList(Duration.ofMinutes(10), Duration.ofHours(1));
+        Map<Duration, BarSeries> aggregated = new ParallelDurationBarAggregator(timePeriods, true,
+                ForkJoinPool.commonPool(), 17).aggregateAll(series);
+        for (Duration timePeriod : timePeriods) {
+            BarSeries aggregatedSeries = aggregated.get(timePeriod);
+            assertTrue(aggregatedSeries instanceof CompactBarSeries);
+            assertBarsEquals(new DurationBarAggregator(timePeriod).aggregate(bars), aggregatedSeries.getBarData());
+        }
+
+        BarSeries baseSeries = new BaseBarSeries("base", bars, numFunction);
+        BarSeries aggregatedSeries = new ParallelDurationBarAggregator(timePeriods).aggregateAll(baseSeries)
+                .get(Duration.ofHours(1));
+        assertTrue(aggregatedSeries instanceof BaseBarSeries);
+        assertBarsEquals(aggregated.get(Duration.ofHours(1)).getBarData(), aggregatedSeries.getBarData());
+    }
+
+    @Test
+    public void aggregateEmptyList() {
+        assertTrue(new ParallelDurationBarAggregator(Duration.ofMinutes(5)).aggregate(new ArrayList<>()).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timePeriodNotMultipleOfActualTimePeriod() {
+        new ParallelDurationBarAggregator(Duration.ofSeconds(90)).aggregate(getMinuteBars(10));
+    }
+}
@@ -0,0 +1,311 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.aggregator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBar;
+import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.utils.TimeUtils;
+
+public class StreamingBarAggregatorTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private final ZonedDateTime start = ZonedDateTime.of(2021, 3, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    public StreamingBarAggregatorTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    private List<Bar> minuteBars(int count) {
+        return minuteBars(count, true);
+    }
+
+    private List<Bar> minuteBars(int count, boolean withAmount) {
+        List<Bar> bars = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double open = 100 + (i * 7) % 11;
+            double close = 100 + (i * 5) % 13;
+            bars.add(new BaseBar(Duration.ofMinutes(1), start.plusMinutes(i + 1), numOf(open),
+                    numOf(Math.max(open, close) + i % 3), numOf(Math.min(open, close) - i % 2), numOf(close),
+                    numOf(10 + i % 4), numOf(withAmount ? 1000 + i : 0), 3));
+        }
+        return bars;
+    }
+
+    private static void assertBarEquals(Bar expected, Bar actual) {
+        assertEquals(expected.getBeginTime(), actual.getBeginTime());
+        assertEquals(expected.getEndTime(), actual.getEndTime());
+        assertNumEquals(expected.getOpenPrice(), actual.getOpenPrice());
+        assertNumEquals(expected.getHighPrice(), actual.getHighPrice());
+        assertNumEquals(expected.getLowPrice(), actual.getLowPrice());
+        assertNumEquals(expected.getClosePrice(), actual.getClosePrice());
+        assertNumEquals(expected.getVolume(), actual.getVolume());
+        assertNumEquals(expected.getAmount(), actual.getAmount());
+        assertEquals(expected.getTrades(), actual.getTrades());
+    }
+
+    @Test
+    public void durationMatchesBatchAggregation() {
+        List<Bar> bars = minuteBars(62);
+        List<Bar> expected = new DurationBarAggregator(Duration.ofMinutes(5)).aggregate(bars);
+        BarSeries target = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        StreamingDurationBarAggregator aggregator = new StreamingDurationBarAggregator(target, Duration.ofMinutes(5));
+        bars.forEach(aggregator::addBar);
+        assertEquals(12, expected.size());
+        assertEquals(expected.size(), target.getBarCount());
+        for (int i = 0; i < expected.size(); i++) {
+            assertBarEquals(expected.get(i), target.getBar(i));
+        }
+        // the last 2 minutes are in progress
+        Bar current = aggregator.getCurrentBar();
+        assertEquals(start.plusMinutes(60), current.getBeginTime());
+        assertNumEquals(bars.get(60).getOpenPrice(), current.getOpenPrice());
+        assertNumEquals(bars.get(61).getClosePrice(), current.getClosePrice());
+        aggregator.flush();
+        assertEquals(13, target.getBarCount());
+        assertNull(aggregator.getCurrentBar());
+    }
+
+    @Test
+    public void durationWithoutAmountsMatchesBatchAggregation() {
+        List<Bar> bars = minuteBars(20, false);
+        List<Bar> expected = new DurationBarAggregator(Duration.ofMinutes(5)).aggregate(bars);
+        List<Bar> actual = new ArrayList<>();
+        StreamingDurationBarAggregator aggregator = new StreamingDurationBarAggregator(actual::add,
+                Duration.ofMinutes(5), start);
+        bars.forEach(aggregator::addBar);
+        assertEquals(4, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertBarEquals(expected.get(i), actual.get(i));
+            assertNumEquals(0, actual.get(i).getAmount());
+        }
+    }
+
+    @Test
+    public void durationFromTrades() {
+        List<Bar> bars = new ArrayList<>();
+        StreamingDurationBarAggregator aggregator = new StreamingDurationBarAggregator(bars::add,
+                Duration.ofMinutes(1), start);
+        aggregator.addTrade(start.plusSeconds(10), numOf(10), numOf(2));
+        aggregator.addTrade(start.plusSeconds(20), numOf(12), numOf(1));
+        aggregator.addTrade(start.plusSeconds(50), numOf(9), numOf(3));
+        assertEquals(0, bars.size());
+        // a trade of the third minute finalizes the first one, the second has no bar
+        aggregator.addTrade(start.plusSeconds(130), numOf(11), numOf(1));
+        assertEquals(1, bars.size());
+        Bar bar = bars.get(0);
+        assertEquals(start, bar.getBeginTime());
+        assertEquals(start.plusMinutes(1), bar.getEndTime());
+        assertNumEquals(10, bar.getOpenPrice());
+        assertNumEquals(12, bar.getHighPrice());
+        assertNumEquals(9, bar.getLowPrice());
+        assertNumEquals(9, bar.getClosePrice());
+        assertNumEquals(6, bar.getVolume());
+        assertNumEquals(59, bar.getAmount());
+        assertEquals(3, bar.getTrades());
+
+        aggregator.advanceTo(start.plusSeconds(170));
+        assertEquals(1, bars.size());
+        aggregator.advanceTo(start.plusSeconds(180));
+        assertEquals(2, bars.size());
+        assertEquals(start.plusMinutes(2), bars.get(1).getBeginTime());
+    }
+
+    @Test
+    public void durationFromPrimitiveTradesMatchesTrades() {
+        BarSeries expected = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        BarSeries actual = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        StreamingDurationBarAggregator aggregator = new StreamingDurationBarAggregator(expected,
+                Duration.ofMinutes(5));
+        StreamingDurationBarAggregator primitive = new StreamingDurationBarAggregator(actual, Duration.ofMinutes(5),
+                ZoneOffset.UTC);
+        long second = 0;
+        for (int i = 0; i < 500; i++) {
+            // gaps of several periods from time to time
+            second += i % 50 == 49 ? 1200 : 7 + i % 13;
+            double price = 100 + (i * 7) % 11 + 0.5;
+            double volume = 1 + i % 4;
+            aggregator.addTrade(start.plusSeconds(second), numOf(price), numOf(volume));
+            primitive.addTrade(TimeUtils.toEpochNanos(start.plusSeconds(second)), price, volume);
+        }
+        aggregator.flush();
+        primitive.flush();
+
+        assertEquals(expected.getBarCount(), actual.getBarCount());
+        assertEquals(actual.getBarCount(), primitive.getBarCount());
+        for (int i = 0; i < expected.getBarCount(); i++) {
+            assertBarEquals(expected.getBar(i), actual.getBar(i));
+        }
+    }
+
+    @Test
+    public void durationFromPrimitiveTradesAdvances() {
+        List<Bar> bars = new ArrayList<>();
+        StreamingDurationBarAggregator aggregator = new StreamingDurationBarAggregator(bars::add, numFunction,
+                Duration.ofMinutes(1), ZoneOffset.UTC, start);
+        aggregator.addTrade(TimeUtils.toEpochNanos(start.plusSeconds(30)), 10, 1);
+        aggregator.addTrade(TimeUtils.toEpochNanos(start.plusSeconds(59)), 12, 2);
+        aggregator.advanceTo(TimeUtils.toEpochNanos(start.plusSeconds(59)));
+        assertEquals(0, bars.size());
+        aggregator.advanceTo(TimeUtils.toEpochNanos(start.plusSeconds(60)));
+        assertEquals(1, bars.size());
+
+        // a trade at the end of a period belongs to the next one
+        aggregator.addTrade(TimeUtils.toEpochNanos(start.plusSeconds(180)), 11, 1);
+        aggregator.flush();
+        assertEquals(2, bars.size());
+        assertEquals(start.plusMinutes(1), bars.get(0).getEndTime());
+        assertNumEquals(10, bars.get(0).getOpenPrice());
+        assertNumEquals(12, bars.get(0).getClosePrice());
+        assertNumEquals(34, bars.get(0).getAmount());
+        assertEquals(start.plusMinutes(4), bars.get(1).getEndTime());
+        assertEquals(1, bars.get(1).getTrades());
+    }
+
+    @Test
+    public void durationFromIteratorOfTrades() {
+        List<double[]> trades = Arrays.asList(new double[] { 0, 5, 1 }, new double[] { 20, 7, 1 },
+                new double[] { 70, 6, 3 });
+        List<Bar> bars = new ArrayList<>();
+        StreamingDurationBarAggregator aggregator = new StreamingDurationBarAggregator(bars::add, numFunction,
+                Duration.ofMinutes(1), ZoneOffset.UTC, null);
+        aggregator.addTrades(trades.iterator(),
+                trade -> TimeUtils.toEpochNanos(start) + (long) trade[0] * TimeUtils.NANOS_PER_SECOND,
+                trade -> trade[1], trade -> trade[2]);
+        aggregator.flush();
+
+        assertEquals(2, bars.size());
+        assertEquals(start, bars.get(0).getBeginTime());
+        assertNumEquals(7, bars.get(0).getHighPrice());
+        assertNumEquals(5, bars.get(0).getLowPrice());
+        assertNumEquals(3, bars.get(1).getVolume());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void primitiveTradesInDescendingOrder() {
+        StreamingDurationBarAggregator aggregator = new StreamingDurationBarAggregator(bar -> {
+        }, numFunction, Duration.ofMinutes(1), ZoneOffset.UTC, null);
+        aggregator.addTrade(TimeUtils.toEpochNanos(start.plusMinutes(5)), 1, 1);
+        aggregator.addTrade(TimeUtils.toEpochNanos(start), 1, 1);
+    }
+
+    @Test
+    public void volumeBars() {
+        List<Bar> bars = new ArrayList<>();
+        StreamingVolumeBarAggregator aggregator = new StreamingVolumeBarAggregator(bars::add, 5);
+        double[] volumes = { 1, 2, 3, 1, 4, 2, 2 };
+        for (int i = 0; i < volumes.length; i++) {
+            aggregator.addTrade(start.plusSeconds(i), numOf(100 + i), numOf(volumes[i]));
+        }
+        // 1+2+3, 1+4, 2+2 in progress
+        assertEquals(2, bars.size());
+        assertNumEquals(6, bars.get(0).getVolume());
+        assertNumEquals(100, bars.get(0).getOpenPrice());
+        assertNumEquals(102, bars.get(0).getClosePrice());
+        assertEquals(start, bars.get(0).getBeginTime());
+        assertEquals(start.plusSeconds(2), bars.get(0).getEndTime());
+        assertNumEquals(5, bars.get(1).getVolume());
+        assertNumEquals(4, aggregator.getCurrentBar().getVolume());
+        assertEquals(2, aggregator.getBarCount());
+    }
+
+    @Test
+    public void barsCompletedAtTheSameTimeHaveIncreasingEndTimes() {
+        BarSeries target = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        StreamingVolumeBarAggregator aggregator = new StreamingVolumeBarAggregator(target, 10);
+        ZonedDateTime time = start.plusSeconds(1);
+        aggregator.addTrade(time, numOf(100), numOf(10));
+        aggregator.addTrade(time, numOf(101), numOf(10));
+        aggregator.addTrade(time, numOf(102), numOf(4));
+        assertEquals(2, target.getBarCount());
+        assertEquals(time, target.getBar(0).getEndTime());
+        assertEquals(time.plusNanos(1), target.getBar(1).getEndTime());
+        assertEquals(time, target.getBar(1).getBeginTime());
+        assertNumEquals(101, target.getBar(1).getClosePrice());
+        assertEquals(time.plusNanos(2), aggregator.getCurrentBar().getEndTime());
+        aggregator.addTrade(time.plusSeconds(1), numOf(103), numOf(6));
+        assertEquals(3, target.getBarCount());
+        assertEquals(time.plusSeconds(1), target.getBar(2).getEndTime());
+    }
+
+    @Test
+    public void tickBars() {
+        List<Bar> bars = new ArrayList<>();
+        StreamingTickBarAggregator aggregator = new StreamingTickBarAggregator(bars::add, 3);
+        for (int i = 0; i < 10; i++) {
+            aggregator.addTrade(start.plusSeconds(i), numOf(100 + i % 4), numOf(1));
+        }
+        assertEquals(3, bars.size());
+        for (Bar bar : bars) {
+            assertEquals(3, bar.getTrades());
+        }
+        assertNumEquals(103, bars.get(1).getHighPrice());
+        assertNumEquals(100, bars.get(1).getLowPrice());
+    }
+
+    @Test
+    public void valueBars() {
+        BarSeries target = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        StreamingValueBarAggregator aggregator = new StreamingValueBarAggregator(target, 3000);
+        minuteBars(10).forEach(aggregator::addBar);
+        // amounts 1000, 1001, ...
+        assertEquals(3, target.getBarCount());
+        assertNumEquals(3003, target.getBar(0).getAmount());
+        assertEquals(Duration.ofMinutes(3), target.getBar(0).getTimePeriod());
+        assertNumEquals(3012, target.getBar(1).getAmount());
+        assertNumEquals(3021, target.getBar(2).getAmount());
+    }
+
+    @Test
+    public void valueBarsWithoutAmounts() {
+        BarSeries target = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        StreamingValueBarAggregator aggregator = new StreamingValueBarAggregator(target, 3000);
+        minuteBars(10, false).forEach(aggregator::addBar);
+        // values (close price times volume) 1000, 1155, 1320, 1326, ...
+        assertEquals(3, target.getBarCount());
+        assertNumEquals(3475, target.getBar(0).getAmount());
+        assertEquals(Duration.ofMinutes(3), target.getBar(0).getTimePeriod());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveThreshold() {
+        new StreamingVolumeBarAggregator(bar -> {
+        }, 0);
+    }
+}
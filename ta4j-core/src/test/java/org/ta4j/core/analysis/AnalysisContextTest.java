@@ -0,0 +1,130 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.AnalysisCriterion;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseTradingRecord;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.Trade;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.criteria.ExpectedShortfallCriterion;
+import org.ta4j.core.analysis.criteria.LosingPositionsRatioCriterion;
+import org.ta4j.core.analysis.criteria.MaximumDrawdownCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfBarsCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfBreakEvenPositionsCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfLosingPositionsCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfPositionsCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfWinningPositionsCriterion;
+import org.ta4j.core.analysis.criteria.ReturnOverMaxDrawdownCriterion;
+import org.ta4j.core.analysis.criteria.ValueAtRiskCriterion;
+import org.ta4j.core.analysis.criteria.WinningPositionsRatioCriterion;
+import org.ta4j.core.analysis.criteria.pnl.AverageLossCriterion;
+import org.ta4j.core.analysis.criteria.pnl.AverageProfitCriterion;
+import org.ta4j.core.analysis.criteria.pnl.GrossLossCriterion;
+import org.ta4j.core.analysis.criteria.pnl.GrossProfitCriterion;
+import org.ta4j.core.analysis.criteria.pnl.GrossReturnCriterion;
+import org.ta4j.core.analysis.criteria.pnl.NetLossCriterion;
+import org.ta4j.core.analysis.criteria.pnl.NetProfitCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossPercentageCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossRatioCriterion;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+
+public class AnalysisContextTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private BarSeries series;
+
+    private TradingRecord tradingRecord;
+
+    public AnalysisContextTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        series = new MockBarSeries(numFunction, 100, 105, 110, 100, 95, 105, 90, 90, 80, 85, 95, 100);
+        tradingRecord = new BaseTradingRecord(Trade.buyAt(0, series), Trade.sellAt(2, series),
+                Trade.buyAt(3, series), Trade.sellAt(4, series), Trade.buyAt(6, series), Trade.sellAt(7, series),
+                Trade.buyAt(8, series), Trade.sellAt(11, series));
+    }
+
+    @Test
+    public void criteriaMatchDirectCalculation() {
+        List<AnalysisCriterion> criteria = Arrays.asList(new MaximumDrawdownCriterion(),
+                new ReturnOverMaxDrawdownCriterion(), new ValueAtRiskCriterion(0.9),
+                new ExpectedShortfallCriterion(0.9), new NumberOfPositionsCriterion(),
+                new NumberOfWinningPositionsCriterion(), new NumberOfLosingPositionsCriterion(),
+                new NumberOfBreakEvenPositionsCriterion(), new WinningPositionsRatioCriterion(),
+                new LosingPositionsRatioCriterion(), new NumberOfBarsCriterion(), new GrossReturnCriterion(),
+                new GrossProfitCriterion(), new GrossLossCriterion(), new NetProfitCriterion(),
+                new NetLossCriterion(), new ProfitLossCriterion(), new ProfitLossPercentageCriterion(),
+                new AverageProfitCriterion(), new AverageLossCriterion(), new ProfitLossRatioCriterion());
+
+        AnalysisContext context = new AnalysisContext(series, tradingRecord);
+        List<Num> values = context.calculate(criteria);
+        assertEquals(criteria.size(), values.size());
+        for (int i = 0; i < criteria.size(); i++) {
+            assertEquals(criteria.get(i).toString(), criteria.get(i).calculate(series, tradingRecord), values.get(i));
+        }
+    }
+
+    @Test
+    public void aggregates() {
+        AnalysisContext context = new AnalysisContext(series, tradingRecord);
+        assertEquals(4, context.getPositionCount());
+        assertEquals(2, context.getWinningPositionCount());
+        assertEquals(1, context.getLosingPositionCount());
+        assertEquals(1, context.getBreakEvenPositionCount());
+        assertNumEquals(10 + 20, context.getNetProfit());
+        assertNumEquals(-5, context.getNetLoss());
+        assertNumEquals(25, context.getProfitLoss());
+        assertNumEquals(10 - 5 + 25, context.getProfitLossPercentage());
+    }
+
+    @Test
+    public void curvesAreComputedOnce() {
+        AnalysisContext context = new AnalysisContext(series, tradingRecord);
+        assertSame(context.getCashFlow(), context.getCashFlow());
+        assertSame(context.getReturns(Returns.ReturnType.LOG), context.getReturns(Returns.ReturnType.LOG));
+
+        // sorting the returns for the VaR must not alter the shared returns
+        Num firstReturn = context.getReturns(Returns.ReturnType.LOG).getValue(1);
+        context.calculate(new ValueAtRiskCriterion(0.9));
+        context.calculate(new ExpectedShortfallCriterion(0.9));
+        assertEquals(firstReturn, context.getReturns(Returns.ReturnType.LOG).getValue(1));
+    }
+}
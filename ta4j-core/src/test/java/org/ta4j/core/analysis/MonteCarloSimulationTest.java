@@ -0,0 +1,166 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.analysis;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BarSeriesManager;
+import org.ta4j.core.BaseStrategy;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.MonteCarloSimulation.Distribution;
+import org.ta4j.core.analysis.MonteCarloSimulation.Method;
+import org.ta4j.core.analysis.MonteCarloSimulation.Result;
+import org.ta4j.core.analysis.criteria.MaximumDrawdownCriterion;
+import org.ta4j.core.analysis.criteria.NumberOfBarsCriterion;
+import org.ta4j.core.analysis.criteria.pnl.GrossReturnCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossCriterion;
+import org.ta4j.core.analysis.criteria.pnl.ProfitLossPercentageCriterion;
+import org.ta4j.core.cost.LinearBorrowingCostModel;
+import org.ta4j.core.cost.LinearTransactionCostModel;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.rules.FixedRule;
+
+public class MonteCarloSimulationTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private BarSeries series;
+
+    private TradingRecord record;
+
+    public MonteCarloSimulationTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        series = new MockBarSeries(numFunction, 100, 105, 110, 100, 95, 105, 90, 90, 80, 85, 95, 100, 98, 97, 102,
+                108, 104, 99, 101, 106);
+        record = run(new FixedRule(0, 3, 6, 8, 12, 15), new FixedRule(2, 4, 7, 11, 14, 18));
+    }
+
+    private TradingRecord run(FixedRule entryRule, FixedRule exitRule) {
+        return new BarSeriesManager(series, new LinearTransactionCostModel(0.005), new LinearBorrowingCostModel(0.001))
+                .run(new BaseStrategy(entryRule, exitRule));
+    }
+
+    @Test
+    public void singlePositionMatchesCriteria() {
+        TradingRecord single = run(new FixedRule(2), new FixedRule(9));
+        Result result = new MonteCarloSimulation(series, single).run(Method.SHUFFLE, 10, 42);
+        assertEquals(new MaximumDrawdownCriterion().calculate(series, single).doubleValue(),
+                result.getDistribution(new MaximumDrawdownCriterion()).getMax(), 1e-12);
+        assertEquals(new GrossReturnCriterion().calculate(series, single).doubleValue(),
+                result.getDistribution(new GrossReturnCriterion()).getMin(), 1e-12);
+        assertEquals(new CashFlow(series, single).getValue(series.getEndIndex()).doubleValue(),
+                result.getFinalEquity().getMean(), 1e-12);
+    }
+
+    @Test
+    public void shuffleKeepsAggregates() {
+        MonteCarloSimulation simulation = new MonteCarloSimulation(series, record);
+        assertEquals(6, simulation.getPositionCount());
+        Result result = simulation.run(Method.SHUFFLE, 1000, 7);
+        assertEquals(1000, result.getSimulationCount());
+        double finalEquity = new CashFlow(series, record).getValue(series.getEndIndex()).doubleValue();
+        assertEquals(finalEquity, result.getFinalEquity().getMin(), 1e-9);
+        assertEquals(finalEquity, result.getFinalEquity().getMax(), 1e-9);
+        Distribution profitLoss = result.getDistribution(new ProfitLossCriterion());
+        assertEquals(new ProfitLossCriterion().calculate(series, record).doubleValue(), profitLoss.getMean(), 1e-9);
+        assertEquals(0, profitLoss.getStandardDeviation(), 1e-9);
+        Distribution profitLossPercentage = result.getDistribution(new ProfitLossPercentageCriterion());
+        assertEquals(new ProfitLossPercentageCriterion().calculate(series, record).doubleValue(),
+                profitLossPercentage.getMean(), 1e-9);
+        // the order of the positions changes the drawdowns
+        Distribution drawdown = result.getDistribution(new MaximumDrawdownCriterion());
+        assertTrue(drawdown.getMin() < drawdown.getMax());
+        double actual = new MaximumDrawdownCriterion().calculate(series, record).doubleValue();
+        assertTrue(drawdown.getMin() <= actual + 1e-12 && actual <= drawdown.getMax() + 1e-12);
+    }
+
+    @Test
+    public void reproducibleWithSeed() {
+        MonteCarloSimulation simulation = new MonteCarloSimulation(series, record);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        ForkJoinPool sequentialPool = new ForkJoinPool(1);
+        try {
+            for (Method method : Method.values()) {
+                Result result = simulation.run(method, 2, 500, 123, pool);
+                Result sequential = simulation.run(method, 2, 500, 123, sequentialPool);
+                Result other = simulation.run(method, 2, 500, 124, pool);
+                double[] drawdowns = result.getDistribution(new MaximumDrawdownCriterion()).getValues();
+                assertArrayEquals(drawdowns,
+                        sequential.getDistribution(new MaximumDrawdownCriterion()).getValues(), 0);
+                assertArrayEquals(result.getFinalEquity().getValues(), sequential.getFinalEquity().getValues(), 0);
+                if (method != Method.SHUFFLE) {
+                    assertFalse(Arrays.equals(result.getFinalEquity().getValues(),
+                            other.getFinalEquity().getValues()));
+                }
+            }
+        } finally {
+            pool.shutdown();
+            sequentialPool.shutdown();
+        }
+    }
+
+    @Test
+    public void bootstrapDistribution() {
+        Result result = new MonteCarloSimulation(series, record).run(Method.BLOCK_BOOTSTRAP, 3, 2000, 1,
+                ForkJoinPool.commonPool());
+        Distribution grossReturn = result.getDistribution(new GrossReturnCriterion());
+        assertTrue(grossReturn.getMin() < grossReturn.getPercentile(0.05));
+        assertTrue(grossReturn.getPercentile(0.05) <= grossReturn.getPercentile(0.5));
+        assertTrue(grossReturn.getPercentile(0.5) <= grossReturn.getPercentile(0.95));
+        assertEquals(grossReturn.getMin(), grossReturn.getPercentile(0), 0);
+        assertEquals(grossReturn.getMax(), grossReturn.getPercentile(1), 0);
+
+        // the equity always starts at 1
+        assertEquals(1, result.getProbabilityOfRuin(0), 0);
+        assertEquals(0, result.getProbabilityOfRuin(1), 0);
+        double ruin = result.getProbabilityOfRuin(0.1);
+        assertTrue(ruin > 0 && ruin < 1);
+        assertTrue(result.getProbabilityOfRuin(0.05) >= ruin);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedCriterion() {
+        new MonteCarloSimulation(series, record).run(Method.BOOTSTRAP, 10, 1)
+                .getDistribution(new NumberOfBarsCriterion());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void blockSizeMustBePositive() {
+        new MonteCarloSimulation(series, record).run(Method.BLOCK_BOOTSTRAP, 0, 10, 1, ForkJoinPool.commonPool());
+    }
+}
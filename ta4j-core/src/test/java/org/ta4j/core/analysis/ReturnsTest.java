@@ -26,12 +26,15 @@ package org.ta4j.core.analysis;
 import static org.junit.Assert.assertEquals;
 import static org.ta4j.core.TestUtils.assertNumEquals;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 
 import org.junit.Test;
 import org.ta4j.core.BarSeries;
 import org.ta4j.core.BaseTradingRecord;
 import org.ta4j.core.Indicator;
+import org.ta4j.core.Position;
 import org.ta4j.core.Trade;
 import org.ta4j.core.TradingRecord;
 import org.ta4j.core.indicators.AbstractIndicatorTest;
@@ -85,6 +88,26 @@ public class ReturnsTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
         assertNumEquals(1 - (20d / 3), strategyReturns.getValue(6));
     }
 
+    @Test
+    public void forEachReturnStreamsTheValues() {
+        BarSeries sampleBarSeries = new MockBarSeries(numFunction, 2, 1, 3, 5, 6, 3, 20, 18, 19);
+        TradingRecord tradingRecord = new BaseTradingRecord(Trade.buyAt(0, sampleBarSeries),
+                Trade.sellAt(1, sampleBarSeries), Trade.buyAt(3, sampleBarSeries), Trade.sellAt(4, sampleBarSeries),
+                Trade.sellAt(5, sampleBarSeries), Trade.buyAt(6, sampleBarSeries), Trade.buyAt(7, sampleBarSeries));
+        for (Returns.ReturnType type : Returns.ReturnType.values()) {
+            Returns returns = new Returns(sampleBarSeries, tradingRecord, type);
+            List<Num> streamed = new ArrayList<>();
+            Returns.forEachReturn(sampleBarSeries, tradingRecord, type, streamed::add);
+            assertEquals(returns.getValues().subList(1, returns.getSize() + 1), streamed);
+
+            Position position = tradingRecord.getPositions().get(1);
+            returns = new Returns(sampleBarSeries, position, type);
+            streamed.clear();
+            Returns.forEachReturn(sampleBarSeries, position, type, streamed::add);
+            assertEquals(returns.getValues().subList(1, returns.getSize() + 1), streamed);
+        }
+    }
+
     @Test
     public void returnsWithGaps() {
         BarSeries sampleBarSeries = new MockBarSeries(numFunction, 1d, 2d, 3d, 4d, 5d, 6d, 7d, 8d, 9d, 10d, 11d, 12d);
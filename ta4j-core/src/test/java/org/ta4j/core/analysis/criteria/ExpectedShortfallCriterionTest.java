@@ -23,12 +23,14 @@
  */
 package org.ta4j.core.analysis.criteria;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.ta4j.core.TestUtils.assertNumEquals;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -96,6 +98,22 @@ public class ExpectedShortfallCriterionTest extends AbstractCriterionTest {
         assertNumEquals(numOf(Math.log(99d / 100)), varCriterion.calculate(series, position));
     }
 
+    @Test
+    public void approximateIsCloseToExact() {
+        Random random = new Random(42);
+        double[] prices = new double[2000];
+        prices[0] = 100;
+        for (int i = 1; i < prices.length; i++) {
+            prices[i] = prices[i - 1] * (1 + (random.nextDouble() - 0.5) * 0.04);
+        }
+        series = new MockBarSeries(numFunction, prices);
+        TradingRecord tradingRecord = new BaseTradingRecord(Trade.buyAt(0, series),
+                Trade.sellAt(prices.length - 1, series));
+        Num exact = getCriterion().calculate(series, tradingRecord);
+        Num approximate = new ExpectedShortfallCriterion(0.95, true).calculate(series, tradingRecord);
+        assertEquals(exact.doubleValue(), approximate.doubleValue(), 0.002);
+    }
+
     @Test
     public void betterThan() {
         AnalysisCriterion criterion = getCriterion();
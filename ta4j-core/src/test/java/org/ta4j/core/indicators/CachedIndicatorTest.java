@@ -193,4 +193,24 @@ public class CachedIndicatorTest extends AbstractIndicatorTest<Indicator<Num>, N
         assertNumEquals(2, closePrice.getValue(1));
     }
 
+
+    @Test
+    public void storedValuesAreReadInsteadOfCalculated() {
+        double[] data = new double[300];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i % 7;
+        }
+        BarSeries barSeries = new MockBarSeries(numFunction, data);
+        EMAIndicator ema = new EMAIndicator(new ClosePriceIndicator(barSeries), 10);
+        ema.setStoredValues(i -> numOf(1000 + i), 150);
+
+        assertNumEquals(1100, ema.getValue(100));
+        assertNumEquals(1149, ema.getValue(149));
+        // the first calculated value is based on the last stored one
+        Num multiplier = numOf(2.0 / 11);
+        assertEquals(numOf(150 % 7).minus(numOf(1149)).multipliedBy(multiplier).plus(numOf(1149)),
+                ema.getValue(150));
+        // no stack overflow: the stored values are not calculated
+        assertFalse(ema.getValue(298).isNaN());
+    }
 }
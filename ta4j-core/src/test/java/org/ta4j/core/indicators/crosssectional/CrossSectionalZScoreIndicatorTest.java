@@ -0,0 +1,90 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.crosssectional;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.ROCIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.universe.BarSeriesUniverse;
+
+public class CrossSectionalZScoreIndicatorTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private BarSeriesUniverse universe;
+
+    public CrossSectionalZScoreIndicatorTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        List<BarSeries> series = new ArrayList<>();
+        series.add(new MockBarSeries(numFunction, 10, 11, 12, 13));
+        series.add(new MockBarSeries(numFunction, 10, 12, 12, 12));
+        series.add(new MockBarSeries(numFunction, 10, 9, 12, 14));
+        series.add(new MockBarSeries(numFunction, 10, 11, 11, 16));
+        for (int i = 0; i < series.size(); i++) {
+            // align the time axes of the mock series
+            series.set(i, rename(series.get(i), "S" + i, series.get(0)));
+        }
+        universe = BarSeriesUniverse.of(series);
+    }
+
+    private BarSeries rename(BarSeries series, String name, BarSeries reference) {
+        BarSeries renamed = new BaseBarSeries(name, numFunction);
+        for (int i = 0; i <= series.getEndIndex(); i++) {
+            renamed.addBar(reference.getBar(i).getTimePeriod(), reference.getBar(i).getEndTime(),
+                    series.getBar(i).getClosePrice(), series.getBar(i).getClosePrice(),
+                    series.getBar(i).getClosePrice(), series.getBar(i).getClosePrice(), numOf(1));
+        }
+        return renamed;
+    }
+
+    @Test
+    public void zScoresOfClosePrices() {
+        CrossSectionalZScoreIndicator zScore = new CrossSectionalZScoreIndicator(universe, ClosePriceIndicator::new);
+        assertArrayEquals(new double[] { 0, 0, 0, 0 }, zScore.getValues(0), 0);
+        // 13, 12, 14, 16: mean 13.75, population standard deviation 1.4790
+        double[] values = zScore.getValues(3);
+        assertEquals(-0.5071, values[0], 1e-4);
+        assertEquals(-1.1832, values[1], 1e-4);
+        assertEquals(0.1690, values[2], 1e-4);
+        assertEquals(1.5213, values[3], 1e-4);
+        assertNumEquals(1.5213, zScore.getIndicator("S3").getValue(3));
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.indicators.statistics;
+
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.mocks.MockIndicator;
+import org.ta4j.core.num.NaN;
+import org.ta4j.core.num.Num;
+
+public class ValueAtRiskIndicatorTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private Indicator<Num> returns;
+
+    public ValueAtRiskIndicatorTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        BarSeries data = new MockBarSeries(numFunction, 1, 2, 3, 4, 5, 6, 7);
+        returns = new MockIndicator(data, Arrays.asList(NaN.NaN, numOf(-0.01), numOf(0.02), numOf(-0.03),
+                numOf(0.01), numOf(-0.02), numOf(0.03)));
+    }
+
+    @Test
+    public void valueAtRiskUsingBarCount4() {
+        ValueAtRiskIndicator var = new ValueAtRiskIndicator(returns, 4, 0.5);
+
+        assertNumEquals(0, var.getValue(0));
+        assertNumEquals(-0.01, var.getValue(1));
+        assertNumEquals(-0.01, var.getValue(2));
+        assertNumEquals(-0.01, var.getValue(3));
+        assertNumEquals(-0.01, var.getValue(4));
+        assertNumEquals(-0.02, var.getValue(5));
+        assertNumEquals(-0.02, var.getValue(6));
+    }
+
+    @Test
+    public void valueAtRiskIsNonPositive() {
+        ValueAtRiskIndicator var = new ValueAtRiskIndicator(returns, 1, 0.95);
+        assertNumEquals(-0.01, var.getValue(1));
+        assertNumEquals(0, var.getValue(2));
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.ta4j.core.Bar;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBar;
+import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.BaseStrategy;
+import org.ta4j.core.BaseTradingRecord;
+import org.ta4j.core.CompactBarSeries;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.Position;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.Trade;
+import org.ta4j.core.Trade.TradeType;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.cost.LinearBorrowingCostModel;
+import org.ta4j.core.cost.LinearTransactionCostModel;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.reports.PerformanceReport;
+import org.ta4j.core.reports.PositionStatsReport;
+import org.ta4j.core.reports.TradingStatement;
+import org.ta4j.core.rules.BooleanRule;
+
+public class BinaryEncoderTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private final ZonedDateTime start = ZonedDateTime.of(2021, 3, 1, 0, 0, 0, 0, ZoneId.of("Europe/Paris"));
+
+    public BinaryEncoderTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    private BarSeries series(int count) {
+        BarSeries series = new BaseBarSeriesBuilder().withName("prices").withNumTypeOf(numFunction).build();
+        for (int i = 0; i < count; i++) {
+            double close = 100 + ((i * 37) % 101) / 4.0;
+            // a gap every 100 bars
+            series.addBar(Duration.ofMinutes(1), start.plusMinutes(i + 1 + i / 100 * 60), numOf(close - 0.25),
+                    numOf(close + 1.5), numOf(close - 1.25), numOf(close), numOf(10 + i % 7),
+                    numOf(close * (10 + i % 7)));
+        }
+        return series;
+    }
+
+    private static byte[] encode(IOConsumer<BinaryEncoder> writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BinaryEncoder encoder = new BinaryEncoder(out)) {
+            writer.accept(encoder);
+        }
+        return out.toByteArray();
+    }
+
+    private static BinaryDecoder decoder(byte[] bytes) throws IOException {
+        return new BinaryDecoder(new ByteArrayInputStream(bytes));
+    }
+
+    private interface IOConsumer<T> {
+        void accept(T value) throws IOException;
+    }
+
+    private static void assertBarsEquals(BarSeries expected, BarSeries actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getBarCount(), actual.getBarCount());
+        for (int i = 0; i < expected.getBarCount(); i++) {
+            Bar expectedBar = expected.getBar(i);
+            Bar actualBar = actual.getBar(i);
+            assertEquals(expectedBar.getEndTime(), actualBar.getEndTime());
+            assertEquals(expectedBar.getTimePeriod(), actualBar.getTimePeriod());
+            assertEquals(expectedBar.getOpenPrice(), actualBar.getOpenPrice());
+            assertEquals(expectedBar.getHighPrice(), actualBar.getHighPrice());
+            assertEquals(expectedBar.getLowPrice(), actualBar.getLowPrice());
+            assertEquals(expectedBar.getClosePrice(), actualBar.getClosePrice());
+            assertEquals(expectedBar.getVolume(), actualBar.getVolume());
+            assertEquals(expectedBar.getAmount(), actualBar.getAmount());
+            assertEquals(expectedBar.getTrades(), actualBar.getTrades());
+        }
+    }
+
+    @Test
+    public void barSeries() throws IOException {
+        BarSeries series = series(1000);
+        byte[] bytes = encode(encoder -> encoder.writeBarSeries(series));
+        BarSeries decoded = decoder(bytes).readBarSeries();
+        assertEquals(series.numOf(0).getClass(), decoded.numOf(0).getClass());
+        assertBarsEquals(series, decoded);
+
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(series);
+        }
+        assertTrue(bytes.length * 10 < serialized.size());
+    }
+
+    @Test
+    public void unscaledBarSeries() throws IOException {
+        BarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        for (int i = 0; i < 10; i++) {
+            Num close = numOf(100).dividedBy(numOf(3 + i));
+            series.addBar(new BaseBar(Duration.ofDays(1), start.plusDays(i + 1), close, close, close, close,
+                    numOf(Math.PI), numOf(1e30), i));
+        }
+        assertBarsEquals(series, decoder(encode(encoder -> encoder.writeBarSeries(series))).readBarSeries());
+    }
+
+    @Test
+    public void compactBarSeries() throws IOException {
+        CompactBarSeries series = new CompactBarSeries("compact", Duration.ofMinutes(1), start.getZone(),
+                numFunction);
+        series(500).getBarData().forEach(series::addBar);
+        BarSeries decoded = decoder(encode(encoder -> encoder.writeBarSeries(series))).readBarSeries();
+        assertTrue(decoded instanceof CompactBarSeries);
+        assertBarsEquals(series, decoded);
+    }
+
+    @Test
+    public void emptyBarSeries() throws IOException {
+        BarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        BarSeries decoded = decoder(encode(encoder -> encoder.writeBarSeries(series))).readBarSeries();
+        assertTrue(decoded.isEmpty());
+        assertEquals(series.getName(), decoded.getName());
+    }
+
+    @Test
+    public void tradingRecord() throws IOException {
+        TradingRecord record = new BaseTradingRecord("record", TradeType.SELL, new LinearTransactionCostModel(0.01),
+                new LinearBorrowingCostModel(0.001));
+        record.operate(3, numOf(101.25), numOf(2));
+        record.operate(12, numOf(99.5), numOf(2));
+        record.operate(20, numOf(100).dividedBy(numOf(3)), numOf(0.5));
+
+        TradingRecord decoded = decoder(encode(encoder -> encoder.writeTradingRecord(record))).readTradingRecord();
+        assertEquals("record", decoded.getName());
+        assertEquals(TradeType.SELL, decoded.getStartingType());
+        assertEquals(1, decoded.getPositionCount());
+        Position position = decoded.getPositions().get(0);
+        assertTrue(position.getHoldingCostModel().equals(new LinearBorrowingCostModel(0.001)));
+        assertEquals(record.getPositions().get(0).getProfit(), position.getProfit());
+        assertEquals(record.getPositions().get(0).getHoldingCost(), position.getHoldingCost());
+
+        Trade entry = decoded.getCurrentPosition().getEntry();
+        Trade expectedEntry = record.getCurrentPosition().getEntry();
+        assertEquals(expectedEntry.getIndex(), entry.getIndex());
+        assertEquals(expectedEntry.getPricePerAsset(), entry.getPricePerAsset());
+        assertEquals(expectedEntry.getAmount(), entry.getAmount());
+        assertEquals(expectedEntry.getCost(), entry.getCost());
+    }
+
+    @Test
+    public void objectsOfAStream() throws IOException {
+        Strategy strategy = new BaseStrategy("strategy", BooleanRule.FALSE, BooleanRule.TRUE);
+        TradingStatement statement = new TradingStatement(strategy,
+                new PositionStatsReport(numOf(3), numOf(1), numOf(0)),
+                new PerformanceReport(numOf(12.5), numOf(0.125), numOf(15), numOf(-2.5)));
+        BarSeries series = series(10);
+        TradingRecord record = new BaseTradingRecord();
+        byte[] bytes = encode(encoder -> {
+            encoder.writeBarSeries(series);
+            encoder.writeTradingStatement(statement);
+            encoder.writeTradingRecord(record);
+        });
+
+        try (BinaryDecoder decoder = decoder(bytes)) {
+            assertBarsEquals(series, decoder.readBarSeries());
+            TradingStatement decoded = decoder.readTradingStatement(name -> strategy);
+            assertSame(strategy, decoded.getStrategy());
+            assertEquals(numOf(3), decoded.getPositionStatsReport().getProfitCount());
+            assertEquals(numOf(0), decoded.getPositionStatsReport().getBreakEvenCount());
+            assertEquals(numOf(0.125), decoded.getPerformanceReport().getTotalProfitLossPercentage());
+            assertEquals(numOf(-2.5), decoded.getPerformanceReport().getTotalLoss());
+            assertEquals(0, decoder.readTradingRecord().getPositionCount());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void readOtherObject() throws IOException {
+        BarSeries series = series(10);
+        decoder(encode(encoder -> encoder.writeBarSeries(series))).readTradingRecord();
+    }
+
+    @Test(expected = IOException.class)
+    public void readOtherData() throws IOException {
+        decoder(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.CompactBarSeries;
+import org.ta4j.core.io.CsvLayout.TimeFormat;
+import org.ta4j.core.num.DecimalNum;
+import org.ta4j.core.utils.TimeUtils;
+
+public class CsvBarReaderTest {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static BarColumns read(CsvBarReader reader, String csv) {
+        return reader.read(ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)), ForkJoinPool.commonPool());
+    }
+
+    @Test
+    public void readDefaultLayout() throws IOException {
+        String csv = "date,open,high,low,close,volume\n" + "2013-01-02,553.82,555.00,541.63,549.03,20018500\n"
+                + "2013-01-03,547.88,549.67,541.00,542.10,12605900\n";
+        CsvBarReader reader = new CsvBarReader(new CsvLayout().setZoneId(NEW_YORK));
+        BarColumns columns = reader.read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, columns.size());
+        assertEquals(TimeUtils.toEpochNanos(LocalDate.of(2013, 1, 2).atStartOfDay(NEW_YORK)),
+                columns.getEndEpochNanos(0));
+        assertEquals(553.82, columns.getOpenPrice(0), 0);
+        assertEquals(555.00, columns.getHighPrice(0), 0);
+        assertEquals(541.63, columns.getLowPrice(0), 0);
+        assertEquals(549.03, columns.getClosePrice(0), 0);
+        assertEquals(20018500, columns.getVolume(0), 0);
+        assertEquals(0, columns.getAmount(0), 0);
+        assertEquals(0, columns.getTrades(0));
+        assertEquals(542.10, columns.getClosePrice(1), 0);
+    }
+
+    @Test
+    public void parseNumbersLikeParseDouble() {
+        Random random = new Random(7);
+        String[] numbers = new String[5000];
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < numbers.length; i++) {
+            switch (i % 5) {
+            case 0:
+                numbers[i] = String.valueOf(random.nextDouble() * 1000);
+                break;
+            case 1:
+                numbers[i] = String.format(Locale.ROOT, "%.4f", random.nextDouble() * 100 - 50);
+                break;
+            case 2:
+                numbers[i] = String.valueOf(random.nextInt(1_000_000));
+                break;
+            case 3:
+                numbers[i] = random.nextInt(1000) + "e" + (random.nextInt(40) - 20);
+                break;
+            default:
+                numbers[i] = "0.000" + random.nextInt(10_000);
+            }
+            csv.append(i).append(',').append(numbers[i]).append('\n');
+        }
+        CsvBarReader reader = new CsvBarReader(new CsvLayout().setHeaderLines(0)
+                .setTimeColumn(0, TimeFormat.EPOCH_SECONDS)
+                .setPriceColumns(CsvLayout.ABSENT, CsvLayout.ABSENT, CsvLayout.ABSENT, 1)
+                .setVolumeColumn(CsvLayout.ABSENT));
+        BarColumns columns = read(reader, csv.toString());
+
+        assertEquals(numbers.length, columns.size());
+        for (int i = 0; i < numbers.length; i++) {
+            assertEquals(numbers[i], Double.parseDouble(numbers[i]), columns.getClosePrice(i), 0);
+            assertTrue(Double.isNaN(columns.getOpenPrice(i)));
+        }
+    }
+
+    @Test
+    public void readFileInParallelChunks() throws IOException {
+        Random random = new Random(3);
+        StringBuilder csv = new StringBuilder("time;open;high;low;close;volume;trades;amount\r\n");
+        int count = 10_000;
+        for (int i = 0; i < count; i++) {
+            csv.append(1_600_000_000_000L + i * 60_000L)
+                    .append(';')
+                    .append(random.nextInt(100))
+                    .append(".5;")
+                    .append(random.nextInt(100))
+                    .append(';')
+                    .append(random.nextInt(100))
+                    .append(";\"")
+                    .append(i)
+                    .append(".25\";")
+                    .append(random.nextInt(1000))
+                    .append(';')
+                    .append(i % 17)
+                    .append(';')
+                    .append(i * 2)
+                    .append("\r\n");
+        }
+        Path path = folder.newFile("bars.csv").toPath();
+        Files.write(path, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        CsvLayout layout = new CsvLayout().setDelimiter(';')
+                .setTimeColumn(0, TimeFormat.EPOCH_MILLIS)
+                .setBeginTimes(true)
+                .setTradesColumn(6)
+                .setAmountColumn(7)
+                .setTimePeriod(Duration.ofMinutes(1))
+                .setZoneId(ZoneId.of("UTC"));
+        BarColumns single = new CsvBarReader(layout).read(path, new ForkJoinPool(1));
+        BarColumns chunked = new CsvBarReader(layout).setChunkSize(1000).read(path);
+
+        assertEquals(count, single.size());
+        assertEquals(count, chunked.size());
+        for (int i = 0; i < count; i++) {
+            long endTime = (1_600_000_000_000L + i * 60_000L + 60_000L) * 1_000_000L;
+            assertEquals(endTime, chunked.getEndEpochNanos(i));
+            assertEquals(i + 0.25, chunked.getClosePrice(i), 0);
+            assertEquals(i % 17, chunked.getTrades(i));
+            assertEquals(i * 2, chunked.getAmount(i), 0);
+            assertEquals(single.getOpenPrice(i), chunked.getOpenPrice(i), 0);
+            assertEquals(single.getVolume(i), chunked.getVolume(i), 0);
+        }
+    }
+
+    @Test
+    public void reverseDescendingBars() {
+        String csv = "2021-01-04,0,0,0,3,0\n\n2021-01-03,0,0,0,2,0\n2021-01-02,0,0,0,1,0\n";
+        BarColumns columns = read(new CsvBarReader(new CsvLayout().setHeaderLines(0).setZoneId(NEW_YORK)), csv);
+        assertEquals(3, columns.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 1, columns.getClosePrice(i), 0);
+        }
+        assertTrue(columns.getEndEpochNanos(0) < columns.getEndEpochNanos(1));
+    }
+
+    @Test
+    public void parseIsoTimes() {
+        CsvBarReader reader = new CsvBarReader(new CsvLayout().setHeaderLines(0)
+                .setPriceColumns(CsvLayout.ABSENT, CsvLayout.ABSENT, CsvLayout.ABSENT, 1)
+                .setVolumeColumn(CsvLayout.ABSENT)
+                .setTimePeriod(Duration.ofMinutes(30))
+                .setZoneId(NEW_YORK));
+        // around the daylight saving time transitions
+        LocalDateTime time = LocalDateTime.of(2021, 3, 13, 22, 0);
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            csv.append(time.plusMinutes(30 * i)).append(",1\n");
+        }
+        BarColumns columns = read(reader, csv.toString());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(TimeUtils.toEpochNanos(time.plusMinutes(30 * i).atZone(NEW_YORK)),
+                    columns.getEndEpochNanos(i));
+        }
+
+        columns = read(reader, "2021-11-07 01:30:15.5Z,1\n2021-11-07T01:30:15.5+02:00,1\n2021-11-07T01:30,1\n");
+        assertEquals(TimeUtils.toEpochNanos(ZonedDateTime.of(2021, 11, 7, 1, 30, 15, 500_000_000, ZoneId.of("UTC"))),
+                columns.getEndEpochNanos(0));
+        assertEquals(TimeUtils.toEpochNanos(ZonedDateTime.of(2021, 11, 6, 23, 30, 15, 500_000_000, ZoneId.of("UTC"))),
+                columns.getEndEpochNanos(1));
+        assertEquals(TimeUtils.toEpochNanos(LocalDateTime.of(2021, 11, 7, 1, 30).atZone(NEW_YORK)),
+                columns.getEndEpochNanos(2));
+    }
+
+    @Test
+    public void toBarSeries() {
+        String csv = "date,open,high,low,close,volume\n2021-01-04,1,4,0.5,3,100\n2021-01-05,3,5,2,4,200\n";
+        BarColumns columns = read(new CsvBarReader(new CsvLayout().setZoneId(NEW_YORK)), csv);
+        CompactBarSeries series = columns.toBarSeries("test", DecimalNum::valueOf);
+
+        assertEquals(2, series.getBarCount());
+        assertEquals("test", series.getName());
+        assertEquals(Duration.ofDays(1), series.getBar(0).getTimePeriod());
+        assertEquals(LocalDate.of(2021, 1, 5).atStartOfDay(NEW_YORK), series.getBar(1).getEndTime());
+        assertEquals(DecimalNum.valueOf(4), series.getBar(1).getClosePrice());
+        assertEquals(DecimalNum.valueOf(200), series.getBar(1).getVolume());
+
+        BarSeries empty = read(new CsvBarReader(new CsvLayout()), "date,open,high,low,close,volume\n")
+                .toBarSeries("empty", DecimalNum::valueOf);
+        assertTrue(empty.isEmpty());
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void invalidNumber() {
+        read(new CsvBarReader(new CsvLayout().setHeaderLines(0)), "2021-01-04,1,4,x,3,100\n");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void invalidDate() {
+        read(new CsvBarReader(new CsvLayout().setHeaderLines(0)), "2021-02-30,1,4,0.5,3,100\n");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void missingColumns() {
+        read(new CsvBarReader(new CsvLayout().setHeaderLines(0)), "2021-01-04,1,4,0.5,3\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void columnUsedTwice() {
+        new CsvBarReader(new CsvLayout().setVolumeColumn(4));
+    }
+}
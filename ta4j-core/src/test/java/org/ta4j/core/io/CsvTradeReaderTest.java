@@ -0,0 +1,126 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeries;
+import org.ta4j.core.aggregator.StreamingDurationBarAggregator;
+import org.ta4j.core.io.CsvLayout.TimeFormat;
+import org.ta4j.core.num.DecimalNum;
+
+public class CsvTradeReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ReadableByteChannel channel(String csv) {
+        return Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void readTradesThroughSmallBuffer() throws IOException {
+        StringBuilder csv = new StringBuilder("unixtime,price,amount\r\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append(1_385_856_000L + i * 7).append(',').append(1000 + i % 10).append(".25,0.").append(i % 9 + 1);
+            csv.append("\r\n");
+        }
+        List<long[]> times = new ArrayList<>();
+        List<double[]> values = new ArrayList<>();
+        long count = new CsvTradeReader().setBufferSize(64).read(channel(csv.toString()), (time, price, volume) -> {
+            times.add(new long[] { time });
+            values.add(new double[] { price, volume });
+        });
+
+        assertEquals(1000, count);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals((1_385_856_000L + i * 7) * 1_000_000_000L, times.get(i)[0]);
+            assertEquals(1000 + i % 10 + 0.25, values.get(i)[0], 0);
+            assertEquals((i % 9 + 1) / 10d, values.get(i)[1], 0);
+        }
+    }
+
+    @Test
+    public void streamFileIntoBarSeries() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            csv.append("2021-03-01T09:").append(String.format("%02d:%02d", i / 60 % 60, i % 60)).append('Z');
+            csv.append(';').append(i % 100).append(';').append(10 + i % 5).append('\n');
+        }
+        // without final new line
+        csv.setLength(csv.length() - 1);
+        Path path = folder.newFile("trades.csv").toPath();
+        Files.write(path, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        BarSeries series = new BaseBarSeries("trades", DecimalNum::valueOf);
+        StreamingDurationBarAggregator aggregator = new StreamingDurationBarAggregator(series, Duration.ofMinutes(5),
+                ZoneOffset.UTC);
+        long count = new CsvTradeReader().setDelimiter(';')
+                .setHeaderLines(0)
+                .setColumns(0, TimeFormat.ISO, 2, 1)
+                .setBufferSize(256)
+                .read(path, aggregator);
+        aggregator.flush();
+
+        assertEquals(3000, count);
+        assertEquals(10, series.getBarCount());
+        assertEquals(300, series.getBar(0).getTrades());
+        assertEquals(DecimalNum.valueOf(14850), series.getBar(0).getVolume());
+        assertEquals(DecimalNum.valueOf(10), series.getBar(0).getOpenPrice());
+        assertEquals(DecimalNum.valueOf(10), series.getBar(0).getLowPrice());
+        assertEquals(DecimalNum.valueOf(14), series.getBar(0).getHighPrice());
+    }
+
+    @Test(expected = IOException.class)
+    public void lineLongerThanBuffer() throws IOException {
+        StringBuilder line = new StringBuilder("1,");
+        for (int i = 0; i < 100; i++) {
+            line.append('1');
+        }
+        new CsvTradeReader().setHeaderLines(0).setBufferSize(64).read(channel(line + ",1\n"), (time, price, volume) -> {
+        });
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void missingColumns() throws IOException {
+        new CsvTradeReader().read(channel("unixtime,price,amount\n1385856000,1000\n"), (time, price, volume) -> {
+        });
+    }
+}
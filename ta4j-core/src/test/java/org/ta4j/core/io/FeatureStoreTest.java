@@ -0,0 +1,169 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.num.DecimalNum;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+
+public class FeatureStoreTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private final ZonedDateTime start = ZonedDateTime.of(2021, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public FeatureStoreTest(Function<Number, Num> numFunction) {
+        // the values are stored as doubles
+        super(DoubleNum::valueOf);
+    }
+
+    private BarSeries series(int count, int changedIndex) {
+        BarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+        for (int i = 0; i < count; i++) {
+            double close = 100 + (i * 7) % 13 + (i == changedIndex ? 1 : 0);
+            series.addBar(start.plusDays(i + 1), close, close + 1, close - 1, close, 10);
+        }
+        return series;
+    }
+
+    private static void assertValuesEquals(Indicator<Num> expected, Indicator<Num> actual) {
+        for (int i = 0; i <= expected.getBarSeries().getEndIndex(); i++) {
+            assertEquals(expected.getValue(i), actual.getValue(i));
+        }
+    }
+
+    /**
+     * An EMA counting its calculations.
+     */
+    private static class CountingEMA extends CachedIndicator<Num> {
+
+        private final EMAIndicator ema;
+        private transient int calculationCount;
+
+        CountingEMA(BarSeries series, int barCount) {
+            super(series);
+            this.ema = new EMAIndicator(new ClosePriceIndicator(series), barCount);
+        }
+
+        @Override
+        protected Num calculate(int index) {
+            calculationCount++;
+            return ema.getValue(index);
+        }
+    }
+
+    @Test
+    public void storeAndLoadValues() {
+        Path directory = folder.getRoot().toPath();
+        BarSeries series = series(500, -1);
+        EMAIndicator ema = new EMAIndicator(new ClosePriceIndicator(series), 200);
+        FeatureStore store = new FeatureStore(directory);
+        assertSame(ema, store.attach(ema));
+        assertEquals(0, store.getLoadedCount());
+        assertEquals(499, store.getCalculatedCount());
+        assertValuesEquals(new EMAIndicator(new ClosePriceIndicator(series), 200), ema);
+
+        // another JVM run: same bars, new objects
+        BarSeries sameSeries = series(500, -1);
+        EMAIndicator sameEma = new EMAIndicator(new ClosePriceIndicator(sameSeries), 200);
+        FeatureStore sameStore = new FeatureStore(directory);
+        sameStore.attach(sameEma);
+        assertEquals(499, sameStore.getLoadedCount());
+        assertEquals(0, sameStore.getCalculatedCount());
+        assertValuesEquals(ema, sameEma);
+
+        // another definition
+        sameStore.attach(new EMAIndicator(new ClosePriceIndicator(sameSeries), 50));
+        assertEquals(499, sameStore.getCalculatedCount());
+    }
+
+    @Test
+    public void calculateOnlyTheAddedBars() {
+        FeatureStore store = new FeatureStore(folder.getRoot().toPath());
+        store.attach(new CountingEMA(series(300, -1), 20));
+
+        BarSeries series = series(350, -1);
+        CountingEMA ema = store.attach(new CountingEMA(series, 20));
+        assertEquals(299, store.getLoadedCount());
+        assertEquals(299 + 50, store.getCalculatedCount());
+        assertEquals(50, ema.calculationCount);
+
+        for (int i = 0; i < series.getBarCount(); i++) {
+            ema.getValue(i);
+        }
+        // the last bar is never stored
+        assertEquals(51, ema.calculationCount);
+        assertValuesEquals(new EMAIndicator(new ClosePriceIndicator(series), 20), ema);
+    }
+
+    @Test
+    public void changedBarsInvalidateStoredValues() {
+        FeatureStore store = new FeatureStore(folder.getRoot().toPath());
+        store.attach(new EMAIndicator(new ClosePriceIndicator(series(100, -1)), 10));
+
+        BarSeries series = series(100, 50);
+        EMAIndicator ema = store.attach(new EMAIndicator(new ClosePriceIndicator(series), 10));
+        assertEquals(0, store.getLoadedCount());
+        assertEquals(2 * 99, store.getCalculatedCount());
+        assertValuesEquals(new EMAIndicator(new ClosePriceIndicator(series), 10), ema);
+    }
+
+    @Test
+    public void clear() {
+        FeatureStore store = new FeatureStore(folder.getRoot().toPath());
+        store.attach(new EMAIndicator(new ClosePriceIndicator(series(100, -1)), 10));
+        assertEquals(1, folder.getRoot().listFiles().length);
+        store.clear();
+        File[] files = folder.getRoot().listFiles();
+        assertEquals(0, files.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decimalSeriesAreRefused() {
+        BarSeries series = new BaseBarSeriesBuilder().withNumTypeOf(DecimalNum::valueOf).build();
+        series.addBar(start.plusDays(1), 100, 101, 99, 100, 10);
+        series.addBar(start.plusDays(2), 101, 102, 100, 101, 10);
+        new FeatureStore(folder.getRoot().toPath()).attach(new ClosePriceIndicator(series));
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.CachedIndicator;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.KAMAIndicator;
+import org.ta4j.core.indicators.ParabolicSarIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.indicators.volume.OnBalanceVolumeIndicator;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.rules.JustOnceRule;
+
+public class IndicatorCheckpointTest extends AbstractIndicatorTest<Indicator<Num>, Num> {
+
+    private final ZonedDateTime start = ZonedDateTime.of(2021, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    public IndicatorCheckpointTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    private BarSeries emptySeries() {
+        return new BaseBarSeriesBuilder().withNumTypeOf(numFunction).build();
+    }
+
+    private void addBar(BarSeries series, int i) {
+        double close = 100 + 10 * Math.sin(i / 7.0) + (i * 7) % 13 / 4.0;
+        series.addBar(start.plusMinutes(i + 1), close - 0.5, close + 1, close - 1, close, 10 + i % 5);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Indicator<Num>[] indicators(BarSeries series) {
+        ClosePriceIndicator close = new ClosePriceIndicator(series);
+        return new Indicator[] { new EMAIndicator(close, 50), new KAMAIndicator(close),
+                new OnBalanceVolumeIndicator(series), new ParabolicSarIndicator(series),
+                new SMAIndicator(close, 20) };
+    }
+
+    /**
+     * Adds the bars from an index to another one (excluded), evaluating the
+     * indicators on each new bar as a live engine.
+     *
+     * @return the values of the indicators on each new bar
+     */
+    private double[][] run(BarSeries series, Indicator<Num>[] indicators, int from, int to) {
+        double[][] values = new double[to - from][indicators.length];
+        for (int i = from; i < to; i++) {
+            addBar(series, i);
+            for (int n = 0; n < indicators.length; n++) {
+                values[i - from][n] = indicators[n].getValue(series.getEndIndex()).doubleValue();
+            }
+        }
+        return values;
+    }
+
+    private static IndicatorCheckpoint copy(IndicatorCheckpoint checkpoint) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        checkpoint.write(out);
+        return IndicatorCheckpoint.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    public void restartFromCheckpoint() throws IOException {
+        BarSeries reference = emptySeries();
+        Indicator<Num>[] referenceIndicators = indicators(reference);
+        double[][] referenceValues = run(reference, referenceIndicators, 0, 2000);
+
+        BarSeries series = emptySeries();
+        Indicator<Num>[] indicators = indicators(series);
+        run(series, indicators, 0, 1500);
+        IndicatorCheckpoint checkpoint = copy(IndicatorCheckpoint.create(indicators, series));
+        assertEquals(1499, checkpoint.getIndex());
+        assertEquals(series.getLastBar().getEndTime(), checkpoint.getEndTime());
+
+        // restart with the recent bars only
+        BarSeries restartedSeries = emptySeries();
+        for (int i = 1000; i < 1500; i++) {
+            addBar(restartedSeries, i);
+        }
+        Indicator<Num>[] restartedIndicators = indicators(restartedSeries);
+        assertEquals(499, checkpoint.restore(restartedIndicators, restartedSeries));
+
+        double[][] restartedValues = run(restartedSeries, restartedIndicators, 1500, 2000);
+        for (int i = 1500; i < 2000; i++) {
+            for (int n = 0; n < indicators.length; n++) {
+                assertEquals(referenceValues[i][n], restartedValues[i - 1500][n], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void restartWithoutCheckpoint() {
+        BarSeries reference = emptySeries();
+        Indicator<Num>[] referenceIndicators = indicators(reference);
+        double[][] referenceValues = run(reference, referenceIndicators, 0, 1501);
+
+        BarSeries restartedSeries = emptySeries();
+        Indicator<Num>[] restartedIndicators = indicators(restartedSeries);
+        double[][] restartedValues = run(restartedSeries, restartedIndicators, 1450, 1501);
+        // the recursive state is lost
+        assertNotEquals(referenceValues[1500][0], restartedValues[50][0], 1e-9);
+    }
+
+    @Test
+    public void restoreDepth() {
+        BarSeries series = emptySeries();
+        EMAIndicator ema = new EMAIndicator(new ClosePriceIndicator(series), 10);
+        for (int i = 0; i < 300; i++) {
+            addBar(series, i);
+        }
+        IndicatorCheckpoint checkpoint = IndicatorCheckpoint.create(ema, series, 249, 5);
+
+        BarSeries restartedSeries = emptySeries();
+        for (int i = 200; i < 300; i++) {
+            addBar(restartedSeries, i);
+        }
+        EMAIndicator restartedEma = new EMAIndicator(new ClosePriceIndicator(restartedSeries), 10);
+        assertEquals(49, checkpoint.restore(restartedEma, restartedSeries));
+        for (int i = 45; i < 100; i++) {
+            assertEquals(ema.getValue(i + 200).doubleValue(), restartedEma.getValue(i).doubleValue(), 1e-9);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void restoreOtherDefinition() {
+        BarSeries series = emptySeries();
+        run(series, indicators(series), 0, 100);
+        IndicatorCheckpoint checkpoint = IndicatorCheckpoint.create(indicators(series), series);
+        checkpoint.restore(new ParabolicSarIndicator(series), series);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void restoreWithoutCheckpointBar() {
+        BarSeries series = emptySeries();
+        run(series, indicators(series), 0, 100);
+        IndicatorCheckpoint checkpoint = IndicatorCheckpoint.create(indicators(series), series);
+
+        BarSeries restartedSeries = emptySeries();
+        for (int i = 100; i < 200; i++) {
+            addBar(restartedSeries, i);
+        }
+        checkpoint.restore(indicators(restartedSeries), restartedSeries);
+    }
+
+    @Test
+    public void restoreRuleState() {
+        BarSeries series = emptySeries();
+        run(series, indicators(series), 0, 100);
+        JustOnceRule rule = new JustOnceRule();
+        assertTrue(rule.isSatisfied(99, null));
+        IndicatorCheckpoint checkpoint = IndicatorCheckpoint.create(rule, series);
+
+        JustOnceRule restartedRule = new JustOnceRule();
+        checkpoint.restore(restartedRule, series);
+        assertFalse(restartedRule.isSatisfied(100, null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void undeclaredState() {
+        BarSeries series = emptySeries();
+        run(series, indicators(series), 0, 100);
+        Indicator<Num> counter = new CachedIndicator<Num>(series) {
+
+            private int count;
+
+            @Override
+            protected Num calculate(int index) {
+                return numOf(++count);
+            }
+        };
+        IndicatorCheckpoint.create(counter, series);
+    }
+
+    @Test(expected = IOException.class)
+    public void readOtherData() throws IOException {
+        IndicatorCheckpoint.read(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }));
+    }
+}
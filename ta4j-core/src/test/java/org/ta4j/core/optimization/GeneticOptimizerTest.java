@@ -0,0 +1,230 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.optimization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.AnalysisCriterion;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BarSeriesManager;
+import org.ta4j.core.BaseStrategy;
+import org.ta4j.core.Rule;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.criteria.pnl.GrossReturnCriterion;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.NaN;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.optimization.GeneticOptimizer.Individual;
+import org.ta4j.core.optimization.GeneticOptimizer.Result;
+import org.ta4j.core.rules.CrossedDownIndicatorRule;
+import org.ta4j.core.rules.CrossedUpIndicatorRule;
+import org.ta4j.core.rules.StopLossRule;
+import org.ta4j.core.rules.TrailingStopLossRule;
+
+public class GeneticOptimizerTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private BarSeries series;
+
+    private final AnalysisCriterion criterion = new GrossReturnCriterion();
+
+    /**
+     * The gross return of the winning runs, NaN for the others
+     */
+    private final AnalysisCriterion nanForLosses = new GrossReturnCriterion() {
+        @Override
+        public Num calculate(BarSeries series, TradingRecord tradingRecord) {
+            Num value = super.calculate(series, tradingRecord);
+            return value.isGreaterThan(series.numOf(1)) ? value : NaN.NaN;
+        }
+    };
+
+    private final ParameterSpace space = new ParameterSpace().addInteger("short", 2, 10)
+            .addInteger("long", 12, 40)
+            .addChoice("exit", 3)
+            .addDecimal("stop", 0.5, 5);
+
+    /**
+     * SMA/EMA crossover, exiting on the cross down, or also on a stop loss, or on
+     * a trailing stop loss.
+     */
+    private final StrategyBuilder builder = (genome, indicators) -> {
+        int shortBarCount = genome.getInt("short");
+        int longBarCount = genome.getInt("long");
+        ClosePriceIndicator closePrice = indicators.get(() -> new ClosePriceIndicator(series), "close");
+        SMAIndicator sma = indicators.get(() -> new SMAIndicator(closePrice, shortBarCount), "sma", shortBarCount);
+        EMAIndicator ema = indicators.get(() -> new EMAIndicator(closePrice, longBarCount), "ema", longBarCount);
+        Rule exit = new CrossedDownIndicatorRule(sma, ema);
+        Num stop = series.numOf(genome.getDouble("stop"));
+        switch (genome.getInt("exit")) {
+        case 1:
+            exit = exit.or(new StopLossRule(closePrice, stop));
+            break;
+        case 2:
+            exit = exit.or(new TrailingStopLossRule(closePrice, stop));
+            break;
+        default:
+            break;
+        }
+        return new BaseStrategy(new CrossedUpIndicatorRule(sma, ema), exit);
+    };
+
+    public GeneticOptimizerTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        Random random = new Random(5);
+        double[] prices = new double[300];
+        double price = 100;
+        for (int i = 0; i < prices.length; i++) {
+            price = Math.max(1, price + random.nextGaussian());
+            prices[i] = Math.round(price * 100) / 100d;
+        }
+        series = new MockBarSeries(numFunction, prices);
+    }
+
+    private GeneticOptimizer optimizer() {
+        return new GeneticOptimizer(new BarSeriesManager(series), criterion, space, builder).setPopulationSize(20)
+                .setGenerationCount(6);
+    }
+
+    @Test
+    public void reproducibleFromSeed() {
+        ForkJoinPool sequentialPool = new ForkJoinPool(1);
+        try {
+            Result parallel = optimizer().optimize(42);
+            Result sequential = optimizer().optimize(42, sequentialPool);
+            assertEquals(parallel.getEvaluationCount(), sequential.getEvaluationCount());
+            assertEquals(parallel.getCacheHitCount(), sequential.getCacheHitCount());
+            for (int i = 0; i < parallel.getRanking().size(); i++) {
+                Individual expected = parallel.getRanking().get(i);
+                Individual actual = sequential.getRanking().get(i);
+                assertEquals(expected.getGenome(), actual.getGenome());
+                assertNumEquals(expected.getValue(), actual.getValue());
+            }
+        } finally {
+            sequentialPool.shutdown();
+        }
+    }
+
+    @Test
+    public void bestValueMatchesFullRun() {
+        Result result = optimizer().optimize(7);
+        assertEquals(6, result.getGenerationCount());
+        Num expected = criterion.calculate(series, new BarSeriesManager(series).run(result.getBestStrategy()));
+        assertNumEquals(expected, result.getBest().getValue());
+        for (Individual individual : result.getRanking()) {
+            assertFalse(criterion.betterThan(individual.getValue(), result.getBest().getValue()));
+        }
+    }
+
+    @Test
+    public void fitnessIsCachedByGenome() {
+        Result result = optimizer().optimize(11);
+        // every generation keeps its 2 elites, which are not run again
+        assertEquals(20 * 6, result.getEvaluationCount() + result.getCacheHitCount());
+        assertTrue(result.getCacheHitCount() >= 2 * 5);
+    }
+
+    @Test
+    public void geneticIsAtLeastAsGoodAsItsInitialPopulation() {
+        // the initial population is drawn like a random search of the same seed
+        Result random = optimizer().randomSearch(20, 13);
+        Result genetic = optimizer().optimize(13);
+        assertEquals(1, random.getGenerationCount());
+        assertTrue(random.getEvaluationCount() <= 20);
+        assertFalse(criterion.betterThan(random.getBest().getValue(), genetic.getBest().getValue()));
+    }
+
+    @Test
+    public void indicatorPoolSharesIndicators() {
+        IndicatorPool indicators = new IndicatorPool(series);
+        ClosePriceIndicator closePrice = indicators.get(() -> new ClosePriceIndicator(series), "close");
+        SMAIndicator sma = indicators.get(() -> new SMAIndicator(closePrice, 5), "sma", 5);
+        assertSame(closePrice, indicators.get(() -> new ClosePriceIndicator(series), "close"));
+        assertSame(sma, indicators.get(() -> new SMAIndicator(closePrice, 5), "sma", 5));
+        assertNotSame(sma, indicators.get(() -> new SMAIndicator(closePrice, 6), "sma", 6));
+        assertEquals(3, indicators.size());
+    }
+
+    @Test
+    public void genomeValuesAreClamped() {
+        Genome genome = space.genome(1, 12.6, 7, 0.75);
+        assertEquals(2, genome.getInt("short"));
+        assertEquals(13, genome.getInt("long"));
+        assertEquals(2, genome.getInt("exit"));
+        assertEquals(0.75, genome.getDouble("stop"), 0);
+        assertEquals(space.genome(2, 13, 2, 0.75), genome);
+        assertEquals(space.genome(2, 13, 2, 0.75).hashCode(), genome.hashCode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateParameter() {
+        new ParameterSpace().addInteger("a", 1, 2).addDecimal("a", 1, 2);
+    }
+
+    @Test
+    public void choiceMutationChangesAlternative() {
+        ParameterSpace.Parameter choice = new ParameterSpace().addChoice("c", 3).getParameters().get(0);
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 50; i++) {
+            double mutated = choice.mutate(1, random);
+            assertTrue(mutated == 0 || mutated == 2);
+        }
+    }
+
+    @Test
+    public void nanValuesAreRankedLast() {
+        Result result = new GeneticOptimizer(new BarSeriesManager(series), nanForLosses, space, builder)
+                .setPopulationSize(20)
+                .setGenerationCount(3)
+                .optimize(11);
+        List<Individual> ranking = result.getRanking();
+        assertFalse(result.getBest().getValue().isNaN());
+        assertTrue(ranking.get(ranking.size() - 1).getValue().isNaN());
+        for (int i = 1; i < ranking.size(); i++) {
+            Num previous = ranking.get(i - 1).getValue();
+            Num value = ranking.get(i).getValue();
+            assertTrue(value.isNaN() || !previous.isNaN() && previous.isGreaterThanOrEqual(value));
+        }
+    }
+}
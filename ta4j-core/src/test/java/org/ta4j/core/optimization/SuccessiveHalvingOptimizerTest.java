@@ -0,0 +1,216 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.optimization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.ta4j.core.TestUtils.assertNumEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.AnalysisCriterion;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BarSeriesManager;
+import org.ta4j.core.BaseStrategy;
+import org.ta4j.core.Strategy;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.analysis.criteria.pnl.GrossReturnCriterion;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.mocks.MockBarSeries;
+import org.ta4j.core.num.NaN;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.optimization.SuccessiveHalvingOptimizer.Evaluation;
+import org.ta4j.core.optimization.SuccessiveHalvingOptimizer.Result;
+import org.ta4j.core.rules.CrossedDownIndicatorRule;
+import org.ta4j.core.rules.CrossedUpIndicatorRule;
+
+public class SuccessiveHalvingOptimizerTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private BarSeries series;
+
+    private final AnalysisCriterion criterion = new GrossReturnCriterion();
+
+    /**
+     * The gross return of the winning runs, NaN for the others
+     */
+    private final AnalysisCriterion nanForLosses = new GrossReturnCriterion() {
+        @Override
+        public Num calculate(BarSeries series, TradingRecord tradingRecord) {
+            Num value = super.calculate(series, tradingRecord);
+            return value.isGreaterThan(series.numOf(1)) ? value : NaN.NaN;
+        }
+    };
+
+    public SuccessiveHalvingOptimizerTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        Random random = new Random(3);
+        double[] prices = new double[300];
+        double price = 100;
+        for (int i = 0; i < prices.length; i++) {
+            price = Math.max(1, price + random.nextGaussian());
+            prices[i] = Math.round(price * 100) / 100d;
+        }
+        series = new MockBarSeries(numFunction, prices);
+    }
+
+    private List<Strategy> candidates() {
+        List<Strategy> candidates = new ArrayList<>();
+        for (int shortBarCount = 2; shortBarCount <= 10; shortBarCount++) {
+            for (int longBarCount = 12; longBarCount <= 42; longBarCount += 5) {
+                ClosePriceIndicator closePrice = new ClosePriceIndicator(series);
+                SMAIndicator sma = new SMAIndicator(closePrice, shortBarCount);
+                EMAIndicator ema = new EMAIndicator(closePrice, longBarCount);
+                candidates.add(new BaseStrategy(new CrossedUpIndicatorRule(sma, ema),
+                        new CrossedDownIndicatorRule(sma, ema)));
+            }
+        }
+        return candidates;
+    }
+
+    private Num fullRun(Strategy strategy) {
+        return criterion.calculate(series, new BarSeriesManager(series).run(strategy));
+    }
+
+    @Test
+    public void singleRoundChoosesBest() {
+        List<Strategy> candidates = candidates();
+        Result result = new SuccessiveHalvingOptimizer(series, criterion).setMinimumBarCount(series.getBarCount())
+                .optimize(candidates);
+        assertEquals(1, result.getRoundCount());
+        assertEquals(candidates.size(), result.getRanking().size());
+        assertEquals((long) candidates.size() * series.getBarCount(), result.getTotalBarCount());
+        Strategy best = criterion.chooseBest(new BarSeriesManager(series), candidates);
+        assertNumEquals(fullRun(best), result.getRanking().get(0).getValue());
+    }
+
+    @Test
+    public void successiveHalving() {
+        List<Strategy> candidates = candidates();
+        Result result = new SuccessiveHalvingOptimizer(series, criterion).optimize(candidates);
+        // 11, 33, 99, 297 and 300 bars
+        assertEquals(5, result.getRoundCount());
+        // 63, 21, 7, 3 and 1 candidates
+        assertEquals(1, result.getRanking().size());
+        assertTrue(result.getTotalBarCount() < (long) candidates.size() * series.getBarCount() / 4);
+        Evaluation best = result.getRanking().get(0);
+        assertTrue(best.isComplete());
+        assertEquals(4, best.getRound());
+        assertSame(best.getStrategy(), result.getBestStrategy());
+        assertNumEquals(fullRun(best.getStrategy()), best.getValue());
+        assertEquals(series.getBarCount(), best.getBarCount());
+
+        // the dropped candidates were not run further
+        long droppedInFirstRound = result.getEvaluations().stream().filter(e -> e.getRound() == 0).count();
+        assertEquals(candidates.size() - 21, droppedInFirstRound);
+        result.getEvaluations().stream().filter(e -> e.getRound() == 0).forEach(e -> assertEquals(11, e.getBarCount()));
+    }
+
+    @Test
+    public void parallelSameAsSequential() {
+        List<Strategy> candidates = candidates();
+        Result sequential = new SuccessiveHalvingOptimizer(series, criterion).setReductionFactor(2)
+                .optimize(candidates);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Result parallel = new SuccessiveHalvingOptimizer(series, criterion).setReductionFactor(2)
+                    .optimize(candidates(), pool);
+            assertEquals(sequential.getRoundCount(), parallel.getRoundCount());
+            for (int i = 0; i < candidates.size(); i++) {
+                Evaluation expected = sequential.getEvaluations().get(i);
+                Evaluation actual = parallel.getEvaluations().get(i);
+                assertEquals(expected.getRound(), actual.getRound());
+                assertEquals(expected.getBarCount(), actual.getBarCount());
+                assertEquals(expected.getValue(), actual.getValue());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void constraintsAbortRuns() {
+        RunConstraint tooFewPositions = RunConstraint.minPositionCount(1000, 50);
+        Result result = new SuccessiveHalvingOptimizer(series, criterion).setMinimumBarCount(100)
+                .addConstraint(tooFewPositions).optimize(candidates());
+        assertTrue(result.getRanking().isEmpty());
+        assertNull(result.getBestStrategy());
+        for (Evaluation evaluation : result.getEvaluations()) {
+            assertSame(tooFewPositions, evaluation.getViolatedConstraint());
+            assertEquals(50, evaluation.getBarCount());
+            assertEquals(-1, evaluation.getRound());
+            assertNull(evaluation.getValue());
+        }
+
+        double maxDrawdown = 0.05;
+        result = new SuccessiveHalvingOptimizer(series, criterion).setMinimumBarCount(series.getBarCount())
+                .addConstraint(RunConstraint.maxDrawdown(maxDrawdown)).optimize(candidates());
+        assertTrue(result.getRanking().size() < result.getEvaluations().size());
+        for (Evaluation evaluation : result.getEvaluations()) {
+            if (evaluation.getViolatedConstraint() != null) {
+                assertTrue(evaluation.getTradingRecord().getMaxDrawdown().doubleValue() > maxDrawdown);
+                assertTrue(evaluation.getBarCount() < series.getBarCount());
+            } else {
+                assertNotNull(evaluation.getValue());
+                assertTrue(evaluation.getTradingRecord().getMaxDrawdown().doubleValue() <= maxDrawdown);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reductionFactorMustBeAtLeastTwo() {
+        new SuccessiveHalvingOptimizer(series, criterion).setReductionFactor(1);
+    }
+
+    @Test
+    public void nanValuesAreRankedLast() {
+        List<Strategy> candidates = candidates();
+        Result result = new SuccessiveHalvingOptimizer(series, nanForLosses).setMinimumBarCount(series.getBarCount())
+                .optimize(candidates);
+        List<Evaluation> ranking = result.getRanking();
+        assertFalse(ranking.get(0).getValue().isNaN());
+        assertTrue(ranking.get(ranking.size() - 1).getValue().isNaN());
+        for (int i = 1; i < ranking.size(); i++) {
+            Num previous = ranking.get(i - 1).getValue();
+            Num value = ranking.get(i).getValue();
+            assertTrue(value.isNaN() || !previous.isNaN() && previous.isGreaterThanOrEqual(value));
+        }
+    }
+}
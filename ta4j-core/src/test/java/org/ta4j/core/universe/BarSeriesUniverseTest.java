@@ -0,0 +1,170 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.universe;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeries;
+import org.ta4j.core.BaseStrategy;
+import org.ta4j.core.TradingRecord;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.rules.FixedRule;
+
+public class BarSeriesUniverseTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2021, 1, 4, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    private BarSeriesUniverse universe;
+
+    public BarSeriesUniverseTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        Map<String, BarSeries> series = new LinkedHashMap<>();
+        // days 0..4
+        series.put("AAA", buildSeries("AAA", 0, 1, 2, 3, 4));
+        // days 1, 3, 5
+        series.put("BBB", buildSeries("BBB", 1, 3, 5));
+        // days 0, 5
+        series.put("CCC", buildSeries("CCC", 0, 5));
+        universe = new BarSeriesUniverse(series);
+    }
+
+    private BarSeries buildSeries(String name, int... days) {
+        BarSeries series = new BaseBarSeries(name, numFunction);
+        for (int day : days) {
+            double price = name.charAt(0) * 100 + day;
+            series.addBar(Duration.ofDays(1), START.plusDays(day), price, price, price, price, day + 1);
+        }
+        return series;
+    }
+
+    @Test
+    public void sharedTimeAxis() {
+        assertEquals(Arrays.asList("AAA", "BBB", "CCC"), universe.getSymbols());
+        assertEquals(6, universe.getTimeCount());
+        for (int t = 0; t < 6; t++) {
+            assertEquals(START.plusDays(t), universe.getEndTime(t));
+        }
+        assertEquals(3, universe.getGlobalIndex(START.plusDays(3)));
+        assertEquals(BarSeriesUniverse.NO_INDEX, universe.getGlobalIndex(START.plusHours(3)));
+    }
+
+    @Test
+    public void indexMapping() {
+        int bbb = universe.getSymbolIndex("BBB");
+        assertEquals(BarSeriesUniverse.NO_INDEX, universe.getLocalIndex(bbb, 0));
+        assertEquals(0, universe.getLocalIndex(bbb, 1));
+        assertEquals(BarSeriesUniverse.NO_INDEX, universe.getLocalIndex(bbb, 2));
+        assertEquals(1, universe.getLocalIndex("BBB", 3));
+        assertEquals(2, universe.getLocalIndex(bbb, 5));
+        assertEquals(5, universe.getGlobalIndex(bbb, 2));
+        assertEquals(5, universe.getGlobalIndex(universe.getSymbolIndex("CCC"), 1));
+        assertEquals(BarSeriesUniverse.NO_INDEX, universe.getGlobalIndex(bbb, 3));
+        for (int s = 0; s < universe.getSymbolCount(); s++) {
+            BarSeries series = universe.getSeries().get(s);
+            for (int i = series.getBeginIndex(); i <= series.getEndIndex(); i++) {
+                assertEquals(i, universe.getLocalIndex(s, universe.getGlobalIndex(s, i)));
+            }
+        }
+    }
+
+    @Test
+    public void columnarCrossSections() {
+        assertArrayEquals(new double[] { 6500, Double.NaN, 6700 }, universe.getClosePrices(0), 0);
+        assertArrayEquals(new double[] { 6503, 6603, Double.NaN }, universe.getClosePrices(3), 0);
+        assertArrayEquals(new double[] { Double.NaN, 6, 6 }, universe.getVolumes(5), 0);
+        assertEquals(6605, universe.getClosePrice(1, 5), 0);
+    }
+
+    @Test
+    public void parallelEvaluation() {
+        List<ClosePriceIndicator> closePrices = universe.map(ClosePriceIndicator::new);
+        assertArrayEquals(universe.getClosePrices(1), universe.getValues(closePrices, 1), 0);
+
+        List<Integer> barCounts = universe.map(BarSeries::getBarCount);
+        assertEquals(Arrays.asList(5, 3, 2), barCounts);
+
+        List<TradingRecord> records = universe
+                .run(series -> new BaseStrategy(new FixedRule(0), new FixedRule(series.getEndIndex())));
+        for (TradingRecord record : records) {
+            assertEquals(1, record.getPositionCount());
+        }
+        assertTrue(records.get(1).getPositions().get(0).getExit().getIndex() == 2);
+    }
+
+    @Test
+    public void universeOfRemovedBars() {
+        BarSeries series = buildSeries("DDD", 0, 1, 2, 3, 4, 5);
+        series.setMaximumBarCount(3);
+        BarSeriesUniverse limited = BarSeriesUniverse.of(Arrays.asList(series));
+        assertEquals(3, limited.getTimeCount());
+        assertEquals(START.plusDays(3), limited.getEndTime(0));
+        assertEquals(3, limited.getLocalIndex(0, 0));
+        assertEquals(0, limited.getGlobalIndex(0, 3));
+    }
+
+    @Test
+    public void barsAppendedToABoundedSeriesAreIgnored() {
+        BarSeries series = buildSeries("DDD", 0, 1, 2, 3, 4, 5);
+        series.setMaximumBarCount(3);
+        BarSeriesUniverse limited = BarSeriesUniverse.of(Arrays.asList(series));
+        for (int day = 6; day < 10; day++) {
+            double price = 6800 + day;
+            series.addBar(Duration.ofDays(1), START.plusDays(day), price, price, price, price, day + 1);
+        }
+        assertEquals(3, limited.getTimeCount());
+        assertEquals(START.plusDays(3), limited.getEndTime(0));
+        assertEquals(3, limited.getLocalIndex(0, 0));
+        assertEquals(0, limited.getGlobalIndex(0, 3));
+        assertEquals(2, limited.getGlobalIndex(0, 5));
+        assertEquals(BarSeriesUniverse.NO_INDEX, limited.getGlobalIndex(0, 6));
+        assertArrayEquals(new double[] { 6803 }, limited.getClosePrices(0), 0);
+        assertArrayEquals(new double[] { 6805 }, limited.getClosePrices(2), 0);
+        assertArrayEquals(new double[] { 6 }, limited.getVolumes(2), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownSymbol() {
+        universe.getSeries("ZZZ");
+    }
+}
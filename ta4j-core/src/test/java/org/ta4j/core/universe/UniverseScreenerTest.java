@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.universe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeries;
+import org.ta4j.core.BaseStrategy;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.num.Num;
+import org.ta4j.core.rules.BooleanRule;
+import org.ta4j.core.rules.OverIndicatorRule;
+
+public class UniverseScreenerTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2021, 1, 4, 0, 0, 0, 0, ZoneId.of("UTC"));
+
+    private List<BarSeries> series;
+
+    public UniverseScreenerTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Before
+    public void setUp() {
+        series = new ArrayList<>();
+        // rising, falling, rising
+        series.add(buildSeries("AAA", 1, 2, 3, 4, 5));
+        series.add(buildSeries("BBB", 5, 4, 3, 2, 1));
+        series.add(buildSeries("CCC", 2, 2, 3, 3, 4));
+    }
+
+    private BarSeries buildSeries(String name, double... prices) {
+        BarSeries s = new BaseBarSeries(name, numFunction);
+        for (double price : prices) {
+            addBar(s, price);
+        }
+        return s;
+    }
+
+    private static void addBar(BarSeries s, double price) {
+        s.addBar(Duration.ofDays(1), START.plusDays(s.getBarCount()), price, price, price, price, 1);
+    }
+
+    private static OverIndicatorRule aboveAverage(BarSeries s) {
+        ClosePriceIndicator closePrice = new ClosePriceIndicator(s);
+        return new OverIndicatorRule(closePrice, new SMAIndicator(closePrice, 3));
+    }
+
+    @Test
+    public void scan() {
+        try (UniverseScreener screener = new UniverseScreener(series, UniverseScreenerTest::aboveAverage, 2)) {
+            UniverseScreener.Scan scan = screener.scan();
+            assertEquals(3, scan.getResults().size());
+            assertEquals(2, scan.getMatchCount());
+            List<String> matches = scan.matches().map(r -> r.getSeries().getName()).collect(Collectors.toList());
+            assertEquals("AAA", matches.get(0));
+            assertEquals("CCC", matches.get(1));
+            assertEquals(4, scan.getResults().get(1).getIndex());
+            assertFalse(scan.getResults().get(1).isSatisfied());
+            assertTrue(scan.getWallNanos() > 0);
+            assertTrue(scan.getTotalNanos() >= scan.getMaxNanos());
+            assertEquals(scan.getMaxNanos(), scan.getSlowest().getNanos());
+        }
+    }
+
+    @Test
+    public void rulesArePersistentBetweenScans() {
+        AtomicInteger builds = new AtomicInteger();
+        try (UniverseScreener screener = new UniverseScreener(series, s -> {
+            builds.incrementAndGet();
+            return aboveAverage(s);
+        }, 2)) {
+            screener.warmUp();
+            assertEquals(3, builds.get());
+
+            // the falling series bounces
+            addBar(series.get(1), 10);
+            UniverseScreener.Scan scan = screener.scan();
+            assertEquals(3, builds.get());
+            assertEquals(5, scan.getResults().get(1).getIndex());
+            assertTrue(scan.getResults().get(1).isSatisfied());
+            assertEquals(3, scan.getMatchCount());
+
+            screener.reset();
+            screener.scan();
+            assertEquals(6, builds.get());
+        }
+    }
+
+    @Test
+    public void strategyScreener() {
+        try (UniverseScreener screener = UniverseScreener.ofStrategy(series,
+                s -> new BaseStrategy(aboveAverage(s), BooleanRule.FALSE, 5), 2)) {
+            // unstable at the last index
+            assertEquals(0, screener.scan().getMatchCount());
+            series.forEach(s -> addBar(s, 100));
+            assertEquals(3, screener.scan().getMatchCount());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class P2QuantileEstimatorTest {
+
+    @Test
+    public void exactUpToFiveValues() {
+        P2QuantileEstimator median = new P2QuantileEstimator(0.5);
+        assertTrue(Double.isNaN(median.getQuantile()));
+        median.add(3);
+        median.add(1);
+        median.add(2);
+        assertEquals(2, median.getQuantile(), 0);
+        assertEquals(3, median.getCount());
+
+        P2QuantileEstimator five = new P2QuantileEstimator(0.2);
+        for (double value : new double[] { 5, 3, 1, 4, 2 }) {
+            five.add(value);
+        }
+        assertEquals(1, five.getQuantile(), 0);
+
+        P2QuantileEstimator tail = new P2QuantileEstimator(0.05);
+        tail.add(4);
+        tail.add(-2);
+        assertEquals(-2, tail.getQuantile(), 0);
+    }
+
+    @Test
+    public void estimateQuantilesOfLongStreams() {
+        Random random = new Random(1);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian();
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double probability : new double[] { 0.01, 0.05, 0.5, 0.95 }) {
+            P2QuantileEstimator estimator = new P2QuantileEstimator(probability);
+            for (double value : values) {
+                estimator.add(value);
+            }
+            double exact = sorted[(int) Math.ceil(values.length * probability) - 1];
+            assertEquals(exact, estimator.getQuantile(), 0.02);
+            assertEquals(values.length, estimator.getCount());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidProbability() {
+        new P2QuantileEstimator(1.5);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.indicators.AbstractIndicatorTest;
+import org.ta4j.core.num.Num;
+
+public class QuantileUtilsTest extends AbstractIndicatorTest<BarSeries, Num> {
+
+    public QuantileUtilsTest(Function<Number, Num> numFunction) {
+        super(numFunction);
+    }
+
+    @Test
+    public void selectDoubles() {
+        Random random = new Random(7);
+        for (int size : new int[] { 1, 2, 15, 16, 17, 100, 1001 }) {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                // many duplicates
+                values[i] = random.nextInt(size / 2 + 1);
+            }
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            for (int k = 0; k < size; k += Math.max(1, size / 7)) {
+                double[] copy = values.clone();
+                assertEquals(sorted[k], QuantileUtils.select(copy, 0, size, k), 0);
+                for (int i = 0; i < k; i++) {
+                    assertEquals(true, copy[i] <= copy[k]);
+                }
+                for (int i = k + 1; i < size; i++) {
+                    assertEquals(true, copy[i] >= copy[k]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void selectNums() {
+        Random random = new Random(11);
+        Num[] values = new Num[500];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = numOf(random.nextGaussian());
+        }
+        Num[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertEquals(sorted[42], QuantileUtils.select(values.clone(), 0, values.length, 42));
+        assertEquals(sorted[499], QuantileUtils.select(values.clone(), 0, values.length, 499));
+        // sub range
+        Num[] range = Arrays.copyOfRange(values, 100, 200);
+        Arrays.sort(range);
+        assertEquals(range[10], QuantileUtils.select(values.clone(), 100, 200, 110));
+    }
+
+    @Test
+    public void lowestValues() {
+        Random random = new Random(3);
+        List<Num> values = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            values.add(numOf(random.nextInt(1000) - 500));
+        }
+        List<Num> copy = new ArrayList<>(values);
+        Num[] sorted = values.toArray(new Num[0]);
+        Arrays.sort(sorted);
+
+        assertArrayEquals(Arrays.copyOf(sorted, 15), QuantileUtils.lowestValues(values, 15));
+        assertArrayEquals(sorted, QuantileUtils.lowestValues(values, 300));
+        assertEquals(0, QuantileUtils.lowestValues(values, 0).length);
+        // the values are not modified
+        assertEquals(copy, values);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lowestValuesWithInvalidCount() {
+        QuantileUtils.lowestValues(Arrays.asList(numOf(1), numOf(2)), 3);
+    }
+}
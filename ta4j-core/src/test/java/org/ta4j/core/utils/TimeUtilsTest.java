@@ -0,0 +1,59 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ta4j.core.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.junit.Test;
+
+public class TimeUtilsTest {
+
+    @Test
+    public void roundTrip() {
+        ZoneId newYork = ZoneId.of("America/New_York");
+        ZonedDateTime[] times = { ZonedDateTime.of(2021, 3, 1, 9, 30, 15, 123_456_789, newYork),
+                ZonedDateTime.of(1969, 12, 31, 23, 59, 59, 500_000_000, ZoneOffset.UTC),
+                ZonedDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC) };
+        for (ZonedDateTime time : times) {
+            long epochNanos = TimeUtils.toEpochNanos(time);
+            assertEquals(time.toInstant().toEpochMilli(), Math.floorDiv(epochNanos, 1_000_000L));
+            assertEquals(time, TimeUtils.ofEpochNanos(epochNanos, time.getZone()));
+        }
+        assertEquals(-500_000_000L, TimeUtils.toEpochNanos(times[1]));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void outOfRange() {
+        TimeUtils.toEpochNanos(ZonedDateTime.of(2300, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullTime() {
+        TimeUtils.toEpochNanos(null);
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package ta4jexamples.barSeries;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.num.DecimalNum;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+
+/**
+ * Compares the memory footprint of bar series using {@link org.ta4j.core.BaseBar
+ * base bars} with bar series using {@link org.ta4j.core.CompactBar compact
+ * bars}.
+ */
+public class CompareBarFootprint {
+
+    private static final int NUMBARS = 200_000;
+
+    private static final Duration TIME_PERIOD = Duration.ofMinutes(1);
+
+    public static void main(String[] args) {
+        long baseDouble = measure("BaseBar    / DoubleNum ", false, DoubleNum::valueOf);
+        long compactDouble = measure("CompactBar / DoubleNum ", true, DoubleNum::valueOf);
+        long baseDecimal = measure("BaseBar    / DecimalNum", false, DecimalNum::valueOf);
+        long compactDecimal = measure("CompactBar / DecimalNum", true, DecimalNum::valueOf);
+        System.out.printf("DoubleNum ratio:  %.1f\n", (double) baseDouble / Math.max(1, compactDouble));
+        System.out.printf("DecimalNum ratio: %.1f\n", (double) baseDecimal / Math.max(1, compactDecimal));
+    }
+
+    /**
+     * Builds a bar series and prints the heap it retains.
+     *
+     * @param name        the name of the measure
+     * @param compact     true to build a series of compact bars
+     * @param numFunction the num type of the series
+     * @return the retained heap in bytes
+     */
+    private static long measure(String name, boolean compact, Function<Number, Num> numFunction) {
+        long before = usedMemory();
+        BarSeries series = buildSeries(compact, numFunction);
+        long after = usedMemory();
+        long bytes = after - before;
+        System.out.printf("[%s] %s bars: %s bytes/bar\n", name, series.getBarCount(), bytes / series.getBarCount());
+        return bytes;
+    }
+
+    private static BarSeries buildSeries(boolean compact, Function<Number, Num> numFunction) {
+        BaseBarSeriesBuilder builder = new BaseBarSeriesBuilder().withNumTypeOf(numFunction);
+        if (compact) {
+            builder.withCompactBars(TIME_PERIOD, ZoneId.of("UTC"));
+        }
+        BarSeries series = builder.build();
+        Random random = new Random(42);
+        ZonedDateTime time = ZonedDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneId.of("UTC"));
+        double price = 100;
+        for (int i = 0; i < NUMBARS; i++) {
+            double open = price;
+            price = Math.max(1, price + random.nextGaussian());
+            series.addBar(TIME_PERIOD, time.plusMinutes(i), open, Math.max(open, price) + 0.25,
+                    Math.min(open, price) - 0.25, price, random.nextInt(1000));
+        }
+        return series;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014-2017 Marc de Verdelhan, 2017-2021 Ta4j Organization & respective
+ * authors (see AUTHORS)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package ta4jexamples.loaders;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeries;
+import org.ta4j.core.io.BarColumns;
+import org.ta4j.core.io.CsvBarReader;
+import org.ta4j.core.io.CsvLayout;
+import org.ta4j.core.num.DoubleNum;
+
+import com.opencsv.CSVReader;
+
+/**
+ * Measures the throughput (in rows/sec) of the loading of a large CSV file of
+ * bars: with opencsv as in {@link CsvBarsLoader}, and with the
+ * {@link CsvBarReader} of the core module, on one thread and in parallel.
+ *
+ * The number of rows of the generated file can be given as first argument.
+ */
+public class CsvIngestionBenchmark {
+
+    private static final int DEFAULT_ROWS = 1_000_000;
+
+    private static final int RUNS = 3;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    public static void main(String[] args) throws Exception {
+        int rows = args != null && args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        Path path = Files.createTempFile("ta4j-bars", ".csv");
+        try {
+            writeFile(path, rows);
+            System.out.printf("%s rows, %s MB%n", rows, Files.size(path) / (1 << 20));
+
+            CsvBarReader reader = new CsvBarReader(new CsvLayout().setZoneId(ZoneId.of("UTC")));
+            ForkJoinPool singleThread = new ForkJoinPool(1);
+            measure("opencsv + BaseBarSeries      ", rows, () -> loadWithOpenCsv(path).getBarCount());
+            measure("CsvBarReader (1 thread)      ", rows, () -> reader.read(path, singleThread).size());
+            measure("CsvBarReader (parallel)      ", rows, () -> reader.read(path).size());
+            measure("CsvBarReader + CompactSeries ", rows,
+                    () -> reader.read(path).toBarSeries("bars", DoubleNum::valueOf).getBarCount());
+            singleThread.shutdown();
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Runs a load (a warm-up, then several runs) and prints its best throughput.
+     *
+     * @param name  the name of the load
+     * @param rows  the number of rows of the file
+     * @param load  the load, returning the number of loaded bars
+     */
+    private static void measure(String name, int rows, Callable<Integer> load) throws Exception {
+        checkCount(rows, load.call());
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            checkCount(rows, load.call());
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        System.out.printf(Locale.ROOT, "[%s] %,.0f rows/sec%n", name, rows * 1e9 / bestNanos);
+    }
+
+    private static void checkCount(int rows, int count) {
+        if (count != rows) {
+            throw new IllegalStateException("Loaded " + count + " bars instead of " + rows);
+        }
+    }
+
+    private static BarSeries loadWithOpenCsv(Path path) throws IOException {
+        BarSeries series = new BaseBarSeries("bars", DoubleNum::valueOf);
+        try (Reader fileReader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+                CSVReader csvReader = new CSVReader(fileReader, ',', '"', 1)) {
+            String[] line;
+            while ((line = csvReader.readNext()) != null) {
+                ZonedDateTime date = LocalDate.parse(line[0], DATE_FORMAT).atStartOfDay(ZoneId.of("UTC"));
+                series.addBar(date, Double.parseDouble(line[1]), Double.parseDouble(line[2]),
+                        Double.parseDouble(line[3]), Double.parseDouble(line[4]), Double.parseDouble(line[5]));
+            }
+        }
+        return series;
+    }
+
+    private static void writeFile(Path path, int rows) throws IOException {
+        Random random = new Random(42);
+        LocalDate date = LocalDate.of(1000, 1, 1);
+        double price = 100;
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("date,open,high,low,close,volume\n");
+            for (int i = 0; i < rows; i++) {
+                double open = price;
+                price = Math.max(1, price + random.nextGaussian());
+                writer.write(String.format(Locale.ROOT, "%s,%.2f,%.2f,%.2f,%.2f,%d\n", date.plusDays(i), open,
+                        Math.max(open, price) + 0.25, Math.min(open, price) - 0.25, price, random.nextInt(1_000_000)));
+            }
+        }
+    }
+}
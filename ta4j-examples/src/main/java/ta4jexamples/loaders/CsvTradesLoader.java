@@ -25,26 +25,26 @@ package ta4jexamples.loaders;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.Charset;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.time.Duration;
-import java.time.Instant;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.ta4j.core.Bar;
 import org.ta4j.core.BarSeries;
-import org.ta4j.core.BaseBar;
 import org.ta4j.core.BaseBarSeries;
-
-import com.opencsv.CSVReader;
+import org.ta4j.core.aggregator.StreamingDurationBarAggregator;
+import org.ta4j.core.aggregator.TradeConsumer;
+import org.ta4j.core.io.CsvTradeReader;
 
 /**
  * This class builds a Ta4j bar series from a CSV file containing trades.
+ *
+ * The trades are read into primitive arrays, then pushed in ascending time
+ * order (the Bitstamp file has the most recent trades first) into 5-minute
+ * bars.
  */
 public class CsvTradesLoader {
 
@@ -52,99 +52,62 @@ public class CsvTradesLoader {
      * @return the bar series from Bitstamp (bitcoin exchange) trades
      */
     public static BarSeries loadBitstampSeries() {
-
-        // Reading all lines of the CSV file
+        BarSeries series = new BaseBarSeries();
+        StreamingDurationBarAggregator aggregator = new StreamingDurationBarAggregator(series,
+                Duration.ofSeconds(300), ZoneId.systemDefault());
         InputStream stream = CsvTradesLoader.class.getClassLoader()
                 .getResourceAsStream("bitstamp_trades_from_20131125_usd.csv");
-        CSVReader csvReader = null;
-        List<String[]> lines = null;
-        try {
-            csvReader = new CSVReader(new InputStreamReader(stream, Charset.forName("UTF-8")), ',');
-            lines = csvReader.readAll();
-            lines.remove(0); // Removing header line
+        TradeBuffer trades = new TradeBuffer();
+        try (ReadableByteChannel channel = Channels.newChannel(stream)) {
+            new CsvTradeReader().read(channel, trades);
+            trades.replay(aggregator);
+            aggregator.flush();
         } catch (IOException ioe) {
             Logger.getLogger(CsvTradesLoader.class.getName()).log(Level.SEVERE, "Unable to load trades from CSV", ioe);
-        } finally {
-            if (csvReader != null) {
-                try {
-                    csvReader.close();
-                } catch (IOException ioe) {
-                    ioe.printStackTrace();
-                }
-            }
-        }
-
-        BarSeries series = new BaseBarSeries();
-        if ((lines != null) && !lines.isEmpty()) {
-
-            // Getting the first and last trades timestamps
-            ZonedDateTime beginTime = ZonedDateTime
-                    .ofInstant(Instant.ofEpochMilli(Long.parseLong(lines.get(0)[0]) * 1000), ZoneId.systemDefault());
-            ZonedDateTime endTime = ZonedDateTime.ofInstant(
-                    Instant.ofEpochMilli(Long.parseLong(lines.get(lines.size() - 1)[0]) * 1000),
-                    ZoneId.systemDefault());
-            if (beginTime.isAfter(endTime)) {
-                Instant beginInstant = beginTime.toInstant();
-                Instant endInstant = endTime.toInstant();
-                beginTime = ZonedDateTime.ofInstant(endInstant, ZoneId.systemDefault());
-                endTime = ZonedDateTime.ofInstant(beginInstant, ZoneId.systemDefault());
-                // Since the CSV file has the most recent trades at the top of the file, we'll
-                // reverse the list to feed
-                // the List<Bar> correctly.
-                Collections.reverse(lines);
-            }
-            // build the list of populated bars
-            buildSeries(series, beginTime, endTime, 300, lines);
+        } catch (IllegalArgumentException iae) {
+            // e.g. an invalid line, or trades neither in ascending nor in descending order
+            Logger.getLogger(CsvTradesLoader.class.getName()).log(Level.SEVERE, "Unable to build bars from CSV trades",
+                    iae);
         }
-
         return series;
     }
 
     /**
-     * Builds a list of populated bars from csv data.
-     *
-     * @param beginTime the begin time of the whole period
-     * @param endTime   the end time of the whole period
-     * @param duration  the bar duration (in seconds)
-     * @param lines     the csv data returned by CSVReader.readAll()
+     * Buffer of trades in primitive arrays.
      */
-    @SuppressWarnings("deprecation")
-    private static void buildSeries(BarSeries series, ZonedDateTime beginTime, ZonedDateTime endTime, int duration,
-            List<String[]> lines) {
+    private static class TradeBuffer implements TradeConsumer {
+
+        private long[] times = new long[1024];
+        private double[] prices = new double[1024];
+        private double[] volumes = new double[1024];
+        private int size;
 
-        Duration barDuration = Duration.ofSeconds(duration);
-        ZonedDateTime barEndTime = beginTime;
-        // line number of trade data
-        int i = 0;
-        do {
-            // build a bar
-            barEndTime = barEndTime.plus(barDuration);
-            Bar bar = new BaseBar(barDuration, barEndTime, series.function());
-            do {
-                // get a trade
-                String[] tradeLine = lines.get(i);
-                ZonedDateTime tradeTimeStamp = ZonedDateTime
-                        .ofInstant(Instant.ofEpochMilli(Long.parseLong(tradeLine[0]) * 1000), ZoneId.systemDefault());
-                // if the trade happened during the bar
-                if (bar.inPeriod(tradeTimeStamp)) {
-                    // add the trade to the bar
-                    double tradePrice = Double.parseDouble(tradeLine[1]);
-                    double tradeVolume = Double.parseDouble(tradeLine[2]);
-                    bar.addTrade(tradeVolume, tradePrice, series.function());
-                } else {
-                    // the trade happened after the end of the bar
-                    // go to the next bar but stay with the same trade (don't increment i)
-                    // this break will drop us after the inner "while", skipping the increment
-                    break;
-                }
-                i++;
-            } while (i < lines.size());
-            // if the bar has any trades add it to the bars list
-            // this is where the break drops to
-            if (bar.getTrades() > 0) {
-                series.addBar(bar);
+        @Override
+        public void addTrade(long epochNanos, double price, double volume) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                prices = Arrays.copyOf(prices, size * 2);
+                volumes = Arrays.copyOf(volumes, size * 2);
             }
-        } while (barEndTime.isBefore(endTime));
+            times[size] = epochNanos;
+            prices[size] = price;
+            volumes[size] = volume;
+            size++;
+        }
+
+        /**
+         * Pushes the trades in ascending time order, reversing them if the first
+         * one is after the last one.
+         *
+         * @param consumer the consumer of the trades
+         */
+        void replay(TradeConsumer consumer) {
+            boolean descending = size > 0 && times[0] > times[size - 1];
+            for (int i = 0; i < size; i++) {
+                int k = descending ? size - 1 - i : i;
+                consumer.addTrade(times[k], prices[k], volumes[k]);
+            }
+        }
     }
 
     public static void main(String[] args) {